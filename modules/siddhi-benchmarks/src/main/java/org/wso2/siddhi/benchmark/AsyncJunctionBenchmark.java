@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+/**
+ * Benchmark of publishing event batches into an {@code @async} stream consumed by a filter query. The score is
+ * reported per published batch.
+ */
+public class AsyncJunctionBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"1", "64"})
+    private int batchSize;
+
+    private InputHandler stockStreamHandler;
+    private Event[] batch;
+
+    @Override
+    protected String getSiddhiApp() {
+        return "@async(buffer.size='4096') " +
+                STOCK_STREAM_DEFINITION +
+                "from StockStream[price > 50] " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+    }
+
+    @Override
+    protected void prepare(SiddhiAppRuntime siddhiAppRuntime) {
+        stockStreamHandler = siddhiAppRuntime.getInputHandler(STOCK_STREAM_ID);
+        batch = new Event[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = new Event(System.currentTimeMillis(), nextStockEvent());
+        }
+    }
+
+    @Benchmark
+    public long publishBatch() throws InterruptedException {
+        stockStreamHandler.send(batch);
+        return getOutputCount();
+    }
+}
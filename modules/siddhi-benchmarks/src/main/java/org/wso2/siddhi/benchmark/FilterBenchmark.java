@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmark of a stateless filter query, with the filter selectivity, the number of events sent per batch and the
+ * way the condition is evaluated as parameters.
+ */
+public class FilterBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"10", "50", "90"})
+    private int selectivity;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    @Param({"interpreted", "compiled", "vectorized"})
+    private String evaluation;
+
+    @Override
+    protected String getSiddhiApp() {
+        String appAnnotation;
+        switch (evaluation) {
+            case "compiled":
+                appAnnotation = "@app:compile ";
+                break;
+            case "vectorized":
+                appAnnotation = "@app:vectorize ";
+                break;
+            default:
+                appAnnotation = "";
+        }
+        return appAnnotation + STOCK_STREAM_DEFINITION +
+                "from StockStream[price < " + selectivity + " and volume >= 0] " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+    }
+
+    @Benchmark
+    public long filter() throws InterruptedException {
+        return batchSize == 1 ? sendStockEvent() : sendStockEvents(batchSize);
+    }
+}
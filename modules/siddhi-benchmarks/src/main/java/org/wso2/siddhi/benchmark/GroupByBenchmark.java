@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmark of a group by query running several aggregators, with the number of groups as a parameter.
+ */
+public class GroupByBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"10", "10000"})
+    private int groups;
+
+    @Override
+    protected int getSymbolCount() {
+        return groups;
+    }
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                "from StockStream " +
+                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice, max(price) as maxPrice, " +
+                "       min(price) as minPrice, count() as eventCount, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into OutputStream;";
+    }
+
+    @Benchmark
+    public long groupBy() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+/**
+ * Benchmark of a window to window equi-join, alternating events between the two joined streams.
+ */
+public class JoinBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"100", "10000"})
+    private int windowLength;
+
+    private InputHandler twitterStreamHandler;
+    private Object[][] twitterEvents;
+    private int twitterIndex = 0;
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                "define stream TwitterStream (symbol string, tweet string, count long); " +
+                "from StockStream#window.length(" + windowLength + ") as s " +
+                "join TwitterStream#window.length(" + windowLength + ") as t " +
+                "on s.symbol == t.symbol " +
+                "select s.symbol, s.price, t.count " +
+                "insert into OutputStream;";
+    }
+
+    @Override
+    protected int getSymbolCount() {
+        return windowLength;
+    }
+
+    @Override
+    protected void prepare(SiddhiAppRuntime siddhiAppRuntime) {
+        twitterStreamHandler = siddhiAppRuntime.getInputHandler("TwitterStream");
+        twitterEvents = new Object[getSymbolCount()][];
+        for (int i = 0; i < twitterEvents.length; i++) {
+            twitterEvents[i] = new Object[]{symbol(i), "tweet", (long) i};
+        }
+    }
+
+    @Benchmark
+    public long join() throws InterruptedException {
+        twitterStreamHandler.send(twitterEvents[twitterIndex]);
+        twitterIndex = (twitterIndex + 1) % twitterEvents.length;
+        return sendStockEvent();
+    }
+}
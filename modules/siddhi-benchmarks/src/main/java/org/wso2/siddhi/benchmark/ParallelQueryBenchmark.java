@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+/**
+ * Benchmark of a filter and projection query executed with {@code @parallel}, where zero workers runs the query on
+ * the publishing thread. The score is reported per published batch of 256 events.
+ */
+public class ParallelQueryBenchmark extends SiddhiAppBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"0", "2", "4"})
+    private int workers;
+
+    private InputHandler stockStreamHandler;
+    private Event[] batch;
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                (workers > 0 ? "@parallel(workers='" + workers + "') " : "") +
+                "from StockStream[price > 10 and volume > 100] " +
+                "select symbol, price * volume as value, maximum(price, volume / 10.0) as peak, " +
+                "ifThenElse(price > 50, 'high', 'low') as band, convert(volume, 'string') as volumeText " +
+                "insert into OutputStream;";
+    }
+
+    @Override
+    protected void prepare(SiddhiAppRuntime siddhiAppRuntime) {
+        stockStreamHandler = siddhiAppRuntime.getInputHandler(STOCK_STREAM_ID);
+        batch = new Event[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch[i] = new Event(System.currentTimeMillis(), nextStockEvent());
+        }
+    }
+
+    @Benchmark
+    public long parallelQuery() throws InterruptedException {
+        stockStreamHandler.send(batch);
+        return getOutputCount();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmark of a value partitioned query, with the number of partition keys and the number of partition workers as
+ * parameters, where zero workers processes the partitions on the publishing thread. All keys are created during
+ * warm up, hence the measurement covers routing to existing partition instances.
+ */
+public class PartitionBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"10", "10000"})
+    private int partitions;
+
+    @Param({"0", "4"})
+    private int workers;
+
+    @Override
+    protected int getSymbolCount() {
+        return partitions;
+    }
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                (workers > 0 ? "@parallel(workers='" + workers + "') " : "") +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   from StockStream[price > 20] " +
+                "   select symbol, sum(price) as totalPrice " +
+                "   insert into OutputStream; " +
+                "end;";
+    }
+
+    @Benchmark
+    public long partition() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmark of a pattern query, every high priced event followed by a low priced event of any symbol. Each low
+ * priced event completes all pending partial matches, keeping the pattern state bounded.
+ */
+public class PatternBenchmark extends SiddhiAppBenchmark {
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                "from every e1=StockStream[price > 90] -> e2=StockStream[price < 10 and volume > e1.volume] " +
+                "select e1.symbol as symbol, e1.price as highPrice, e2.price as lowPrice " +
+                "insert into OutputStream;";
+    }
+
+    @Benchmark
+    public long pattern() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
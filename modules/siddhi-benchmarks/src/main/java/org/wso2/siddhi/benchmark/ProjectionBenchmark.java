@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmark of a stateless projection query with arithmetic, function and constant attributes.
+ */
+public class ProjectionBenchmark extends SiddhiAppBenchmark {
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                "from StockStream " +
+                "select symbol, price * volume as value, price + 10.0 as adjustedPrice, " +
+                "       ifThenElse(price > 50.0, 'HIGH', 'LOW') as level, 'NYSE' as exchange " +
+                "insert into OutputStream;";
+    }
+
+    @Benchmark
+    public long projection() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base JMH state for benchmarks that push events through a single {@link SiddhiAppRuntime}. Sub classes provide the
+ * Siddhi app and the stream to observe, each benchmark invocation sends one pre-generated event to
+ * {@link #STOCK_STREAM_ID} and events arriving at the observed stream are counted so that the work done by the
+ * engine can not be eliminated by the JIT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class SiddhiAppBenchmark {
+
+    protected static final String STOCK_STREAM_ID = "StockStream";
+    protected static final String OUTPUT_STREAM_ID = "OutputStream";
+    protected static final String STOCK_STREAM_DEFINITION = "" +
+            "define stream StockStream (symbol string, price double, volume long); ";
+
+    private static final int EVENT_POOL_SIZE = 1 << 16;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler stockStreamHandler;
+    private Object[][] stockEvents;
+    private int eventIndex = 0;
+    private long outputCount = 0;
+
+    /**
+     * @return the Siddhi app under test, it should consume {@link #STOCK_STREAM_ID}.
+     */
+    protected abstract String getSiddhiApp();
+
+    /**
+     * @return the stream whose output events are counted.
+     */
+    protected String getOutputStreamId() {
+        return OUTPUT_STREAM_ID;
+    }
+
+    /**
+     * @return number of distinct symbols used in the generated stock events.
+     */
+    protected int getSymbolCount() {
+        return 100;
+    }
+
+    /**
+     * Hook to prepare additional state, such as table contents, once the app runtime is started.
+     *
+     * @param siddhiAppRuntime started runtime of the app under test
+     * @throws InterruptedException if sending events to the runtime is interrupted
+     */
+    protected void prepare(SiddhiAppRuntime siddhiAppRuntime) throws InterruptedException {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(getSiddhiApp());
+        siddhiAppRuntime.addCallback(getOutputStreamId(), new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                outputCount += events.length;
+            }
+        });
+        stockStreamHandler = siddhiAppRuntime.getInputHandler(STOCK_STREAM_ID);
+        stockEvents = generateStockEvents(EVENT_POOL_SIZE, getSymbolCount());
+        siddhiAppRuntime.start();
+        prepare(siddhiAppRuntime);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    /**
+     * Send the next pre-generated event to {@link #STOCK_STREAM_ID}.
+     *
+     * @return running count of output events, to be returned from the benchmark method
+     * @throws InterruptedException if the send is interrupted
+     */
+    protected long sendStockEvent() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+        return outputCount;
+    }
+
+    /**
+     * Send the next pre-generated events to {@link #STOCK_STREAM_ID} as a single batch.
+     *
+     * @param batchSize number of events in the batch
+     * @return running count of output events, to be returned from the benchmark method
+     * @throws InterruptedException if the send is interrupted
+     */
+    protected long sendStockEvents(int batchSize) throws InterruptedException {
+        Event[] events = new Event[batchSize];
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < batchSize; i++) {
+            events[i] = new Event(timestamp, nextStockEvent());
+        }
+        stockStreamHandler.send(events);
+        return outputCount;
+    }
+
+    protected Object[] nextStockEvent() {
+        Object[] event = stockEvents[eventIndex];
+        eventIndex = (eventIndex + 1) & (EVENT_POOL_SIZE - 1);
+        return event;
+    }
+
+    protected long getOutputCount() {
+        return outputCount;
+    }
+
+    protected InputHandler getInputHandler(String streamId) {
+        return siddhiAppRuntime.getInputHandler(streamId);
+    }
+
+    /**
+     * Generate stock events of the form (symbol, price, volume), where symbols are cycled through
+     * {@code symbolCount} distinct values and prices are uniformly distributed in [0, 100).
+     *
+     * @param count       number of events to generate
+     * @param symbolCount number of distinct symbols
+     * @return generated event data
+     */
+    protected static Object[][] generateStockEvents(int count, int symbolCount) {
+        Random random = new Random(count);
+        Object[][] events = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            events[i] = new Object[]{symbol(i % symbolCount), random.nextDouble() * 100,
+                    (long) random.nextInt(1000)};
+        }
+        return events;
+    }
+
+    protected static String symbol(int index) {
+        return "SYM" + index;
+    }
+}
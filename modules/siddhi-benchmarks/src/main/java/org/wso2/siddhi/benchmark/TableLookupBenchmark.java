@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+/**
+ * Benchmark of stream to in-memory table join lookups, with the table indexing as a parameter.
+ */
+public class TableLookupBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"none", "primaryKey", "index"})
+    private String indexing;
+
+    @Param({"10000"})
+    private int rows;
+
+    @Override
+    protected int getSymbolCount() {
+        return rows;
+    }
+
+    @Override
+    protected String getSiddhiApp() {
+        String tableAnnotation;
+        switch (indexing) {
+            case "primaryKey":
+                tableAnnotation = "@PrimaryKey('symbol') ";
+                break;
+            case "index":
+                tableAnnotation = "@Index('symbol') ";
+                break;
+            default:
+                tableAnnotation = "";
+        }
+        return STOCK_STREAM_DEFINITION +
+                "define stream UpdateStream (symbol string, price double, volume long); " +
+                tableAnnotation +
+                "define table StockTable (symbol string, price double, volume long); " +
+                "from UpdateStream " +
+                "insert into StockTable; " +
+                "from StockStream join StockTable " +
+                "on StockStream.symbol == StockTable.symbol " +
+                "select StockStream.symbol, StockTable.price, StockStream.volume " +
+                "insert into OutputStream;";
+    }
+
+    @Override
+    protected void prepare(SiddhiAppRuntime siddhiAppRuntime) throws InterruptedException {
+        InputHandler updateStreamHandler = siddhiAppRuntime.getInputHandler("UpdateStream");
+        for (Object[] row : generateStockEvents(rows, rows)) {
+            updateStreamHandler.send(row);
+        }
+    }
+
+    @Benchmark
+    public long lookup() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmark of sliding and batch, length and time windows feeding an aggregation.
+ */
+public class WindowBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"length(1000)", "lengthBatch(1000)", "time(1 sec)", "timeBatch(1 sec)"})
+    private String window;
+
+    @Override
+    protected String getSiddhiApp() {
+        return STOCK_STREAM_DEFINITION +
+                "from StockStream#window." + window + " " +
+                "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "insert all events into OutputStream;";
+    }
+
+    @Benchmark
+    public long window() throws InterruptedException {
+        return sendStockEvent();
+    }
+}
@@ -37,6 +37,7 @@ import org.wso2.siddhi.core.query.output.callback.OutputCallback;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.input.InputJournal;
 import org.wso2.siddhi.core.stream.input.InputManager;
 import org.wso2.siddhi.core.stream.input.source.Source;
 import org.wso2.siddhi.core.stream.input.source.SourceHandlerManager;
@@ -54,6 +55,7 @@ import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.StoreQueryParser;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
+import org.wso2.siddhi.core.util.snapshot.CapturedSnapshot;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
@@ -429,6 +431,9 @@ public class SiddhiAppRuntime {
             }
         }
         inputManager.disconnect();
+        if (siddhiAppContext.getInputJournal() != null) {
+            siddhiAppContext.getInputJournal().close();
+        }
 
         Thread thread = new Thread(new Runnable() {
             @Override
@@ -446,8 +451,10 @@ public class SiddhiAppRuntime {
                 } catch (InterruptedException e) {
 
                 }
+                siddhiAppContext.getTimerWheel().stop();
                 siddhiAppContext.getScheduledExecutorService().shutdownNow();
                 siddhiAppContext.getExecutorService().shutdownNow();
+                siddhiAppContext.getSnapshotPool().shutdownNow();
 
             }
         }, "Siddhi-SiddhiApp-" + siddhiAppContext.getName() + "-Shutdown-Cleaner");
@@ -491,12 +498,18 @@ public class SiddhiAppRuntime {
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
-            // take snapshots of execution units
-            byte[] snapshots = siddhiAppContext.getSnapshotService().snapshot();
-            // start the snapshot persisting task asynchronously
+            // capture snapshots of execution units
+            CapturedSnapshot snapshots = siddhiAppContext.getSnapshotService().captureSnapshot();
+            // start the snapshot serializing and persisting task asynchronously
             AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshots,
                     siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName());
             String revision = asyncSnapshotPersistor.getRevision();
+            InputJournal inputJournal = siddhiAppContext.getInputJournal();
+            if (inputJournal != null) {
+                // the journaled events preceding the revision are no longer replayed once it is persisted
+                long journalSequence = inputJournal.getCapturedSequence();
+                asyncSnapshotPersistor.setPersistedCallback(() -> inputJournal.revisionPersisted(journalSequence));
+            }
             Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
             return new PersistenceReference(future, revision);
         } finally {
@@ -505,6 +518,25 @@ public class SiddhiAppRuntime {
         }
     }
 
+    /**
+     * Persist the state changed since the previous incremental persistence, or the whole state when a new chain of
+     * incremental revisions is started.
+     *
+     * @return reference to the persistence, with the revision to restore the persisted state
+     */
+    public PersistenceReference persistIncremental() {
+        try {
+            // first, pause all the event sources
+            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            // take the snapshot and start persisting it asynchronously
+            return siddhiAppContext.getPersistenceService().persistIncremental(
+                    siddhiAppContext.getExecutorService());
+        } finally {
+            // at the end, resume the event sources
+            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+        }
+    }
+
     public byte[] snapshot() {
         try {
             // first, pause all the event sources
@@ -548,6 +580,11 @@ public class SiddhiAppRuntime {
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // start the restoring process
             revision = siddhiAppContext.getPersistenceService().restoreLastRevision();
+            InputJournal inputJournal = siddhiAppContext.getInputJournal();
+            if (inputJournal != null) {
+                // replay the events accepted after the restored revision is taken
+                inputJournal.replay(inputManager, revision != null);
+            }
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
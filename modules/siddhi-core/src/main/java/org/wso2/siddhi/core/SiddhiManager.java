@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.parser.SiddhiAppParser;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
@@ -109,6 +110,49 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the codec used to encode the snapshots of the Siddhi apps of the Siddhi Manager instance.
+     * {@link org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec} is used by default, while
+     * {@link org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec} encodes the snapshots with Java serialization.
+     *
+     * @param snapshotCodec Snapshot Codec implementation to be used.
+     */
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.siddhiContext.setSnapshotCodec(snapshotCodec);
+    }
+
+    /**
+     * Method to set the number of threads of each Siddhi app created afterwards by the Siddhi Manager instance, that
+     * capture, serialize and restore the states of the app in parallel. Defaults to the number of processors.
+     *
+     * @param snapshotParallelism number of snapshot threads of each Siddhi app, should be positive
+     */
+    public void setSnapshotParallelism(int snapshotParallelism) {
+        this.siddhiContext.setSnapshotParallelism(snapshotParallelism);
+    }
+
+    /**
+     * Method to set the tick of the timer wheels of the Siddhi apps created afterwards by the Siddhi Manager instance,
+     * in milliseconds. System time based timers run up to a tick after their time, while finer ticks advance the
+     * wheels more often. Defaults to {@link org.wso2.siddhi.core.util.SiddhiConstants#DEFAULT_TIMER_WHEEL_TICK_MS}.
+     *
+     * @param timerWheelTick tick of the timer wheels in milliseconds, should be positive
+     */
+    public void setTimerWheelTick(long timerWheelTick) {
+        this.siddhiContext.setTimerWheelTick(timerWheelTick);
+    }
+
+    /**
+     * Method to journal the events sent to the Siddhi apps created afterwards by the Siddhi Manager instance, in a
+     * directory of each app at the given location, such that the events accepted after the last persisted revision
+     * are replayed when the revision is restored with {@link SiddhiAppRuntime#restoreLastRevision()}.
+     *
+     * @param inputJournalLocation directory holding the input journals of the Siddhi apps
+     */
+    public void setInputJournalLocation(String inputJournalLocation) {
+        this.siddhiContext.setInputJournalLocation(inputJournalLocation);
+    }
+
     /**
      * Method to set sink handler manager that would create sink handlers for each sink
      *
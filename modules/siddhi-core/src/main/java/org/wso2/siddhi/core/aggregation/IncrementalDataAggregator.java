@@ -47,7 +47,7 @@ public class IncrementalDataAggregator {
     private final BaseIncrementalValueStore baseIncrementalValueStore;
 
     private final Map<Long, BaseIncrementalValueStore> baseIncrementalValueStoreMap;
-    private final Map<Long, Map<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreMap;
+    private final Map<Long, Map<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreMap;
 
     public IncrementalDataAggregator(List<TimePeriod.Duration> incrementalDurations,
                                      TimePeriod.Duration aggregateForDuration, List<ExpressionExecutor> baseExecutors,
@@ -69,18 +69,18 @@ public class IncrementalDataAggregator {
         for (TimePeriod.Duration duration : incrementalDurations) {
             IncrementalExecutor incrementalExecutor = incrementalExecutorMap.get(duration);
 
-            ArrayList<HashMap<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList =
+            ArrayList<HashMap<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList =
                     incrementalExecutor.getBaseIncrementalValueGroupByStoreList();
-            Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreMap = incrementalExecutor
+            Map<Object, BaseIncrementalValueStore> baseIncrementalValueStoreMap = incrementalExecutor
                     .getBaseIncrementalValueStoreMap();
             ArrayList<BaseIncrementalValueStore> baseIncrementalValueStoreList = incrementalExecutor
                     .getBaseIncrementalValueStoreList();
             BaseIncrementalValueStore baseIncrementalValueStore = incrementalExecutor.getBaseIncrementalValueStore();
 
             if (baseIncrementalValueGroupByStoreList != null) {
-                for (HashMap<String, BaseIncrementalValueStore> aBaseIncrementalValueGroupByStoreList :
+                for (HashMap<Object, BaseIncrementalValueStore> aBaseIncrementalValueGroupByStoreList :
                         baseIncrementalValueGroupByStoreList) {
-                    for (Map.Entry<String, BaseIncrementalValueStore> entry : aBaseIncrementalValueGroupByStoreList
+                    for (Map.Entry<Object, BaseIncrementalValueStore> entry : aBaseIncrementalValueGroupByStoreList
                             .entrySet()) {
                         BaseIncrementalValueStore aBaseIncrementalValueStore = entry.getValue();
                         if (aBaseIncrementalValueStore.isProcessed()) {
@@ -90,7 +90,7 @@ public class IncrementalDataAggregator {
                     }
                 }
             } else if (baseIncrementalValueStoreMap != null) {
-                for (Map.Entry<String, BaseIncrementalValueStore> entry : baseIncrementalValueStoreMap.entrySet()) {
+                for (Map.Entry<Object, BaseIncrementalValueStore> entry : baseIncrementalValueStoreMap.entrySet()) {
                     BaseIncrementalValueStore aBaseIncrementalValueStore = entry.getValue();
                     if (aBaseIncrementalValueStore.isProcessed()) {
                         processInMemoryAggregates(aBaseIncrementalValueStore.createStreamEvent(),
@@ -117,13 +117,13 @@ public class IncrementalDataAggregator {
         return createEventChunkFromAggregatedData();
     }
 
-    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, String groupByKey) {
+    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, Object groupByKey) {
         String timeZone = timeZoneExecutor.execute(streamEvent).toString();
         long startTimeOfAggregates = IncrementalTimeConverterUtil.getStartTimeOfAggregates(timestamp,
                 aggregateForDuration, timeZone);
         synchronized (this) {
             if (groupByKey != null) {
-                Map<String, BaseIncrementalValueStore> aBaseIncrementalValueStoreGroupBy =
+                Map<Object, BaseIncrementalValueStore> aBaseIncrementalValueStoreGroupBy =
                         baseIncrementalValueGroupByStoreMap.get(startTimeOfAggregates);
                 if (aBaseIncrementalValueStoreGroupBy == null) {
                     aBaseIncrementalValueStoreGroupBy = new HashMap<>();
@@ -131,7 +131,7 @@ public class IncrementalDataAggregator {
                 }
                 BaseIncrementalValueStore aBaseIncrementalValueStore = aBaseIncrementalValueStoreGroupBy
                         .computeIfAbsent(groupByKey,
-                                k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
+                                k -> baseIncrementalValueStore.cloneStore(k.toString(), startTimeOfAggregates));
                 process(streamEvent, aBaseIncrementalValueStore);
             } else {
                 BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreMap
@@ -162,9 +162,9 @@ public class IncrementalDataAggregator {
                 processedInMemoryEventChunk.add(entryAgainstTime.getValue().createStreamEvent());
             }
         } else {
-            for (Map.Entry<Long, Map<String, BaseIncrementalValueStore>> entryAgainstTime :
+            for (Map.Entry<Long, Map<Object, BaseIncrementalValueStore>> entryAgainstTime :
                     baseIncrementalValueGroupByStoreMap.entrySet()) {
-                for (Map.Entry<String, BaseIncrementalValueStore> entryAgainstKey : entryAgainstTime.getValue()
+                for (Map.Entry<Object, BaseIncrementalValueStore> entryAgainstKey : entryAgainstTime.getValue()
                         .entrySet()) {
                     processedInMemoryEventChunk.add(entryAgainstKey.getValue().createStreamEvent());
                 }
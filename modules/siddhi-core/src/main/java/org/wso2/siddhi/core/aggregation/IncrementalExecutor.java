@@ -28,7 +28,6 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
-import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.IncrementalTimeConverterUtil;
 import org.wso2.siddhi.core.util.Scheduler;
@@ -77,9 +76,9 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private String elementId;
 
     private BaseIncrementalValueStore baseIncrementalValueStore = null;
-    private Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreMap = null;
+    private Map<Object, BaseIncrementalValueStore> baseIncrementalValueStoreMap = null;
     private ArrayList<BaseIncrementalValueStore> baseIncrementalValueStoreList = null;
-    private ArrayList<HashMap<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList = null;
+    private ArrayList<HashMap<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList = null;
 
     public IncrementalExecutor(TimePeriod.Duration duration, List<ExpressionExecutor> processExpressionExecutors,
                                GroupByKeyGenerator groupByKeyGenerator, MetaStreamEvent metaStreamEvent, int bufferSize,
@@ -264,24 +263,19 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private void processAggregates(StreamEvent streamEvent) {
         synchronized (this) {
             if (isGroupBy) {
-                try {
-                    String groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
-                    GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
-                    if (baseIncrementalValueGroupByStoreList != null) {
-                        Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
-                                baseIncrementalValueGroupByStoreList.get(currentBufferIndex);
-                        BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueGroupByStore
-                                .computeIfAbsent(groupedByKey,
-                                        k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
-                        process(streamEvent, aBaseIncrementalValueStore);
-                    } else {
-                        BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreMap
-                                .computeIfAbsent(groupedByKey,
-                                        k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
-                        process(streamEvent, aBaseIncrementalValueStore);
-                    }
-                } finally {
-                    GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
+                Object groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+                if (baseIncrementalValueGroupByStoreList != null) {
+                    Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
+                            baseIncrementalValueGroupByStoreList.get(currentBufferIndex);
+                    BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueGroupByStore
+                            .computeIfAbsent(groupedByKey,
+                                    k -> baseIncrementalValueStore.cloneStore(k.toString(), startTimeOfAggregates));
+                    process(streamEvent, aBaseIncrementalValueStore);
+                } else {
+                    BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreMap
+                            .computeIfAbsent(groupedByKey,
+                                    k -> baseIncrementalValueStore.cloneStore(k.toString(), startTimeOfAggregates));
+                    process(streamEvent, aBaseIncrementalValueStore);
                 }
             } else {
                 if (baseIncrementalValueStoreList != null) {
@@ -349,7 +343,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 }
                 if (isGroupBy) {
                     while (true) {
-                        Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
+                        Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
                                 baseIncrementalValueGroupByStoreList.get(minTimestampIndex);
                         if (baseIncrementalValueGroupByStore.size() > 0) {
                             dispatchEvents(baseIncrementalValueGroupByStore);
@@ -431,7 +425,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         cleanBaseIncrementalValueStore(startTimeOfNewAggregates, aBaseIncrementalValueStore);
     }
 
-    private void dispatchEvents(Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
+    private void dispatchEvents(Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
         int noOfEvents = baseIncrementalValueGroupByStore.size();
         if (noOfEvents > 0) {
             ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>(true);
@@ -458,11 +452,11 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         }
     }
 
-    ArrayList<HashMap<String, BaseIncrementalValueStore>> getBaseIncrementalValueGroupByStoreList() {
+    ArrayList<HashMap<Object, BaseIncrementalValueStore>> getBaseIncrementalValueGroupByStoreList() {
         return baseIncrementalValueGroupByStoreList;
     }
 
-    Map<String, BaseIncrementalValueStore> getBaseIncrementalValueStoreMap() {
+    Map<Object, BaseIncrementalValueStore> getBaseIncrementalValueStoreMap() {
         return baseIncrementalValueStoreMap;
     }
 
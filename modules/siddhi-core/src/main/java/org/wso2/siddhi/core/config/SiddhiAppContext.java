@@ -20,8 +20,10 @@ package org.wso2.siddhi.core.config;
 
 import com.lmax.disruptor.ExceptionHandler;
 import org.wso2.siddhi.core.function.Script;
+import org.wso2.siddhi.core.stream.input.InputJournal;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
@@ -35,6 +37,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -46,17 +49,22 @@ public class SiddhiAppContext {
     private String name;
     private boolean playback;
     private boolean enforceOrder;
+    private boolean compileExpressions;
+    private boolean vectorizeConditions;
     private boolean statsEnabled = false;
     private StatisticsManager statisticsManager = null;
 
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
+    private ForkJoinPool snapshotPool;
+    private TimerWheel timerWheel;
     private List<EternalReferencedHolder> eternalReferencedHolders;
     private SnapshotService snapshotService;
 
     private ThreadBarrier threadBarrier = null;
     private TimestampGenerator timestampGenerator = null;
     private PersistenceService persistenceService;
+    private InputJournal inputJournal;
     private ElementIdGenerator elementIdGenerator;
     private Map<String, Script> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
@@ -101,6 +109,22 @@ public class SiddhiAppContext {
         this.enforceOrder = enforceOrder;
     }
 
+    public boolean isCompileExpressions() {
+        return compileExpressions;
+    }
+
+    public void setCompileExpressions(boolean compileExpressions) {
+        this.compileExpressions = compileExpressions;
+    }
+
+    public boolean isVectorizeConditions() {
+        return vectorizeConditions;
+    }
+
+    public void setVectorizeConditions(boolean vectorizeConditions) {
+        this.vectorizeConditions = vectorizeConditions;
+    }
+
     public boolean isStatsEnabled() {
         return statsEnabled;
     }
@@ -125,10 +149,33 @@ public class SiddhiAppContext {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    /**
+     * @return pool of the threads capturing, serializing and restoring the states of the app's elements in parallel
+     */
+    public ForkJoinPool getSnapshotPool() {
+        return snapshotPool;
+    }
+
+    public void setSnapshotPool(ForkJoinPool snapshotPool) {
+        this.snapshotPool = snapshotPool;
+    }
+
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public synchronized void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
         eternalReferencedHolders.add(eternalReferencedHolder);
     }
 
+    public synchronized void removeEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
+        eternalReferencedHolders.remove(eternalReferencedHolder);
+    }
+
     public List<EternalReferencedHolder> getEternalReferencedHolders() {
         return Collections.unmodifiableList(new ArrayList<>(eternalReferencedHolders));
     }
@@ -173,6 +220,14 @@ public class SiddhiAppContext {
         this.persistenceService = persistenceService;
     }
 
+    public InputJournal getInputJournal() {
+        return inputJournal;
+    }
+
+    public void setInputJournal(InputJournal inputJournal) {
+        this.inputJournal = inputJournal;
+    }
+
     public ElementIdGenerator getElementIdGenerator() {
         return elementIdGenerator;
     }
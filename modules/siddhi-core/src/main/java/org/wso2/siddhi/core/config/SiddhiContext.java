@@ -23,11 +23,14 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.stream.input.source.SourceHandlerManager;
 import org.wso2.siddhi.core.stream.output.sink.SinkHandlerManager;
 import org.wso2.siddhi.core.table.record.RecordTableHandlerManager;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.SiddhiExtensionLoader;
 import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.config.InMemoryConfigManager;
 import org.wso2.siddhi.core.util.extension.holder.AbstractExtensionHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
 
 import java.util.HashMap;
@@ -45,6 +48,10 @@ public class SiddhiContext {
     private ExceptionHandler<Object> defaultDisrupterExceptionHandler;
     private Map<String, Class> siddhiExtensions = new HashMap<>();
     private PersistenceStore persistenceStore = null;
+    private SnapshotCodec snapshotCodec = new BinarySnapshotCodec();
+    private String inputJournalLocation = null;
+    private long timerWheelTick = SiddhiConstants.DEFAULT_TIMER_WHEEL_TICK_MS;
+    private int snapshotParallelism = Runtime.getRuntime().availableProcessors();
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap;
@@ -90,6 +97,38 @@ public class SiddhiContext {
         this.persistenceStore = persistenceStore;
     }
 
+    public SnapshotCodec getSnapshotCodec() {
+        return snapshotCodec;
+    }
+
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    public String getInputJournalLocation() {
+        return inputJournalLocation;
+    }
+
+    public void setInputJournalLocation(String inputJournalLocation) {
+        this.inputJournalLocation = inputJournalLocation;
+    }
+
+    public long getTimerWheelTick() {
+        return timerWheelTick;
+    }
+
+    public void setTimerWheelTick(long timerWheelTick) {
+        this.timerWheelTick = timerWheelTick;
+    }
+
+    public int getSnapshotParallelism() {
+        return snapshotParallelism;
+    }
+
+    public void setSnapshotParallelism(int snapshotParallelism) {
+        this.snapshotParallelism = snapshotParallelism;
+    }
+
     public void setConfigManager(ConfigManager configManager) {
         this.configManager = configManager;
     }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.event;
+
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Columnar view of the events of a {@link ComplexEventChunk}. Numeric attributes are read once per event into
+ * primitive column arrays on first use, integral attributes as long values and floating point attributes as double
+ * values, so that vectorized executors can evaluate the whole batch with tight loops over the columns.
+ * <p>
+ * A batch is reused for the event chunks processed by its owner one after the other, growing its buffers to the
+ * largest chunk, hence columns may be longer than the batch and should only be read up to {@link #size()}.
+ */
+public class ColumnarEventBatch {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private final Map<NumericExpressionExecutor, Column> columns =
+            new IdentityHashMap<NumericExpressionExecutor, Column>();
+    private ComplexEvent[] events = new ComplexEvent[INITIAL_CAPACITY];
+    private int size;
+    private int batchId;
+
+    /**
+     * Hold the events of the chunk, replacing the events and columns of the previous chunk.
+     *
+     * @param complexEventChunk events of the batch
+     */
+    public void reset(ComplexEventChunk<? extends ComplexEvent> complexEventChunk) {
+        size = 0;
+        batchId++;
+        complexEventChunk.reset();
+        while (complexEventChunk.hasNext()) {
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+            }
+            events[size++] = complexEventChunk.next();
+        }
+        complexEventChunk.reset();
+    }
+
+    /**
+     * Release the events of the batch once it is evaluated.
+     */
+    public void clear() {
+        Arrays.fill(events, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ComplexEvent getEvent(int index) {
+        return events[index];
+    }
+
+    /**
+     * @param attributeExecutor executor of an INT or LONG attribute
+     * @return values of the attribute as long values, null values are set to zero
+     */
+    public long[] getLongColumn(NumericExpressionExecutor attributeExecutor) {
+        Column column = getColumn(attributeExecutor);
+        if (column.longBatchId != batchId) {
+            if (column.longValues.length < events.length) {
+                column.longValues = new long[events.length];
+            }
+            long[] longValues = column.longValues;
+            boolean[] nullMask = column.getNullMask(events.length);
+            boolean hasNulls = false;
+            for (int i = 0; i < size; i++) {
+                ComplexEvent event = events[i];
+                if (attributeExecutor.isNull(event)) {
+                    longValues[i] = 0;
+                    nullMask[i] = true;
+                    hasNulls = true;
+                } else {
+                    longValues[i] = attributeExecutor.executeLong(event);
+                    nullMask[i] = false;
+                }
+            }
+            column.hasNulls = hasNulls;
+            column.nullBatchId = batchId;
+            column.longBatchId = batchId;
+        }
+        return column.longValues;
+    }
+
+    /**
+     * @param attributeExecutor executor of a numeric attribute
+     * @return values of the attribute as double values, null values are set to zero
+     */
+    public double[] getDoubleColumn(NumericExpressionExecutor attributeExecutor) {
+        Column column = getColumn(attributeExecutor);
+        if (column.doubleBatchId != batchId) {
+            if (column.doubleValues.length < events.length) {
+                column.doubleValues = new double[events.length];
+            }
+            double[] doubleValues = column.doubleValues;
+            boolean[] nullMask = column.getNullMask(events.length);
+            boolean hasNulls = false;
+            for (int i = 0; i < size; i++) {
+                ComplexEvent event = events[i];
+                if (attributeExecutor.isNull(event)) {
+                    doubleValues[i] = 0;
+                    nullMask[i] = true;
+                    hasNulls = true;
+                } else {
+                    doubleValues[i] = attributeExecutor.executeDouble(event);
+                    nullMask[i] = false;
+                }
+            }
+            column.hasNulls = hasNulls;
+            column.nullBatchId = batchId;
+            column.doubleBatchId = batchId;
+        }
+        return column.doubleValues;
+    }
+
+    /**
+     * @param attributeExecutor executor of an attribute
+     * @return mask of the events having a null value for the attribute, or null if none of them do
+     */
+    public boolean[] getNullMask(NumericExpressionExecutor attributeExecutor) {
+        Column column = getColumn(attributeExecutor);
+        if (column.nullBatchId != batchId) {
+            boolean[] nullMask = column.getNullMask(events.length);
+            boolean hasNulls = false;
+            for (int i = 0; i < size; i++) {
+                nullMask[i] = attributeExecutor.isNull(events[i]);
+                hasNulls |= nullMask[i];
+            }
+            column.hasNulls = hasNulls;
+            column.nullBatchId = batchId;
+        }
+        return column.hasNulls ? column.nullMask : null;
+    }
+
+    private Column getColumn(NumericExpressionExecutor attributeExecutor) {
+        Column column = columns.get(attributeExecutor);
+        if (column == null) {
+            column = new Column();
+            columns.put(attributeExecutor, column);
+        }
+        return column;
+    }
+
+    /**
+     * Values of an attribute across the events of the batch, each valid for the batch it is read for.
+     */
+    private static class Column {
+        private long[] longValues = new long[0];
+        private double[] doubleValues = new double[0];
+        private boolean[] nullMask = new boolean[0];
+        private boolean hasNulls;
+        private int longBatchId;
+        private int doubleBatchId;
+        private int nullBatchId;
+
+        private boolean[] getNullMask(int capacity) {
+            if (nullMask.length < capacity) {
+                nullMask = new boolean[capacity];
+            }
+            return nullMask;
+        }
+    }
+}
@@ -24,13 +24,30 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 /**
  * Executor class for Constant Siddhi expressions. Function execution logic is implemented in execute method.
  */
-public class ConstantExpressionExecutor implements ExpressionExecutor {
+public class ConstantExpressionExecutor implements NumericExpressionExecutor {
     private Object value;
     private Attribute.Type type;
+    private boolean primitiveExecutable;
+    private long longValue;
+    private double doubleValue;
 
     public ConstantExpressionExecutor(Object value, Attribute.Type type) {
         this.value = value;
         this.type = type;
+        switch (type) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                if (value instanceof Number) {
+                    primitiveExecutable = true;
+                    longValue = ((Number) value).longValue();
+                    doubleValue = ((Number) value).doubleValue();
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     @Override
@@ -38,6 +55,26 @@ public class ConstantExpressionExecutor implements ExpressionExecutor {
         return value;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return value == null;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return longValue;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return doubleValue;
+    }
+
     public Attribute.Type getReturnType() {
         return type;
     }
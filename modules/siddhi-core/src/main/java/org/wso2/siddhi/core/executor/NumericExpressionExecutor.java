@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+/**
+ * Executor of a numeric expression that can also be evaluated without boxing its result. The primitive methods are
+ * only to be used when {@link #isPrimitiveExecutable()} is true, and the value methods only for events for which
+ * {@link #isNull(ComplexEvent)} is false.
+ */
+public interface NumericExpressionExecutor extends ExpressionExecutor {
+
+    /**
+     * @return whether the expression is numeric and all of its executors support primitive evaluation
+     */
+    boolean isPrimitiveExecutable();
+
+    /**
+     * @param event event to be evaluated
+     * @return whether {@link #execute(ComplexEvent)} would return null for the event
+     */
+    boolean isNull(ComplexEvent event);
+
+    /**
+     * @param event event to be evaluated
+     * @return value of the expression, the expression should be of type INT or LONG
+     */
+    long executeLong(ComplexEvent event);
+
+    /**
+     * @param event event to be evaluated
+     * @return value of the expression widened to double
+     */
+    double executeDouble(ComplexEvent event);
+
+    /**
+     * @param executor expression executor
+     * @return whether the executor is a {@link NumericExpressionExecutor} that can be evaluated without boxing
+     */
+    static boolean isPrimitiveExecutable(ExpressionExecutor executor) {
+        return executor instanceof NumericExpressionExecutor
+                && ((NumericExpressionExecutor) executor).isPrimitiveExecutable();
+    }
+
+    /**
+     * @param type attribute type
+     * @return whether the type is INT or LONG
+     */
+    static boolean isIntegral(Attribute.Type type) {
+        return type == Attribute.Type.INT || type == Attribute.Type.LONG;
+    }
+}
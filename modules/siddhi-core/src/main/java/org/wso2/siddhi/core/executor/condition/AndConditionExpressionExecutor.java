@@ -74,10 +74,22 @@ public class AndConditionExpressionExecutor extends ConditionExpressionExecutor
         return Boolean.FALSE;
     }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return executeBoolean(leftConditionExecutor, event) && executeBoolean(rightConditionExecutor, event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new AndConditionExpressionExecutor(leftConditionExecutor.cloneExecutor(key), rightConditionExecutor
                 .cloneExecutor(key));
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
 }
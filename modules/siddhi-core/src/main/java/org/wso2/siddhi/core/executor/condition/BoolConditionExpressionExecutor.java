@@ -49,10 +49,17 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return executeBoolean(conditionExecutor, event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new BoolConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
     }
 
-
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
 }
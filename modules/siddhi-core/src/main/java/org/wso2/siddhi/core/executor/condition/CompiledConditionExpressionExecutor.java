@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.condition;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.compiler.ExpressionCompiler;
+
+/**
+ * Parent class of the condition executors generated by {@link ExpressionCompiler}. Generated sub classes evaluate the
+ * condition in {@link #executeBoolean(ComplexEvent)} with its operators and attribute accesses inlined, and delegate
+ * the parts of the condition that could not be compiled to {@link #executors}.
+ */
+public abstract class CompiledConditionExpressionExecutor extends ConditionExpressionExecutor {
+
+    protected final ExpressionExecutor conditionExecutor;
+    protected final ExpressionExecutor[] executors;
+
+    public CompiledConditionExpressionExecutor(ExpressionExecutor conditionExecutor, ExpressionExecutor[] executors) {
+        this.conditionExecutor = conditionExecutor;
+        this.executors = executors;
+    }
+
+    @Override
+    public Boolean execute(ComplexEvent event) {
+        return executeBoolean(event);
+    }
+
+    @Override
+    public abstract boolean executeBoolean(ComplexEvent event);
+
+    @Override
+    public ExpressionExecutor cloneExecutor(String key) {
+        return ExpressionCompiler.instantiateCondition(getClass(), conditionExecutor.cloneExecutor(key));
+    }
+
+    /**
+     * @return executor tree of the compiled condition
+     */
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+}
@@ -34,4 +34,28 @@ public abstract class ConditionExpressionExecutor implements ExpressionExecutor
 
     public abstract Boolean execute(ComplexEvent event);
 
+    /**
+     * Evaluate the condition without boxing its result, null results are evaluated as false.
+     *
+     * @param event event to be evaluated
+     * @return result of the condition
+     */
+    public boolean executeBoolean(ComplexEvent event) {
+        Boolean result = execute(event);
+        return result != null && result;
+    }
+
+    /**
+     * @param conditionExecutor executor of type BOOL
+     * @param event             event to be evaluated
+     * @return result of the executor, null results are evaluated as false
+     */
+    protected static boolean executeBoolean(ExpressionExecutor conditionExecutor, ComplexEvent event) {
+        if (conditionExecutor instanceof ConditionExpressionExecutor) {
+            return ((ConditionExpressionExecutor) conditionExecutor).executeBoolean(event);
+        }
+        Object result = conditionExecutor.execute(event);
+        return result != null && (Boolean) result;
+    }
+
 }
@@ -75,11 +75,22 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
         return Boolean.FALSE;
     }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return executeBoolean(leftConditionExecutor, event) || executeBoolean(rightConditionExecutor, event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new OrConditionExpressionExecutor(leftConditionExecutor.cloneExecutor(key), rightConditionExecutor
                 .cloneExecutor(key));
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
 
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
 }
@@ -18,30 +18,119 @@
 package org.wso2.siddhi.core.executor.condition.compare;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Parent Executor class for Compare conditions. common evaluation logic is implemented within executor.
+ * When both operands are numeric expressions supporting primitive evaluation the operands are compared without
+ * boxing, as long values when both are integral and as double values otherwise.
  */
 public abstract class CompareConditionExpressionExecutor extends ConditionExpressionExecutor {
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    private final NumericExpressionExecutor leftNumericExecutor;
+    private final NumericExpressionExecutor rightNumericExecutor;
+    private final boolean integral;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (NumericExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor)
+                && NumericExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor)
+                && isPrimitiveComparable(leftExpressionExecutor, rightExpressionExecutor)) {
+            this.leftNumericExecutor = (NumericExpressionExecutor) leftExpressionExecutor;
+            this.rightNumericExecutor = (NumericExpressionExecutor) rightExpressionExecutor;
+        } else {
+            this.leftNumericExecutor = null;
+            this.rightNumericExecutor = null;
+        }
+        this.integral = NumericExpressionExecutor.isIntegral(leftExpressionExecutor.getReturnType())
+                && NumericExpressionExecutor.isIntegral(rightExpressionExecutor.getReturnType());
     }
 
 
     public Boolean execute(ComplexEvent event) {
+        if (isPrimitiveExecutable()) {
+            return executeBoolean(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
     }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        if (!isPrimitiveExecutable()) {
+            return super.executeBoolean(event);
+        }
+        if (leftNumericExecutor.isNull(event) || rightNumericExecutor.isNull(event)) {
+            return resultOnNull();
+        }
+        if (integral) {
+            return compare(leftNumericExecutor.executeLong(event), rightNumericExecutor.executeLong(event));
+        }
+        return compare(leftNumericExecutor.executeDouble(event), rightNumericExecutor.executeDouble(event));
+    }
+
     protected abstract Boolean execute(Object left, Object right);
 
+    /**
+     * @return whether the operands are compared without boxing
+     */
+    protected boolean isPrimitiveExecutable() {
+        return leftNumericExecutor != null;
+    }
+
+    /**
+     * @return result of the condition when either of the operands is null
+     */
+    protected boolean resultOnNull() {
+        return false;
+    }
+
+    protected abstract boolean compare(long left, long right);
+
+    protected abstract boolean compare(double left, double right);
+
+    /**
+     * Check whether the data type specific executors compare numeric operands of the given types at the precision of
+     * long values when both are integral, or at the precision of double values otherwise. INT and LONG operands are
+     * compared with FLOAT operands at float precision, hence they qualify only for integral constants exactly
+     * representable as float values.
+     *
+     * @param leftExpressionExecutor  executor of the left operand
+     * @param rightExpressionExecutor executor of the right operand
+     * @return whether the operands can be compared as long or double values
+     */
+    public static boolean isPrimitiveComparable(ExpressionExecutor leftExpressionExecutor,
+                                                ExpressionExecutor rightExpressionExecutor) {
+        Attribute.Type leftType = leftExpressionExecutor.getReturnType();
+        Attribute.Type rightType = rightExpressionExecutor.getReturnType();
+        return !(NumericExpressionExecutor.isIntegral(leftType) && rightType == Attribute.Type.FLOAT
+                && !isFloatExact(leftExpressionExecutor))
+                && !(NumericExpressionExecutor.isIntegral(rightType) && leftType == Attribute.Type.FLOAT
+                && !isFloatExact(rightExpressionExecutor));
+    }
+
+    private static boolean isFloatExact(ExpressionExecutor integralExecutor) {
+        if (integralExecutor instanceof ConstantExpressionExecutor) {
+            long value = ((Number) ((ConstantExpressionExecutor) integralExecutor).getValue()).longValue();
+            return (long) (float) value == value;
+        }
+        return false;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
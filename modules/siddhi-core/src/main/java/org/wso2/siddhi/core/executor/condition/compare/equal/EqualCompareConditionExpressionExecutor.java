@@ -29,4 +29,14 @@ public abstract class EqualCompareConditionExpressionExecutor extends CompareCon
                                                    ExpressionExecutor rightExpressionExecutor) {
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
+
+    @Override
+    protected boolean compare(long left, long right) {
+        return left == right;
+    }
+
+    @Override
+    protected boolean compare(double left, double right) {
+        return left == right;
+    }
 }
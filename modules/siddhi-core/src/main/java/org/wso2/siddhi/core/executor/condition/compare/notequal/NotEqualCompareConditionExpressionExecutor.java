@@ -32,8 +32,26 @@ public abstract class NotEqualCompareConditionExpressionExecutor extends Compare
     }
 
     public Boolean execute(ComplexEvent event) {
+        if (isPrimitiveExecutable()) {
+            return executeBoolean(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return left == null || right == null || execute(left, right);
     }
+
+    @Override
+    protected boolean resultOnNull() {
+        return true;
+    }
+
+    @Override
+    protected boolean compare(long left, long right) {
+        return left != right;
+    }
+
+    @Override
+    protected boolean compare(double left, double right) {
+        return left != right;
+    }
 }
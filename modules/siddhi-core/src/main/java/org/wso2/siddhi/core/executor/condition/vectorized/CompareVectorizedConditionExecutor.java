@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.condition.vectorized;
+
+import org.wso2.siddhi.core.event.ColumnarEventBatch;
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+/**
+ * Vectorized executor for Compare conditions of a numeric attribute against another numeric attribute or a constant.
+ * Integral operands are compared as long values, otherwise both operands are compared as double values. As with the
+ * compare executors, events with a null value for any of the attributes only satisfy Not Equal conditions.
+ */
+public class CompareVectorizedConditionExecutor implements VectorizedConditionExecutor {
+
+    private final Compare.Operator operator;
+    private final boolean integral;
+    private final NumericExpressionExecutor leftAttributeExecutor;
+    private final NumericExpressionExecutor rightAttributeExecutor;
+    private final long longConstant;
+    private final double doubleConstant;
+
+    /**
+     * Create an executor comparing two attributes.
+     *
+     * @param leftAttributeExecutor  executor of the left attribute
+     * @param operator               compare operator
+     * @param rightAttributeExecutor executor of the right attribute
+     * @param integral               whether both attributes are of type INT or LONG
+     */
+    public CompareVectorizedConditionExecutor(NumericExpressionExecutor leftAttributeExecutor, Compare.Operator operator,
+                                              NumericExpressionExecutor rightAttributeExecutor, boolean integral) {
+        this.leftAttributeExecutor = leftAttributeExecutor;
+        this.operator = operator;
+        this.rightAttributeExecutor = rightAttributeExecutor;
+        this.integral = integral;
+        this.longConstant = 0;
+        this.doubleConstant = 0;
+    }
+
+    /**
+     * Create an executor comparing an attribute with a constant.
+     *
+     * @param leftAttributeExecutor executor of the attribute
+     * @param operator              compare operator
+     * @param constant              constant value, of type Integer or Long when integral
+     * @param integral              whether both the attribute and the constant are of type INT or LONG
+     */
+    public CompareVectorizedConditionExecutor(NumericExpressionExecutor leftAttributeExecutor, Compare.Operator operator,
+                                              Number constant, boolean integral) {
+        this.leftAttributeExecutor = leftAttributeExecutor;
+        this.operator = operator;
+        this.rightAttributeExecutor = null;
+        this.integral = integral;
+        this.longConstant = constant.longValue();
+        this.doubleConstant = constant.doubleValue();
+    }
+
+    @Override
+    public void execute(ColumnarEventBatch batch, boolean[] selection) {
+        int size = batch.size();
+        if (integral) {
+            long[] left = batch.getLongColumn(leftAttributeExecutor);
+            if (rightAttributeExecutor == null) {
+                compare(left, longConstant, selection, size);
+            } else {
+                compare(left, batch.getLongColumn(rightAttributeExecutor), selection, size);
+            }
+        } else {
+            double[] left = batch.getDoubleColumn(leftAttributeExecutor);
+            if (rightAttributeExecutor == null) {
+                compare(left, doubleConstant, selection, size);
+            } else {
+                compare(left, batch.getDoubleColumn(rightAttributeExecutor), selection, size);
+            }
+        }
+        setNullResults(batch.getNullMask(leftAttributeExecutor), selection, size);
+        if (rightAttributeExecutor != null) {
+            setNullResults(batch.getNullMask(rightAttributeExecutor), selection, size);
+        }
+    }
+
+    private void compare(long[] left, long right, boolean[] selection, int size) {
+        switch (operator) {
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] < right;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] > right;
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] <= right;
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] >= right;
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] == right;
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] != right;
+                }
+                break;
+        }
+    }
+
+    private void compare(long[] left, long[] right, boolean[] selection, int size) {
+        switch (operator) {
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] < right[i];
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] > right[i];
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] <= right[i];
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] >= right[i];
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] == right[i];
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] != right[i];
+                }
+                break;
+        }
+    }
+
+    private void compare(double[] left, double right, boolean[] selection, int size) {
+        switch (operator) {
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] < right;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] > right;
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] <= right;
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] >= right;
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] == right;
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] != right;
+                }
+                break;
+        }
+    }
+
+    private void compare(double[] left, double[] right, boolean[] selection, int size) {
+        switch (operator) {
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] < right[i];
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] > right[i];
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] <= right[i];
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] >= right[i];
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] == right[i];
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    selection[i] = left[i] != right[i];
+                }
+                break;
+        }
+    }
+
+    private void setNullResults(boolean[] nullMask, boolean[] selection, int size) {
+        if (nullMask != null) {
+            boolean nullResult = operator == Compare.Operator.NOT_EQUAL;
+            for (int i = 0; i < size; i++) {
+                if (nullMask[i]) {
+                    selection[i] = nullResult;
+                }
+            }
+        }
+    }
+}
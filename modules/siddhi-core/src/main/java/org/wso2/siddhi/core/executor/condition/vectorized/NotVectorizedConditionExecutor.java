@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.condition.vectorized;
+
+import org.wso2.siddhi.core.event.ColumnarEventBatch;
+
+/**
+ * Vectorized executor for Not condition.
+ */
+public class NotVectorizedConditionExecutor implements VectorizedConditionExecutor {
+
+    private final VectorizedConditionExecutor conditionExecutor;
+
+    public NotVectorizedConditionExecutor(VectorizedConditionExecutor conditionExecutor) {
+        this.conditionExecutor = conditionExecutor;
+    }
+
+    @Override
+    public void execute(ColumnarEventBatch batch, boolean[] selection) {
+        conditionExecutor.execute(batch, selection);
+        for (int i = 0; i < batch.size(); i++) {
+            selection[i] = !selection[i];
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.condition.vectorized;
+
+import org.wso2.siddhi.core.event.ColumnarEventBatch;
+
+/**
+ * Vectorized executor for Or condition.
+ */
+public class OrVectorizedConditionExecutor implements VectorizedConditionExecutor {
+
+    private final VectorizedConditionExecutor leftConditionExecutor;
+    private final VectorizedConditionExecutor rightConditionExecutor;
+    private boolean[] rightSelection = new boolean[0];
+
+    public OrVectorizedConditionExecutor(VectorizedConditionExecutor leftConditionExecutor,
+                                         VectorizedConditionExecutor rightConditionExecutor) {
+        this.leftConditionExecutor = leftConditionExecutor;
+        this.rightConditionExecutor = rightConditionExecutor;
+    }
+
+    @Override
+    public void execute(ColumnarEventBatch batch, boolean[] selection) {
+        if (rightSelection.length < selection.length) {
+            rightSelection = new boolean[selection.length];
+        }
+        leftConditionExecutor.execute(batch, selection);
+        rightConditionExecutor.execute(batch, rightSelection);
+        for (int i = 0; i < batch.size(); i++) {
+            selection[i] |= rightSelection[i];
+        }
+    }
+}
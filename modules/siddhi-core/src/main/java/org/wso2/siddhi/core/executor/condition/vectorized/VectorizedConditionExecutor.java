@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.condition.vectorized;
+
+import org.wso2.siddhi.core.event.ColumnarEventBatch;
+
+/**
+ * Executor evaluating a condition over all the events of a {@link ColumnarEventBatch} at once. Used in place of the
+ * {@link org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor} it is created from, hence it should
+ * produce the same result for each event, where a null result is treated as false.
+ */
+public interface VectorizedConditionExecutor {
+
+    /**
+     * Evaluate the condition for the events of the batch.
+     *
+     * @param batch     batch of events
+     * @param selection selection vector of the batch to be filled up to the size of the batch, with true for each event
+     *                  satisfying the condition
+     */
+    void execute(ColumnarEventBatch batch, boolean[] selection);
+}
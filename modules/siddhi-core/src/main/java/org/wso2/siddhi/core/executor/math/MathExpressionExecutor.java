@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.math;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
+
+/**
+ * Parent class of the executors of math operations, the data type specific sub classes evaluate the operation both
+ * on boxed values and, when both operands support it, on primitive values.
+ */
+public abstract class MathExpressionExecutor implements NumericExpressionExecutor {
+
+    protected ExpressionExecutor leftExpressionExecutor;
+    protected ExpressionExecutor rightExpressionExecutor;
+    private final boolean primitiveExecutable;
+    private final boolean leftIntegral;
+    private final boolean rightIntegral;
+
+    public MathExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
+                                  ExpressionExecutor rightExpressionExecutor) {
+        this.leftExpressionExecutor = leftExpressionExecutor;
+        this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = NumericExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor)
+                && NumericExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
+        this.leftIntegral = NumericExpressionExecutor.isIntegral(leftExpressionExecutor.getReturnType());
+        this.rightIntegral = NumericExpressionExecutor.isIntegral(rightExpressionExecutor.getReturnType());
+    }
+
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return ((NumericExpressionExecutor) leftExpressionExecutor).isNull(event)
+                || ((NumericExpressionExecutor) rightExpressionExecutor).isNull(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
+    protected int leftInt(ComplexEvent event) {
+        return (int) ((NumericExpressionExecutor) leftExpressionExecutor).executeLong(event);
+    }
+
+    protected int rightInt(ComplexEvent event) {
+        return (int) ((NumericExpressionExecutor) rightExpressionExecutor).executeLong(event);
+    }
+
+    protected long leftLong(ComplexEvent event) {
+        return ((NumericExpressionExecutor) leftExpressionExecutor).executeLong(event);
+    }
+
+    protected long rightLong(ComplexEvent event) {
+        return ((NumericExpressionExecutor) rightExpressionExecutor).executeLong(event);
+    }
+
+    protected float leftFloat(ComplexEvent event) {
+        return toFloat((NumericExpressionExecutor) leftExpressionExecutor, leftIntegral, event);
+    }
+
+    protected float rightFloat(ComplexEvent event) {
+        return toFloat((NumericExpressionExecutor) rightExpressionExecutor, rightIntegral, event);
+    }
+
+    protected double leftDouble(ComplexEvent event) {
+        return ((NumericExpressionExecutor) leftExpressionExecutor).executeDouble(event);
+    }
+
+    protected double rightDouble(ComplexEvent event) {
+        return ((NumericExpressionExecutor) rightExpressionExecutor).executeDouble(event);
+    }
+
+    private static float toFloat(NumericExpressionExecutor executor, boolean integral, ComplexEvent event) {
+        // Rounding integral values through double could differ from rounding them directly to float.
+        if (integral) {
+            return (float) executor.executeLong(event);
+        }
+        return (float) executor.executeDouble(event);
+    }
+}
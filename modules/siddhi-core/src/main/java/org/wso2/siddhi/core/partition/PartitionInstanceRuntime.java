@@ -18,8 +18,10 @@
 package org.wso2.siddhi.core.partition;
 
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class to represent each partition key instance. These will be created dynamically and will contain
@@ -28,10 +30,16 @@ import java.util.List;
 public class PartitionInstanceRuntime {
     private String key;
     private List<QueryRuntime> queryRuntimeList;
+    private List<Snapshotable> snapshotableList;
+    private volatile long lastAccessTimestamp;
+    private volatile boolean purged;
+    private final AtomicInteger usageCount = new AtomicInteger();
 
-    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList) {
+    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList,
+                                    List<Snapshotable> snapshotableList) {
         this.key = key;
         this.queryRuntimeList = queryRuntimeList;
+        this.snapshotableList = snapshotableList;
     }
 
     public List<QueryRuntime> getQueryRuntimeList() {
@@ -42,6 +50,65 @@ public class PartitionInstanceRuntime {
         return key;
     }
 
+    /**
+     * @return snapshotables created for the partition instance, to be released when it is purged.
+     */
+    public List<Snapshotable> getSnapshotableList() {
+        return snapshotableList;
+    }
+
+    public long getLastAccessTimestamp() {
+        return lastAccessTimestamp;
+    }
+
+    public void setLastAccessTimestamp(long lastAccessTimestamp) {
+        this.lastAccessTimestamp = lastAccessTimestamp;
+    }
+
+    /**
+     * @return true if the partition instance is purged, hence events should be routed to a new instance of its key.
+     */
+    public boolean isPurged() {
+        return purged;
+    }
+
+    /**
+     * Mark the partition instance as in use while events are sent to it, such that it is not purged meanwhile. The
+     * access timestamp of the instance should be updated before.
+     *
+     * @return false if the instance is purged, hence events should be routed to a new instance of its key.
+     */
+    public boolean acquire() {
+        usageCount.incrementAndGet();
+        if (purged) {
+            usageCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release the partition instance once the events sent to it after {@link #acquire()} are processed.
+     */
+    public void release() {
+        usageCount.decrementAndGet();
+    }
+
+    /**
+     * Mark the partition instance as purged unless it is in use or accessed since the given time.
+     *
+     * @param idleSince time the instance should not be accessed since
+     * @return true if the instance is purged.
+     */
+    boolean purgeIfIdle(long idleSince) {
+        purged = true;
+        if (usageCount.get() > 0 || lastAccessTimestamp >= idleSince) {
+            purged = false;
+            return false;
+        }
+        return true;
+    }
+
 }
 
 
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.partition;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
@@ -29,11 +30,15 @@ import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -51,6 +56,8 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -59,6 +66,8 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Runtime class to handle partitioning. It will hold all information regarding current partiotns and wil create
@@ -66,6 +75,7 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class PartitionRuntime implements Snapshotable {
 
+    private static final Logger log = Logger.getLogger(PartitionRuntime.class);
 
     private String partitionId;
     private String elementId;
@@ -83,6 +93,10 @@ public class PartitionRuntime implements Snapshotable {
             PartitionStreamReceiver>();
     private SiddhiAppContext siddhiAppContext;
     private MemoryUsageTracker memoryUsageTracker;
+    private PartitionWorkerPool partitionWorkerPool;
+    private boolean purgeEnabled = false;
+    private long purgeInterval;
+    private long purgeIdlePeriod;
 
     public PartitionRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap, ConcurrentMap<String,
             StreamJunction> streamJunctionMap, Partition partition, SiddhiAppContext siddhiAppContext) {
@@ -108,6 +122,37 @@ public class PartitionRuntime implements Snapshotable {
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
         this.streamJunctionMap = streamJunctionMap;
+
+        Annotation purgeAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PURGE,
+                partition.getAnnotations());
+        if (purgeAnnotation != null && !"false".equalsIgnoreCase(
+                purgeAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE))) {
+            purgeEnabled = true;
+            purgeInterval = getPurgeTime(purgeAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL);
+            purgeIdlePeriod = getPurgeTime(purgeAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD);
+            siddhiAppContext.addEternalReferencedHolder(new PartitionPurger());
+        }
+    }
+
+    private long getPurgeTime(Annotation purgeAnnotation, String elementName) {
+        String value = purgeAnnotation.getElement(elementName);
+        if (value == null) {
+            throw new SiddhiAppCreationException("'" + elementName + "' is required in @Purge of partition '" +
+                    partitionId + "'", purgeAnnotation.getQueryContextStartIndex(),
+                    purgeAnnotation.getQueryContextEndIndex());
+        }
+        long time;
+        try {
+            time = SiddhiCompiler.parseTimeConstantDefinition(value).value();
+        } catch (SiddhiParserException e) {
+            time = 0;
+        }
+        if (time <= 0) {
+            throw new SiddhiAppCreationException("Invalid " + elementName + " '" + value + "' in @Purge of " +
+                    "partition '" + partitionId + "', expected a positive time such as '10 min'",
+                    purgeAnnotation.getQueryContextStartIndex(), purgeAnnotation.getQueryContextEndIndex());
+        }
+        return time;
     }
 
     public QueryRuntime addQuery(QueryRuntime metaQueryRuntime) {
@@ -226,57 +271,150 @@ public class PartitionRuntime implements Snapshotable {
      * clone all the queries of the partition for a given partition key if they are not available
      *
      * @param key partition key
+     * @return partition instance of the key
      */
-    public void cloneIfNotExist(String key) {
-        if (!partitionInstanceRuntimeMap.containsKey(key)) {
-            clonePartition(key);
+    public PartitionInstanceRuntime cloneIfNotExist(String key) {
+        PartitionInstanceRuntime partitionInstance = partitionInstanceRuntimeMap.get(key);
+        if (partitionInstance == null) {
+            partitionInstance = clonePartition(key);
+        } else {
+            updateLastAccessTimestamp(partitionInstance);
+        }
+        return partitionInstance;
+    }
+
+    public boolean isPurgeEnabled() {
+        return purgeEnabled;
+    }
+
+    /**
+     * Record an access to a partition instance, used to purge idle instances when purging is enabled.
+     *
+     * @param partitionInstance accessed partition instance
+     */
+    public void updateLastAccessTimestamp(PartitionInstanceRuntime partitionInstance) {
+        if (purgeEnabled) {
+            partitionInstance.setLastAccessTimestamp(siddhiAppContext.getTimestampGenerator().currentTime());
         }
     }
 
-    private synchronized void clonePartition(String key) {
+    /**
+     * Clone the partition for the given key unless it exists, waiting for any partition instance being cloned.
+     *
+     * @param key partition key
+     * @return partition instance of the key
+     */
+    synchronized PartitionInstanceRuntime clonePartition(String key) {
         PartitionInstanceRuntime partitionInstance = this.partitionInstanceRuntimeMap.get(key);
 
         if (partitionInstance == null) {
             List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
             List<QueryRuntime> partitionedQueryRuntimeList = new ArrayList<QueryRuntime>();
+            List<Snapshotable> snapshotableList = new ArrayList<Snapshotable>();
+            if (purgeEnabled) {
+                SnapshotService.getRecordSnapshotableThreadLocal().set(snapshotableList);
+            }
+            try {
+                for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
+                    cloneQuery(key, queryRuntime, queryRuntimeList, partitionedQueryRuntimeList);
+                }
+            } finally {
+                if (purgeEnabled) {
+                    SnapshotService.getRecordSnapshotableThreadLocal().remove();
+                }
+            }
+            partitionInstance = new PartitionInstanceRuntime(key, queryRuntimeList, snapshotableList);
+            partitionInstance.setLastAccessTimestamp(siddhiAppContext.getTimestampGenerator().currentTime());
+            partitionInstanceRuntimeMap.putIfAbsent(key, partitionInstance);
+            updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
+        }
+        return partitionInstance;
+    }
 
-            for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
-
-                QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
-                queryRuntimeList.add(clonedQueryRuntime);
-
-                QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), queryRuntime,
-                        SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
-
-                if (queryRuntime.isFromLocalStream()) {
-                    for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size(); i++) {
-                        String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
-                                .getProcessStreamReceiver().getStreamId();
-                        StreamDefinition streamDefinition;
-                        if (streamId.startsWith("#")) {
-                            streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
-                        } else {
-                            streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
-                        }
-                        StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
-                        if (streamJunction == null) {
-                            streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
-                                    .getExecutorService(),
-                                    siddhiAppContext.getBufferSize(),
-                                    siddhiAppContext);
-                            localStreamJunctionMap.put(streamId + key, streamJunction);
-                        }
-                        streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().get
-                                (i).getProcessStreamReceiver());
-                    }
+    private void cloneQuery(String key, QueryRuntime queryRuntime, List<QueryRuntime> queryRuntimeList,
+                            List<QueryRuntime> partitionedQueryRuntimeList) {
+        QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
+        queryRuntimeList.add(clonedQueryRuntime);
+
+        QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), clonedQueryRuntime,
+                SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
+
+        if (queryRuntime.isFromLocalStream()) {
+            for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size(); i++) {
+                String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
+                        .getProcessStreamReceiver().getStreamId();
+                StreamDefinition streamDefinition;
+                if (streamId.startsWith("#")) {
+                    streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
                 } else {
-                    partitionedQueryRuntimeList.add(clonedQueryRuntime);
+                    streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
+                }
+                StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
+                if (streamJunction == null) {
+                    streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
+                            .getExecutorService(),
+                            siddhiAppContext.getBufferSize(),
+                            siddhiAppContext);
+                    localStreamJunctionMap.put(streamId + key, streamJunction);
                 }
+                streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().get
+                        (i).getProcessStreamReceiver());
             }
-            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
-            updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
+        } else {
+            partitionedQueryRuntimeList.add(clonedQueryRuntime);
         }
+    }
 
+    /**
+     * Remove the partition instances which have not received events for the purge idle period, releasing their
+     * stream junctions, schedulers, snapshotables and memory usage tracking.
+     */
+    private synchronized void purgeIdlePartitions() {
+        long idleSince = siddhiAppContext.getTimestampGenerator().currentTime() - purgeIdlePeriod;
+        for (PartitionInstanceRuntime partitionInstance : partitionInstanceRuntimeMap.values()) {
+            // instances in use while purging are left for the next purge
+            if (partitionInstance.getLastAccessTimestamp() < idleSince && partitionInstance.purgeIfIdle(idleSince)) {
+                purgePartition(partitionInstance);
+            }
+        }
+    }
+
+    private void purgePartition(PartitionInstanceRuntime partitionInstance) {
+        String key = partitionInstance.getKey();
+        partitionInstanceRuntimeMap.remove(key);
+        for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
+            partitionStreamReceiver.removeStreamJunction(key);
+            removeStreamJunction(partitionStreamReceiver.getStreamId() + key);
+        }
+        for (String streamId : localStreamDefinitionMap.keySet()) {
+            removeStreamJunction(streamId + key);
+        }
+        siddhiAppContext.getSnapshotService().removeSnapshotables(partitionInstance.getSnapshotableList());
+        for (Snapshotable snapshotable : partitionInstance.getSnapshotableList()) {
+            if (snapshotable instanceof Scheduler) {
+                ((Scheduler) snapshotable).stop();
+            }
+            if (snapshotable instanceof EternalReferencedHolder) {
+                ((EternalReferencedHolder) snapshotable).stop();
+                siddhiAppContext.removeEternalReferencedHolder((EternalReferencedHolder) snapshotable);
+            }
+        }
+        if (memoryUsageTracker != null) {
+            for (QueryRuntime queryRuntime : partitionInstance.getQueryRuntimeList()) {
+                memoryUsageTracker.unregisterObject(queryRuntime);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Purged idle instance of partition '" + partitionId + "' with key '" + key + "' of Siddhi " +
+                    "App '" + siddhiAppContext.getName() + "'");
+        }
+    }
+
+    private void removeStreamJunction(String streamJunctionId) {
+        StreamJunction streamJunction = localStreamJunctionMap.remove(streamJunctionId);
+        if (streamJunction != null) {
+            streamJunction.stopProcessing();
+        }
     }
 
     private void updatePartitionStreamReceivers(String key, List<QueryRuntime> partitionedQueryRuntimeList) {
@@ -336,4 +474,43 @@ public class PartitionRuntime implements Snapshotable {
         this.memoryUsageTracker = memoryUsageTracker;
     }
 
+    public PartitionWorkerPool getPartitionWorkerPool() {
+        return partitionWorkerPool;
+    }
+
+    public void setPartitionWorkerPool(PartitionWorkerPool partitionWorkerPool) {
+        this.partitionWorkerPool = partitionWorkerPool;
+    }
+
+    /**
+     * Periodically purges the idle partition instances, enabled with {@code @purge(enable='true',
+     * interval='<time>', idle.period='<time>')} on the partition.
+     */
+    private class PartitionPurger implements EternalReferencedHolder, Runnable {
+        private ScheduledFuture scheduledFuture;
+
+        @Override
+        public void run() {
+            try {
+                purgeIdlePartitions();
+            } catch (Throwable t) {
+                log.error("Error in purging idle instances of partition '" + partitionId + "' of Siddhi App '" +
+                        siddhiAppContext.getName() + "'.", t);
+            }
+        }
+
+        @Override
+        public void start() {
+            scheduledFuture = siddhiAppContext.getScheduledExecutorService().scheduleAtFixedRate(this,
+                    purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void stop() {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(true);
+            }
+        }
+    }
+
 }
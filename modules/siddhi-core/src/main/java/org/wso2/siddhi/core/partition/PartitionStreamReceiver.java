@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverterFactory;
@@ -51,8 +52,11 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private PartitionRuntime partitionRuntime;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> cachedStreamJunctionMap = new ConcurrentHashMap<String, StreamJunction>();
+    private Map<Object, PartitionInstanceRoute> partitionInstanceRouteMap =
+            new ConcurrentHashMap<Object, PartitionInstanceRoute>();
+    private Map<String, Object> routedKeyMap = new ConcurrentHashMap<String, Object>();
     private ComplexEventChunk<ComplexEvent> streamEventChunk;
-
+    private StreamEventCloner streamEventCloner;
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
                                    StreamDefinition streamDefinition,
@@ -71,6 +75,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     public void init() {
         streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+        streamEventCloner = new StreamEventCloner(metaStreamEvent, eventPool);
     }
 
     @Override
@@ -91,13 +96,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
                     StreamEvent borrowedEvent = eventPool.borrowEvent();
                     streamEventConverter.convertComplexEvent(complexEvent, borrowedEvent);
-                    String key = partitionExecutor.execute(borrowedEvent);
+                    Object key = partitionExecutor.execute(borrowedEvent);
                     send(key, borrowedEvent);
                 }
             } else {
                 ComplexEventChunk<ComplexEvent> complexEventChunk = new ComplexEventChunk<ComplexEvent>(false);
                 complexEventChunk.add(complexEvent);
-                String currentKey = null;
+                Object currentKey = null;
                 while (complexEventChunk.hasNext()) {
                     ComplexEvent aEvent = complexEventChunk.next();
                     complexEventChunk.remove();
@@ -107,7 +112,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                     boolean currentEventMatchedPrevPartitionExecutor = false;
                     for (PartitionExecutor partitionExecutor : partitionExecutors) {
 
-                        String key = partitionExecutor.execute(borrowedEvent);
+                        Object key = partitionExecutor.execute(borrowedEvent);
                         if (key != null) {
                             if (currentKey == null) {
                                 currentKey = key;
@@ -152,7 +157,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         StreamEvent borrowedEvent = eventPool.borrowEvent();
         streamEventConverter.convertEvent(event, borrowedEvent);
         for (PartitionExecutor partitionExecutor : partitionExecutors) {
-            String key = partitionExecutor.execute(borrowedEvent);
+            Object key = partitionExecutor.execute(borrowedEvent);
             send(key, borrowedEvent);
         }
         if (partitionExecutors.size() == 0) {
@@ -181,7 +186,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             send(borrowedEvent);
         } else {
             for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                String key = partitionExecutor.execute(borrowedEvent);
+                Object key = partitionExecutor.execute(borrowedEvent);
                 send(key, borrowedEvent);
             }
         }
@@ -205,14 +210,14 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             eventPool.returnEvents(firstEvent);
 
         } else {
-            String key = null;
+            Object key = null;
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
                 StreamEvent nextEvent = eventPool.borrowEvent();
                 streamEventConverter.convertEvent(event, nextEvent);
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                    String currentKey = partitionExecutor.execute(nextEvent);
+                    Object currentKey = partitionExecutor.execute(nextEvent);
                     if (currentKey != null) {
                         if (key == null) {
                             key = currentKey;
@@ -235,19 +240,86 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     }
 
-    private void send(String key, ComplexEvent event) {
+    private void send(Object key, ComplexEvent event) {
         if (key != null) {
-            partitionRuntime.cloneIfNotExist(key);
-            cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+            PartitionInstanceRoute route = partitionInstanceRouteMap.get(key);
+            if (route == null) {
+                route = createRoute(key);
+            } else {
+                partitionRuntime.updateLastAccessTimestamp(route.partitionInstance);
+            }
+            PartitionInstanceRuntime usedPartitionInstance = null;
+            if (partitionRuntime.isPurgeEnabled()) {
+                // the partition instance is not purged while in use, and events are routed to a new instance of
+                // the key once purged
+                while (!route.partitionInstance.acquire()) {
+                    route = createRoute(key);
+                }
+                usedPartitionInstance = route.partitionInstance;
+            }
+            PartitionWorkerPool partitionWorkerPool = partitionRuntime.getPartitionWorkerPool();
+            if (partitionWorkerPool == null) {
+                try {
+                    route.streamJunction.sendEvent(event);
+                } finally {
+                    if (usedPartitionInstance != null) {
+                        usedPartitionInstance.release();
+                    }
+                }
+            } else {
+                partitionWorkerPool.send(route.key, route.streamJunction, copyEvents(event), usedPartitionInstance);
+            }
         }
     }
 
+    /**
+     * Resolve the partition instance of a key not yet routed by this receiver, or whose instance was purged, creating
+     * the instance if it does not exist. Keys are identified by their string form across receivers, such that typed
+     * keys of different streams with the same value reach the same partition instance.
+     */
+    private PartitionInstanceRoute createRoute(Object key) {
+        String instanceKey = key.toString();
+        PartitionInstanceRuntime partitionInstance = partitionRuntime.cloneIfNotExist(instanceKey);
+        StreamJunction streamJunction = cachedStreamJunctionMap.get(instanceKey);
+        if (streamJunction == null) {
+            // Partition instance being cloned by another thread or purged in between, hence wait for it or
+            // recreate it.
+            partitionInstance = partitionRuntime.clonePartition(instanceKey);
+            streamJunction = cachedStreamJunctionMap.get(instanceKey);
+        }
+        PartitionInstanceRoute route = new PartitionInstanceRoute(instanceKey, streamJunction, partitionInstance);
+        partitionInstanceRouteMap.put(key, route);
+        routedKeyMap.put(instanceKey, key);
+        return route;
+    }
+
     private void send(ComplexEvent event) {
-        for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
-            streamJunction.sendEvent(event);
+        PartitionWorkerPool partitionWorkerPool = partitionRuntime.getPartitionWorkerPool();
+        if (partitionWorkerPool == null) {
+            for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
+                streamJunction.sendEvent(event);
+            }
+        } else {
+            for (Map.Entry<String, StreamJunction> entry : cachedStreamJunctionMap.entrySet()) {
+                partitionWorkerPool.send(entry.getKey(), entry.getValue(), copyEvents(event), null);
+            }
         }
     }
 
+    /**
+     * Copy the events handed over to partition workers, as the received events are reused once sent.
+     */
+    private ComplexEvent copyEvents(ComplexEvent event) {
+        StreamEvent firstEvent = streamEventCloner.copyStreamEvent((StreamEvent) event);
+        StreamEvent lastEvent = firstEvent;
+        for (ComplexEvent nextEvent = event.getNext(); nextEvent != null; nextEvent = nextEvent.getNext()) {
+            StreamEvent copiedEvent = streamEventCloner.copyStreamEvent((StreamEvent) nextEvent);
+            lastEvent.setNext(copiedEvent);
+            lastEvent = copiedEvent;
+        }
+        return firstEvent;
+    }
+
     /**
      * create local streamJunctions through which events received by partitionStreamReceiver, are sent to
      * queryStreamReceivers
@@ -256,14 +328,14 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
      * @param queryRuntimeList queryRuntime list of the partition
      */
     public void addStreamJunction(String key, List<QueryRuntime> queryRuntimeList) {
-        StreamJunction streamJunction = cachedStreamJunctionMap.get(streamId + key);
+        StreamJunction streamJunction = cachedStreamJunctionMap.get(key);
         if (streamJunction == null) {
             streamJunction = partitionRuntime.getLocalStreamJunctionMap().get(streamId + key);
             if (streamJunction == null) {
                 streamJunction = createStreamJunction();
                 partitionRuntime.addStreamJunction(streamId + key, streamJunction);
             }
-            cachedStreamJunctionMap.put(streamId + key, streamJunction);
+            cachedStreamJunctionMap.put(key, streamJunction);
         }
         for (QueryRuntime queryRuntime : queryRuntimeList) {
             StreamRuntime streamRuntime = queryRuntime.getStreamRuntime();
@@ -277,9 +349,39 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * Remove the local stream junction of a purged partition instance.
+     *
+     * @param key partitioning key
+     */
+    public void removeStreamJunction(String key) {
+        cachedStreamJunctionMap.remove(key);
+        Object routedKey = routedKeyMap.remove(key);
+        if (routedKey != null) {
+            partitionInstanceRouteMap.remove(routedKey);
+        }
+    }
+
     private StreamJunction createStreamJunction() {
         return new StreamJunction(streamDefinition, siddhiAppContext.getExecutorService(),
                                   siddhiAppContext.getBufferSize(), siddhiAppContext);
     }
 
+    /**
+     * Stream junction and partition instance of a partition key, cached against the typed key to route events
+     * without converting the key to a string.
+     */
+    private static class PartitionInstanceRoute {
+        private final String key;
+        private final StreamJunction streamJunction;
+        private final PartitionInstanceRuntime partitionInstance;
+
+        PartitionInstanceRoute(String key, StreamJunction streamJunction,
+                               PartitionInstanceRuntime partitionInstance) {
+            this.key = key;
+            this.streamJunction = streamJunction;
+            this.partitionInstance = partitionInstance;
+        }
+    }
+
 }
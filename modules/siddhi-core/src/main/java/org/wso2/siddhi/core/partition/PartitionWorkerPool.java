@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.WorkerPool;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+
+/**
+ * Fixed set of worker threads processing the events of a partition, enabled with {@code @parallel(workers='N')} on
+ * the partition. Partition keys are hashed onto the workers, hence all events of a key are processed by the same
+ * worker in the order they were received, while events of different keys are processed concurrently.
+ */
+public class PartitionWorkerPool implements EternalReferencedHolder {
+
+    private final WorkerPool<Task> workerPool;
+
+    public PartitionWorkerPool(String partitionId, int workerCount, int bufferSize,
+                               SiddhiAppContext siddhiAppContext) {
+        this.workerPool = new WorkerPool<Task>("partition '" + partitionId + "'", workerCount, bufferSize,
+                (workerIndex, task) -> task.process(), siddhiAppContext);
+    }
+
+    /**
+     * Send events to the stream junction of a partition instance on the worker assigned to the partition key.
+     *
+     * @param key               partition key
+     * @param streamJunction    stream junction of the partition instance
+     * @param complexEvent      events to be sent, they should not be used by the caller afterwards
+     * @param partitionInstance partition instance acquired for the events, released once they are processed, or
+     *                          null
+     */
+    public void send(String key, StreamJunction streamJunction, ComplexEvent complexEvent,
+                     PartitionInstanceRuntime partitionInstance) {
+        workerPool.send(workerPool.workerIndex(key), new Task(streamJunction, complexEvent, partitionInstance));
+    }
+
+    @Override
+    public void start() {
+        workerPool.start();
+    }
+
+    @Override
+    public void stop() {
+        workerPool.stop();
+    }
+
+    /**
+     * Events to be sent to the stream junction of a partition instance.
+     */
+    private static class Task {
+        private final StreamJunction streamJunction;
+        private final ComplexEvent complexEvent;
+        private final PartitionInstanceRuntime partitionInstance;
+
+        Task(StreamJunction streamJunction, ComplexEvent complexEvent, PartitionInstanceRuntime partitionInstance) {
+            this.streamJunction = streamJunction;
+            this.complexEvent = complexEvent;
+            this.partitionInstance = partitionInstance;
+        }
+
+        void process() {
+            try {
+                streamJunction.sendEvent(complexEvent);
+            } finally {
+                if (partitionInstance != null) {
+                    partitionInstance.release();
+                }
+            }
+        }
+    }
+}
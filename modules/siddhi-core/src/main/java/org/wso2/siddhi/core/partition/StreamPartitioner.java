@@ -25,10 +25,13 @@ import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.partition.executor.PartitionExecutor;
 import org.wso2.siddhi.core.partition.executor.RangePartitionExecutor;
+import org.wso2.siddhi.core.partition.executor.SortedRangePartitionExecutor;
 import org.wso2.siddhi.core.partition.executor.ValuePartitionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.exception.AttributeNotExistException;
 import org.wso2.siddhi.query.api.execution.partition.Partition;
 import org.wso2.siddhi.query.api.execution.partition.PartitionType;
 import org.wso2.siddhi.query.api.execution.partition.RangePartitionType;
@@ -43,6 +46,14 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.constant.DoubleConstant;
+import org.wso2.siddhi.query.api.expression.constant.FloatConstant;
+import org.wso2.siddhi.query.api.expression.constant.IntConstant;
+import org.wso2.siddhi.query.api.expression.constant.LongConstant;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -146,20 +157,190 @@ public class StreamPartitioner {
                                 metaEvent, SiddhiConstants.UNKNOWN_STATE, tableMap, executors,
                                 siddhiAppContext, false, 0, queryName)));
                     }
-                } else {
-                    for (RangePartitionType.RangePartitionProperty rangePartitionProperty : ((RangePartitionType)
-                            partitionType).getRangePartitionProperties()) {
-                        if (partitionType.getStreamId().equals(inputStream.getStreamId())) {
+                } else if (partitionType.getStreamId().equals(inputStream.getStreamId())) {
+                    SortedRangePartitionExecutor sortedRangePartitionExecutor = createSortedRangePartitionExecutor(
+                            (RangePartitionType) partitionType, metaEvent, executors, tableMap, siddhiAppContext,
+                            queryName);
+                    if (sortedRangePartitionExecutor != null) {
+                        executorList.add(sortedRangePartitionExecutor);
+                    } else {
+                        for (RangePartitionType.RangePartitionProperty rangePartitionProperty :
+                                ((RangePartitionType) partitionType).getRangePartitionProperties()) {
                             executorList.add(new RangePartitionExecutor((ConditionExpressionExecutor)
                                     ExpressionParser.parseExpression(rangePartitionProperty.getCondition(), metaEvent,
                                             SiddhiConstants.UNKNOWN_STATE, tableMap, executors,
                                             siddhiAppContext, false, 0, queryName),
                                     rangePartitionProperty.getPartitionKey()));
+                        }
+                    }
+                }
+            }
+        }
+    }
 
+    /**
+     * Create an executor resolving range keys by binary search, when each range is a comparison or a conjunction of
+     * two comparisons of the same numeric attribute against constants and the ranges do not overlap.
+     *
+     * @return the executor, or null if the ranges should be resolved by evaluating their conditions
+     */
+    private SortedRangePartitionExecutor createSortedRangePartitionExecutor(
+            RangePartitionType rangePartitionType, MetaStreamEvent metaEvent, List<VariableExpressionExecutor>
+            executors, Map<String, Table> tableMap, SiddhiAppContext siddhiAppContext, String queryName) {
+        Variable variable = null;
+        List<Compare> compares = new ArrayList<Compare>();
+        List<String> keys = new ArrayList<String>();
+        for (RangePartitionType.RangePartitionProperty rangePartitionProperty :
+                rangePartitionType.getRangePartitionProperties()) {
+            Expression condition = rangePartitionProperty.getCondition();
+            Expression[] conditionCompares;
+            if (condition instanceof And) {
+                conditionCompares = new Expression[]{((And) condition).getLeftExpression(),
+                        ((And) condition).getRightExpression()};
+            } else {
+                conditionCompares = new Expression[]{condition, null};
+            }
+            for (Expression conditionCompare : conditionCompares) {
+                if (conditionCompare == null) {
+                    compares.add(null);
+                    continue;
+                }
+                if (!(conditionCompare instanceof Compare)) {
+                    return null;
+                }
+                Compare compare = (Compare) conditionCompare;
+                Variable compareVariable = compare.getLeftExpression() instanceof Variable ?
+                        (Variable) compare.getLeftExpression() : compare.getRightExpression() instanceof Variable ?
+                        (Variable) compare.getRightExpression() : null;
+                if (compareVariable == null || compareVariable.getStreamIndex() != null ||
+                        compareVariable.getFunctionId() != null || (compareVariable.getStreamId() != null &&
+                        !compareVariable.getStreamId().equals(rangePartitionType.getStreamId()))) {
+                    return null;
+                }
+                if (variable == null) {
+                    variable = compareVariable;
+                } else if (!variable.getAttributeName().equals(compareVariable.getAttributeName())) {
+                    return null;
+                }
+                compares.add(compare);
+            }
+            keys.add(rangePartitionProperty.getPartitionKey());
+        }
+        Attribute.Type type;
+        try {
+            type = metaEvent.getLastInputDefinition().getAttributeType(variable.getAttributeName());
+        } catch (AttributeNotExistException e) {
+            return null;
+        }
+        if (type != Attribute.Type.INT && type != Attribute.Type.LONG && type != Attribute.Type.FLOAT &&
+                type != Attribute.Type.DOUBLE) {
+            return null;
+        }
+        boolean integral = type == Attribute.Type.INT || type == Attribute.Type.LONG;
+        List<SortedRangePartitionExecutor.Range> ranges = new ArrayList<SortedRangePartitionExecutor.Range>();
+        for (int i = 0; i < keys.size(); i++) {
+            Number lower = null;
+            boolean lowerInclusive = false;
+            Number upper = null;
+            boolean upperInclusive = false;
+            for (int j = 2 * i; j < 2 * i + 2; j++) {
+                Compare compare = compares.get(j);
+                if (compare == null) {
+                    continue;
+                }
+                boolean variableOnLeft = compare.getLeftExpression() instanceof Variable;
+                Number bound = toBound(variableOnLeft ? compare.getRightExpression() : compare.getLeftExpression(),
+                        type);
+                if (bound == null) {
+                    return null;
+                }
+                Compare.Operator operator = compare.getOperator();
+                boolean isLowerBound;
+                boolean inclusive;
+                switch (operator) {
+                    case GREATER_THAN:
+                    case GREATER_THAN_EQUAL:
+                        isLowerBound = variableOnLeft;
+                        inclusive = operator == Compare.Operator.GREATER_THAN_EQUAL;
+                        break;
+                    case LESS_THAN:
+                    case LESS_THAN_EQUAL:
+                        isLowerBound = !variableOnLeft;
+                        inclusive = operator == Compare.Operator.LESS_THAN_EQUAL;
+                        break;
+                    case EQUAL:
+                        if (lower != null || upper != null) {
+                            return null;
                         }
+                        lower = bound;
+                        lowerInclusive = true;
+                        upper = bound;
+                        upperInclusive = true;
+                        continue;
+                    default:
+                        return null;
+                }
+                if (isLowerBound) {
+                    if (lower != null) {
+                        return null;
+                    }
+                    lower = bound;
+                    lowerInclusive = inclusive;
+                } else {
+                    if (upper != null) {
+                        return null;
                     }
+                    upper = bound;
+                    upperInclusive = inclusive;
                 }
             }
+            ranges.add(new SortedRangePartitionExecutor.Range(lower, lowerInclusive, upper, upperInclusive,
+                    keys.get(i)));
+        }
+        int executorCount = executors.size();
+        SortedRangePartitionExecutor sortedRangePartitionExecutor = new SortedRangePartitionExecutor(
+                ExpressionParser.parseExpression(variable, metaEvent, SiddhiConstants.UNKNOWN_STATE, tableMap,
+                        executors, siddhiAppContext, false, 0, queryName), integral, ranges);
+        if (!sortedRangePartitionExecutor.isDisjoint()) {
+            executors.subList(executorCount, executors.size()).clear();
+            return null;
+        }
+        return sortedRangePartitionExecutor;
+    }
+
+    /**
+     * Convert a constant to a bound comparable with values of the given attribute type, following the numeric
+     * promotion of compare conditions.
+     */
+    private Number toBound(Expression expression, Attribute.Type type) {
+        if (!(expression instanceof IntConstant || expression instanceof LongConstant ||
+                expression instanceof FloatConstant || expression instanceof DoubleConstant)) {
+            return null;
+        }
+        Number value;
+        if (expression instanceof IntConstant) {
+            value = ((IntConstant) expression).getValue();
+        } else if (expression instanceof LongConstant) {
+            value = ((LongConstant) expression).getValue();
+        } else if (expression instanceof FloatConstant) {
+            value = ((FloatConstant) expression).getValue();
+        } else {
+            value = ((DoubleConstant) expression).getValue();
+        }
+        switch (type) {
+            case INT:
+            case LONG:
+                if (expression instanceof FloatConstant || expression instanceof DoubleConstant) {
+                    return null;
+                }
+                return value.longValue();
+            case FLOAT:
+                if (expression instanceof DoubleConstant) {
+                    return value.doubleValue();
+                }
+                return (double) value.floatValue();
+            default:
+                return value.doubleValue();
         }
     }
 
@@ -24,6 +24,13 @@ import org.wso2.siddhi.core.event.ComplexEvent;
  */
 public interface PartitionExecutor {
 
-    String execute(ComplexEvent event);
+    /**
+     * Calculate the partition key of the event. Keys are returned as typed objects, such as the value of the
+     * partitioning attribute, and their string form identifies the partition instance.
+     *
+     * @param event event to be partitioned
+     * @return partition key, or null if the event does not belong to any partition
+     */
+    Object execute(ComplexEvent event);
 
 }
@@ -35,7 +35,7 @@ public class RangePartitionExecutor implements PartitionExecutor {
         this.key = key;
     }
 
-    public String execute(ComplexEvent event) {
+    public Object execute(ComplexEvent event) {
         if (conditionExecutor.execute(event)) {
             return key;
         }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition.executor;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Range partition executor resolving the range key of a {@link ComplexEvent} by binary search, used in place of
+ * {@link RangePartitionExecutor}s when all the ranges of a stream are disjoint intervals of the same numeric
+ * attribute. The attribute is evaluated once per event instead of evaluating the condition of every range.
+ */
+public class SortedRangePartitionExecutor implements PartitionExecutor {
+
+    private final ExpressionExecutor valueExecutor;
+    private final boolean integral;
+    private final Range[] ranges;
+
+    /**
+     * @param valueExecutor executor of the partitioning attribute
+     * @param integral      whether the attribute and bounds are compared as long values, otherwise they are compared
+     *                      as double values
+     * @param ranges        ranges of the partition, with bounds of type Long when integral and Double otherwise
+     */
+    public SortedRangePartitionExecutor(ExpressionExecutor valueExecutor, boolean integral, List<Range> ranges) {
+        this.valueExecutor = valueExecutor;
+        this.integral = integral;
+        List<Range> sortedRanges = new ArrayList<Range>(ranges);
+        Collections.sort(sortedRanges, new Comparator<Range>() {
+            @Override
+            public int compare(Range range1, Range range2) {
+                if (range1.lower == null || range2.lower == null) {
+                    return range1.lower == null ? (range2.lower == null ? 0 : -1) : 1;
+                }
+                int result = compareValues(range1.lower, range2.lower);
+                if (result == 0 && range1.lowerInclusive != range2.lowerInclusive) {
+                    return range1.lowerInclusive ? -1 : 1;
+                }
+                return result;
+            }
+        });
+        this.ranges = sortedRanges.toArray(new Range[sortedRanges.size()]);
+    }
+
+    /**
+     * @return true if no value falls within more than one range, which is required for the executor to resolve the
+     * same keys as evaluating the condition of each range
+     */
+    public boolean isDisjoint() {
+        for (int i = 1; i < ranges.length; i++) {
+            Range previous = ranges[i - 1];
+            Range current = ranges[i];
+            if (previous.upper == null || current.lower == null) {
+                return false;
+            }
+            int result = compareValues(previous.upper, current.lower);
+            if (result > 0 || (result == 0 && previous.upperInclusive && current.lowerInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Object execute(ComplexEvent event) {
+        Object value = valueExecutor.execute(event);
+        if (value == null || (!integral && Double.isNaN(((Number) value).doubleValue()))) {
+            return null;
+        }
+        Number number = (Number) value;
+        // Find the last range whose lower bound admits the value.
+        int low = 0;
+        int high = ranges.length - 1;
+        int index = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (isAboveLower(number, ranges[mid])) {
+                index = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (index < 0) {
+            return null;
+        }
+        Range range = ranges[index];
+        if (range.upper != null) {
+            int result = compareValues(number, range.upper);
+            if (result > 0 || (result == 0 && !range.upperInclusive)) {
+                return null;
+            }
+        }
+        return range.key;
+    }
+
+    private boolean isAboveLower(Number value, Range range) {
+        if (range.lower == null) {
+            return true;
+        }
+        int result = compareValues(value, range.lower);
+        return result > 0 || (result == 0 && range.lowerInclusive);
+    }
+
+    private int compareValues(Number value1, Number value2) {
+        if (integral) {
+            return Long.compare(value1.longValue(), value2.longValue());
+        }
+        double double1 = value1.doubleValue();
+        double double2 = value2.doubleValue();
+        return double1 < double2 ? -1 : (double1 > double2 ? 1 : 0);
+    }
+
+    /**
+     * Interval of a range partition, a null bound denotes an unbounded side.
+     */
+    public static class Range {
+        private final Number lower;
+        private final boolean lowerInclusive;
+        private final Number upper;
+        private final boolean upperInclusive;
+        private final String key;
+
+        public Range(Number lower, boolean lowerInclusive, Number upper, boolean upperInclusive, String key) {
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+            this.key = key;
+        }
+    }
+}
@@ -31,9 +31,9 @@ public class ValuePartitionExecutor implements PartitionExecutor {
         this.expressionExecutor = expressionExecutor;
     }
 
-    public String execute(ComplexEvent event) {
+    public Object execute(ComplexEvent event) {
         try {
-            return expressionExecutor.execute(event).toString();
+            return expressionExecutor.execute(event);
         } catch (NullPointerException ex) {
             return null;
         }
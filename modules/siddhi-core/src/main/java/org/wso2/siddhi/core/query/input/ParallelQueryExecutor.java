@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.input;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.MetaComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.util.WorkerPool;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Executes a stateless query on a fixed set of worker threads, enabled with {@code @parallel(workers='N')}.
+ * Each worker runs its own clone of the query's processor chain and selector. Event chunks received by the query's
+ * {@link ProcessStreamReceiver} are handed to the workers, and their output is passed on to the query's
+ * {@link OutputRateLimiter} in order.
+ * <p>
+ * Without a key, chunks are distributed round robin and tagged with a sequence number, and the output of each chunk
+ * is released only after the output of all the chunks before it, preserving the order of the stream. With
+ * {@code key='attribute'}, events are routed to workers by the hash of the key, preserving the order per key.
+ * <p>
+ * The workers are run by a {@link WorkerPool}, hence snapshots are taken only after the workers processed the chunks
+ * handed to them, and chunks still queued when the executor is stopped are dropped.
+ */
+public class ParallelQueryExecutor implements EternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(ParallelQueryExecutor.class);
+    private final String queryName;
+    private final SiddhiAppContext siddhiAppContext;
+    private final ExpressionExecutor keyExecutor;
+    private final OutputRateLimiter outputRateLimiter;
+    private final Processor[] processorChains;
+    private final OutputCollector[] outputCollectors;
+    private final WorkerPool<Task> workerPool;
+    private final ComplexEventChunk[] pendingOutputs;
+    private final boolean[] completed;
+    private final int pendingOutputMask;
+    private long dispatchSequence = 0;
+    private long emitSequence = 0;
+
+    public ParallelQueryExecutor(String queryName, int workerCount, int bufferSize, ExpressionExecutor keyExecutor,
+                                 SingleStreamRuntime streamRuntime, QuerySelector selector,
+                                 OutputRateLimiter outputRateLimiter, MetaComplexEvent metaComplexEvent,
+                                 SiddhiAppContext siddhiAppContext) {
+        this.queryName = queryName;
+        this.siddhiAppContext = siddhiAppContext;
+        this.keyExecutor = keyExecutor;
+        this.outputRateLimiter = outputRateLimiter;
+        this.processorChains = new Processor[workerCount];
+        this.outputCollectors = new OutputCollector[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            String key = "-worker-" + i;
+            OutputCollector outputCollector = new OutputCollector();
+            SingleStreamRuntime workerStreamRuntime = (SingleStreamRuntime) streamRuntime.clone(key);
+            QuerySelector workerSelector = selector.clone(key);
+            workerSelector.setNextProcessor(outputCollector);
+            workerStreamRuntime.setCommonProcessor(workerSelector);
+            QueryParserHelper.initStreamRuntime(workerStreamRuntime, metaComplexEvent, null, queryName);
+            Processor processorChain = workerStreamRuntime.getProcessorChain();
+            processorChains[i] = processorChain != null ? processorChain : workerSelector;
+            outputCollectors[i] = outputCollector;
+        }
+        this.workerPool = new WorkerPool<Task>("query '" + queryName + "'", workerCount, bufferSize,
+                this::process, siddhiAppContext);
+        // A chunk can only be completed ahead of the next chunk to emit while that chunk is queued or being
+        // processed, which bounds the number of pending outputs by the capacity of all workers.
+        int pendingOutputCapacity = Integer.highestOneBit(workerCount * (bufferSize + 2) - 1) << 1;
+        this.pendingOutputs = new ComplexEventChunk[pendingOutputCapacity];
+        this.completed = new boolean[pendingOutputCapacity];
+        this.pendingOutputMask = pendingOutputCapacity - 1;
+    }
+
+    /**
+     * Hand over an event chunk to the workers, the chunk should not be used by the caller afterwards.
+     *
+     * @param streamEventChunk events to be processed by the query
+     */
+    public void execute(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        if (streamEventChunk.getFirst() == null) {
+            return;
+        }
+        if (keyExecutor == null) {
+            synchronized (this) {
+                long sequence = dispatchSequence++;
+                workerPool.send((int) (sequence % processorChains.length), new Task(sequence, streamEventChunk));
+            }
+        } else {
+            StreamEvent streamEvent = streamEventChunk.getFirst();
+            if (streamEvent.getNext() == null) {
+                workerPool.send(workerPool.workerIndex(keyExecutor.execute(streamEvent)),
+                        new Task(-1, streamEventChunk));
+                return;
+            }
+            ComplexEventChunk<StreamEvent>[] workerChunks = new ComplexEventChunk[processorChains.length];
+            while ((streamEvent = streamEventChunk.poll()) != null) {
+                int workerIndex = workerPool.workerIndex(keyExecutor.execute(streamEvent));
+                if (workerChunks[workerIndex] == null) {
+                    workerChunks[workerIndex] = new ComplexEventChunk<StreamEvent>(streamEventChunk.isBatch());
+                }
+                workerChunks[workerIndex].add(streamEvent);
+            }
+            for (int i = 0; i < workerChunks.length; i++) {
+                if (workerChunks[i] != null) {
+                    workerPool.send(i, new Task(-1, workerChunks[i]));
+                }
+            }
+        }
+    }
+
+    private void process(int workerIndex, Task task) {
+        try {
+            processorChains[workerIndex].process(task.streamEventChunk);
+        } catch (RuntimeException e) {
+            log.error("Error in processing events of query '" + queryName + "' of Siddhi App '" +
+                    siddhiAppContext.getName() + "'.", e);
+        }
+        complete(task.sequence, outputCollectors[workerIndex].poll());
+    }
+
+    private void complete(long sequence, ComplexEventChunk outputChunk) {
+        if (sequence < 0) {
+            // Keyed execution, order is preserved per key by the worker processing that key.
+            if (outputChunk != null) {
+                synchronized (this.outputRateLimiter) {
+                    outputRateLimiter.process(outputChunk);
+                }
+            }
+            return;
+        }
+        synchronized (this.outputRateLimiter) {
+            int index = (int) (sequence & pendingOutputMask);
+            pendingOutputs[index] = outputChunk;
+            completed[index] = true;
+            index = (int) (emitSequence & pendingOutputMask);
+            while (completed[index]) {
+                ComplexEventChunk pendingOutput = pendingOutputs[index];
+                pendingOutputs[index] = null;
+                completed[index] = false;
+                emitSequence++;
+                if (pendingOutput != null) {
+                    try {
+                        outputRateLimiter.process(pendingOutput);
+                    } catch (RuntimeException e) {
+                        log.error("Error in sending the output of query '" + queryName + "' of Siddhi App '" +
+                                siddhiAppContext.getName() + "'.", e);
+                    }
+                }
+                index = (int) (emitSequence & pendingOutputMask);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        synchronized (this) {
+            synchronized (this.outputRateLimiter) {
+                dispatchSequence = 0;
+                emitSequence = 0;
+                Arrays.fill(pendingOutputs, null);
+                Arrays.fill(completed, false);
+            }
+        }
+        workerPool.start();
+    }
+
+    @Override
+    public void stop() {
+        workerPool.stop();
+    }
+
+    /**
+     * Chunk of events with its dispatch sequence, the sequence is -1 for keyed execution.
+     */
+    private static class Task {
+        private final long sequence;
+        private final ComplexEventChunk<StreamEvent> streamEventChunk;
+
+        Task(long sequence, ComplexEventChunk<StreamEvent> streamEventChunk) {
+            this.sequence = sequence;
+            this.streamEventChunk = streamEventChunk;
+        }
+    }
+
+    /**
+     * Terminal of a worker's clone of the query, holds the output of the chunk processed by the worker.
+     */
+    private static class OutputCollector extends OutputRateLimiter {
+        private ComplexEventChunk outputChunk;
+
+        @Override
+        public void process(ComplexEventChunk complexEventChunk) {
+            outputChunk = complexEventChunk;
+        }
+
+        ComplexEventChunk poll() {
+            ComplexEventChunk complexEventChunk = outputChunk;
+            outputChunk = null;
+            return complexEventChunk;
+        }
+
+        @Override
+        public OutputRateLimiter clone(String key) {
+            return new OutputCollector();
+        }
+
+        @Override
+        public void start() {
+            //Nothing to start
+        }
+
+        @Override
+        public void stop() {
+            //Nothing to stop
+        }
+
+        @Override
+        public Map<String, Object> currentState() {
+            return null;
+        }
+
+        @Override
+        public void restoreState(Map<String, Object> state) {
+
+        }
+    }
+}
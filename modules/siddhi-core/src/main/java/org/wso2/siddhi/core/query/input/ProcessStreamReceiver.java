@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverterFactory;
 import org.wso2.siddhi.core.query.input.stream.state.PreStateProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
@@ -50,7 +51,10 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     protected LockWrapper lockWrapper;
     protected ComplexEventChunk<StreamEvent> batchingStreamEventChunk = new ComplexEventChunk<StreamEvent>(false);
     protected boolean batchProcessingAllowed;
+    protected boolean stateless;
+    protected boolean confinable;
     protected SiddhiAppContext siddhiAppContext;
+    protected ParallelQueryExecutor parallelQueryExecutor;
     private StreamEventConverter streamEventConverter;
     private MetaStreamEvent metaStreamEvent;
     private StreamEventPool streamEventPool;
@@ -74,9 +78,46 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(
                 streamId + key, latencyTracker, queryName, siddhiAppContext);
         processStreamReceiver.batchProcessingAllowed = this.batchProcessingAllowed;
+        processStreamReceiver.stateless = this.stateless;
         return processStreamReceiver;
     }
 
+    /**
+     * Create a receiver feeding the same query, but with its own event pool, converter, processor chain and selector,
+     * such that each worker consuming the events of a stateless query in parallel processes them without sharing
+     * those with others. Only the output rate limiter of the query is shared by the workers. Queries executed by a
+     * {@link ParallelQueryExecutor} keep handing their events over to its workers.
+     *
+     * @param key suffix of the cloned processors, unique per worker
+     * @return receiver to be used by a single worker thread
+     */
+    public ProcessStreamReceiver cloneForWorker(String key) {
+        ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(
+                streamId, latencyTracker, queryName, siddhiAppContext);
+        processStreamReceiver.batchProcessingAllowed = this.batchProcessingAllowed;
+        processStreamReceiver.stateless = this.stateless;
+        processStreamReceiver.next = parallelQueryExecutor == null ? cloneProcessorChain(next, key) : next;
+        processStreamReceiver.lockWrapper = this.lockWrapper;
+        processStreamReceiver.parallelQueryExecutor = this.parallelQueryExecutor;
+        processStreamReceiver.siddhiDebugger = this.siddhiDebugger;
+        processStreamReceiver.metaStreamEvent = this.metaStreamEvent;
+        processStreamReceiver.streamEventPool = new StreamEventPool(metaStreamEvent, streamEventPool.getSize());
+        processStreamReceiver.init();
+        return processStreamReceiver;
+    }
+
+    private static Processor cloneProcessorChain(Processor processor, String key) {
+        if (processor instanceof QuerySelector) {
+            QuerySelector querySelector = (QuerySelector) processor;
+            QuerySelector clonedQuerySelector = querySelector.clone(key);
+            clonedQuerySelector.setNextProcessor(querySelector.getOutputRateLimiter());
+            return clonedQuerySelector;
+        }
+        Processor clonedProcessor = processor.cloneProcessor(key);
+        clonedProcessor.setNextProcessor(cloneProcessorChain(processor.getNextProcessor(), key));
+        return clonedProcessor;
+    }
+
     public void setSiddhiDebugger(SiddhiDebugger siddhiDebugger) {
         this.siddhiDebugger = siddhiDebugger;
     }
@@ -184,6 +225,10 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     }
 
     protected void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        if (parallelQueryExecutor != null) {
+            parallelQueryExecutor.execute(streamEventChunk);
+            return;
+        }
         next.process(streamEventChunk);
         streamEventChunk.clear();
     }
@@ -201,6 +246,27 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.batchProcessingAllowed = batchProcessingAllowed;
     }
 
+    /**
+     * @return true if the events received can be processed concurrently and in any order, as the query neither
+     * keeps state across events nor requires synchronisation.
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public void setStateless(boolean stateless) {
+        this.stateless = stateless;
+    }
+
+    /**
+     * Hand over the received events to the given executor instead of processing them on the receiving thread.
+     *
+     * @param parallelQueryExecutor executor of the query's worker threads
+     */
+    public void setParallelQueryExecutor(ParallelQueryExecutor parallelQueryExecutor) {
+        this.parallelQueryExecutor = parallelQueryExecutor;
+    }
+
     public void setNext(Processor next) {
         this.next = next;
     }
@@ -209,10 +275,26 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.streamEventPool = streamEventPool;
     }
 
+    public LockWrapper getLockWrapper() {
+        return lockWrapper;
+    }
+
     public void setLockWrapper(LockWrapper lockWrapper) {
         this.lockWrapper = lockWrapper;
     }
 
+    /**
+     * @return true if the lock of the query is owned by the query alone, such that the query can be confined to the
+     * thread consuming its events instead of acquiring the lock, when it is only fed by a single thread.
+     */
+    public boolean isConfinable() {
+        return confinable;
+    }
+
+    public void setConfinable(boolean confinable) {
+        this.confinable = confinable;
+    }
+
     public void init() {
         streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
     }
@@ -17,24 +17,40 @@
  */
 package org.wso2.siddhi.core.query.processor.filter;
 
+import org.wso2.siddhi.core.event.ColumnarEventBatch;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.CompiledConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.VectorizedConditionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.util.parser.VectorizedConditionParser;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
- * Implementation of {@link Processor} which handles Filter expressions in Siddhi.
+ * Implementation of {@link Processor} which handles Filter expressions in Siddhi. Events are evaluated through the
+ * compiled form of the condition when expressions of the Siddhi app are compiled. Otherwise, when conditions of the
+ * Siddhi app are vectorized, chunks of more than one event are filtered through a {@link ColumnarEventBatch}, whose
+ * column buffers are reused across chunks.
  */
 public class FilterProcessor implements Processor {
 
     protected Processor next;
     private ExpressionExecutor conditionExecutor;
+    private ConditionExpressionExecutor booleanConditionExecutor;
+    private VectorizedConditionExecutor vectorizedConditionExecutor;
+    private CompiledConditionExpressionExecutor compiledConditionExecutor;
+    private ColumnarEventBatch batch;
+    private boolean[] selection = new boolean[0];
 
     public FilterProcessor(ExpressionExecutor conditionExecutor) {
         if (Attribute.Type.BOOL.equals(conditionExecutor.getReturnType())) {
             this.conditionExecutor = conditionExecutor;
+            if (conditionExecutor instanceof ConditionExpressionExecutor) {
+                this.booleanConditionExecutor = (ConditionExpressionExecutor) conditionExecutor;
+            }
         } else {
             throw new OperationNotSupportedException("Return type of " + conditionExecutor.toString() + " should be " +
                     "of type BOOL. " +
@@ -43,17 +59,68 @@ public class FilterProcessor implements Processor {
     }
 
     public FilterProcessor cloneProcessor(String key) {
-        return new FilterProcessor(conditionExecutor.cloneExecutor(key));
+        FilterProcessor filterProcessor;
+        if (compiledConditionExecutor != null) {
+            CompiledConditionExpressionExecutor clonedConditionExecutor = (CompiledConditionExpressionExecutor)
+                    compiledConditionExecutor.cloneExecutor(key);
+            filterProcessor = new FilterProcessor(clonedConditionExecutor.getConditionExecutor());
+            filterProcessor.setCompiledConditionExecutor(clonedConditionExecutor);
+        } else {
+            filterProcessor = new FilterProcessor(conditionExecutor.cloneExecutor(key));
+        }
+        if (vectorizedConditionExecutor != null) {
+            filterProcessor.setVectorizedConditionExecutor(VectorizedConditionParser.parse(
+                    filterProcessor.getConditionExecutor()));
+        }
+        return filterProcessor;
+    }
+
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
+    /**
+     * Evaluate single events through the compiled form of the condition.
+     *
+     * @param compiledConditionExecutor condition compiled from the condition executor of this processor
+     */
+    public void setCompiledConditionExecutor(CompiledConditionExpressionExecutor compiledConditionExecutor) {
+        this.compiledConditionExecutor = compiledConditionExecutor;
+        this.booleanConditionExecutor = compiledConditionExecutor;
+    }
+
+    /**
+     * Filter chunks of more than one event through the vectorized form of the condition, unless the condition is
+     * compiled.
+     *
+     * @param vectorizedConditionExecutor condition vectorized from the condition executor of this processor, or null
+     *                                    if the condition cannot be vectorized
+     */
+    public void setVectorizedConditionExecutor(VectorizedConditionExecutor vectorizedConditionExecutor) {
+        this.vectorizedConditionExecutor = vectorizedConditionExecutor;
     }
 
     @Override
     public void process(ComplexEventChunk complexEventChunk) {
-        complexEventChunk.reset();
-        while (complexEventChunk.hasNext()) {
-            ComplexEvent complexEvent = complexEventChunk.next();
-            Object result = conditionExecutor.execute(complexEvent);
-            if (result == null || !(Boolean) result) {
-                complexEventChunk.remove();
+        ComplexEvent first = complexEventChunk.getFirst();
+        if (compiledConditionExecutor == null && vectorizedConditionExecutor != null && first != null &&
+                first.getNext() != null) {
+            processVectorized(complexEventChunk);
+        } else if (booleanConditionExecutor != null) {
+            complexEventChunk.reset();
+            while (complexEventChunk.hasNext()) {
+                if (!booleanConditionExecutor.executeBoolean(complexEventChunk.next())) {
+                    complexEventChunk.remove();
+                }
+            }
+        } else {
+            complexEventChunk.reset();
+            while (complexEventChunk.hasNext()) {
+                ComplexEvent complexEvent = complexEventChunk.next();
+                Object result = conditionExecutor.execute(complexEvent);
+                if (result == null || !(Boolean) result) {
+                    complexEventChunk.remove();
+                }
             }
         }
         if (complexEventChunk.getFirst() != null) {
@@ -61,6 +128,26 @@ public class FilterProcessor implements Processor {
         }
     }
 
+    private void processVectorized(ComplexEventChunk complexEventChunk) {
+        if (batch == null) {
+            batch = new ColumnarEventBatch();
+        }
+        batch.reset(complexEventChunk);
+        int size = batch.size();
+        if (selection.length < size) {
+            selection = new boolean[size];
+        }
+        vectorizedConditionExecutor.execute(batch, selection);
+        batch.clear();
+        complexEventChunk.reset();
+        for (int i = 0; i < size; i++) {
+            complexEventChunk.next();
+            if (!selection[i]) {
+                complexEventChunk.remove();
+            }
+        }
+    }
+
     @Override
     public Processor getNextProcessor() {
         return next;
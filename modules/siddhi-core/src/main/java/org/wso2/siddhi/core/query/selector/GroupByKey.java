@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import org.wso2.siddhi.core.util.SiddhiConstants;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Composite key of a GroupBy group, holding the values of the group by attributes. The hash code is computed once
+ * and cached, as keys are looked up by each aggregator and output rate limiter of the query.
+ */
+public final class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = -2153423734811357042L;
+    static final GroupByKey NULL_KEY = new GroupByKey(new Object[]{null});
+    private final Object[] values;
+    private transient int hash;
+
+    public GroupByKey(Object[] values) {
+        this.values = values;
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GroupByKey that = (GroupByKey) o;
+        return hashCode() == that.hashCode() && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Arrays.hashCode(values);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+        }
+        return sb.toString();
+    }
+}
@@ -20,10 +20,8 @@ package org.wso2.siddhi.core.query.selector;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
-import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
-import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
 import org.wso2.siddhi.query.api.expression.Variable;
 
@@ -53,18 +51,23 @@ public class GroupByKeyGenerator {
     }
 
     /**
-     * generate groupBy key of a streamEvent
+     * generate groupBy key of a streamEvent. When grouped by a single attribute the attribute value itself is the
+     * key, otherwise a {@link GroupByKey} of the attribute values.
      *
      * @param event complexEvent
      * @return GroupByKey
      */
-    public String constructEventKey(ComplexEvent event) {
+    public Object constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append(SiddhiConstants.KEY_DELIMITER);
+            if (groupByExecutors.length == 1) {
+                Object value = groupByExecutors[0].execute(event);
+                return value != null ? value : GroupByKey.NULL_KEY;
             }
-            return sb.toString();
+            Object[] values = new Object[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                values[i] = groupByExecutors[i].execute(event);
+            }
+            return new GroupByKey(values);
         } else {
             return null;
         }
@@ -29,7 +29,8 @@ import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
-import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.CompiledAttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationState;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 
@@ -52,15 +53,18 @@ public class QuerySelector implements Processor {
     private boolean containsAggregator = false;
     private OutputRateLimiter outputRateLimiter;
     private List<AttributeProcessor> attributeProcessorList;
+    private CompiledAttributeProcessor compiledAttributeProcessor;
     private ConditionExpressionExecutor havingConditionExecutor = null;
     private boolean isGroupBy = false;
     private GroupByKeyGenerator groupByKeyGenerator;
+    private GroupByAggregationState groupByAggregationState;
     private boolean isOrderBy = false;
     private OrderByEventComparator orderByEventComparator;
     private String id;
     private StateEventPopulator eventPopulator;
     private boolean batchingEnabled = true;
     private long limit = SiddhiConstants.UNKNOWN_STATE;
+    private boolean confined = false;
 
     public QuerySelector(String id, Selector selector, boolean currentOn, boolean expiredOn, SiddhiAppContext
             siddhiAppContext) {
@@ -123,32 +127,11 @@ public class QuerySelector implements Processor {
 
     private ComplexEventChunk processNoGroupBy(ComplexEventChunk complexEventChunk) {
         complexEventChunk.reset();
-        synchronized (this) {
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        if (((event.getType() != StreamEvent.Type.CURRENT || !currentOn) && (event.getType() !=
-                                StreamEvent.Type.EXPIRED || !expiredOn)) || ((havingConditionExecutor != null &&
-                                !havingConditionExecutor.execute(event)))) {
-                            complexEventChunk.remove();
-                        }
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                    case TIMER:
-                        complexEventChunk.remove();
-                        break;
-                }
+        if (confined) {
+            selectEvents(complexEventChunk);
+        } else {
+            synchronized (this) {
+                selectEvents(complexEventChunk);
             }
         }
         if (isOrderBy) {
@@ -169,45 +152,11 @@ public class QuerySelector implements Processor {
         ComplexEventChunk<ComplexEvent> currentComplexEventChunk = new ComplexEventChunk<ComplexEvent>
                 (complexEventChunk.isBatch());
 
-        synchronized (this) {
-            int limitCount = 0;
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        String groupedByKey = groupByKeyGenerator.constructEventKey(event);
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
-
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
-                                StreamEvent.Type.EXPIRED && expiredOn)) {
-                            if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
-                                complexEventChunk.remove();
-                                if (limit == SiddhiConstants.UNKNOWN_STATE) {
-                                    currentComplexEventChunk.add(new GroupedComplexEvent(groupedByKey, event));
-                                } else {
-                                    if (limitCount < limit) {
-                                        currentComplexEventChunk.add(new GroupedComplexEvent(groupedByKey, event));
-                                        limitCount++;
-                                    }
-                                }
-                            }
-                        }
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
-                        break;
-                    case TIMER:
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                }
+        if (confined) {
+            selectGroupedEvents(complexEventChunk, currentComplexEventChunk);
+        } else {
+            synchronized (this) {
+                selectGroupedEvents(complexEventChunk, currentComplexEventChunk);
             }
         }
         if (isOrderBy) {
@@ -227,32 +176,11 @@ public class QuerySelector implements Processor {
         complexEventChunk.reset();
         ComplexEvent lastEvent = null;
 
-        synchronized (this) {
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
-                            if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
-                                    StreamEvent.Type.EXPIRED && expiredOn)) {
-                                complexEventChunk.remove();
-                                lastEvent = event;
-                            }
-                        }
-                        break;
-                    case TIMER:
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                }
+        if (confined) {
+            lastEvent = selectLastEvent(complexEventChunk);
+        } else {
+            synchronized (this) {
+                lastEvent = selectLastEvent(complexEventChunk);
             }
         }
 
@@ -267,47 +195,20 @@ public class QuerySelector implements Processor {
     }
 
     private ComplexEventChunk processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<Object, ComplexEvent> groupedEvents = new LinkedHashMap<Object, ComplexEvent>();
         complexEventChunk.reset();
 
-        synchronized (this) {
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupByKey);
-
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-
-                        if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
-                            if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
-                                    StreamEvent.Type.EXPIRED && expiredOn)) {
-                                complexEventChunk.remove();
-                                groupedEvents.put(groupByKey, event);
-                            }
-                        }
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
-                        break;
-                    case TIMER:
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                }
+        if (confined) {
+            selectLastGroupedEvents(complexEventChunk, groupedEvents);
+        } else {
+            synchronized (this) {
+                selectLastGroupedEvents(complexEventChunk, groupedEvents);
             }
         }
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<Object, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(),
                         groupedEventEntry.getValue()));
             }
@@ -323,6 +224,141 @@ public class QuerySelector implements Processor {
         return null;
     }
 
+    private void selectEvents(ComplexEventChunk complexEventChunk) {
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    processAttributes(event);
+                    if (((event.getType() != StreamEvent.Type.CURRENT || !currentOn) && (event.getType() !=
+                            StreamEvent.Type.EXPIRED || !expiredOn)) || ((havingConditionExecutor != null &&
+                            !havingConditionExecutor.execute(event)))) {
+                        complexEventChunk.remove();
+                    }
+                    break;
+                case RESET:
+                    processAttributes(event);
+                    break;
+                case TIMER:
+                    complexEventChunk.remove();
+                    break;
+            }
+        }
+    }
+
+    private void selectGroupedEvents(ComplexEventChunk complexEventChunk,
+                                     ComplexEventChunk<ComplexEvent> currentComplexEventChunk) {
+        int limitCount = 0;
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    Object groupedByKey = groupByKeyGenerator.constructEventKey(event);
+                    if (groupByAggregationState != null) {
+                        groupByAggregationState.setCurrentGroup(groupedByKey);
+                    }
+
+                    processAttributes(event);
+                    if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
+                            StreamEvent.Type.EXPIRED && expiredOn)) {
+                        if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
+                            complexEventChunk.remove();
+                            if (limit == SiddhiConstants.UNKNOWN_STATE) {
+                                currentComplexEventChunk.add(new GroupedComplexEvent(groupedByKey, event));
+                            } else {
+                                if (limitCount < limit) {
+                                    currentComplexEventChunk.add(new GroupedComplexEvent(groupedByKey, event));
+                                    limitCount++;
+                                }
+                            }
+                        }
+                    }
+                    break;
+                case TIMER:
+                    break;
+                case RESET:
+                    processAttributes(event);
+                    break;
+            }
+        }
+    }
+
+    private ComplexEvent selectLastEvent(ComplexEventChunk complexEventChunk) {
+        ComplexEvent lastEvent = null;
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    processAttributes(event);
+                    if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
+                        if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
+                                StreamEvent.Type.EXPIRED && expiredOn)) {
+                            complexEventChunk.remove();
+                            lastEvent = event;
+                        }
+                    }
+                    break;
+                case TIMER:
+                    break;
+                case RESET:
+                    processAttributes(event);
+                    break;
+            }
+        }
+        return lastEvent;
+    }
+
+    private void selectLastGroupedEvents(ComplexEventChunk complexEventChunk,
+                                         Map<Object, ComplexEvent> groupedEvents) {
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    Object groupByKey = groupByKeyGenerator.constructEventKey(event);
+                    if (groupByAggregationState != null) {
+                        groupByAggregationState.setCurrentGroup(groupByKey);
+                    }
+
+                    processAttributes(event);
+
+                    if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
+                        if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
+                                StreamEvent.Type.EXPIRED && expiredOn)) {
+                            complexEventChunk.remove();
+                            groupedEvents.put(groupByKey, event);
+                        }
+                    }
+                    break;
+                case TIMER:
+                    break;
+                case RESET:
+                    processAttributes(event);
+                    break;
+            }
+        }
+    }
+
+    private void processAttributes(ComplexEvent event) {
+        if (compiledAttributeProcessor != null) {
+            compiledAttributeProcessor.process(event);
+        } else {
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                attributeProcessor.process(event);
+            }
+        }
+    }
+
     @Override
     public Processor getNextProcessor() {
         return null;    //since there is no processors after a query selector
@@ -333,6 +369,10 @@ public class QuerySelector implements Processor {
         //this method will not be used as there is no processors after a query selector
     }
 
+    public OutputRateLimiter getOutputRateLimiter() {
+        return outputRateLimiter;
+    }
+
     public void setNextProcessor(OutputRateLimiter outputRateLimiter) {
         if (this.outputRateLimiter == null) {
             this.outputRateLimiter = outputRateLimiter;
@@ -355,6 +395,10 @@ public class QuerySelector implements Processor {
         return null;
     }
 
+    public boolean containsAggregator() {
+        return containsAggregator;
+    }
+
     public List<AttributeProcessor> getAttributeProcessorList() {
         return attributeProcessorList;
     }
@@ -364,11 +408,24 @@ public class QuerySelector implements Processor {
         this.containsAggregator = this.containsAggregator || containsAggregator;
     }
 
+    /**
+     * Process the select list through the given compiled processor instead of the attribute processors.
+     *
+     * @param compiledAttributeProcessor processor compiled from the attribute processors of this selector
+     */
+    public void setCompiledAttributeProcessor(CompiledAttributeProcessor compiledAttributeProcessor) {
+        this.compiledAttributeProcessor = compiledAttributeProcessor;
+    }
+
     public void setGroupByKeyGenerator(GroupByKeyGenerator groupByKeyGenerator) {
         isGroupBy = true;
         this.groupByKeyGenerator = groupByKeyGenerator;
     }
 
+    public void setGroupByAggregationState(GroupByAggregationState groupByAggregationState) {
+        this.groupByAggregationState = groupByAggregationState;
+    }
+
     public void setOrderByEventComparator(OrderByEventComparator orderByEventComparator) {
         isOrderBy = true;
         this.orderByEventComparator = orderByEventComparator;
@@ -384,10 +441,23 @@ public class QuerySelector implements Processor {
         QuerySelector clonedQuerySelector = new QuerySelector(id + key, selector, currentOn, expiredOn,
                 siddhiAppContext);
         List<AttributeProcessor> clonedAttributeProcessorList = new ArrayList<AttributeProcessor>();
-        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-            clonedAttributeProcessorList.add(attributeProcessor.cloneProcessor(key));
+        if (groupByAggregationState != null) {
+            clonedQuerySelector.groupByAggregationState = groupByAggregationState.startCloning();
+        }
+        try {
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                clonedAttributeProcessorList.add(attributeProcessor.cloneProcessor(key));
+            }
+        } finally {
+            if (groupByAggregationState != null) {
+                groupByAggregationState.endCloning();
+            }
         }
         clonedQuerySelector.attributeProcessorList = clonedAttributeProcessorList;
+        if (compiledAttributeProcessor != null) {
+            clonedQuerySelector.compiledAttributeProcessor = compiledAttributeProcessor.cloneProcessor(
+                    clonedAttributeProcessorList);
+        }
         clonedQuerySelector.isGroupBy = isGroupBy;
         clonedQuerySelector.containsAggregator = containsAggregator;
         clonedQuerySelector.groupByKeyGenerator = groupByKeyGenerator;
@@ -400,6 +470,16 @@ public class QuerySelector implements Processor {
         return clonedQuerySelector;
     }
 
+    /**
+     * Set whether the query is confined to a single thread, in which case events are selected without
+     * synchronisation.
+     *
+     * @param confined true if the query is only processed by a single thread
+     */
+    public void setConfined(boolean confined) {
+        this.confined = confined;
+    }
+
     public void setBatchingEnabled(boolean batchingEnabled) {
         this.batchingEnabled = batchingEnabled;
     }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector.attribute.processor;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.compiler.ExpressionCompiler;
+
+import java.util.List;
+
+/**
+ * Parent class of the select list processors generated by {@link ExpressionCompiler}. Generated sub classes set all
+ * the output attributes of an event in {@link #process(ComplexEvent)}, in the order of the {@link AttributeProcessor}s
+ * they were compiled from, and delegate the expressions that could not be compiled to {@link #executors}.
+ */
+public abstract class CompiledAttributeProcessor {
+
+    protected final ExpressionExecutor[] executors;
+    private final List<AttributeProcessor> attributeProcessorList;
+
+    public CompiledAttributeProcessor(List<AttributeProcessor> attributeProcessorList,
+                                      ExpressionExecutor[] executors) {
+        this.attributeProcessorList = attributeProcessorList;
+        this.executors = executors;
+    }
+
+    public abstract void process(ComplexEvent event);
+
+    /**
+     * @param clonedAttributeProcessorList clones of the attribute processors this processor was compiled from
+     * @return processor of the same generated class for the cloned attribute processors
+     */
+    public CompiledAttributeProcessor cloneProcessor(List<AttributeProcessor> clonedAttributeProcessorList) {
+        return ExpressionCompiler.instantiateAttributeProcessor(getClass(), clonedAttributeProcessorList);
+    }
+
+    public List<AttributeProcessor> getAttributeProcessorList() {
+        return attributeProcessorList;
+    }
+}
@@ -22,79 +22,40 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
-import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
 
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * Executor class for aggregations with group by configuration.
+ * Executor class for aggregations with group by configuration. The aggregator of each group is held by the
+ * {@link GroupByAggregationState} of the selector, which resolves the group of the event before the executor is
+ * processed.
  */
 public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
 
-    private static final ThreadLocal<String> keyThreadLocal = new ThreadLocal<String>();
     private final ConfigReader configReader;
-    private final TimestampGenerator timestampGenerator;
-    protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
-    protected Set<String> obsoleteAggregatorKeys = new HashSet<>();
-    protected long lastCleanupTimestamp = 0;
+    private final GroupByAggregationState groupByAggregationState;
+    private final int index;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
                                                ExpressionExecutor[] attributeExpressionExecutors,
                                                ConfigReader configReader, SiddhiAppContext siddhiAppContext,
-                                               String queryName) {
+                                               String queryName, GroupByAggregationState groupByAggregationState) {
         super(attributeAggregator, attributeExpressionExecutors, siddhiAppContext, queryName);
         this.configReader = configReader;
-        timestampGenerator = siddhiAppContext.getTimestampGenerator();
-        lastCleanupTimestamp = timestampGenerator.currentTime();
-    }
-
-    public static ThreadLocal<String> getKeyThreadLocal() {
-        return keyThreadLocal;
+        this.groupByAggregationState = groupByAggregationState;
+        this.index = groupByAggregationState.register(this);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
-
-        long currentTime = timestampGenerator.currentTime();
-        boolean canClean = false;
-        if (lastCleanupTimestamp + 5000 < currentTime || obsoleteAggregatorKeys.size() > 25) {
-            lastCleanupTimestamp = currentTime;
-            canClean = true;
-        }
-
         if (event.getType() == ComplexEvent.Type.RESET) {
-            Object aOutput = null;
-            if (canClean) {
-                Iterator<AttributeAggregator> iterator = aggregatorMap.values().iterator();
-                if (iterator.hasNext()) {
-                    aOutput = iterator.next().process(event);
-                }
-                aggregatorMap.clear();
-                obsoleteAggregatorKeys.clear();
-            } else {
-                for (Map.Entry<String, AttributeAggregator> attributeAggregatorEntry : aggregatorMap.entrySet()) {
-                    aOutput = attributeAggregatorEntry.getValue().process(event);
-                }
-            }
-            return aOutput;
-        }
-
-        String key = keyThreadLocal.get();
-        AttributeAggregator currentAttributeAggregator = aggregatorMap.get(key);
-        if (currentAttributeAggregator == null) {
-            currentAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aggregatorMap.put(key, currentAttributeAggregator);
+            return groupByAggregationState.reset(index, event);
         }
+        AttributeAggregator currentAttributeAggregator = groupByAggregationState.getAggregator(index);
         Object results = currentAttributeAggregator.process(event);
         if (event.getType() == ComplexEvent.Type.EXPIRED && currentAttributeAggregator.canDestroy()) {
-            obsoleteAggregatorKeys.add(key);
-        }
-        if (canClean) {
-            destroyObsoleteAggregators();
+            groupByAggregationState.markObsolete();
         }
         return results;
     }
@@ -102,39 +63,18 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
     public ExpressionExecutor cloneExecutor(String key) {
         return new GroupByAggregationAttributeExecutor(attributeAggregator.cloneAggregator(key),
                 attributeExpressionExecutors, configReader, siddhiAppContext,
-                queryName);
+                queryName, groupByAggregationState.getCloningState());
     }
 
     @Override
     public Map<String, Object> currentState() {
-        HashMap<String, Map<String, Object>> data = new HashMap<>();
-        for (Map.Entry<String, AttributeAggregator> entry : aggregatorMap.entrySet()) {
-            data.put(entry.getKey(), entry.getValue().currentState());
-        }
         Map<String, Object> state = new HashMap<>();
-        state.put("Data", data);
+        state.put("Data", groupByAggregationState.currentState(index));
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        HashMap<String, Map<String, Object>> data = (HashMap<String, Map<String, Object>>) state.get("Data");
-
-        for (Map.Entry<String, Map<String, Object>> entry : data.entrySet()) {
-            String key = entry.getKey();
-            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aAttributeAggregator.restoreState(entry.getValue());
-            aggregatorMap.put(key, aAttributeAggregator);
-        }
-    }
-
-    private void destroyObsoleteAggregators() {
-        for (String obsoleteKey : obsoleteAggregatorKeys) {
-            AttributeAggregator attributeAggregator = aggregatorMap.get(obsoleteKey);
-            if (attributeAggregator != null && attributeAggregator.canDestroy()) {
-                aggregatorMap.remove(obsoleteKey);
-            }
-        }
-        obsoleteAggregatorKeys.clear();
+        groupByAggregationState.restoreState(index, (Map<Object, Map<String, Object>>) state.get("Data"));
     }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
+import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Group by aggregation state of a query selector. Holds a slot of {@link AttributeAggregator}s per group by key, with
+ * an aggregator for each {@link GroupByAggregationAttributeExecutor} of the selector. The selector resolves the slot
+ * of the key once per event through {@link #setCurrentGroup(Object)}, and its executors then process the aggregator
+ * at their own index of that slot.
+ */
+public class GroupByAggregationState {
+
+    private final TimestampGenerator timestampGenerator;
+    private final List<GroupByAggregationAttributeExecutor> executors =
+            new ArrayList<GroupByAggregationAttributeExecutor>();
+    private final Map<Object, AttributeAggregator[]> groupMap = new HashMap<Object, AttributeAggregator[]>();
+    private final Set<Object> obsoleteGroupKeys = new HashSet<Object>();
+    private long lastCleanupTimestamp;
+    private Object currentKey;
+    private AttributeAggregator[] currentGroup;
+    private GroupByAggregationState cloningState;
+
+    public GroupByAggregationState(TimestampGenerator timestampGenerator) {
+        this.timestampGenerator = timestampGenerator;
+        this.lastCleanupTimestamp = timestampGenerator.currentTime();
+    }
+
+    /**
+     * Register an executor to the state.
+     *
+     * @param executor group by aggregation executor
+     * @return index of the executor's aggregator within the slot of each group
+     */
+    int register(GroupByAggregationAttributeExecutor executor) {
+        executors.add(executor);
+        return executors.size() - 1;
+    }
+
+    /**
+     * Set the group of the event being processed, all the aggregators of the group are then processed without
+     * looking up the key again.
+     *
+     * @param key group by key of the event
+     */
+    public void setCurrentGroup(Object key) {
+        long currentTime = timestampGenerator.currentTime();
+        if (lastCleanupTimestamp + 5000 < currentTime || obsoleteGroupKeys.size() > 25) {
+            lastCleanupTimestamp = currentTime;
+            destroyObsoleteGroups();
+        }
+        AttributeAggregator[] group = groupMap.get(key);
+        if (group == null) {
+            group = new AttributeAggregator[executors.size()];
+            groupMap.put(key, group);
+        }
+        currentKey = key;
+        currentGroup = group;
+    }
+
+    AttributeAggregator getAggregator(int index) {
+        AttributeAggregator attributeAggregator = currentGroup[index];
+        if (attributeAggregator == null) {
+            attributeAggregator = executors.get(index).attributeAggregator.cloneAggregator(String.valueOf(currentKey));
+            currentGroup[index] = attributeAggregator;
+        }
+        return attributeAggregator;
+    }
+
+    /**
+     * Mark the current group to be destroyed at the next cleanup if all of its aggregators can be destroyed by then.
+     */
+    void markObsolete() {
+        obsoleteGroupKeys.add(currentKey);
+    }
+
+    Object reset(int index, ComplexEvent resetEvent) {
+        Object output = null;
+        for (Map.Entry<Object, AttributeAggregator[]> entry : groupMap.entrySet()) {
+            AttributeAggregator attributeAggregator = entry.getValue()[index];
+            if (attributeAggregator != null) {
+                output = attributeAggregator.process(resetEvent);
+                if (attributeAggregator.canDestroy()) {
+                    obsoleteGroupKeys.add(entry.getKey());
+                }
+            }
+        }
+        return output;
+    }
+
+    Map<Object, Map<String, Object>> currentState(int index) {
+        HashMap<Object, Map<String, Object>> data = new HashMap<>();
+        for (Map.Entry<Object, AttributeAggregator[]> entry : groupMap.entrySet()) {
+            AttributeAggregator attributeAggregator = entry.getValue()[index];
+            if (attributeAggregator != null) {
+                data.put(entry.getKey(), attributeAggregator.currentState());
+            }
+        }
+        return data;
+    }
+
+    void restoreState(int index, Map<Object, Map<String, Object>> data) {
+        for (Map.Entry<Object, Map<String, Object>> entry : data.entrySet()) {
+            Object key = entry.getKey();
+            AttributeAggregator[] group = groupMap.get(key);
+            if (group == null) {
+                group = new AttributeAggregator[executors.size()];
+                groupMap.put(key, group);
+            } else if (group.length <= index) {
+                group = Arrays.copyOf(group, executors.size());
+                groupMap.put(key, group);
+            }
+            AttributeAggregator attributeAggregator = executors.get(index).attributeAggregator
+                    .cloneAggregator(String.valueOf(key));
+            attributeAggregator.restoreState(entry.getValue());
+            group[index] = attributeAggregator;
+        }
+        currentKey = null;
+        currentGroup = null;
+    }
+
+    /**
+     * Start cloning the selector owning this state, executors cloned until {@link #endCloning()} is called register
+     * to the returned state.
+     *
+     * @return state of the cloned selector
+     */
+    public GroupByAggregationState startCloning() {
+        cloningState = new GroupByAggregationState(timestampGenerator);
+        return cloningState;
+    }
+
+    public void endCloning() {
+        cloningState = null;
+    }
+
+    GroupByAggregationState getCloningState() {
+        if (cloningState == null) {
+            return new GroupByAggregationState(timestampGenerator);
+        }
+        return cloningState;
+    }
+
+    private void destroyObsoleteGroups() {
+        for (Object obsoleteKey : obsoleteGroupKeys) {
+            AttributeAggregator[] group = groupMap.get(obsoleteKey);
+            if (group != null && canDestroy(group)) {
+                groupMap.remove(obsoleteKey);
+            }
+        }
+        obsoleteGroupKeys.clear();
+    }
+
+    private boolean canDestroy(AttributeAggregator[] group) {
+        for (AttributeAggregator attributeAggregator : group) {
+            if (attributeAggregator != null && !attributeAggregator.canDestroy()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
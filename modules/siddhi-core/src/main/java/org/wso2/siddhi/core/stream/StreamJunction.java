@@ -19,15 +19,24 @@
 package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.LifecycleAware;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.WorkHandler;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.Event;
-import org.wso2.siddhi.core.event.SiddhiEventFactory;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.stream.input.InputProcessor;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.SiddhiConstants;
@@ -41,10 +50,16 @@ import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -62,8 +77,14 @@ public class StreamJunction implements EventBufferHolder {
     private List<Publisher> publishers = Collections.synchronizedList(new LinkedList<>());
     private ExecutorService executorService;
     private boolean async = false;
+    private ProducerType producerType = ProducerType.MULTI;
+    private String waitStrategyName = "blocking";
+    private int workers = 1;
     private Disruptor<Event> disruptor;
     private RingBuffer<Event> ringBuffer;
+    private volatile boolean processing = false;
+    private Map<Receiver, Thread> receiverThreadMap = new ConcurrentHashMap<Receiver, Thread>();
+    private Set<Thread> consumerThreads = ConcurrentHashMap.newKeySet();
     private ThroughputTracker throughputTracker = null;
     private boolean isTraceEnabled;
 
@@ -87,6 +108,37 @@ public class StreamJunction implements EventBufferHolder {
                 if (bufferSizeString != null) {
                     this.bufferSize = Integer.parseInt(bufferSizeString);
                 }
+                String waitStrategyString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    // Validate the wait strategy early, wait strategies are created when processing is started.
+                    createWaitStrategy(waitStrategyString.trim().toLowerCase());
+                    this.waitStrategyName = waitStrategyString.trim().toLowerCase();
+                }
+                String producerString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER);
+                if (producerString != null) {
+                    if ("single".equalsIgnoreCase(producerString.trim())) {
+                        this.producerType = ProducerType.SINGLE;
+                    } else if ("multi".equalsIgnoreCase(producerString.trim())) {
+                        this.producerType = ProducerType.MULTI;
+                    } else {
+                        throw new SiddhiAppCreationException("Invalid producer '" + producerString + "' in @Async " +
+                                "of stream '" + streamDefinition.getId() + "', expected 'single' or 'multi'",
+                                annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
+                    }
+                }
+                String workersString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+                if (workersString != null) {
+                    try {
+                        this.workers = Integer.parseInt(workersString.trim());
+                    } catch (NumberFormatException e) {
+                        this.workers = 0;
+                    }
+                    if (this.workers < 1) {
+                        throw new SiddhiAppCreationException("Invalid workers '" + workersString + "' in @Async " +
+                                "of stream '" + streamDefinition.getId() + "', expected a positive integer",
+                                annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
+                    }
+                }
             }
 
         } catch (DuplicateAnnotationException e) {
@@ -103,18 +155,28 @@ public class StreamJunction implements EventBufferHolder {
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int eventCount = 0;
             while (complexEventList != null) {
-                if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
+                eventCount++;
+                complexEventList = complexEventList.getNext();
+            }
+            if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
+                throughputTracker.eventsIn(eventCount);
+            }
+            complexEventList = complexEvent;
+            while (eventCount > 0) {
+                int batchSize = Math.min(eventCount, bufferSize);
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(complexEventList);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(complexEventList);
+                        complexEventList = complexEventList.getNext();
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
-                complexEventList = complexEventList.getNext();
+                eventCount -= batchSize;
             }
         } else {
             if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
@@ -161,13 +223,17 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+            int index = 0;
+            while (index < events.length) {
+                int batchSize = Math.min(events.length - index, bufferSize);
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(events[index++]);
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
             }
         } else {
@@ -182,14 +248,20 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+            Iterator<Event> iterator = events.iterator();
+            int remainingEvents = events.size();
+            while (remainingEvents > 0) {
+                int batchSize = Math.min(remainingEvents, bufferSize);
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(iterator.next());
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
+                remainingEvents -= batchSize;
             }
         } else {
             for (Receiver receiver : receivers) {
@@ -210,7 +282,8 @@ public class StreamJunction implements EventBufferHolder {
         if (disruptor != null) {
             long sequenceNo = ringBuffer.next();
             try {
-                Event existingEvent = ringBuffer.get(sequenceNo);
+                JunctionEvent existingEvent = (JunctionEvent) ringBuffer.get(sequenceNo);
+                existingEvent.setTask(null, null);
                 existingEvent.setTimestamp(timeStamp);
                 existingEvent.setIsExpired(false);
                 System.arraycopy(data, 0, existingEvent.getData(), 0, data.length);
@@ -225,29 +298,42 @@ public class StreamJunction implements EventBufferHolder {
     }
 
     /**
-     * Create and start disruptor based on annotations given in the streamDefinition.
+     * Create and start disruptor based on annotations given in the streamDefinition. Receivers of stateless queries
+     * share a pool of workers when more than one worker is configured, each worker running its own clone of the
+     * query, all other receivers consume every event on their own handler.
      */
     public synchronized void startProcessing() {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
-                    disruptor = new Disruptor<Event>(new SiddhiEventFactory(streamDefinition.getAttributeList().size()),
+                    disruptor = new Disruptor<Event>(
+                            new JunctionEventFactory(streamDefinition.getAttributeList().size()),
                             bufferSize, executorService, producerType,
-                            new BlockingWaitStrategy());
+                            createWaitStrategy(waitStrategyName));
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
             }
             if (disruptor == null) {
-                disruptor = new Disruptor<Event>(new SiddhiEventFactory(streamDefinition.getAttributeList().size()),
+                disruptor = new Disruptor<Event>(new JunctionEventFactory(streamDefinition.getAttributeList().size()),
                         bufferSize, executorService);
                 disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
             }
             for (Receiver receiver : receivers) {
-                disruptor.handleEventsWith(new StreamHandler(receiver));
+                if (workers > 1 && receiver instanceof ProcessStreamReceiver &&
+                        ((ProcessStreamReceiver) receiver).isStateless()) {
+                    StreamWorkHandler[] streamWorkHandlers = new StreamWorkHandler[workers];
+                    for (int i = 0; i < workers; i++) {
+                        streamWorkHandlers[i] = new StreamWorkHandler(
+                                ((ProcessStreamReceiver) receiver).cloneForWorker("-worker-" + i));
+                    }
+                    disruptor.handleEventsWithWorkerPool(streamWorkHandlers);
+                } else {
+                    disruptor.handleEventsWith(new StreamHandler(receiver, bufferSize));
+                }
             }
             ringBuffer = disruptor.start();
+            processing = true;
         } else {
             for (Receiver receiver : receivers) {
                 if (receiver instanceof StreamCallback) {
@@ -257,8 +343,26 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    private WaitStrategy createWaitStrategy(String waitStrategyName) {
+        switch (waitStrategyName) {
+            case "blocking":
+                return new BlockingWaitStrategy();
+            case "busy-spin":
+                return new BusySpinWaitStrategy();
+            case "yielding":
+                return new YieldingWaitStrategy();
+            case "sleeping":
+                return new SleepingWaitStrategy();
+            default:
+                throw new SiddhiAppCreationException("Invalid wait.strategy '" + waitStrategyName + "' in @Async " +
+                        "of stream '" + streamDefinition.getId() + "', expected one of 'blocking', 'busy-spin', " +
+                        "'yielding' or 'sleeping'");
+        }
+    }
+
     public synchronized void stopProcessing() {
         if (disruptor != null) {
+            processing = false;
             disruptor.shutdown();
         } else {
             for (Receiver receiver : receivers) {
@@ -283,6 +387,61 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    /**
+     * Get an executor running tasks on the thread consuming the events of the given receiver, after the events
+     * published to the junction before the tasks. Components can then process events of the receiver from other
+     * threads without synchronising with it. Tasks executed on the consuming thread itself are run right away, and
+     * the other consumers of the junction never wait for the capacity to hand over a task.
+     *
+     * @param receiver receiver subscribed to the junction
+     * @return the executor, or null if the events of the receiver are not consumed by a single thread of the
+     * junction, or if only a single producer may publish to the junction
+     */
+    public Executor getReceiverExecutor(final Receiver receiver) {
+        if (!async || producerType == ProducerType.SINGLE || (workers > 1 &&
+                receiver instanceof ProcessStreamReceiver && ((ProcessStreamReceiver) receiver).isStateless())) {
+            return null;
+        }
+        return new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                sendTask(receiver, task);
+            }
+        };
+    }
+
+    private void sendTask(Receiver receiver, Runnable task) {
+        if (processing) {
+            Thread currentThread = Thread.currentThread();
+            if (receiverThreadMap.get(receiver) == currentThread) {
+                // already on the thread consuming the events of the receiver, such as in playback mode where
+                // timers are triggered by the events being consumed
+                task.run();
+                return;
+            }
+            long sequenceNo;
+            if (consumerThreads.contains(currentThread)) {
+                // waiting for capacity would deadlock, as the capacity is only freed by the current thread
+                try {
+                    sequenceNo = ringBuffer.tryNext();
+                } catch (InsufficientCapacityException e) {
+                    executorService.execute(() -> sendTask(receiver, task));
+                    return;
+                }
+            } else {
+                sequenceNo = ringBuffer.next();
+            }
+            try {
+                ((JunctionEvent) ringBuffer.get(sequenceNo)).setTask(receiver, task);
+            } finally {
+                ringBuffer.publish(sequenceNo);
+            }
+        } else if (ringBuffer == null) {
+            // nothing is consumed before processing is started, while tasks are dropped once it is stopped
+            task.run();
+        }
+    }
+
     public String getStreamId() {
         return streamDefinition.getId();
     }
@@ -323,18 +482,91 @@ public class StreamJunction implements EventBufferHolder {
     }
 
     /**
-     * Interface to be implemented to receive events via handlers.
+     * Disruptor {@link EventHandler} that collects the events made available to it as a batch and hands the whole
+     * batch to its {@link Receiver} via {@link Receiver#receive(Event[])} at the end of the batch. The collected
+     * events are ring buffer slots, they stay valid till the handler returns at the end of the batch.
+     * {@link StreamCallback}s are handed the batch via {@link StreamCallback#receiveEvents(Event[])}, which logs the
+     * errors of the callback instead of passing them to the disruptor.
      */
-    public class StreamHandler implements EventHandler<Event> {
+    public class StreamHandler implements EventHandler<Event>, LifecycleAware {
 
         private Receiver receiver;
+        private StreamCallback streamCallback;
+        private Event[] batchingEventBuffer;
+        private int batchSize = 0;
 
-        public StreamHandler(Receiver receiver) {
+        public StreamHandler(Receiver receiver, int bufferSize) {
             this.receiver = receiver;
+            if (receiver instanceof StreamCallback) {
+                this.streamCallback = (StreamCallback) receiver;
+            }
+            this.batchingEventBuffer = new Event[bufferSize];
         }
 
         public void onEvent(Event event, long sequence, boolean endOfBatch) {
-            receiver.receive(event, endOfBatch);
+            JunctionEvent junctionEvent = (JunctionEvent) event;
+            if (junctionEvent.task == null) {
+                batchingEventBuffer[batchSize++] = event;
+            } else if (junctionEvent.taskReceiver == receiver) {
+                sendBatch();
+                junctionEvent.task.run();
+            }
+            if (endOfBatch || batchSize == batchingEventBuffer.length) {
+                sendBatch();
+            }
+        }
+
+        @Override
+        public void onStart() {
+            receiverThreadMap.put(receiver, Thread.currentThread());
+            consumerThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onShutdown() {
+            receiverThreadMap.remove(receiver, Thread.currentThread());
+            consumerThreads.remove(Thread.currentThread());
+        }
+
+        private void sendBatch() {
+            if (batchSize > 0) {
+                Event[] events = Arrays.copyOf(batchingEventBuffer, batchSize);
+                batchSize = 0;
+                if (streamCallback != null) {
+                    streamCallback.receiveEvents(events);
+                } else {
+                    receiver.receive(events);
+                }
+            }
+        }
+    }
+
+    /**
+     * Disruptor {@link WorkHandler} used when several workers share the ring buffer, each event is passed to the
+     * {@link Receiver} by only one of the workers of the pool.
+     */
+    public class StreamWorkHandler implements WorkHandler<Event>, LifecycleAware {
+
+        private Receiver receiver;
+
+        public StreamWorkHandler(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        public void onEvent(Event event) {
+            if (((JunctionEvent) event).task == null) {
+                receiver.receive(event);
+            }
+        }
+
+        @Override
+        public void onStart() {
+            consumerThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onShutdown() {
+            consumerThreads.remove(Thread.currentThread());
         }
     }
 
@@ -377,4 +609,51 @@ public class StreamJunction implements EventBufferHolder {
             return streamJunction.getStreamId();
         }
     }
+
+    /**
+     * Ring buffer slot of the junction, holding either an event or a task to be run by the handler of a receiver.
+     */
+    private static class JunctionEvent extends Event {
+
+        private Receiver taskReceiver;
+        private Runnable task;
+
+        private JunctionEvent(int dataSize) {
+            super(dataSize);
+        }
+
+        private void setTask(Receiver taskReceiver, Runnable task) {
+            this.taskReceiver = taskReceiver;
+            this.task = task;
+        }
+
+        @Override
+        public Event copyFrom(Event event) {
+            setTask(null, null);
+            return super.copyFrom(event);
+        }
+
+        @Override
+        public Event copyFrom(ComplexEvent complexEvent) {
+            setTask(null, null);
+            return super.copyFrom(complexEvent);
+        }
+    }
+
+    /**
+     * Factory of the ring buffer slots of the junction.
+     */
+    private static class JunctionEventFactory implements EventFactory<Event> {
+
+        private final int dataSize;
+
+        private JunctionEventFactory(int dataSize) {
+            this.dataSize = dataSize;
+        }
+
+        @Override
+        public Event newInstance() {
+            return new JunctionEvent(dataSize);
+        }
+    }
 }
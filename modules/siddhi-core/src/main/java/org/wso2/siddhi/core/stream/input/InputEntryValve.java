@@ -26,39 +26,92 @@ import java.util.List;
 
 /**
  * Implementation of {@link InputProcessor} which inject the event to the next input processor through a valve.
+ * <p>
+ * When the Siddhi app has an {@link InputJournal}, the events are journaled before they are injected, unless they
+ * are sent while processing another event, as they are then sent again when the other event is replayed.
  */
 public class InputEntryValve implements InputProcessor {
 
     private ThreadBarrier barrier;
     private InputProcessor inputProcessor;
+    private InputJournal inputJournal;
 
 
     public InputEntryValve(SiddhiAppContext siddhiAppContext, InputProcessor inputProcessor) {
         this.barrier = siddhiAppContext.getThreadBarrier();
         this.inputProcessor = inputProcessor;
+        this.inputJournal = siddhiAppContext.getInputJournal();
     }
 
     @Override
     public void send(Event event, int streamIndex) {
-        barrier.pass();
-        inputProcessor.send(event, streamIndex);
+        if (inputJournal == null) {
+            barrier.pass();
+            inputProcessor.send(event, streamIndex);
+        } else {
+            boolean entered = barrier.enter();
+            try {
+                if (entered) {
+                    inputJournal.append(streamIndex, event);
+                }
+                inputProcessor.send(event, streamIndex);
+            } finally {
+                barrier.exit();
+            }
+        }
     }
 
     @Override
     public void send(Event[] events, int streamIndex) {
-        barrier.pass();
-        inputProcessor.send(events, streamIndex);
+        if (inputJournal == null) {
+            barrier.pass();
+            inputProcessor.send(events, streamIndex);
+        } else {
+            boolean entered = barrier.enter();
+            try {
+                if (entered) {
+                    inputJournal.append(streamIndex, events);
+                }
+                inputProcessor.send(events, streamIndex);
+            } finally {
+                barrier.exit();
+            }
+        }
     }
 
     @Override
     public void send(List<Event> events, int streamIndex) {
-        barrier.pass();
-        inputProcessor.send(events, streamIndex);
+        if (inputJournal == null) {
+            barrier.pass();
+            inputProcessor.send(events, streamIndex);
+        } else {
+            boolean entered = barrier.enter();
+            try {
+                if (entered) {
+                    inputJournal.append(streamIndex, events);
+                }
+                inputProcessor.send(events, streamIndex);
+            } finally {
+                barrier.exit();
+            }
+        }
     }
 
     @Override
     public void send(long timestamp, Object[] data, int streamIndex) {
-        barrier.pass();
-        inputProcessor.send(timestamp, data, streamIndex);
+        if (inputJournal == null) {
+            barrier.pass();
+            inputProcessor.send(timestamp, data, streamIndex);
+        } else {
+            boolean entered = barrier.enter();
+            try {
+                if (entered) {
+                    inputJournal.append(streamIndex, timestamp, data);
+                }
+                inputProcessor.send(timestamp, data, streamIndex);
+            } finally {
+                barrier.exit();
+            }
+        }
     }
 }
@@ -0,0 +1,594 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.stream.input;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the events accepted by the {@link InputHandler}s of a Siddhi app, written through the
+ * {@link InputEntryValve}, such that the events accepted after the restored revision are replayed after a restart.
+ * <p>
+ * The events of each stream are appended to memory mapped segment files in a directory of the stream, one record
+ * per event or batch of events, holding a sequence number ordering the records of all the streams. Threads
+ * appending records concurrently commit them together, with a single force of the segment.
+ * <p>
+ * The journal takes part in the snapshots, holding the sequence of the next record, such that
+ * {@link #replay(InputManager, boolean)} replays the records following the restored revision. Segments holding
+ * only records preceding the persisted revisions are deleted. As the app waits for the events being processed
+ * before taking a snapshot, each event is either fully reflected in a snapshot or replayed, as long as the events
+ * are processed synchronously, i.e. the streams are not {@code @async}.
+ */
+public class InputJournal implements Snapshotable {
+
+    public static final String ELEMENT_ID = "InputJournal";
+    public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final Logger log = Logger.getLogger(InputJournal.class);
+    private static final String SEGMENT_FILE_SUFFIX = ".journal";
+    private static final String SEQUENCE = "Sequence";
+    // record length, checksum and sequence preceding the record
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final SiddhiAppContext siddhiAppContext;
+    private final ThreadBarrier threadBarrier;
+    private final Map<Integer, String> streamIds = new ConcurrentHashMap<Integer, String>();
+    private final Map<String, StreamJournal> streamJournals = new ConcurrentHashMap<String, StreamJournal>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile boolean open;
+    private volatile long capturedSequence = -1;
+    private volatile long restoredSequence = -1;
+    private long replayedSequence;
+    private long persistedSequence = -1;
+
+    public InputJournal(Path directory, SiddhiAppContext siddhiAppContext) {
+        this(directory, DEFAULT_SEGMENT_SIZE, siddhiAppContext);
+    }
+
+    /**
+     * Create a journal in the given directory, which is opened when the journal is first used.
+     *
+     * @param directory        directory of the journal of the Siddhi app
+     * @param segmentSize      size of the segment files in bytes
+     * @param siddhiAppContext context of the Siddhi app
+     */
+    public InputJournal(Path directory, long segmentSize, SiddhiAppContext siddhiAppContext) {
+        if (segmentSize <= RECORD_HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid input journal segment size " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.siddhiAppContext = siddhiAppContext;
+        this.threadBarrier = siddhiAppContext.getThreadBarrier();
+        this.threadBarrier.enableEntering();
+    }
+
+    private static JournalRecord readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int checksum = buffer.getInt(start + 4);
+        long sequence = buffer.getLong(start + 8);
+        byte[] payload = new byte[length];
+        buffer.position(start + RECORD_HEADER_SIZE);
+        buffer.get(payload);
+        if (checksum != checksum(sequence, payload)) {
+            // the rest of a record partially written before a crash
+            buffer.position(start);
+            return null;
+        }
+        return new JournalRecord(sequence, payload);
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 checksum = new CRC32();
+        checksum.update(ByteBuffer.allocate(8).putLong(0, sequence).array());
+        checksum.update(payload);
+        return (int) checksum.getValue();
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mapMode, long size) throws IOException {
+        if (mapMode == FileChannel.MapMode.READ_ONLY) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(mapMode, 0, channel.size());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(mapMode, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    /**
+     * Register the stream of an input handler, to journal the events sent with the index of the stream.
+     *
+     * @param streamIndex index of the stream, as sent to the {@link InputEntryValve}
+     * @param streamId    id of the stream
+     */
+    public void addStream(int streamIndex, String streamId) {
+        streamIds.put(streamIndex, streamId);
+    }
+
+    public void append(int streamIndex, long timestamp, Object[] data) {
+        append(streamIndex, new Object[]{false, timestamp, data});
+    }
+
+    public void append(int streamIndex, Event event) {
+        append(streamIndex, new Object[]{false, event.getTimestamp(), event.getData()});
+    }
+
+    public void append(int streamIndex, Event[] events) {
+        Object[] record = new Object[1 + events.length * 2];
+        record[0] = true;
+        for (int i = 0; i < events.length; i++) {
+            record[1 + i * 2] = events[i].getTimestamp();
+            record[2 + i * 2] = events[i].getData();
+        }
+        append(streamIndex, record);
+    }
+
+    public void append(int streamIndex, List<Event> events) {
+        append(streamIndex, events.toArray(new Event[events.size()]));
+    }
+
+    /**
+     * Append the record to the journal of the stream and wait until it is committed, together with the records
+     * appended meanwhile by the other threads.
+     */
+    private void append(int streamIndex, Object[] record) {
+        String streamId = streamIds.get(streamIndex);
+        byte[] payload = ByteSerializer.objectToByte(record, siddhiAppContext);
+        if (payload == null) {
+            throw new SiddhiAppRuntimeException("Cannot journal the events of stream '" + streamId +
+                    "' of Siddhi app '" + siddhiAppContext.getName() + "'");
+        }
+        try {
+            open();
+            StreamJournal streamJournal = getStreamJournal(streamId);
+            streamJournal.commit(streamJournal.append(payload));
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error when journaling the events of stream '" + streamId +
+                    "' of Siddhi app '" + siddhiAppContext.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Replay the journaled events following the restored revision, or all the journaled events not yet replayed
+     * when no revision is restored. The events are sent through the input handlers of their streams, in the order
+     * they are journaled, without journaling them again.
+     *
+     * @param inputManager    input manager of the Siddhi app
+     * @param revisionRestored whether a revision was restored
+     * @throws CannotRestoreSiddhiAppStateException if the journaled events cannot be replayed
+     */
+    public synchronized void replay(InputManager inputManager, boolean revisionRestored)
+            throws CannotRestoreSiddhiAppStateException {
+        long fromSequence = revisionRestored ? restoredSequence : replayedSequence;
+        restoredSequence = -1;
+        if (fromSequence < 0) {
+            log.warn("Journaled events of Siddhi app '" + siddhiAppContext.getName() + "' are not replayed, as " +
+                    "the restored revision was persisted without journaling the events.");
+            return;
+        }
+        int replayedEvents = 0;
+        // the replaying thread enters the app, such that the replayed events are not journaled again
+        threadBarrier.enter();
+        try {
+            open();
+            // the records appended from here on are processed as they are appended
+            long toSequence = nextSequence.get();
+            PriorityQueue<StreamCursor> cursors = new PriorityQueue<StreamCursor>(
+                    Comparator.comparingLong(cursor -> cursor.record.sequence));
+            for (StreamJournal streamJournal : streamJournals.values()) {
+                StreamCursor cursor = streamJournal.openCursor();
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+            while (!cursors.isEmpty()) {
+                StreamCursor cursor = cursors.poll();
+                if (cursor.record.sequence >= toSequence) {
+                    continue;
+                }
+                if (cursor.record.sequence >= fromSequence) {
+                    replayedEvents += replay(inputManager.getInputHandler(cursor.streamId), cursor.record);
+                }
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+            replayedSequence = toSequence;
+        } catch (IOException | RuntimeException e) {
+            throw new CannotRestoreSiddhiAppStateException("Replaying the journaled events of Siddhi app " +
+                    siddhiAppContext.getName() + " not completed properly.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotRestoreSiddhiAppStateException("Replaying the journaled events of Siddhi app " +
+                    siddhiAppContext.getName() + " interrupted.", e);
+        } finally {
+            threadBarrier.exit();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Replayed " + replayedEvents + " journaled events of Siddhi app '" +
+                    siddhiAppContext.getName() + "' from sequence " + fromSequence);
+        }
+    }
+
+    private int replay(InputHandler inputHandler, JournalRecord record) throws InterruptedException {
+        Object[] events = (Object[]) ByteSerializer.byteToObject(record.payload, siddhiAppContext);
+        if (events == null) {
+            throw new SiddhiAppRuntimeException("Cannot read the journaled events of stream '" +
+                    inputHandler.getStreamId() + "' with sequence " + record.sequence);
+        }
+        if ((Boolean) events[0]) {
+            Event[] batch = new Event[(events.length - 1) / 2];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = new Event((Long) events[1 + i * 2], (Object[]) events[2 + i * 2]);
+            }
+            inputHandler.send(batch);
+            return batch.length;
+        } else {
+            inputHandler.send((Long) events[1], (Object[]) events[2]);
+            return 1;
+        }
+    }
+
+    public long getCapturedSequence() {
+        return capturedSequence;
+    }
+
+    /**
+     * Notify that the revision holding the given sequence is persisted. The segments holding only the records
+     * preceding the revision persisted before it are deleted, keeping the records needed to restore the previous
+     * revision, while the latest one may still be being persisted by another persistence.
+     *
+     * @param sequence sequence held by the persisted revision
+     */
+    public synchronized void revisionPersisted(long sequence) {
+        if (persistedSequence >= 0) {
+            for (StreamJournal streamJournal : streamJournals.values()) {
+                try {
+                    streamJournal.truncate(persistedSequence);
+                } catch (IOException e) {
+                    log.error("Error when deleting the journal segments of stream '" + streamJournal.streamId +
+                            "' of Siddhi app '" + siddhiAppContext.getName() + "'", e);
+                }
+            }
+        }
+        persistedSequence = Math.max(persistedSequence, sequence);
+    }
+
+    /**
+     * Force the appended records and release the segments, before the Siddhi app shuts down.
+     */
+    public synchronized void close() {
+        for (StreamJournal streamJournal : streamJournals.values()) {
+            streamJournal.close();
+        }
+        streamJournals.clear();
+        open = false;
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        try {
+            open();
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error when opening the input journal of Siddhi app '" +
+                    siddhiAppContext.getName() + "'", e);
+        }
+        // the app is locked while the state is taken, such that all the records preceding the sequence are processed
+        capturedSequence = nextSequence.get();
+        Map<String, Object> state = new HashMap<>();
+        state.put(SEQUENCE, capturedSequence);
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        if (state != null) {
+            restoredSequence = (Long) state.get(SEQUENCE);
+            // the records appended from here on have to follow the revision, even if they are lost from the journal
+            nextSequence.accumulateAndGet(restoredSequence, Math::max);
+        }
+    }
+
+    @Override
+    public String getElementId() {
+        return ELEMENT_ID;
+    }
+
+    /**
+     * Open the journals of the streams found in the directory, continuing the sequence of their records.
+     */
+    private void open() throws IOException {
+        if (!open) {
+            synchronized (this) {
+                if (!open) {
+                    Files.createDirectories(directory);
+                    try (DirectoryStream<Path> streamDirectories = Files.newDirectoryStream(directory,
+                            Files::isDirectory)) {
+                        for (Path streamDirectory : streamDirectories) {
+                            getStreamJournal(streamDirectory.getFileName().toString());
+                        }
+                    }
+                    open = true;
+                }
+            }
+        }
+    }
+
+    private StreamJournal getStreamJournal(String streamId) throws IOException {
+        StreamJournal streamJournal = streamJournals.get(streamId);
+        if (streamJournal == null) {
+            synchronized (streamJournals) {
+                streamJournal = streamJournals.get(streamId);
+                if (streamJournal == null) {
+                    streamJournal = new StreamJournal(streamId, directory.resolve(streamId));
+                    streamJournals.put(streamId, streamJournal);
+                }
+            }
+        }
+        return streamJournal;
+    }
+
+    /**
+     * Record read from a segment.
+     */
+    private static class JournalRecord {
+        private final long sequence;
+        private final byte[] payload;
+
+        private JournalRecord(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Segment file, named by the sequence of its first record.
+     */
+    private static class Segment {
+        private final long firstSequence;
+        private final Path path;
+
+        private Segment(long firstSequence, Path path) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Journal of the records of a stream.
+     */
+    private class StreamJournal {
+
+        private final String streamId;
+        private final Path directory;
+        private final ReentrantLock appendLock = new ReentrantLock();
+        private final Object commitLock = new Object();
+        private final List<Segment> segments = new ArrayList<Segment>();
+        private volatile MappedByteBuffer segment;
+        // offsets of the records appended and forced since the journal is opened, across the segments
+        private long segmentOffset;
+        private volatile long appendedOffset;
+        private volatile long committedOffset;
+
+        private StreamJournal(String streamId, Path directory) throws IOException {
+            this.streamId = streamId;
+            this.directory = directory;
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(directory,
+                    "*" + SEGMENT_FILE_SUFFIX)) {
+                for (Path segmentFile : segmentFiles) {
+                    String fileName = segmentFile.getFileName().toString();
+                    segments.add(new Segment(Long.parseLong(fileName.substring(0, fileName.length() -
+                            SEGMENT_FILE_SUFFIX.length())), segmentFile));
+                }
+            }
+            segments.sort(Comparator.comparingLong(segment -> segment.firstSequence));
+            if (!segments.isEmpty()) {
+                recover(segments.get(segments.size() - 1));
+            }
+        }
+
+        /**
+         * Continue appending to the last segment after its last complete record, clearing what remains of a record
+         * partially written before a crash.
+         */
+        private void recover(Segment lastSegment) throws IOException {
+            MappedByteBuffer buffer = map(lastSegment.path, FileChannel.MapMode.READ_WRITE, -1);
+            long lastSequence = lastSegment.firstSequence - 1;
+            JournalRecord record;
+            while ((record = readRecord(buffer)) != null) {
+                lastSequence = record.sequence;
+            }
+            nextSequence.accumulateAndGet(lastSequence + 1, Math::max);
+            int end = buffer.position();
+            if (end == 0) {
+                // the segment is created again when a record is appended
+                segments.remove(lastSegment);
+                Files.delete(lastSegment.path);
+                return;
+            }
+            if (buffer.remaining() >= 4 && buffer.getInt(end) != 0) {
+                while (buffer.hasRemaining()) {
+                    buffer.put((byte) 0);
+                }
+                buffer.position(end);
+                buffer.force();
+            }
+            segment = buffer;
+        }
+
+        /**
+         * Append the record.
+         *
+         * @return offset to commit the record up to
+         */
+        private long append(byte[] payload) throws IOException {
+            int recordSize = RECORD_HEADER_SIZE + payload.length;
+            appendLock.lock();
+            try {
+                long sequence = nextSequence.getAndIncrement();
+                if (segment == null || segment.remaining() < recordSize) {
+                    roll(sequence, recordSize);
+                }
+                segment.putInt(payload.length);
+                segment.putInt(checksum(sequence, payload));
+                segment.putLong(sequence);
+                segment.put(payload);
+                appendedOffset = segmentOffset + segment.position();
+                return appendedOffset;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        private void roll(long firstSequence, int recordSize) throws IOException {
+            if (segment != null) {
+                // forced before it is replaced, as the commits only force the current segment
+                segment.force();
+                segmentOffset += segment.capacity();
+            }
+            Path path = directory.resolve(String.format("%020d", firstSequence) + SEGMENT_FILE_SUFFIX);
+            MappedByteBuffer newSegment = map(path, FileChannel.MapMode.READ_WRITE,
+                    Math.max(segmentSize, recordSize));
+            segments.add(new Segment(firstSequence, path));
+            segment = newSegment;
+        }
+
+        /**
+         * Force the segment unless another thread forced it after the record is appended, such that the threads
+         * appending concurrently wait for a single force.
+         */
+        private void commit(long offset) {
+            if (committedOffset >= offset) {
+                return;
+            }
+            synchronized (commitLock) {
+                if (committedOffset < offset) {
+                    // the offset is read before the segment, as the segment is forced before it is replaced
+                    long appended = appendedOffset;
+                    segment.force();
+                    committedOffset = appended;
+                }
+            }
+        }
+
+        private StreamCursor openCursor() {
+            appendLock.lock();
+            try {
+                return new StreamCursor(streamId, new ArrayList<Segment>(segments));
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        /**
+         * Delete the segments followed by a segment starting at or before the given sequence.
+         */
+        private void truncate(long sequence) throws IOException {
+            appendLock.lock();
+            try {
+                while (segments.size() > 1 && segments.get(1).firstSequence <= sequence) {
+                    Files.deleteIfExists(segments.remove(0).path);
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        private void close() {
+            appendLock.lock();
+            try {
+                if (segment != null) {
+                    segment.force();
+                    segment = null;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a stream, from the segments found when the cursor is opened.
+     */
+    private static class StreamCursor {
+
+        private final String streamId;
+        private final List<Segment> segments;
+        private int segmentIndex;
+        private ByteBuffer buffer;
+        private JournalRecord record;
+
+        private StreamCursor(String streamId, List<Segment> segments) {
+            this.streamId = streamId;
+            this.segments = segments;
+        }
+
+        private boolean next() throws IOException {
+            while (true) {
+                if (buffer != null) {
+                    record = readRecord(buffer);
+                    if (record != null) {
+                        return true;
+                    }
+                }
+                if (segmentIndex == segments.size()) {
+                    buffer = null;
+                    return false;
+                }
+                buffer = map(segments.get(segmentIndex++).path, FileChannel.MapMode.READ_ONLY, -1);
+            }
+        }
+    }
+}
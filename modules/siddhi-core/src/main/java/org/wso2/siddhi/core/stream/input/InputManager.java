@@ -36,6 +36,7 @@ public class InputManager {
     private Map<String, InputHandler> inputHandlerMap = new LinkedHashMap<String, InputHandler>();
     private Map<String, StreamJunction> streamJunctionMap;
     private InputDistributor inputDistributor;
+    private InputJournal inputJournal;
 
     public InputManager(SiddhiAppContext siddhiAppContext,
                         ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
@@ -43,6 +44,7 @@ public class InputManager {
         this.streamJunctionMap = streamJunctionMap;
         this.inputDistributor = new InputDistributor();
         this.inputEntryValve = new InputEntryValve(siddhiAppContext, inputDistributor);
+        this.inputJournal = siddhiAppContext.getInputJournal();
     }
 
     public InputHandler getInputHandler(String streamId) {
@@ -68,6 +70,9 @@ public class InputManager {
             throw new DefinitionNotExistException("Stream with stream ID " + streamId + " has not been defined");
         }
         inputDistributor.addInputProcessor(streamJunctionMap.get(streamId).constructPublisher());
+        if (inputJournal != null) {
+            inputJournal.addStream(inputHandlerMap.size(), streamId);
+        }
         inputHandlerMap.put(streamId, inputHandler);
         return inputHandler;
     }
@@ -19,25 +19,34 @@
 package org.wso2.siddhi.core.table;
 
 import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.holder.EventHolder;
+import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import org.wso2.siddhi.core.table.record.RecordTableHandler;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
+import org.wso2.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
+import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
+import org.wso2.siddhi.core.util.collection.executor.CompareCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
+import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
-import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.execution.query.output.stream.UpdateSet;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -50,13 +59,23 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * In-memory event table implementation of SiddhiQL.
+ * <p>
+ * Tables annotated with {@code @Concurrent(stripes='n')} are partitioned into stripes by their primary key, each
+ * with its own event holder and lock, so that operations on different keys do not block each other. Operations
+ * matching the primary key for equality only lock the stripe of that key, while other operations visit the stripes
+ * one after the other, and hence are not atomic across stripes.
+ * <p>
+ * Incremental snapshots of the table only hold the event holders of the stripes changed since the previous snapshot,
+ * hence a table without stripes is held as a whole whenever it has changed.
  */
-public class InMemoryTable extends Table implements Snapshotable {
+public class InMemoryTable extends Table implements IncrementalSnapshotable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
-    private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-    private EventHolder eventHolder;
+    private ReadWriteLock[] readWriteLocks;
+    private EventHolder[] eventHolders;
+    private boolean[] changedStripes;
+    private PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private String elementId;
 
 
@@ -67,7 +86,21 @@ public class InMemoryTable extends Table implements Snapshotable {
         this.tableDefinition = tableDefinition;
         this.tableStreamEventCloner = storeEventCloner;
 
-        eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext);
+        int stripeCount = EventHolderPasser.parseStripeCount(tableDefinition);
+        readWriteLocks = new ReadWriteLock[stripeCount];
+        eventHolders = new EventHolder[stripeCount];
+        changedStripes = new boolean[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            readWriteLocks[i] = new ReentrantReadWriteLock();
+            // event pools are not thread safe, hence each stripe borrows its events from its own pool, leaving the
+            // store event pool to the event cloner
+            StreamEventPool stripeEventPool = (stripeCount == 1) ? storeEventPool : new StreamEventPool(0, 0,
+                    tableDefinition.getAttributeList().size(), storeEventPool.getSize());
+            eventHolders[i] = EventHolderPasser.parse(tableDefinition, stripeEventPool, siddhiAppContext);
+        }
+        if (stripeCount > 1) {
+            primaryKeyReferenceHolders = ((IndexedEventHolder) eventHolders[0]).getPrimaryKeyReferenceHolders();
+        }
 
         if (elementId == null) {
             elementId = "InMemoryTable-" + siddhiAppContext.getElementIdGenerator().createNewId();
@@ -82,34 +115,96 @@ public class InMemoryTable extends Table implements Snapshotable {
 
     @Override
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
-        try {
-            readWriteLock.writeLock().lock();
-            eventHolder.add(addingEventChunk);
-        } finally {
-            readWriteLock.writeLock().unlock();
+        if (eventHolders.length == 1) {
+            try {
+                readWriteLocks[0].writeLock().lock();
+                changedStripes[0] = true;
+                eventHolders[0].add(addingEventChunk);
+            } finally {
+                readWriteLocks[0].writeLock().unlock();
+            }
+        } else {
+            addingEventChunk.reset();
+            while (addingEventChunk.hasNext()) {
+                StreamEvent addingEvent = addingEventChunk.next();
+                ComplexEvent next = detach(addingEvent);
+                int stripe = getStripe(constructPrimaryKey(addingEvent));
+                try {
+                    readWriteLocks[stripe].writeLock().lock();
+                    changedStripes[stripe] = true;
+                    eventHolders[stripe].add(new ComplexEventChunk<>(addingEvent, addingEvent,
+                            addingEventChunk.isBatch()));
+                } finally {
+                    readWriteLocks[stripe].writeLock().unlock();
+                    addingEvent.setNext(next);
+                }
+            }
         }
 
     }
 
     @Override
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
-        try {
-            readWriteLock.writeLock().lock();
-            ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
-        } finally {
-            readWriteLock.writeLock().unlock();
+        if (eventHolders.length == 1 || !isPrimaryKeyMatching(compiledCondition)) {
+            for (int i = 0; i < eventHolders.length; i++) {
+                try {
+                    readWriteLocks[i].writeLock().lock();
+                    changedStripes[i] = true;
+                    ((Operator) compiledCondition).delete(deletingEventChunk, eventHolders[i]);
+                } finally {
+                    readWriteLocks[i].writeLock().unlock();
+                }
+            }
+        } else {
+            deletingEventChunk.reset();
+            while (deletingEventChunk.hasNext()) {
+                StateEvent deletingEvent = deletingEventChunk.next();
+                ComplexEvent next = detach(deletingEvent);
+                int stripe = getStripe(compiledCondition, deletingEvent);
+                try {
+                    readWriteLocks[stripe].writeLock().lock();
+                    changedStripes[stripe] = true;
+                    ((Operator) compiledCondition).delete(new ComplexEventChunk<>(deletingEvent, deletingEvent,
+                            deletingEventChunk.isBatch()), eventHolders[stripe]);
+                } finally {
+                    readWriteLocks[stripe].writeLock().unlock();
+                    deletingEvent.setNext(next);
+                }
+            }
         }
     }
 
     @Override
     public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
                        CompiledUpdateSet compiledUpdateSet) {
-        try {
-            readWriteLock.writeLock().lock();
-            ((Operator) compiledCondition).update(updatingEventChunk, eventHolder,
-                    (InMemoryCompiledUpdateSet) compiledUpdateSet);
-        } finally {
-            readWriteLock.writeLock().unlock();
+        if (eventHolders.length == 1 || !isPrimaryKeyMatching(compiledCondition)) {
+            for (int i = 0; i < eventHolders.length; i++) {
+                try {
+                    readWriteLocks[i].writeLock().lock();
+                    changedStripes[i] = true;
+                    ((Operator) compiledCondition).update(updatingEventChunk, eventHolders[i],
+                            (InMemoryCompiledUpdateSet) compiledUpdateSet);
+                } finally {
+                    readWriteLocks[i].writeLock().unlock();
+                }
+            }
+        } else {
+            updatingEventChunk.reset();
+            while (updatingEventChunk.hasNext()) {
+                StateEvent updatingEvent = updatingEventChunk.next();
+                ComplexEvent next = detach(updatingEvent);
+                int stripe = getStripe(compiledCondition, updatingEvent);
+                try {
+                    readWriteLocks[stripe].writeLock().lock();
+                    changedStripes[stripe] = true;
+                    ((Operator) compiledCondition).update(new ComplexEventChunk<>(updatingEvent, updatingEvent,
+                            updatingEventChunk.isBatch()), eventHolders[stripe],
+                            (InMemoryCompiledUpdateSet) compiledUpdateSet);
+                } finally {
+                    readWriteLocks[stripe].writeLock().unlock();
+                    updatingEvent.setNext(next);
+                }
+            }
         }
 
     }
@@ -119,30 +214,104 @@ public class InMemoryTable extends Table implements Snapshotable {
                             CompiledCondition compiledCondition,
                             CompiledUpdateSet compiledUpdateSet,
                             AddingStreamEventExtractor addingStreamEventExtractor) {
-        try {
-            readWriteLock.writeLock().lock();
-            ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate(
-                    updateOrAddingEventChunk,
-                    eventHolder,
-                    (InMemoryCompiledUpdateSet) compiledUpdateSet,
-                    addingStreamEventExtractor);
-            if (failedEvents != null) {
-                eventHolder.add(failedEvents);
+        if (eventHolders.length == 1) {
+            try {
+                readWriteLocks[0].writeLock().lock();
+                changedStripes[0] = true;
+                ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate(
+                        updateOrAddingEventChunk,
+                        eventHolders[0],
+                        (InMemoryCompiledUpdateSet) compiledUpdateSet,
+                        addingStreamEventExtractor);
+                if (failedEvents != null) {
+                    eventHolders[0].add(failedEvents);
+                }
+            } finally {
+                readWriteLocks[0].writeLock().unlock();
+            }
+        } else {
+            updateOrAddingEventChunk.reset();
+            while (updateOrAddingEventChunk.hasNext()) {
+                StateEvent updateOrAddingEvent = updateOrAddingEventChunk.next();
+                ComplexEvent next = detach(updateOrAddingEvent);
+                try {
+                    updateOrAdd(updateOrAddingEvent, updateOrAddingEventChunk.isBatch(), compiledCondition,
+                            (InMemoryCompiledUpdateSet) compiledUpdateSet, addingStreamEventExtractor);
+                } finally {
+                    updateOrAddingEvent.setNext(next);
+                }
             }
-        } finally {
-            readWriteLock.writeLock().unlock();
         }
 
     }
 
+    private void updateOrAdd(StateEvent updateOrAddingEvent, boolean isBatch, CompiledCondition compiledCondition,
+                             InMemoryCompiledUpdateSet compiledUpdateSet,
+                             AddingStreamEventExtractor addingStreamEventExtractor) {
+        int addingStripe = getStripe(constructPrimaryKey(
+                addingStreamEventExtractor.getAddingStreamEvent(updateOrAddingEvent)));
+        if (compiledCondition instanceof OverwriteTableIndexOperator) {
+            // the stored event matching the condition has the primary key of the adding event
+            try {
+                readWriteLocks[addingStripe].writeLock().lock();
+                changedStripes[addingStripe] = true;
+                ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate(
+                        new ComplexEventChunk<>(updateOrAddingEvent, updateOrAddingEvent, isBatch),
+                        eventHolders[addingStripe], compiledUpdateSet, addingStreamEventExtractor);
+                if (failedEvents != null) {
+                    eventHolders[addingStripe].add(failedEvents);
+                }
+            } finally {
+                readWriteLocks[addingStripe].writeLock().unlock();
+            }
+        } else {
+            ComplexEventChunk<StreamEvent> failedEvents = null;
+            for (int i = 0; i < eventHolders.length; i++) {
+                try {
+                    readWriteLocks[i].writeLock().lock();
+                    changedStripes[i] = true;
+                    failedEvents = ((Operator) compiledCondition).tryUpdate(
+                            new ComplexEventChunk<>(updateOrAddingEvent, updateOrAddingEvent, isBatch),
+                            eventHolders[i], compiledUpdateSet, addingStreamEventExtractor);
+                } finally {
+                    readWriteLocks[i].writeLock().unlock();
+                }
+                if (failedEvents == null || failedEvents.getFirst() == null) {
+                    return;
+                }
+            }
+            try {
+                readWriteLocks[addingStripe].writeLock().lock();
+                changedStripes[addingStripe] = true;
+                eventHolders[addingStripe].add(failedEvents);
+            } finally {
+                readWriteLocks[addingStripe].writeLock().unlock();
+            }
+        }
+    }
+
     @Override
     public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
-        try {
-            readWriteLock.readLock().lock();
-            return ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
-        } finally {
-            readWriteLock.readLock().unlock();
+        if (eventHolders.length == 1 || isPrimaryKeyMatching(compiledCondition)) {
+            int stripe = (eventHolders.length == 1) ? 0 : getStripe(compiledCondition, matchingEvent);
+            try {
+                readWriteLocks[stripe].readLock().lock();
+                return ((Operator) compiledCondition).contains(matchingEvent, eventHolders[stripe]);
+            } finally {
+                readWriteLocks[stripe].readLock().unlock();
+            }
+        }
+        for (int i = 0; i < eventHolders.length; i++) {
+            try {
+                readWriteLocks[i].readLock().lock();
+                if (((Operator) compiledCondition).contains(matchingEvent, eventHolders[i])) {
+                    return true;
+                }
+            } finally {
+                readWriteLocks[i].readLock().unlock();
+            }
         }
+        return false;
 
     }
 
@@ -163,12 +332,31 @@ public class InMemoryTable extends Table implements Snapshotable {
 
     @Override
     public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
-        try {
-            readWriteLock.readLock().lock();
-            return ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner);
-        } finally {
-            readWriteLock.readLock().unlock();
+        if (eventHolders.length == 1 || isPrimaryKeyMatching(compiledCondition)) {
+            int stripe = (eventHolders.length == 1) ? 0 : getStripe(compiledCondition, matchingEvent);
+            try {
+                readWriteLocks[stripe].readLock().lock();
+                return ((Operator) compiledCondition).find(matchingEvent, eventHolders[stripe],
+                        tableStreamEventCloner);
+            } finally {
+                readWriteLocks[stripe].readLock().unlock();
+            }
+        }
+        ComplexEventChunk<StreamEvent> foundEventChunk = new ComplexEventChunk<>(false);
+        for (int i = 0; i < eventHolders.length; i++) {
+            StreamEvent foundEvents;
+            try {
+                readWriteLocks[i].readLock().lock();
+                foundEvents = ((Operator) compiledCondition).find(matchingEvent, eventHolders[i],
+                        tableStreamEventCloner);
+            } finally {
+                readWriteLocks[i].readLock().unlock();
+            }
+            if (foundEvents != null) {
+                foundEventChunk.add(foundEvents);
+            }
         }
+        return foundEventChunk.getFirst();
 
     }
 
@@ -177,7 +365,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                                               SiddhiAppContext siddhiAppContext,
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, String queryName) {
-        return OperatorParser.constructOperator(eventHolder, condition, matchingMetaInfoHolder,
+        return OperatorParser.constructOperator(eventHolders[0], condition, matchingMetaInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, tableDefinition.getId());
     }
 
@@ -194,22 +382,128 @@ public class InMemoryTable extends Table implements Snapshotable {
                     tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
             int attributePosition = tableDefinition.
                     getAttributePosition(setAttribute.getTableVariable().getAttributeName());
+            if (primaryKeyReferenceHolders != null) {
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    if (primaryKeyReferenceHolder.getPrimaryKeyPosition() == attributePosition) {
+                        throw new SiddhiAppCreationException("Primary key attribute '" +
+                                primaryKeyReferenceHolder.getPrimaryKeyAttribute() + "' of " +
+                                SiddhiConstants.ANNOTATION_CONCURRENT + " table '" + tableDefinition.getId() +
+                                "' cannot be updated, at '" + queryName + "'");
+                    }
+                }
+            }
             expressionExecutorMap.put(attributePosition, expressionExecutor);
         }
         return new InMemoryCompiledUpdateSet(expressionExecutorMap);
     }
 
+    private boolean isPrimaryKeyMatching(CompiledCondition compiledCondition) {
+        if (compiledCondition instanceof OverwriteTableIndexOperator) {
+            CollectionExecutor collectionExecutor = ((OverwriteTableIndexOperator) compiledCondition)
+                    .getCollectionExecutor();
+            return collectionExecutor instanceof CompareCollectionExecutor ||
+                    collectionExecutor instanceof AndMultiPrimaryKeyCollectionExecutor;
+        }
+        return false;
+    }
+
+    private int getStripe(CompiledCondition compiledCondition, StateEvent matchingEvent) {
+        CollectionExecutor collectionExecutor = ((OverwriteTableIndexOperator) compiledCondition)
+                .getCollectionExecutor();
+        if (collectionExecutor instanceof CompareCollectionExecutor) {
+            return getStripe(((CompareCollectionExecutor) collectionExecutor).executeValue(matchingEvent));
+        } else {
+            return getStripe(((AndMultiPrimaryKeyCollectionExecutor) collectionExecutor)
+                    .executePrimaryKeyValue(matchingEvent));
+        }
+    }
+
+    private int getStripe(Object primaryKey) {
+        int hash = (primaryKey == null) ? 0 : primaryKey.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % eventHolders.length;
+    }
+
+    private Object constructPrimaryKey(StreamEvent streamEvent) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return streamEvent.getOutputData()[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(streamEvent.getOutputData()[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private static ComplexEvent detach(ComplexEvent complexEvent) {
+        ComplexEvent next = complexEvent.getNext();
+        complexEvent.setNext(null);
+        return next;
+    }
 
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("EventHolder", eventHolder);
+        if (eventHolders.length == 1) {
+            state.put("EventHolder", eventHolders[0]);
+        } else {
+            state.put("EventHolders", eventHolders);
+        }
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        eventHolder = (EventHolder) state.get("EventHolder");
+        if (eventHolders.length == 1) {
+            eventHolders[0] = (EventHolder) state.get("EventHolder");
+        } else {
+            eventHolders = (EventHolder[]) state.get("EventHolders");
+        }
+    }
+
+    @Override
+    public Map<String, Object> currentIncrementalState() {
+        Map<Integer, EventHolder> changedEventHolders = new HashMap<>();
+        for (int i = 0; i < eventHolders.length; i++) {
+            try {
+                readWriteLocks[i].writeLock().lock();
+                if (changedStripes[i]) {
+                    changedEventHolders.put(i, eventHolders[i]);
+                    changedStripes[i] = false;
+                }
+            } finally {
+                readWriteLocks[i].writeLock().unlock();
+            }
+        }
+        if (changedEventHolders.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> state = new HashMap<>();
+        state.put("ChangedEventHolders", changedEventHolders);
+        return state;
+    }
+
+    @Override
+    public void restoreIncrementalState(Map<String, Object> incrementalState) {
+        Map<Integer, EventHolder> changedEventHolders = (Map<Integer, EventHolder>) incrementalState.get(
+                "ChangedEventHolders");
+        for (Map.Entry<Integer, EventHolder> entry : changedEventHolders.entrySet()) {
+            eventHolders[entry.getKey()] = entry.getValue();
+        }
+    }
+
+    @Override
+    public void resetIncrementalState() {
+        for (int i = 0; i < eventHolders.length; i++) {
+            try {
+                readWriteLocks[i].writeLock().lock();
+                changedStripes[i] = false;
+            } finally {
+                readWriteLocks[i].writeLock().unlock();
+            }
+        }
     }
 
     @Override
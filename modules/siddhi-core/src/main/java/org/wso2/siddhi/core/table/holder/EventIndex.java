@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Secondary index of the events of an {@link IndexEventHolder}, keeping the events by their index key in a hash map
+ * for hash indexes or in a tree map for sorted indexes. A key maps to the event itself while it is the only event
+ * with that key, and to a set of events otherwise. Range matches are served as views over the index rather than
+ * copies of the matching events. The number of events matching a condition can be estimated from the index without
+ * matching the events, to plan conditions by their selectivity.
+ */
+public class EventIndex implements Serializable {
+
+    private static final long serialVersionUID = 6263440925392893634L;
+    private final IndexReferenceHolder indexReferenceHolder;
+    private final Map<Object, Object> indexData;
+    private int eventCount;
+
+    public EventIndex(IndexReferenceHolder indexReferenceHolder) {
+        this.indexReferenceHolder = indexReferenceHolder;
+        if (indexReferenceHolder.getIndexType() == IndexReferenceHolder.Type.SORTED) {
+            indexData = new TreeMap<Object, Object>(new NullsFirstComparator());
+        } else {
+            indexData = new HashMap<Object, Object>();
+        }
+    }
+
+    private EventIndex(EventIndex eventIndex, UnaryOperator<Object> copier) {
+        this.indexReferenceHolder = eventIndex.indexReferenceHolder;
+        this.eventCount = eventIndex.eventCount;
+        if (eventIndex.indexData instanceof TreeMap) {
+            indexData = new TreeMap<Object, Object>(((TreeMap<Object, Object>) eventIndex.indexData).comparator());
+        } else {
+            indexData = new HashMap<Object, Object>(eventIndex.indexData.size() * 4 / 3 + 1);
+        }
+        for (Map.Entry<Object, Object> entry : eventIndex.indexData.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof StreamEvent) {
+                indexData.put(entry.getKey(), copier.apply(value));
+            } else {
+                Set<StreamEvent> values = (Set<StreamEvent>) value;
+                Set<StreamEvent> valuesCopy = new HashSet<StreamEvent>(values.size() * 4 / 3 + 1);
+                for (StreamEvent streamEvent : values) {
+                    valuesCopy.add((StreamEvent) copier.apply(streamEvent));
+                }
+                indexData.put(entry.getKey(), valuesCopy);
+            }
+        }
+    }
+
+    /**
+     * Copy the index for a snapshot, sharing the index keys, which are not changed once indexed.
+     *
+     * @param copier copies the indexed events
+     * @return copy of the index
+     */
+    EventIndex copy(UnaryOperator<Object> copier) {
+        return new EventIndex(this, copier);
+    }
+
+    public IndexReferenceHolder getIndexReferenceHolder() {
+        return indexReferenceHolder;
+    }
+
+    public void add(StreamEvent streamEvent) {
+        Object key = indexReferenceHolder.constructIndexKey(streamEvent.getOutputData());
+        Object value = indexData.get(key);
+        if (value == null) {
+            indexData.put(key, streamEvent);
+            eventCount++;
+        } else if (value instanceof StreamEvent) {
+            if (!value.equals(streamEvent)) {
+                Set<StreamEvent> values = new HashSet<StreamEvent>();
+                values.add((StreamEvent) value);
+                values.add(streamEvent);
+                indexData.put(key, values);
+                eventCount++;
+            }
+        } else if (((Set<StreamEvent>) value).add(streamEvent)) {
+            eventCount++;
+        }
+    }
+
+    public void remove(StreamEvent streamEvent) {
+        Object key = indexReferenceHolder.constructIndexKey(streamEvent.getOutputData());
+        Object value = indexData.get(key);
+        if (value instanceof StreamEvent) {
+            if (value.equals(streamEvent)) {
+                indexData.remove(key);
+                eventCount--;
+            }
+        } else if (value != null) {
+            Set<StreamEvent> values = (Set<StreamEvent>) value;
+            if (values.remove(streamEvent)) {
+                eventCount--;
+            }
+            if (values.size() == 1) {
+                indexData.put(key, values.iterator().next());
+            }
+        }
+    }
+
+    public Collection<StreamEvent> getAllEvents() {
+        return new EventIndexView(indexData);
+    }
+
+    public Collection<StreamEvent> find(Compare.Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return toEvents(indexData.get(value));
+            case NOT_EQUAL:
+                Set<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+                for (Map.Entry<Object, Object> entry : indexData.entrySet()) {
+                    if (!Objects.equals(entry.getKey(), value)) {
+                        addEvents(entry.getValue(), resultEventSet);
+                    }
+                }
+                return resultEventSet;
+            default:
+                return new EventIndexView(getRange(operator, value));
+        }
+    }
+
+    public boolean contains(Compare.Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return indexData.containsKey(value);
+            case NOT_EQUAL:
+                return indexData.size() > 1 || (indexData.size() == 1 && !indexData.containsKey(value));
+            default:
+                return !getRange(operator, value).isEmpty();
+        }
+    }
+
+    /**
+     * Remove the events matching the value with the given operator, other than not equal.
+     *
+     * @param operator comparison operator
+     * @param value    value to compare with
+     * @return removed events
+     */
+    public Collection<StreamEvent> remove(Compare.Operator operator, Object value) {
+        if (operator == Compare.Operator.EQUAL) {
+            Collection<StreamEvent> removedEvents = toEvents(indexData.remove(value));
+            eventCount -= removedEvents.size();
+            return removedEvents;
+        }
+        List<StreamEvent> removedEvents = new ArrayList<StreamEvent>();
+        for (Iterator<Object> iterator = getRange(operator, value).values().iterator(); iterator.hasNext(); ) {
+            addEvents(iterator.next(), removedEvents);
+            iterator.remove();
+        }
+        eventCount -= removedEvents.size();
+        return removedEvents;
+    }
+
+    public void clear() {
+        indexData.clear();
+        eventCount = 0;
+    }
+
+    public int size() {
+        return eventCount;
+    }
+
+    /**
+     * Estimate the number of events matching the value with the given operator. Equality matches are counted from
+     * the index, while range matches are interpolated between the smallest and the largest numeric keys of sorted
+     * indexes, and assumed to match all the events otherwise.
+     *
+     * @param operator comparison operator
+     * @param value    value to compare with
+     * @return estimated number of matching events
+     */
+    public long estimateMatchCount(Compare.Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return countEvents(indexData.get(value));
+            case NOT_EQUAL:
+                return eventCount - countEvents(indexData.get(value));
+            default:
+                if (indexData instanceof TreeMap) {
+                    return estimateRangeMatchCount((TreeMap<Object, ?>) indexData, eventCount, operator, value);
+                }
+                return eventCount;
+        }
+    }
+
+    /**
+     * Estimate the number of events in a range of sorted keys, assuming the events are evenly distributed between
+     * the smallest and the largest numeric keys.
+     *
+     * @param sortedData data sorted by its keys
+     * @param eventCount number of events in the data
+     * @param operator   range operator
+     * @param value      value to compare with
+     * @return estimated number of matching events
+     */
+    static long estimateRangeMatchCount(TreeMap<Object, ?> sortedData, long eventCount, Compare.Operator operator,
+                                        Object value) {
+        if (value == null || sortedData.isEmpty()) {
+            return 0;
+        }
+        Object smallestKey = sortedData.firstKey() != null ? sortedData.firstKey() : sortedData.higherKey(null);
+        Object largestKey = sortedData.lastKey();
+        if (!(value instanceof Number) || !(smallestKey instanceof Number) || !(largestKey instanceof Number)) {
+            return eventCount;
+        }
+        double smallest = ((Number) smallestKey).doubleValue();
+        double largest = ((Number) largestKey).doubleValue();
+        double lessThanFraction;
+        if (largest > smallest) {
+            lessThanFraction = Math.min(1, Math.max(0, (((Number) value).doubleValue() - smallest) /
+                    (largest - smallest)));
+        } else {
+            lessThanFraction = ((Number) value).doubleValue() > smallest ? 1 : 0;
+        }
+        switch (operator) {
+            case LESS_THAN:
+            case LESS_THAN_EQUAL:
+                return Math.round(lessThanFraction * eventCount);
+            default:
+                return Math.round((1 - lessThanFraction) * eventCount);
+        }
+    }
+
+    private NavigableMap<Object, Object> getRange(Compare.Operator operator, Object value) {
+        if (!(indexData instanceof TreeMap)) {
+            throw new OperationNotSupportedException(operator + " not supported by " +
+                    IndexReferenceHolder.Type.HASH + " index '" + indexReferenceHolder.getIndexName() + "'");
+        }
+        TreeMap<Object, Object> sortedIndexData = (TreeMap<Object, Object>) indexData;
+        if (value == null) {
+            // nothing compares with null
+            return Collections.emptyNavigableMap();
+        }
+        switch (operator) {
+            case LESS_THAN:
+                return sortedIndexData.subMap(null, false, value, false);
+            case GREATER_THAN:
+                return sortedIndexData.tailMap(value, false);
+            case LESS_THAN_EQUAL:
+                return sortedIndexData.subMap(null, false, value, true);
+            case GREATER_THAN_EQUAL:
+                return sortedIndexData.tailMap(value, true);
+            default:
+                throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " +
+                        getClass().getName());
+        }
+    }
+
+    private static Collection<StreamEvent> toEvents(Object value) {
+        if (value == null) {
+            return Collections.emptySet();
+        } else if (value instanceof StreamEvent) {
+            return Collections.singleton((StreamEvent) value);
+        } else {
+            return Collections.unmodifiableSet((Set<StreamEvent>) value);
+        }
+    }
+
+    private static int countEvents(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof StreamEvent) {
+            return 1;
+        } else {
+            return ((Set<StreamEvent>) value).size();
+        }
+    }
+
+    private static void addEvents(Object value, Collection<StreamEvent> events) {
+        if (value instanceof StreamEvent) {
+            events.add((StreamEvent) value);
+        } else {
+            events.addAll((Set<StreamEvent>) value);
+        }
+    }
+
+    /**
+     * Orders keys naturally, with null keys first so that they can be indexed, while they are excluded from ranges.
+     */
+    private static class NullsFirstComparator implements Comparator<Object>, Serializable {
+
+        private static final long serialVersionUID = -1473427584716377582L;
+
+        @Override
+        public int compare(Object key1, Object key2) {
+            if (key1 == null) {
+                return key2 == null ? 0 : -1;
+            } else if (key2 == null) {
+                return 1;
+            }
+            return ((Comparable<Object>) key1).compareTo(key2);
+        }
+    }
+
+    /**
+     * View over the events of an index, or of a range of an index.
+     */
+    private class EventIndexView extends AbstractCollection<StreamEvent> {
+
+        private final Map<Object, Object> indexRange;
+
+        private EventIndexView(Map<Object, Object> indexRange) {
+            this.indexRange = indexRange;
+        }
+
+        @Override
+        public Iterator<StreamEvent> iterator() {
+            return new Iterator<StreamEvent>() {
+                private final Iterator<Object> valueIterator = indexRange.values().iterator();
+                private Iterator<StreamEvent> eventIterator = Collections.emptyIterator();
+                private StreamEvent nextEvent;
+
+                @Override
+                public boolean hasNext() {
+                    if (nextEvent != null) {
+                        return true;
+                    }
+                    if (eventIterator.hasNext()) {
+                        nextEvent = eventIterator.next();
+                    } else if (valueIterator.hasNext()) {
+                        Object value = valueIterator.next();
+                        if (value instanceof StreamEvent) {
+                            nextEvent = (StreamEvent) value;
+                        } else {
+                            eventIterator = ((Set<StreamEvent>) value).iterator();
+                            nextEvent = eventIterator.next();
+                        }
+                    }
+                    return nextEvent != null;
+                }
+
+                @Override
+                public StreamEvent next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    StreamEvent streamEvent = nextEvent;
+                    nextEvent = null;
+                    return streamEvent;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            if (indexRange == indexData) {
+                return eventCount;
+            }
+            int size = 0;
+            for (Object value : indexRange.values()) {
+                size += countEvents(value);
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return indexRange.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof StreamEvent)) {
+                return false;
+            }
+            Object key = indexReferenceHolder.constructIndexKey(((StreamEvent) object).getOutputData());
+            Object value = indexRange.get(key);
+            if (value instanceof StreamEvent) {
+                return value.equals(object);
+            }
+            return value != null && ((Set<StreamEvent>) value).contains(object);
+        }
+    }
+}
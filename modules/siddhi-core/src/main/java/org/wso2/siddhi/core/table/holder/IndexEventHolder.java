@@ -27,47 +27,52 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.snapshot.CopyableState;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.UnaryOperator;
 
 /**
  * EventHolder implementation where events will be indexed and stored. This will offer faster access compared to
  * other EventHolder implementations. User can only add unique events based on a given primary key.
  */
-public class IndexEventHolder implements IndexedEventHolder, Serializable {
+public class IndexEventHolder implements IndexedEventHolder, CopyableState, Serializable {
 
     private static final Logger log = Logger.getLogger(IndexEventHolder.class);
     private static final long serialVersionUID = 1272291743721603253L;
     private final Map<Object, StreamEvent> primaryKeyData;
-    private final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    private final Map<String, EventIndex> indexData;
     private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private final String tableName;
     private final String siddhiAppName;
     private String primaryKeyAttributes = null;
     private StreamEventPool tableStreamEventPool;
     private StreamEventConverter eventConverter;
-    private Map<String, Integer> indexMetaData;
+    private IndexReferenceHolder[] indexReferenceHolders;
     private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private Set<Integer> allIndexPositions = new HashSet<>();
 
     public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
                             PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
-                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            boolean isPrimaryNumeric, IndexReferenceHolder[] indexReferenceHolders,
                             AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
         this.tableStreamEventPool = tableStreamEventPool;
         this.eventConverter = eventConverter;
         this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
-        this.indexMetaData = indexMetaData;
+        this.indexReferenceHolders = indexReferenceHolders;
         this.tableName = tableDefinition.getId();
         this.siddhiAppName = siddhiAppContext.getName();
 
@@ -80,6 +85,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             if (primaryKeyReferenceHolders.length == 1) {
                 allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
                         primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+                allIndexPositions.add(primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
                 primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
             } else {
                 StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
@@ -94,16 +100,64 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         } else {
             primaryKeyData = null;
         }
-        if (indexMetaData.size() > 0) {
-            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
-            for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+        if (indexReferenceHolders.length > 0) {
+            indexData = new LinkedHashMap<String, EventIndex>();
+            for (IndexReferenceHolder indexReferenceHolder : indexReferenceHolders) {
+                indexData.put(indexReferenceHolder.getIndexName(), new EventIndex(indexReferenceHolder));
+                if (!indexReferenceHolder.isCompound()) {
+                    allIndexMetaData.put(indexReferenceHolder.getIndexName(),
+                            indexReferenceHolder.getIndexPositions()[0]);
+                }
+                for (int indexPosition : indexReferenceHolder.getIndexPositions()) {
+                    allIndexPositions.add(indexPosition);
+                }
+            }
+        } else {
+            indexData = null;
+        }
+
+    }
+
+    /**
+     * Copy the holder for a snapshot, copying the events with the given copier, such that the events held by both the
+     * primary key and the indexes are copied once.
+     */
+    private IndexEventHolder(IndexEventHolder indexEventHolder, UnaryOperator<Object> copier) {
+        this.tableStreamEventPool = indexEventHolder.tableStreamEventPool;
+        this.eventConverter = indexEventHolder.eventConverter;
+        this.primaryKeyReferenceHolders = indexEventHolder.primaryKeyReferenceHolders;
+        this.indexReferenceHolders = indexEventHolder.indexReferenceHolders;
+        this.tableName = indexEventHolder.tableName;
+        this.siddhiAppName = indexEventHolder.siddhiAppName;
+        this.primaryKeyAttributes = indexEventHolder.primaryKeyAttributes;
+        this.multiPrimaryKeyMetaData = indexEventHolder.multiPrimaryKeyMetaData;
+        this.allIndexMetaData = indexEventHolder.allIndexMetaData;
+        this.allIndexPositions = indexEventHolder.allIndexPositions;
+        if (indexEventHolder.primaryKeyData != null) {
+            if (indexEventHolder.primaryKeyData instanceof TreeMap) {
+                primaryKeyData = new TreeMap<Object, StreamEvent>();
+            } else {
+                primaryKeyData = new HashMap<Object, StreamEvent>(indexEventHolder.primaryKeyData.size() * 4 / 3 + 1);
+            }
+            for (Map.Entry<Object, StreamEvent> entry : indexEventHolder.primaryKeyData.entrySet()) {
+                primaryKeyData.put(entry.getKey(), (StreamEvent) copier.apply(entry.getValue()));
+            }
+        } else {
+            primaryKeyData = null;
+        }
+        if (indexEventHolder.indexData != null) {
+            indexData = new LinkedHashMap<String, EventIndex>();
+            for (Map.Entry<String, EventIndex> entry : indexEventHolder.indexData.entrySet()) {
+                indexData.put(entry.getKey(), entry.getValue().copy(copier));
             }
-            allIndexMetaData.putAll(indexMetaData);
         } else {
             indexData = null;
         }
+    }
 
+    @Override
+    public Object copyState(UnaryOperator<Object> copier) {
+        return new IndexEventHolder(this, copier);
     }
 
     @Override
@@ -120,6 +174,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         return primaryKeyReferenceHolders;
     }
 
+    @Override
+    public IndexReferenceHolder[] getIndexReferenceHolders() {
+        return indexReferenceHolders;
+    }
+
     @Override
     public boolean isMultiPrimaryKeyAttribute(String attributeName) {
         return multiPrimaryKeyMetaData.containsKey(attributeName);
@@ -132,7 +191,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     @Override
     public boolean isAttributeIndexed(int position) {
-        return allIndexMetaData.containsValue(position);
+        return allIndexPositions.contains(position);
     }
 
     @Override
@@ -159,17 +218,8 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         }
 
         if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
+            for (EventIndex eventIndex : indexData.values()) {
+                eventIndex.add(streamEvent);
             }
         }
 
@@ -198,24 +248,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         }
 
         if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+            for (EventIndex eventIndex : indexData.values()) {
                 if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
+                    eventIndex.remove(deletedEvent);
                 }
+                eventIndex.add(streamEvent);
             }
         }
     }
@@ -225,15 +262,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         if (primaryKeyData != null) {
             return primaryKeyData.values();
         } else if (indexData != null) {
-            HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
-            if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
-                for (Set<StreamEvent> streamEvents : aIndexData.values()) {
-                    resultEventSet.addAll(streamEvents);
-                }
-            }
-            return resultEventSet;
+            return indexData.values().iterator().next().getAllEvents();
         } else {
             return new HashSet<StreamEvent>();
         }
@@ -275,53 +304,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     return resultEventSet;
             }
         } else {
-            HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
-
-            Set<StreamEvent> resultEvents;
-            switch (operator) {
-                case LESS_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, false).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
-                case GREATER_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, false).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
-                case LESS_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, true).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
-                case GREATER_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, true).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
-                case EQUAL:
-                    resultEvents = currentIndexedData.get(value);
-                    if (resultEvents != null) {
-                        resultEventSet.addAll(resultEvents);
-                    }
-                    return resultEventSet;
-                case NOT_EQUAL:
-                    if (currentIndexedData.size() > 0) {
-                        resultEventSet = new HashSet<StreamEvent>();
-                        for (Set<StreamEvent> eventSet : currentIndexedData.values()) {
-                            resultEventSet.addAll(eventSet);
-                        }
-                    } else {
-                        resultEventSet = new HashSet<StreamEvent>();
-                    }
-
-                    resultEvents = currentIndexedData.get(value);
-                    if (resultEvents != null) {
-                        resultEventSet.removeAll(resultEvents);
-                    }
-                    return resultEventSet;
-            }
+            return indexData.get(attribute).find(operator, value);
         }
         throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
                 .getName());
@@ -333,15 +316,16 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             primaryKeyData.clear();
         }
         if (indexData != null) {
-            for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
-                aIndexedData.clear();
+            for (EventIndex eventIndex : indexData.values()) {
+                eventIndex.clear();
             }
         }
     }
 
     @Override
     public void deleteAll(Collection<StreamEvent> storeEventSet) {
-        for (StreamEvent streamEvent : storeEventSet) {
+        // the events can be a view over the indexes they are deleted from
+        for (StreamEvent streamEvent : new ArrayList<StreamEvent>(storeEventSet)) {
             if (primaryKeyData != null) {
                 Object primaryKey = constructPrimaryKey(streamEvent, primaryKeyReferenceHolders);
                 StreamEvent deletedEvent = primaryKeyData.remove(primaryKey);
@@ -410,58 +394,17 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     return;
             }
         } else {
-            switch (operator) {
-
-                case LESS_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, false).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
-                case GREATER_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, false).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
-                case LESS_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, true).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
-                case GREATER_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, true).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
-                case EQUAL:
-                    Set<StreamEvent> deletedEventSet = indexData.get(attribute).remove(value);
-                    if (deletedEventSet != null && deletedEventSet.size() > 0) {
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                    }
-                    return;
-                case NOT_EQUAL:
-                    Set<StreamEvent> matchingEventSet = indexData.get(attribute).get(value);
-                    deleteAll();
-                    for (StreamEvent matchingEvent : matchingEventSet) {
-                        add(matchingEvent);
-                    }
-                    return;
+            if (operator == Compare.Operator.NOT_EQUAL) {
+                List<StreamEvent> matchingEvents = new ArrayList<StreamEvent>(indexData.get(attribute).find(
+                        Compare.Operator.EQUAL, value));
+                deleteAll();
+                for (StreamEvent matchingEvent : matchingEvents) {
+                    add(matchingEvent);
+                }
+            } else {
+                deleteFromIndexesAndPrimaryKey(attribute, indexData.get(attribute).remove(operator, value));
             }
+            return;
         }
         throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
                 .getName());
@@ -485,58 +428,51 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            return indexData.get(attribute).contains(operator, value);
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
 
+    @Override
+    public long estimateMatchCount(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            long matchingKeyCount = value != null && primaryKeyData.containsKey(value) ? 1 : 0;
             switch (operator) {
-
-                case LESS_THAN:
-                    return currentIndexedData.lowerKey(value) != null;
-                case GREATER_THAN:
-                    return currentIndexedData.higherKey(value) != null;
-                case LESS_THAN_EQUAL:
-                    return currentIndexedData.ceilingKey(value) != null;
-                case GREATER_THAN_EQUAL:
-                    return currentIndexedData.floorKey(value) != null;
                 case EQUAL:
-                    return currentIndexedData.get(value) != null;
+                    return matchingKeyCount;
                 case NOT_EQUAL:
-                    return currentIndexedData.size() > 1;
+                    return primaryKeyData.size() - matchingKeyCount;
+                default:
+                    if (primaryKeyData instanceof TreeMap) {
+                        return EventIndex.estimateRangeMatchCount((TreeMap<Object, StreamEvent>) primaryKeyData,
+                                primaryKeyData.size(), operator, value);
+                    }
+                    return primaryKeyData.size();
             }
+        } else {
+            return indexData.get(attribute).estimateMatchCount(operator, value);
         }
-        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
-                .getName());
     }
 
-    private void deleteFromIndexesAndPrimaryKey(String currentAttribute, Set<StreamEvent> deletedEventSet) {
+    private void deleteFromIndexesAndPrimaryKey(String currentIndex, Collection<StreamEvent> deletedEventSet) {
         for (StreamEvent deletedEvent : deletedEventSet) {
             if (primaryKeyData != null) {
                 Object primaryKey = constructPrimaryKey(deletedEvent, primaryKeyReferenceHolders);
                 primaryKeyData.remove(primaryKey);
             }
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                    Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
+            for (Map.Entry<String, EventIndex> indexEntry : indexData.entrySet()) {
+                if (!currentIndex.equals(indexEntry.getKey())) {
+                    indexEntry.getValue().remove(deletedEvent);
                 }
             }
         }
     }
 
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
-        if (indexMetaData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                values.remove(toDeleteEvent);
-                if (values.size() == 0) {
-                    indexMap.remove(key);
-                }
+        if (indexData != null) {
+            for (EventIndex eventIndex : indexData.values()) {
+                eventIndex.remove(toDeleteEvent);
             }
         }
     }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.util.SiddhiConstants;
+
+import java.io.Serializable;
+
+/**
+ * IndexReferenceHolder for indexed Event Table, referring the attributes of an index defined by {@code @Index}.
+ * Compound indexes are named by their attributes joined the same way as multiple primary keys, and their keys are
+ * composed the same way from the attribute values.
+ */
+public class IndexReferenceHolder implements Serializable {
+    private static final long serialVersionUID = -4702484312865430791L;
+    private final String indexName;
+    private final String[] indexAttributes;
+    private final int[] indexPositions;
+    private final Type indexType;
+
+    public IndexReferenceHolder(String[] indexAttributes, int[] indexPositions, Type indexType) {
+        this.indexAttributes = indexAttributes;
+        this.indexPositions = indexPositions;
+        this.indexType = indexType;
+        if (indexAttributes.length == 1) {
+            this.indexName = indexAttributes[0];
+        } else {
+            StringBuilder indexNameBuilder = new StringBuilder();
+            for (String indexAttribute : indexAttributes) {
+                indexNameBuilder.append(indexAttribute).append(SiddhiConstants.KEY_DELIMITER);
+            }
+            this.indexName = indexNameBuilder.toString();
+        }
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public String[] getIndexAttributes() {
+        return indexAttributes;
+    }
+
+    public int[] getIndexPositions() {
+        return indexPositions;
+    }
+
+    public Type getIndexType() {
+        return indexType;
+    }
+
+    public boolean isCompound() {
+        return indexAttributes.length > 1;
+    }
+
+    /**
+     * Construct the key of an index from the attribute values of an event.
+     *
+     * @param outputData attribute values of the event
+     * @return the attribute value for single attribute indexes, and the joined attribute values for compound indexes
+     */
+    public Object constructIndexKey(Object[] outputData) {
+        if (indexPositions.length == 1) {
+            return outputData[indexPositions[0]];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int indexPosition : indexPositions) {
+                stringBuilder.append(outputData[indexPosition]).append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Index types, where hash indexes only serve equality matching while sorted indexes also serve range matching.
+     */
+    public enum Type {
+        HASH,
+        SORTED
+    }
+}
@@ -45,11 +45,24 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean containsEventSet(String attribute, Compare.Operator operator, Object value);
 
+    /**
+     * Estimate the number of events whose attribute compares to the value with the given operator, from the primary
+     * key or the index of the attribute without matching the events.
+     *
+     * @param attribute indexed attribute, or the index name of compound indexes and multiple primary keys
+     * @param operator  comparison operator
+     * @param value     value to compare with
+     * @return estimated number of matching events
+     */
+    long estimateMatchCount(String attribute, Compare.Operator operator, Object value);
+
     void overwrite(StreamEvent streamEvent);
 
     Set<Object> getAllPrimaryKeyValues();
 
     PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders();
 
+    IndexReferenceHolder[] getIndexReferenceHolders();
+
     boolean isMultiPrimaryKeyAttribute(String attributeName);
 }
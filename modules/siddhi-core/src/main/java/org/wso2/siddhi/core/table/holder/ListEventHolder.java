@@ -23,14 +23,16 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
+import org.wso2.siddhi.core.util.snapshot.CopyableState;
 
 import java.util.LinkedList;
+import java.util.function.UnaryOperator;
 
 /**
  * Holder object to contain a list of {@link StreamEvent}. Users can add {@link ComplexEventChunk}s to the
  * {@link ListEventHolder} where events in chunk will be added to the {@link StreamEvent} list.
  */
-public class ListEventHolder extends LinkedList<StreamEvent> implements EventHolder {
+public class ListEventHolder extends LinkedList<StreamEvent> implements EventHolder, CopyableState {
 
     private static final long serialVersionUID = 4695745058501269511L;
     private StreamEventPool tableStreamEventPool;
@@ -51,4 +53,13 @@ public class ListEventHolder extends LinkedList<StreamEvent> implements EventHol
             this.add(streamEvent);
         }
     }
+
+    @Override
+    public Object copyState(UnaryOperator<Object> copier) {
+        ListEventHolder copy = new ListEventHolder(tableStreamEventPool, eventConverter);
+        for (StreamEvent streamEvent : this) {
+            copy.add((StreamEvent) copier.apply(streamEvent));
+        }
+        return copy;
+    }
 }
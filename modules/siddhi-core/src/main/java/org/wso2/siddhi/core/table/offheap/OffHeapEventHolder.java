@@ -0,0 +1,596 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.table.holder.IndexReferenceHolder;
+import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Event holder keeping its events as binary rows in direct byte buffers, outside of the Java heap, with off-heap
+ * hash indexes for the primary key and the indexes, other than the sorted indexes of numeric attributes which are
+ * kept in off-heap sorted indexes. Events handed out by the holder are heap copies of the rows, changes done to
+ * their attributes while an update is in progress are written back to the rows when the update completes.
+ */
+public class OffHeapEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(OffHeapEventHolder.class);
+
+    private final OffHeapRowCodec rowCodec;
+    private final int segmentSize;
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final IndexReferenceHolder[] indexReferenceHolders;
+    private final Map<String, IndexReferenceHolder> indexReferenceHolderMap = new HashMap<>();
+    private final Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private final Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private final Set<Integer> allIndexPositions = new HashSet<>();
+    private final Map<String, OffHeapHashIndex> hashIndexes = new HashMap<>();
+    private final Map<String, OffHeapSortedIndex> sortedIndexes = new HashMap<>();
+    private final String tableName;
+    private final String siddhiAppName;
+    private final List<OffHeapStreamEvent> updatedEvents = new ArrayList<>();
+    private String primaryKeyAttributes = null;
+    private OffHeapHashIndex primaryKeyIndex;
+    private OffHeapSortedIndex sortedPrimaryKeyIndex;
+    private OffHeapRowStore rowStore;
+    private boolean updating;
+
+    public OffHeapEventHolder(PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                              IndexReferenceHolder[] indexReferenceHolders, int segmentSize,
+                              AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        this.rowCodec = new OffHeapRowCodec(tableDefinition.getAttributeList());
+        this.segmentSize = segmentSize;
+        this.rowStore = new OffHeapRowStore(segmentSize);
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.indexReferenceHolders = indexReferenceHolders;
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+
+        if (primaryKeyReferenceHolders != null) {
+            primaryKeyIndex = new OffHeapHashIndex(this::readPrimaryKey);
+            if (primaryKeyReferenceHolders.length == 1) {
+                int position = primaryKeyReferenceHolders[0].getPrimaryKeyPosition();
+                allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(), position);
+                allIndexPositions.add(position);
+                primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+                if (OffHeapSortedIndex.isSortable(rowCodec.getAttributeType(position))) {
+                    sortedPrimaryKeyIndex = new OffHeapSortedIndex(rowCodec.getAttributeType(position),
+                            address -> rowStore.isLive(address));
+                }
+            } else {
+                StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                            primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                    primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                            .append(SiddhiConstants.KEY_DELIMITER);
+                }
+                primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+            }
+        }
+        for (IndexReferenceHolder indexReferenceHolder : indexReferenceHolders) {
+            String indexName = indexReferenceHolder.getIndexName();
+            int[] positions = indexReferenceHolder.getIndexPositions();
+            if (indexReferenceHolder.getIndexType() == IndexReferenceHolder.Type.SORTED &&
+                    OffHeapSortedIndex.isSortable(rowCodec.getAttributeType(positions[0]))) {
+                sortedIndexes.put(indexName, new OffHeapSortedIndex(rowCodec.getAttributeType(positions[0]),
+                        address -> rowStore.isLive(address)));
+            } else {
+                hashIndexes.put(indexName, new OffHeapHashIndex(address -> readIndexKey(address,
+                        indexReferenceHolder)));
+            }
+            indexReferenceHolderMap.put(indexName, indexReferenceHolder);
+            if (!indexReferenceHolder.isCompound()) {
+                allIndexMetaData.put(indexName, positions[0]);
+            }
+            for (int position : positions) {
+                allIndexPositions.add(position);
+            }
+        }
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        if (primaryKeyIndex == null) {
+            return null;
+        }
+        return new AbstractSet<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new RowIterator<>(OffHeapEventHolder.this::readPrimaryKey);
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return primaryKeyIndex.get(key) != 0;
+            }
+
+            @Override
+            public int size() {
+                return rowStore.getRowCount();
+            }
+        };
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public IndexReferenceHolder[] getIndexReferenceHolders() {
+        return indexReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexPositions.contains(position);
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            add(complexEvent.getTimestamp(), complexEvent.getType(), complexEvent.getOutputData());
+        }
+    }
+
+    private void add(long timestamp, ComplexEvent.Type type, Object[] outputData) {
+        if (primaryKeyIndex != null) {
+            Object primaryKey = constructPrimaryKey(outputData);
+            if (primaryKeyIndex.get(primaryKey) != 0) {
+                log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' drooping event : " +
+                        Arrays.toString(outputData) + ", as there is already an event stored with primary key '" +
+                        primaryKey + "'");
+                return;
+            }
+        }
+        long address = rowStore.add(rowCodec.encode(timestamp, type, outputData));
+        index(address, outputData);
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        if (primaryKeyIndex != null) {
+            long existingAddress = primaryKeyIndex.get(constructPrimaryKey(streamEvent.getOutputData()));
+            if (existingAddress != 0) {
+                delete(existingAddress);
+            }
+        }
+        add(streamEvent.getTimestamp(), streamEvent.getType(), streamEvent.getOutputData());
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        return new AbstractCollection<StreamEvent>() {
+            @Override
+            public Iterator<StreamEvent> iterator() {
+                return new RowIterator<>(OffHeapEventHolder.this::decode);
+            }
+
+            @Override
+            public int size() {
+                return rowStore.getRowCount();
+            }
+        };
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        Set<StreamEvent> resultEventSet = new HashSet<>();
+        match(attribute, operator, value, address -> {
+            resultEventSet.add(decode(address));
+            return true;
+        });
+        return resultEventSet;
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        return !match(attribute, operator, value, address -> false);
+    }
+
+    @Override
+    public long estimateMatchCount(String attribute, Compare.Operator operator, Object value) {
+        if (operator != Compare.Operator.EQUAL) {
+            // the runs of the off-heap sorted indexes can not rank keys, so ranges are assumed to match all rows
+            return rowStore.getRowCount();
+        }
+        long[] matchCount = new long[1];
+        match(attribute, operator, value, address -> {
+            matchCount[0]++;
+            return true;
+        });
+        return matchCount[0];
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        List<Long> deletingAddresses = new ArrayList<>();
+        match(attribute, operator, value, address -> {
+            deletingAddresses.add(address);
+            return true;
+        });
+        for (long address : deletingAddresses) {
+            delete(address);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        rowStore.clear();
+        clearIndexes();
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (streamEvent instanceof OffHeapStreamEvent) {
+                delete(((OffHeapStreamEvent) streamEvent).getAddress());
+            } else if (primaryKeyIndex != null) {
+                long address = primaryKeyIndex.get(constructPrimaryKey(streamEvent.getOutputData()));
+                if (address != 0) {
+                    delete(address);
+                }
+            }
+        }
+    }
+
+    /**
+     * Start tracking the changes done to the attributes of the events handed out by the holder.
+     */
+    public void startUpdate() {
+        updating = true;
+    }
+
+    /**
+     * Write the changes done to the attributes of the events handed out since the update started back to their rows,
+     * and stop tracking the changes.
+     */
+    public void completeUpdate() {
+        updating = false;
+        Set<OffHeapStreamEvent> writtenEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OffHeapStreamEvent updatedEvent : updatedEvents) {
+            long address = updatedEvent.getAddress();
+            // rows of events re-added by the update are already deleted
+            if (!writtenEvents.add(updatedEvent) || !rowStore.isLive(address)) {
+                continue;
+            }
+            if (primaryKeyIndex != null) {
+                Object primaryKey = constructPrimaryKey(updatedEvent.getOutputData());
+                long existingAddress = primaryKeyIndex.get(primaryKey);
+                if (existingAddress != 0 && existingAddress != address) {
+                    log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' update failed for " +
+                            "event : " + updatedEvent + ", as there is already an event stored with primary key '" +
+                            primaryKey + "'");
+                    continue;
+                }
+            }
+            delete(address);
+            add(updatedEvent.getTimestamp(), updatedEvent.getType(), updatedEvent.getOutputData());
+        }
+        updatedEvents.clear();
+    }
+
+    void updated(OffHeapStreamEvent streamEvent) {
+        if (updating) {
+            updatedEvents.add(streamEvent);
+        }
+    }
+
+    /**
+     * Reclaim the space of the deleted rows by copying the live rows into new segments, when the deleted rows take
+     * more space than the live rows. Events handed out before the compaction can no longer be deleted or updated
+     * through the holder.
+     */
+    public void compactIfNeeded() {
+        if (rowStore.isCompactionNeeded()) {
+            OffHeapRowStore compactingRowStore = rowStore;
+            rowStore = new OffHeapRowStore(segmentSize);
+            clearIndexes();
+            for (OffHeapRowStore.AddressIterator iterator = compactingRowStore.iterator(); iterator.hasNext(); ) {
+                addRow(compactingRowStore.getRow(iterator.next()));
+            }
+        }
+    }
+
+    /**
+     * @return live rows of the holder packed into byte arrays of at most a segment size, each row prefixed by its
+     * length
+     */
+    public List<byte[]> snapshotRows() {
+        List<byte[]> snapshot = new ArrayList<>();
+        ByteBuffer chunk = ByteBuffer.allocate(segmentSize);
+        for (OffHeapRowStore.AddressIterator iterator = rowStore.iterator(); iterator.hasNext(); ) {
+            ByteBuffer row = rowStore.getRow(iterator.next());
+            if (chunk.remaining() < Integer.BYTES + row.remaining()) {
+                snapshot.add(toByteArray(chunk));
+                chunk = ByteBuffer.allocate(Math.max(segmentSize, Integer.BYTES + row.remaining()));
+            }
+            chunk.putInt(row.remaining());
+            chunk.put(row);
+        }
+        if (chunk.position() > 0) {
+            snapshot.add(toByteArray(chunk));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replace the rows of the holder with the rows of a snapshot.
+     *
+     * @param snapshot rows as returned by {@link #snapshotRows()}
+     */
+    public void restoreRows(List<byte[]> snapshot) {
+        deleteAll();
+        for (byte[] chunkBytes : snapshot) {
+            ByteBuffer chunk = ByteBuffer.wrap(chunkBytes);
+            while (chunk.hasRemaining()) {
+                int rowSize = chunk.getInt();
+                ByteBuffer row = chunk.slice();
+                row.limit(rowSize);
+                chunk.position(chunk.position() + rowSize);
+                addRow(row);
+            }
+        }
+    }
+
+    private void addRow(ByteBuffer row) {
+        long address = rowStore.add(row);
+        StreamEvent streamEvent = new StreamEvent(0, 0, rowCodec.getAttributeCount());
+        rowCodec.decode(rowStore.getSegment(address), rowStore.getRowOffset(address), streamEvent);
+        index(address, streamEvent.getOutputData());
+    }
+
+    private void index(long address, Object[] outputData) {
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.add(constructPrimaryKey(outputData), address);
+            if (sortedPrimaryKeyIndex != null) {
+                sortedPrimaryKeyIndex.add(outputData[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()],
+                        address);
+            }
+        }
+        for (IndexReferenceHolder indexReferenceHolder : indexReferenceHolders) {
+            OffHeapHashIndex hashIndex = hashIndexes.get(indexReferenceHolder.getIndexName());
+            if (hashIndex != null) {
+                hashIndex.add(indexReferenceHolder.constructIndexKey(outputData), address);
+            } else {
+                sortedIndexes.get(indexReferenceHolder.getIndexName()).add(
+                        outputData[indexReferenceHolder.getIndexPositions()[0]], address);
+            }
+        }
+    }
+
+    private void delete(long address) {
+        if (!rowStore.isLive(address)) {
+            return;
+        }
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.remove(readPrimaryKey(address), address);
+        }
+        for (Map.Entry<String, OffHeapHashIndex> hashIndexEntry : hashIndexes.entrySet()) {
+            hashIndexEntry.getValue().remove(readIndexKey(address,
+                    indexReferenceHolderMap.get(hashIndexEntry.getKey())), address);
+        }
+        // entries of sorted indexes are dropped lazily, as they are skipped once the row is deleted
+        rowStore.delete(address);
+    }
+
+    private void clearIndexes() {
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.clear();
+            if (sortedPrimaryKeyIndex != null) {
+                sortedPrimaryKeyIndex.clear();
+            }
+        }
+        for (OffHeapHashIndex hashIndex : hashIndexes.values()) {
+            hashIndex.clear();
+        }
+        for (OffHeapSortedIndex sortedIndex : sortedIndexes.values()) {
+            sortedIndex.clear();
+        }
+    }
+
+    /**
+     * Visit the addresses of the rows whose attribute compares to the given value with the given operator, using the
+     * indexes of the attribute where they support the operator and scanning the rows otherwise.
+     *
+     * @return false if the visitor stopped the visit
+     */
+    private boolean match(String attribute, Compare.Operator operator, Object value, LongPredicate visitor) {
+        LongFunction<Object> keyReader;
+        if (primaryKeyIndex != null && attribute.equals(primaryKeyAttributes)) {
+            if (operator == Compare.Operator.EQUAL) {
+                long address = primaryKeyIndex.get(value);
+                return address == 0 || visitor.test(address);
+            } else if (operator != Compare.Operator.NOT_EQUAL && sortedPrimaryKeyIndex != null) {
+                return sortedPrimaryKeyIndex.forEach(operator, value, visitor);
+            }
+            keyReader = this::readPrimaryKey;
+        } else {
+            IndexReferenceHolder indexReferenceHolder = indexReferenceHolderMap.get(attribute);
+            if (indexReferenceHolder == null) {
+                throw new OperationNotSupportedException("Attribute '" + attribute + "' is not indexed in table '" +
+                        tableName + "'");
+            }
+            OffHeapSortedIndex sortedIndex = sortedIndexes.get(attribute);
+            if (sortedIndex != null && operator != Compare.Operator.NOT_EQUAL) {
+                return sortedIndex.forEach(operator, value, visitor);
+            } else if (sortedIndex == null && operator == Compare.Operator.EQUAL) {
+                return hashIndexes.get(attribute).forEach(value, visitor);
+            }
+            keyReader = address -> readIndexKey(address, indexReferenceHolder);
+        }
+        for (OffHeapRowStore.AddressIterator iterator = rowStore.iterator(); iterator.hasNext(); ) {
+            long address = iterator.next();
+            if (compare(keyReader.apply(address), operator, value) && !visitor.test(address)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean compare(Object key, Compare.Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return Objects.equals(key, value);
+            case NOT_EQUAL:
+                return !Objects.equals(key, value);
+            default:
+                if (key == null || value == null) {
+                    return false;
+                }
+                int comparison = ((Comparable<Object>) key).compareTo(value);
+                switch (operator) {
+                    case LESS_THAN:
+                        return comparison < 0;
+                    case GREATER_THAN:
+                        return comparison > 0;
+                    case LESS_THAN_EQUAL:
+                        return comparison <= 0;
+                    case GREATER_THAN_EQUAL:
+                        return comparison >= 0;
+                    default:
+                        throw new OperationNotSupportedException(operator + " not supported for '" + value +
+                                "' by " + OffHeapEventHolder.class.getName());
+                }
+        }
+    }
+
+    private StreamEvent decode(long address) {
+        OffHeapStreamEvent streamEvent = new OffHeapStreamEvent(rowCodec.getAttributeCount(), address, this);
+        rowCodec.decode(rowStore.getSegment(address), rowStore.getRowOffset(address), streamEvent);
+        return streamEvent;
+    }
+
+    private Object readAttribute(long address, int position) {
+        return rowCodec.decodeAttribute(rowStore.getSegment(address), rowStore.getRowOffset(address), position);
+    }
+
+    private Object readIndexKey(long address, IndexReferenceHolder indexReferenceHolder) {
+        int[] positions = indexReferenceHolder.getIndexPositions();
+        if (positions.length == 1) {
+            return readAttribute(address, positions[0]);
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int position : positions) {
+                stringBuilder.append(readAttribute(address, position)).append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private Object readPrimaryKey(long address) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return readAttribute(address, primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(readAttribute(address, primaryKeyReferenceHolder.getPrimaryKeyPosition()))
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private Object constructPrimaryKey(Object[] outputData) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return outputData[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(outputData[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Iterator reading a value from each live row of the holder.
+     *
+     * @param <T> type of the values
+     */
+    private class RowIterator<T> implements Iterator<T> {
+
+        private final OffHeapRowStore.AddressIterator addressIterator = rowStore.iterator();
+        private final LongFunction<T> rowReader;
+
+        private RowIterator(LongFunction<T> rowReader) {
+            this.rowReader = rowReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return addressIterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return rowReader.apply(addressIterator.next());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * Open addressing hash index of row addresses in a direct byte buffer. Slots only hold the address and the hash of
+ * the key of a row, keys are read back from the rows to resolve collisions. Multiple rows can be indexed under the
+ * same key, in which case they occupy consecutive slots of the probe sequence.
+ */
+public class OffHeapHashIndex {
+
+    private static final int SLOT_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private final KeyReader keyReader;
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+    private int removedCount;
+
+    public OffHeapHashIndex(KeyReader keyReader) {
+        this.keyReader = keyReader;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void add(Object key, long address) {
+        if ((size + removedCount + 1) * 2 > capacity) {
+            rehash(size * 4 >= capacity ? capacity * 2 : capacity);
+        }
+        int hash = hash(key);
+        int slot = hash & (capacity - 1);
+        while (getAddress(slot) != EMPTY && getAddress(slot) != REMOVED) {
+            slot = (slot + 1) & (capacity - 1);
+        }
+        if (getAddress(slot) == REMOVED) {
+            removedCount--;
+        }
+        setSlot(slot, address, hash);
+        size++;
+    }
+
+    public void remove(Object key, long address) {
+        int hash = hash(key);
+        for (int slot = hash & (capacity - 1); getAddress(slot) != EMPTY; slot = (slot + 1) & (capacity - 1)) {
+            if (getAddress(slot) == address) {
+                setSlot(slot, REMOVED, 0);
+                size--;
+                removedCount++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param key key to look up
+     * @return address of a row indexed under the key, or zero if there is none
+     */
+    public long get(Object key) {
+        int hash = hash(key);
+        for (int slot = hash & (capacity - 1); getAddress(slot) != EMPTY; slot = (slot + 1) & (capacity - 1)) {
+            long address = getAddress(slot);
+            if (address != REMOVED && getHash(slot) == hash && Objects.equals(key, keyReader.readKey(address))) {
+                return address;
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Visit the addresses of the rows indexed under a key.
+     *
+     * @param key     key to look up
+     * @param visitor visitor of the addresses, returning false to stop the visit
+     * @return false if the visitor stopped the visit
+     */
+    public boolean forEach(Object key, LongPredicate visitor) {
+        int hash = hash(key);
+        for (int slot = hash & (capacity - 1); getAddress(slot) != EMPTY; slot = (slot + 1) & (capacity - 1)) {
+            long address = getAddress(slot);
+            if (address != REMOVED && getHash(slot) == hash && Objects.equals(key, keyReader.readKey(address)) &&
+                    !visitor.test(address)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer oldSlots = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            long address = oldSlots.getLong(oldSlot * SLOT_SIZE);
+            if (address != EMPTY && address != REMOVED) {
+                int hash = oldSlots.getInt(oldSlot * SLOT_SIZE + Long.BYTES);
+                int slot = hash & (capacity - 1);
+                while (getAddress(slot) != EMPTY) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                setSlot(slot, address, hash);
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY) {
+            throw new SiddhiAppRuntimeException("Off-heap hash index cannot hold more than " + MAXIMUM_CAPACITY / 2 +
+                    " rows");
+        }
+        // direct buffers are zeroed on allocation, hence all slots start empty
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+        capacity = newCapacity;
+        size = 0;
+        removedCount = 0;
+    }
+
+    private long getAddress(int slot) {
+        return slots.getLong(slot * SLOT_SIZE);
+    }
+
+    private int getHash(int slot) {
+        return slots.getInt(slot * SLOT_SIZE + Long.BYTES);
+    }
+
+    private void setSlot(int slot, long address, int hash) {
+        slots.putLong(slot * SLOT_SIZE, address);
+        slots.putInt(slot * SLOT_SIZE + Long.BYTES, hash);
+    }
+
+    private static int hash(Object key) {
+        int hash = (key == null) ? 0 : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Reads the indexed key of a row.
+     */
+    public interface KeyReader {
+        Object readKey(long address);
+    }
+}
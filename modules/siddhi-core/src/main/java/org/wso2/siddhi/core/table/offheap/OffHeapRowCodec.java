@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binary row format of the off-heap table. A row holds the timestamp and type of the event, a bitmap of its null
+ * attributes, followed by the values of its non null attributes in definition order. Numbers and booleans are stored
+ * in their primitive widths, strings as length prefixed UTF-8 and objects as length prefixed Java serialized bytes.
+ */
+public class OffHeapRowCodec {
+
+    private static final int HEADER_SIZE = Long.BYTES + Byte.BYTES;
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+
+    private final Attribute.Type[] attributeTypes;
+    private final int nullBitmapSize;
+    private ByteBuffer encodingBuffer = ByteBuffer.allocate(256);
+
+    public OffHeapRowCodec(List<Attribute> attributeList) {
+        this.attributeTypes = new Attribute.Type[attributeList.size()];
+        for (int i = 0; i < attributeTypes.length; i++) {
+            attributeTypes[i] = attributeList.get(i).getType();
+        }
+        this.nullBitmapSize = (attributeTypes.length + 7) / 8;
+    }
+
+    public int getAttributeCount() {
+        return attributeTypes.length;
+    }
+
+    public Attribute.Type getAttributeType(int position) {
+        return attributeTypes[position];
+    }
+
+    /**
+     * Encode an event into the encoding buffer of the codec, which is reused by the next call.
+     *
+     * @param timestamp  timestamp of the event
+     * @param type       type of the event
+     * @param outputData attribute values of the event
+     * @return buffer holding the encoded row between position zero and its limit
+     */
+    public ByteBuffer encode(long timestamp, ComplexEvent.Type type, Object[] outputData) {
+        ByteBuffer buffer = encodingBuffer;
+        buffer.clear();
+        buffer = ensureCapacity(buffer, HEADER_SIZE + nullBitmapSize);
+        buffer.putLong(timestamp);
+        buffer.put((byte) type.ordinal());
+        int bitmapPosition = buffer.position();
+        for (int i = 0; i < nullBitmapSize; i++) {
+            buffer.put((byte) 0);
+        }
+        for (int i = 0; i < attributeTypes.length; i++) {
+            Object value = outputData[i];
+            if (value == null) {
+                buffer.put(bitmapPosition + (i >>> 3), (byte) (buffer.get(bitmapPosition + (i >>> 3)) |
+                        (1 << (i & 7))));
+                continue;
+            }
+            switch (attributeTypes[i]) {
+                case INT:
+                    buffer = ensureCapacity(buffer, Integer.BYTES);
+                    buffer.putInt((Integer) value);
+                    break;
+                case LONG:
+                    buffer = ensureCapacity(buffer, Long.BYTES);
+                    buffer.putLong((Long) value);
+                    break;
+                case FLOAT:
+                    buffer = ensureCapacity(buffer, Float.BYTES);
+                    buffer.putFloat((Float) value);
+                    break;
+                case DOUBLE:
+                    buffer = ensureCapacity(buffer, Double.BYTES);
+                    buffer.putDouble((Double) value);
+                    break;
+                case BOOL:
+                    buffer = ensureCapacity(buffer, Byte.BYTES);
+                    buffer.put((byte) (((Boolean) value) ? 1 : 0));
+                    break;
+                case STRING:
+                    buffer = putBytes(buffer, ((String) value).getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    buffer = putBytes(buffer, serialize(value));
+                    break;
+            }
+        }
+        buffer.flip();
+        encodingBuffer = buffer;
+        return buffer;
+    }
+
+    /**
+     * Decode a row into an event.
+     *
+     * @param segment     segment holding the row
+     * @param offset      offset of the row in the segment
+     * @param streamEvent event to decode the row into
+     */
+    public void decode(ByteBuffer segment, int offset, StreamEvent streamEvent) {
+        streamEvent.setTimestamp(segment.getLong(offset));
+        streamEvent.setType(EVENT_TYPES[segment.get(offset + Long.BYTES)]);
+        Object[] outputData = streamEvent.getOutputData();
+        int position = offset + HEADER_SIZE + nullBitmapSize;
+        for (int i = 0; i < attributeTypes.length; i++) {
+            if (isNull(segment, offset, i)) {
+                outputData[i] = null;
+            } else {
+                outputData[i] = readValue(segment, position, attributeTypes[i]);
+                position += valueSize(segment, position, attributeTypes[i]);
+            }
+        }
+    }
+
+    /**
+     * Decode a single attribute of a row, without decoding the rest of it.
+     *
+     * @param segment  segment holding the row
+     * @param offset   offset of the row in the segment
+     * @param position position of the attribute
+     * @return value of the attribute
+     */
+    public Object decodeAttribute(ByteBuffer segment, int offset, int position) {
+        if (isNull(segment, offset, position)) {
+            return null;
+        }
+        int valuePosition = offset + HEADER_SIZE + nullBitmapSize;
+        for (int i = 0; i < position; i++) {
+            if (!isNull(segment, offset, i)) {
+                valuePosition += valueSize(segment, valuePosition, attributeTypes[i]);
+            }
+        }
+        return readValue(segment, valuePosition, attributeTypes[position]);
+    }
+
+    private boolean isNull(ByteBuffer segment, int offset, int position) {
+        return (segment.get(offset + HEADER_SIZE + (position >>> 3)) & (1 << (position & 7))) != 0;
+    }
+
+    private Object readValue(ByteBuffer segment, int position, Attribute.Type type) {
+        switch (type) {
+            case INT:
+                return segment.getInt(position);
+            case LONG:
+                return segment.getLong(position);
+            case FLOAT:
+                return segment.getFloat(position);
+            case DOUBLE:
+                return segment.getDouble(position);
+            case BOOL:
+                return segment.get(position) != 0;
+            case STRING:
+                return new String(getBytes(segment, position), StandardCharsets.UTF_8);
+            default:
+                return deserialize(getBytes(segment, position));
+        }
+    }
+
+    private int valueSize(ByteBuffer segment, int position, Attribute.Type type) {
+        switch (type) {
+            case INT:
+                return Integer.BYTES;
+            case LONG:
+                return Long.BYTES;
+            case FLOAT:
+                return Float.BYTES;
+            case DOUBLE:
+                return Double.BYTES;
+            case BOOL:
+                return Byte.BYTES;
+            default:
+                return Integer.BYTES + segment.getInt(position);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer segment, int position) {
+        byte[] bytes = new byte[segment.getInt(position)];
+        ByteBuffer view = segment.duplicate();
+        view.position(position + Integer.BYTES);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static ByteBuffer putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer = ensureCapacity(buffer, Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int size) {
+        if (buffer.remaining() >= size) {
+            return buffer;
+        }
+        ByteBuffer expandedBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        buffer.flip();
+        expandedBuffer.put(buffer);
+        return expandedBuffer;
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(value);
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error serializing '" + value + "' into off-heap table row", e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInputStream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SiddhiAppRuntimeException("Error deserializing object from off-heap table row", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Append only store of encoded rows in direct byte buffer segments. A row is addressed by the index of its segment
+ * in the upper half of a long and its offset in the lower half, and is prefixed by its length and a live flag.
+ * Deleted rows only clear the flag, their space is reclaimed by copying the live rows into a new store.
+ */
+public class OffHeapRowStore {
+
+    private static final int ROW_HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+    private static final int SEGMENT_START_OFFSET = Long.BYTES;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 0;
+
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer currentSegment;
+    private int rowCount;
+    private long usedBytes;
+    private long deletedBytes;
+
+    public OffHeapRowStore(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Append a row.
+     *
+     * @param row buffer holding the encoded row between its position and limit
+     * @return address of the row
+     */
+    public long add(ByteBuffer row) {
+        int rowSize = ROW_HEADER_SIZE + row.remaining();
+        if (currentSegment == null || currentSegment.remaining() < rowSize) {
+            // rows never span segments, hence rows larger than a segment get a segment of their own
+            currentSegment = ByteBuffer.allocateDirect(Math.max(segmentSize, SEGMENT_START_OFFSET + rowSize));
+            currentSegment.position(SEGMENT_START_OFFSET);
+            segments.add(currentSegment);
+        }
+        int offset = currentSegment.position();
+        currentSegment.putInt(row.remaining());
+        currentSegment.put(LIVE);
+        currentSegment.put(row);
+        rowCount++;
+        usedBytes += rowSize;
+        return ((long) (segments.size() - 1) << 32) | offset;
+    }
+
+    public void delete(long address) {
+        ByteBuffer segment = getSegment(address);
+        int offset = getOffset(address);
+        if (segment.get(offset + Integer.BYTES) == LIVE) {
+            segment.put(offset + Integer.BYTES, DELETED);
+            rowCount--;
+            deletedBytes += ROW_HEADER_SIZE + segment.getInt(offset);
+        }
+    }
+
+    public boolean isLive(long address) {
+        return getSegment(address).get(getOffset(address) + Integer.BYTES) == LIVE;
+    }
+
+    public ByteBuffer getSegment(long address) {
+        return segments.get((int) (address >>> 32));
+    }
+
+    /**
+     * @param address address of a row
+     * @return offset of the encoded row in its segment
+     */
+    public int getRowOffset(long address) {
+        return getOffset(address) + ROW_HEADER_SIZE;
+    }
+
+    /**
+     * @param address address of a row
+     * @return buffer holding the encoded row between its position and limit
+     */
+    public ByteBuffer getRow(long address) {
+        ByteBuffer row = getSegment(address).duplicate();
+        int offset = getOffset(address);
+        row.limit(offset + ROW_HEADER_SIZE + row.getInt(offset));
+        row.position(offset + ROW_HEADER_SIZE);
+        return row;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return true when deleted rows take more space than the live rows
+     */
+    public boolean isCompactionNeeded() {
+        return deletedBytes > segmentSize && deletedBytes > usedBytes - deletedBytes;
+    }
+
+    public void clear() {
+        segments.clear();
+        currentSegment = null;
+        rowCount = 0;
+        usedBytes = 0;
+        deletedBytes = 0;
+    }
+
+    /**
+     * @return iterator over the addresses of the live rows, in insertion order
+     */
+    public AddressIterator iterator() {
+        return new AddressIterator();
+    }
+
+    private static int getOffset(long address) {
+        return (int) address;
+    }
+
+    /**
+     * Iterator over the addresses of the live rows of the store.
+     */
+    public class AddressIterator {
+
+        private int segmentIndex = 0;
+        private int offset = SEGMENT_START_OFFSET;
+        private long nextAddress = -1;
+
+        public boolean hasNext() {
+            while (nextAddress == -1 && segmentIndex < segments.size()) {
+                ByteBuffer segment = segments.get(segmentIndex);
+                if (offset >= segment.position()) {
+                    segmentIndex++;
+                    offset = SEGMENT_START_OFFSET;
+                    continue;
+                }
+                if (segment.get(offset + Integer.BYTES) == LIVE) {
+                    nextAddress = ((long) segmentIndex << 32) | offset;
+                }
+                offset += ROW_HEADER_SIZE + segment.getInt(offset);
+            }
+            return nextAddress != -1;
+        }
+
+        public long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long address = nextAddress;
+            nextAddress = -1;
+            return address;
+        }
+    }
+}
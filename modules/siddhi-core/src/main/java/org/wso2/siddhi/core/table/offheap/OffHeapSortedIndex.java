@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Ordered index of row addresses by a numeric attribute, kept in sorted runs of direct byte buffers. New entries are
+ * buffered and sorted into a run when the buffer fills up, and runs of similar sizes are merged, so that an insert
+ * costs logarithmic amortized time and a range scan a binary search per run. Entries of deleted rows are skipped by
+ * scans and dropped when their run is merged.
+ */
+public class OffHeapSortedIndex {
+
+    private static final int ENTRY_SIZE = Long.BYTES + Long.BYTES;
+    private static final int BUFFER_CAPACITY = 1024;
+
+    private final Attribute.Type type;
+    private final LongPredicate liveAddressPredicate;
+    private final List<ByteBuffer> runs = new ArrayList<>();
+    private final List<Integer> runSizes = new ArrayList<>();
+    private final long[] bufferedKeys = new long[BUFFER_CAPACITY];
+    private final long[] bufferedAddresses = new long[BUFFER_CAPACITY];
+    private int bufferedCount;
+
+    /**
+     * @param type                 type of the indexed attribute
+     * @param liveAddressPredicate predicate telling whether the row at an address is not deleted
+     */
+    public OffHeapSortedIndex(Attribute.Type type, LongPredicate liveAddressPredicate) {
+        this.type = type;
+        this.liveAddressPredicate = liveAddressPredicate;
+    }
+
+    public static boolean isSortable(Attribute.Type type) {
+        return type == Attribute.Type.INT || type == Attribute.Type.LONG || type == Attribute.Type.FLOAT ||
+                type == Attribute.Type.DOUBLE;
+    }
+
+    public void add(Object value, long address) {
+        if (value == null) {
+            return;
+        }
+        bufferedKeys[bufferedCount] = toKey(value);
+        bufferedAddresses[bufferedCount] = address;
+        bufferedCount++;
+        if (bufferedCount == BUFFER_CAPACITY) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Visit the addresses of the live rows whose attribute compares to the given value with the given operator.
+     *
+     * @param operator comparison operator, other than not equal
+     * @param value    value to compare with
+     * @param visitor  visitor of the addresses, returning false to stop the visit
+     * @return false if the visitor stopped the visit
+     */
+    public boolean forEach(Compare.Operator operator, Object value, LongPredicate visitor) {
+        if (!(value instanceof Number)) {
+            return true;
+        }
+        long low = Long.MIN_VALUE;
+        long high = Long.MAX_VALUE;
+        boolean lowInclusive = true;
+        boolean highInclusive = true;
+        Number number = (Number) value;
+        boolean fractional = (type == Attribute.Type.INT || type == Attribute.Type.LONG) &&
+                (number instanceof Double || number instanceof Float) &&
+                number.doubleValue() != Math.rint(number.doubleValue());
+        if (fractional && Double.isNaN(number.doubleValue())) {
+            return true;
+        }
+        switch (operator) {
+            case LESS_THAN:
+                high = fractional ? (long) Math.floor(number.doubleValue()) : toKey(number);
+                highInclusive = fractional;
+                break;
+            case LESS_THAN_EQUAL:
+                high = fractional ? (long) Math.floor(number.doubleValue()) : toKey(number);
+                break;
+            case GREATER_THAN:
+                low = fractional ? (long) Math.ceil(number.doubleValue()) : toKey(number);
+                lowInclusive = fractional;
+                break;
+            case GREATER_THAN_EQUAL:
+                low = fractional ? (long) Math.ceil(number.doubleValue()) : toKey(number);
+                break;
+            case EQUAL:
+                if (fractional) {
+                    return true;
+                }
+                low = toKey(number);
+                high = low;
+                break;
+            default:
+                throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " +
+                        getClass().getName());
+        }
+        for (int i = 0; i < bufferedCount; i++) {
+            long key = bufferedKeys[i];
+            if (isWithin(key, low, lowInclusive, high, highInclusive) &&
+                    liveAddressPredicate.test(bufferedAddresses[i]) && !visitor.test(bufferedAddresses[i])) {
+                return false;
+            }
+        }
+        for (int r = 0; r < runs.size(); r++) {
+            ByteBuffer run = runs.get(r);
+            int size = runSizes.get(r);
+            for (int i = lowerBound(run, size, low, lowInclusive); i < size; i++) {
+                long key = run.getLong(i * ENTRY_SIZE);
+                if (highInclusive ? key > high : key >= high) {
+                    break;
+                }
+                long address = run.getLong(i * ENTRY_SIZE + Long.BYTES);
+                if (liveAddressPredicate.test(address) && !visitor.test(address)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        runs.clear();
+        runSizes.clear();
+        bufferedCount = 0;
+    }
+
+    private static boolean isWithin(long key, long low, boolean lowInclusive, long high, boolean highInclusive) {
+        return (lowInclusive ? key >= low : key > low) && (highInclusive ? key <= high : key < high);
+    }
+
+    private static int lowerBound(ByteBuffer run, int size, long low, boolean lowInclusive) {
+        int from = 0;
+        int to = size;
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            long key = run.getLong(middle * ENTRY_SIZE);
+            if (lowInclusive ? key < low : key <= low) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    private void flushBuffer() {
+        sort(bufferedKeys, bufferedAddresses, 0, bufferedCount - 1);
+        ByteBuffer run = ByteBuffer.allocateDirect(bufferedCount * ENTRY_SIZE);
+        int size = 0;
+        for (int i = 0; i < bufferedCount; i++) {
+            if (liveAddressPredicate.test(bufferedAddresses[i])) {
+                run.putLong(size * ENTRY_SIZE, bufferedKeys[i]);
+                run.putLong(size * ENTRY_SIZE + Long.BYTES, bufferedAddresses[i]);
+                size++;
+            }
+        }
+        bufferedCount = 0;
+        while (!runs.isEmpty() && runSizes.get(runs.size() - 1) <= size * 2) {
+            int last = runs.size() - 1;
+            ByteBuffer mergedRun = ByteBuffer.allocateDirect((runSizes.get(last) + size) * ENTRY_SIZE);
+            size = merge(runs.remove(last), runSizes.remove(last), run, size, mergedRun);
+            run = mergedRun;
+        }
+        runs.add(run);
+        runSizes.add(size);
+    }
+
+    private int merge(ByteBuffer left, int leftSize, ByteBuffer right, int rightSize, ByteBuffer mergedRun) {
+        int leftIndex = 0;
+        int rightIndex = 0;
+        int size = 0;
+        while (leftIndex < leftSize || rightIndex < rightSize) {
+            ByteBuffer source;
+            int index;
+            if (rightIndex == rightSize || (leftIndex < leftSize &&
+                    left.getLong(leftIndex * ENTRY_SIZE) <= right.getLong(rightIndex * ENTRY_SIZE))) {
+                source = left;
+                index = leftIndex++;
+            } else {
+                source = right;
+                index = rightIndex++;
+            }
+            long address = source.getLong(index * ENTRY_SIZE + Long.BYTES);
+            if (liveAddressPredicate.test(address)) {
+                mergedRun.putLong(size * ENTRY_SIZE, source.getLong(index * ENTRY_SIZE));
+                mergedRun.putLong(size * ENTRY_SIZE + Long.BYTES, address);
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static void sort(long[] keys, long[] addresses, int from, int to) {
+        while (from < to) {
+            long pivot = keys[(from + to) >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long key = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = key;
+                    long address = addresses[i];
+                    addresses[i] = addresses[j];
+                    addresses[j] = address;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - from < to - i) {
+                sort(keys, addresses, from, j);
+                from = i;
+            } else {
+                sort(keys, addresses, i, to);
+                to = j;
+            }
+        }
+    }
+
+    /**
+     * Map a value to a long preserving its order, integral values as they are and floating point values by their
+     * bits, with the bits of negative values flipped so that they order before the positive values.
+     */
+    private long toKey(Object value) {
+        if (type == Attribute.Type.FLOAT || type == Attribute.Type.DOUBLE) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            return bits >= 0 ? bits : bits ^ Long.MAX_VALUE;
+        }
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+/**
+ * Heap copy of a row of an {@link OffHeapEventHolder}, which remembers the address of the row so that it can be
+ * deleted, and reports changes to its attributes to the holder so that they can be written back to the row.
+ */
+public class OffHeapStreamEvent extends StreamEvent {
+
+    private static final long serialVersionUID = -2475498012843532816L;
+    private final long address;
+    private final transient OffHeapEventHolder eventHolder;
+
+    public OffHeapStreamEvent(int outputDataSize, long address, OffHeapEventHolder eventHolder) {
+        super(0, 0, outputDataSize);
+        this.address = address;
+        this.eventHolder = eventHolder;
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    @Override
+    public void setOutputData(Object[] outputData) {
+        super.setOutputData(outputData);
+        if (eventHolder != null) {
+            eventHolder.updated(this);
+        }
+    }
+
+    @Override
+    public void setOutputData(Object object, int index) {
+        super.setOutputData(object, index);
+        if (eventHolder != null) {
+            eventHolder.updated(this);
+        }
+    }
+}
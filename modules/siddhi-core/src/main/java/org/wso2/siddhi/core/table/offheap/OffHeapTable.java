@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.offheap;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.table.CompiledUpdateSet;
+import org.wso2.siddhi.core.table.InMemoryCompiledUpdateSet;
+import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.table.record.RecordTableHandler;
+import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
+import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
+import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
+import org.wso2.siddhi.core.util.collection.operator.Operator;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.parser.EventHolderPasser;
+import org.wso2.siddhi.core.util.parser.ExpressionParser;
+import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.query.api.definition.TableDefinition;
+import org.wso2.siddhi.query.api.execution.query.output.stream.UpdateSet;
+import org.wso2.siddhi.query.api.expression.Expression;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Event table of SiddhiQL storing its events outside of the Java heap, defined by {@code @store(type='offheap')}.
+ * <p>
+ * Events are kept as binary rows in direct byte buffer segments of {@code segment.size} bytes, so that large tables
+ * do not add to the garbage collection pauses of the heap. The direct memory available to the tables is bounded by
+ * the {@code -XX:MaxDirectMemorySize} JVM option. Primary keys and indexes are kept off-heap as well, sorted
+ * indexes of numeric attributes serving range conditions and the other indexes serving equality conditions.
+ */
+public class OffHeapTable extends Table implements Snapshotable {
+
+    private TableDefinition tableDefinition;
+    private StreamEventCloner tableStreamEventCloner;
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private OffHeapEventHolder eventHolder;
+    private String elementId;
+
+    @Override
+    public void init(TableDefinition tableDefinition, StreamEventPool storeEventPool,
+                     StreamEventCloner storeEventCloner, ConfigReader configReader, SiddhiAppContext siddhiAppContext,
+                     RecordTableHandler recordTableHandler) {
+        this.tableDefinition = tableDefinition;
+        this.tableStreamEventCloner = storeEventCloner;
+        this.eventHolder = new OffHeapEventHolder(EventHolderPasser.parsePrimaryKey(tableDefinition),
+                EventHolderPasser.parseIndexes(tableDefinition), EventHolderPasser.parseSegmentSize(tableDefinition),
+                tableDefinition, siddhiAppContext);
+
+        if (elementId == null) {
+            elementId = "OffHeapTable-" + siddhiAppContext.getElementIdGenerator().createNewId();
+        }
+        siddhiAppContext.getSnapshotService().addSnapshotable(tableDefinition.getId(), this);
+    }
+
+    @Override
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        try {
+            readWriteLock.writeLock().lock();
+            eventHolder.add(addingEventChunk);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
+        try {
+            readWriteLock.writeLock().lock();
+            ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
+            eventHolder.compactIfNeeded();
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
+                       CompiledUpdateSet compiledUpdateSet) {
+        try {
+            readWriteLock.writeLock().lock();
+            // events are updated one at a time, so that each update sees the rows written by the previous ones
+            updatingEventChunk.reset();
+            while (updatingEventChunk.hasNext()) {
+                StateEvent updatingEvent = updatingEventChunk.next();
+                ComplexEvent next = detach(updatingEvent);
+                try {
+                    eventHolder.startUpdate();
+                    ((Operator) compiledCondition).update(new ComplexEventChunk<>(updatingEvent, updatingEvent,
+                            updatingEventChunk.isBatch()), eventHolder,
+                            (InMemoryCompiledUpdateSet) compiledUpdateSet);
+                } finally {
+                    eventHolder.completeUpdate();
+                    updatingEvent.setNext(next);
+                }
+            }
+            eventHolder.compactIfNeeded();
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateOrAdd(ComplexEventChunk<StateEvent> updateOrAddingEventChunk,
+                            CompiledCondition compiledCondition,
+                            CompiledUpdateSet compiledUpdateSet,
+                            AddingStreamEventExtractor addingStreamEventExtractor) {
+        try {
+            readWriteLock.writeLock().lock();
+            updateOrAddingEventChunk.reset();
+            while (updateOrAddingEventChunk.hasNext()) {
+                StateEvent updateOrAddingEvent = updateOrAddingEventChunk.next();
+                ComplexEvent next = detach(updateOrAddingEvent);
+                ComplexEventChunk<StreamEvent> failedEvents;
+                try {
+                    eventHolder.startUpdate();
+                    failedEvents = ((Operator) compiledCondition).tryUpdate(
+                            new ComplexEventChunk<>(updateOrAddingEvent, updateOrAddingEvent,
+                                    updateOrAddingEventChunk.isBatch()),
+                            eventHolder, (InMemoryCompiledUpdateSet) compiledUpdateSet, addingStreamEventExtractor);
+                } finally {
+                    eventHolder.completeUpdate();
+                    updateOrAddingEvent.setNext(next);
+                }
+                if (failedEvents != null) {
+                    eventHolder.add(failedEvents);
+                }
+            }
+            eventHolder.compactIfNeeded();
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
+        try {
+            readWriteLock.readLock().lock();
+            return ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected void connect() throws ConnectionUnavailableException {
+
+    }
+
+    @Override
+    protected void disconnect() {
+
+    }
+
+    @Override
+    protected void destroy() {
+
+    }
+
+    @Override
+    public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
+        try {
+            readWriteLock.readLock().lock();
+            return ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CompiledCondition compileCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                              SiddhiAppContext siddhiAppContext,
+                                              List<VariableExpressionExecutor> variableExpressionExecutors,
+                                              Map<String, Table> tableMap, String queryName) {
+        return OperatorParser.constructOperator(eventHolder, condition, matchingMetaInfoHolder,
+                siddhiAppContext, variableExpressionExecutors, tableMap, tableDefinition.getId());
+    }
+
+    @Override
+    public CompiledUpdateSet compileUpdateSet(UpdateSet updateSet, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                              SiddhiAppContext siddhiAppContext,
+                                              List<VariableExpressionExecutor> variableExpressionExecutors,
+                                              Map<String, Table> tableMap, String queryName) {
+        Map<Integer, ExpressionExecutor> expressionExecutorMap = new HashMap<>();
+        for (UpdateSet.SetAttribute setAttribute : updateSet.getSetAttributeList()) {
+            ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(
+                    setAttribute.getAssignmentExpression(),
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                    tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            int attributePosition = tableDefinition.
+                    getAttributePosition(setAttribute.getTableVariable().getAttributeName());
+            expressionExecutorMap.put(attributePosition, expressionExecutor);
+        }
+        return new InMemoryCompiledUpdateSet(expressionExecutorMap);
+    }
+
+    private static ComplexEvent detach(ComplexEvent complexEvent) {
+        ComplexEvent next = complexEvent.getNext();
+        complexEvent.setNext(null);
+        return next;
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        try {
+            readWriteLock.readLock().lock();
+            state.put("Rows", eventHolder.snapshotRows());
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+        return state;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void restoreState(Map<String, Object> state) {
+        try {
+            readWriteLock.writeLock().lock();
+            eventHolder.restoreRows((List<byte[]>) state.get("Rows"));
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String getElementId() {
+        return elementId;
+    }
+}
@@ -22,28 +22,54 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 
+import java.util.concurrent.Executor;
+
 /**
  * Scheduler which operate based on event's timestamp
  */
 public class EventTimeBasedScheduler extends Scheduler {
 
+    private EventTimeBasedMillisTimestampGenerator.TimeChangeListener timeChangeListener;
+    private final Runnable timerEventSender = new Runnable() {
+        @Override
+        public void run() {
+            sendTimerEvents();
+        }
+    };
+
     public EventTimeBasedScheduler(Schedulable singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         super(singleThreadEntryValve, siddhiAppContext);
 
         if (siddhiAppContext.isPlayback()) {
-            ((EventTimeBasedMillisTimestampGenerator) siddhiAppContext.getTimestampGenerator())
-                    .addTimeChangeListener(new EventTimeBasedMillisTimestampGenerator.TimeChangeListener() {
-                        @Override
-                        public void onTimeChange(long currentTimestamp) {
-                            Long lastTime = toNotifyQueue.peek();
-                            if (lastTime != null && lastTime <= currentTimestamp) {
-                                // If executed in a separate thread, while it is processing,
-                                // the new event will come into the window. As the result of it,
-                                // the window will emit the new event as an existing current event.
-                                sendTimerEvents();
-                            }
+            timeChangeListener = new EventTimeBasedMillisTimestampGenerator.TimeChangeListener() {
+                @Override
+                public void onTimeChange(long currentTimestamp) {
+                    Long lastTime = toNotifyQueue.peek();
+                    if (lastTime != null && lastTime <= currentTimestamp) {
+                        // If executed in a separate thread, while it is processing,
+                        // the new event will come into the window. As the result of it,
+                        // the window will emit the new event as an existing current event.
+                        Executor confiningExecutor = getConfiningExecutor();
+                        if (confiningExecutor != null) {
+                            // The confining thread receives the new event after the TIMER events.
+                            confiningExecutor.execute(timerEventSender);
+                        } else {
+                            sendTimerEvents();
                         }
-                    });
+                    }
+                }
+            };
+            ((EventTimeBasedMillisTimestampGenerator) siddhiAppContext.getTimestampGenerator())
+                    .addTimeChangeListener(timeChangeListener);
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (timeChangeListener != null) {
+            ((EventTimeBasedMillisTimestampGenerator) siddhiAppContext.getTimestampGenerator())
+                    .removeTimeChangeListener(timeChangeListener);
         }
     }
 
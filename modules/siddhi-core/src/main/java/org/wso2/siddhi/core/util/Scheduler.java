@@ -33,6 +33,7 @@ import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -73,6 +74,13 @@ public abstract class Scheduler implements Snapshotable {
         }
     }
 
+    /**
+     * Stop notifying the scheduled times, e.g. when the element using the scheduler is removed.
+     */
+    public void stop() {
+        toNotifyQueue.clear();
+    }
+
     public void setStreamEventPool(StreamEventPool streamEventPool) {
         this.streamEventPool = streamEventPool;
         streamEventChunk = new ConversionStreamEventChunk((StreamEventConverter) null, streamEventPool);
@@ -111,6 +119,16 @@ public abstract class Scheduler implements Snapshotable {
         this.latencyTracker = latencyTracker;
     }
 
+    /**
+     * Return the executor of the thread the query of the scheduler is confined to, which must send the TIMER events
+     * instead of the thread triggering the scheduler.
+     *
+     * @return the executor, or null if the TIMER events are sent holding the lock of the query
+     */
+    protected Executor getConfiningExecutor() {
+        return lockWrapper != null ? lockWrapper.getConfiningExecutor() : null;
+    }
+
     /**
      * Go through the timestamps stored in the {@link #toNotifyQueue} and send the TIMER events for the expired events.
      */
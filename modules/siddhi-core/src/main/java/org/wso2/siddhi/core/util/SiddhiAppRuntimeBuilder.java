@@ -54,6 +54,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 /**
  * For building SiddhiAppRuntime
@@ -189,6 +190,20 @@ public class SiddhiAppRuntimeBuilder {
                 }
             }
         }
+        if (streamRuntime.getSingleStreamRuntimes().size() == 1) {
+            ProcessStreamReceiver processStreamReceiver = streamRuntime.getSingleStreamRuntimes().get(0)
+                    .getProcessStreamReceiver();
+            StreamJunction streamJunction = streamJunctionMap.get(processStreamReceiver.getStreamId());
+            if (processStreamReceiver.isConfinable() && streamJunction != null) {
+                // Queries only fed by a single consumer thread of an async stream junction run on that thread
+                // without locking, with their timer events handed over to the same thread.
+                Executor receiverExecutor = streamJunction.getReceiverExecutor(processStreamReceiver);
+                if (receiverExecutor != null) {
+                    processStreamReceiver.getLockWrapper().confineTo(receiverExecutor);
+                    queryRuntime.getSelector().setConfined(true);
+                }
+            }
+        }
 
         OutputCallback outputCallback = queryRuntime.getOutputCallback();
 
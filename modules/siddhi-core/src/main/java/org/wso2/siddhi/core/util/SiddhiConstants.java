@@ -24,6 +24,7 @@ package org.wso2.siddhi.core.util;
 public final class SiddhiConstants {
 
     public static final String NAMESPACE_STORE = "store";
+    public static final String STORE_TYPE_OFF_HEAP = "offheap";
     public static final String NAMESPACE_SOURCE = "source";
     public static final String NAMESPACE_SOURCE_MAPPER = "sourceMapper";
     public static final String NAMESPACE_SCRIPT = "script";
@@ -48,6 +49,11 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_PLAYBACK = "Playback";
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
     public static final String ANNOTATION_ASYNC = "Async";
+    public static final String ANNOTATION_COMPILE = "Compile";
+    public static final String ANNOTATION_VECTORIZE = "Vectorize";
+    public static final String ANNOTATION_CONCURRENT = "Concurrent";
+    public static final String ANNOTATION_PARALLEL = "Parallel";
+    public static final String ANNOTATION_PURGE = "Purge";
     public static final String ANNOTATION_STATISTICS = "Statistics";
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_INDEX = "Index";
@@ -62,9 +68,20 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER = "producer";
+    public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
+    public static final String ANNOTATION_ELEMENT_STRIPES = "stripes";
+    public static final String ANNOTATION_ELEMENT_SEGMENT_SIZE = "segment.size";
+    public static final String ANNOTATION_ELEMENT_KEY = "key";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
+    public static final String ANNOTATION_ELEMENT_IDLE_PERIOD = "idle.period";
+    public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String ANNOTATION_ELEMENT_ATTRIBUTES = "attributes";
+    public static final String INDEX_TYPE_HASH = "hash";
+    public static final String INDEX_TYPE_SORTED = "sorted";
     public static final String ANNOTATION_BUFFER_SIZE = "BufferSize";
     public static final String ANNOTATION_IGNORE_EVENTS_OLDER_THAN_BUFFER = "IgnoreEventsOlderThanBuffer";
     public static final String ANNOTATION_ELEMENT_REF = "ref";
@@ -74,6 +91,10 @@ public final class SiddhiConstants {
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_PARALLEL_BUFFER_SIZE = 64;
+    public static final long DEFAULT_TIMER_WHEEL_TICK_MS = 10;
+    public static final int DEFAULT_CONCURRENT_TABLE_STRIPES = 16;
+    public static final int DEFAULT_OFF_HEAP_TABLE_SEGMENT_SIZE = 16 * 1024 * 1024;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -22,25 +22,34 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Scheduler based on System time
+ * Scheduler based on System time, notified through the {@link TimerWheel} of the Siddhi app.
  */
 public class SystemTimeBasedScheduler extends Scheduler {
     private static final Logger log = Logger.getLogger(SystemTimeBasedScheduler.class);
     private EventCaller eventCaller;
+    private Runnable confinedEventCaller;
     private volatile boolean running = false;
     private ScheduledExecutorService scheduledExecutorService;
+    private final TimerWheel timerWheel;
     private final Semaphore mutex;
 
     public SystemTimeBasedScheduler(ScheduledExecutorService scheduledExecutorService, Schedulable
             singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         super(singleThreadEntryValve, siddhiAppContext);
         this.scheduledExecutorService = scheduledExecutorService;
+        this.timerWheel = siddhiAppContext.getTimerWheel();
         this.eventCaller = new EventCaller();
+        this.confinedEventCaller = new Runnable() {
+            @Override
+            public void run() {
+                eventCaller.callEvents();
+            }
+        };
         mutex = new Semaphore(1);
     }
 
@@ -51,12 +60,7 @@ public class SystemTimeBasedScheduler extends Scheduler {
                 mutex.acquire();
                 if (!running) {
                     running = true;
-                    long timeDiff = time - siddhiAppContext.getTimestampGenerator().currentTime();
-                    if (timeDiff > 0) {
-                        scheduledExecutorService.schedule(eventCaller, timeDiff, TimeUnit.MILLISECONDS);
-                    } else {
-                        scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
-                    }
+                    timerWheel.schedule(eventCaller, time);
                 }
 
             } catch (InterruptedException e) {
@@ -91,6 +95,16 @@ public class SystemTimeBasedScheduler extends Scheduler {
          */
         @Override
         public void run() {
+            Executor confiningExecutor = getConfiningExecutor();
+            if (confiningExecutor != null) {
+                // The confining thread sends the TIMER events and schedules the next call afterwards.
+                confiningExecutor.execute(confinedEventCaller);
+            } else {
+                callEvents();
+            }
+        }
+
+        private void callEvents() {
             try {
                 sendTimerEvents();
 
@@ -98,15 +112,14 @@ public class SystemTimeBasedScheduler extends Scheduler {
                 long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
                 if (!siddhiAppContext.isPlayback()) {
                     if (toNotifyTime != null) {
-                        scheduledExecutorService.schedule(eventCaller, toNotifyTime - currentTime, TimeUnit
-                                .MILLISECONDS);
+                        timerWheel.schedule(eventCaller, toNotifyTime);
                     } else {
                         try {
                             mutex.acquire();
                             running = false;
                             if (toNotifyQueue.peek() != null) {
                                 running = true;
-                                scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
+                                timerWheel.schedule(eventCaller, currentTime);
                             }
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
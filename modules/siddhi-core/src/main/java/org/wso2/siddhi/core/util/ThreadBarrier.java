@@ -18,28 +18,134 @@
 
 package org.wso2.siddhi.core.util;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Thread Barrier used to avoid concurrency issues during event processing
+ * <p>
+ * Threads processing events they {@link #enter()} with are waited for when the barrier is locked, such that those
+ * events are either fully processed or not processed at all when the barrier is locked. Likewise, events
+ * {@link #handOver()} to other threads are waited for until they are {@link #processed()} or {@link #dropped()}.
+ * Threads can only enter or take over events once {@link #enableEntering()} is called, such that apps not using them
+ * pass the barrier without looking up the state of the thread.
  */
 public class ThreadBarrier {
 
     private ReentrantLock lock = new ReentrantLock();
+    private ReentrantReadWriteLock processingLock = new ReentrantReadWriteLock();
+    private ThreadLocal<int[]> enteredCount = ThreadLocal.withInitial(() -> new int[1]);
+    private AtomicInteger handedOverCount = new AtomicInteger();
+    private boolean entering = false;
+    private final Object handedOverMonitor = new Object();
 
     public void pass() {
-        if (lock.isLocked()) {
+        if (lock.isLocked() && (!entering || enteredCount.get()[0] == 0)) {
             lock.lock();
             lock.unlock();
         }
     }
 
+    /**
+     * Allow threads to {@link #enter()} and {@link #takeOver()}, to be called while the app is created, before any
+     * event is processed.
+     */
+    public void enableEntering() {
+        entering = true;
+    }
+
+    /**
+     * Enter the processing of an event, waiting while the barrier is locked. Until the thread exits, the barrier
+     * is passed by the thread and waits for the thread when locked.
+     *
+     * @return true if the thread entered, false if the thread is already processing an event it entered with
+     */
+    public boolean enter() {
+        int[] entered = enteredCount.get();
+        if (entered[0] == 0) {
+            processingLock.readLock().lock();
+            entered[0]++;
+            return true;
+        }
+        entered[0]++;
+        return false;
+    }
+
+    /**
+     * Exit the processing of an event, for each time the thread entered.
+     */
+    public void exit() {
+        int[] entered = enteredCount.get();
+        if (--entered[0] == 0) {
+            processingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record events that passed the barrier being handed over to another thread, which processes them
+     * asynchronously. The barrier waits for them to be processed when locked.
+     */
+    public void handOver() {
+        handedOverCount.incrementAndGet();
+    }
+
+    /**
+     * Start processing events that were {@link #handOver()}, the barrier is passed by the thread until it calls
+     * {@link #processed()}, as the barrier waits for it when locked.
+     */
+    public void takeOver() {
+        enteredCount.get()[0]++;
+    }
+
+    /**
+     * Finish processing events taken over by the thread.
+     */
+    public void processed() {
+        enteredCount.get()[0]--;
+        dropped();
+    }
+
+    /**
+     * Record events that were {@link #handOver()} as dropped without being processed.
+     */
+    public void dropped() {
+        if (handedOverCount.decrementAndGet() == 0 && lock.isLocked()) {
+            synchronized (handedOverMonitor) {
+                handedOverMonitor.notifyAll();
+            }
+        }
+    }
+
     public void lock() {
+        // wait for the entered threads before locking, as they may wait for the threads passing the barrier
+        if (!entering || enteredCount.get()[0] == 0) {
+            processingLock.writeLock().lock();
+        }
         lock.lock();
+        if (handedOverCount.get() > 0) {
+            // the app is only quiesced once the handed over events are processed, hence interrupts are deferred
+            boolean interrupted = false;
+            synchronized (handedOverMonitor) {
+                while (handedOverCount.get() > 0) {
+                    try {
+                        handedOverMonitor.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     public void unlock() {
         lock.unlock();
+        if (processingLock.writeLock().isHeldByCurrentThread()) {
+            processingLock.writeLock().unlock();
+        }
     }
 
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel holding the pending timers of a Siddhi app, used by the {@link SystemTimeBasedScheduler}s
+ * of its windows, absent patterns and output rate limiters instead of scheduling a task per timer.
+ * <p>
+ * Timers are added in constant time to the bucket of their tick in the first wheel, or to a bucket of a coarser wheel
+ * when they are further away, from which they are moved to the finer wheels as the time advances. A single ticker of
+ * the app advances the wheels every tick and runs the timers expired in the tick together, in batches on the
+ * scheduler threads of the app. The ticker only runs while timers are pending.
+ * <p>
+ * Timers are rounded up to the end of their tick, hence they never run before their time, but up to a tick later.
+ */
+public class TimerWheel {
+
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private static final int WHEEL_SIZE = 512;
+    private static final int DISPATCH_BATCH_SIZE = 64;
+    private final long tickMs;
+    private final SiddhiAppContext siddhiAppContext;
+    private final List<Runnable> expiredTasks = new ArrayList<Runnable>();
+    private Wheel wheel;
+    private int pendingTimers = 0;
+    private ScheduledFuture tickerFuture;
+
+    public TimerWheel(long tickMs, SiddhiAppContext siddhiAppContext) {
+        this.tickMs = tickMs;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    /**
+     * Schedule the task to run at the given time, or as soon as possible if the time has already passed.
+     *
+     * @param task task to run
+     * @param time time to run the task at
+     */
+    public void schedule(Runnable task, long time) {
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        if (time > currentTime) {
+            synchronized (this) {
+                if (wheel == null) {
+                    wheel = new Wheel(tickMs, currentTime, true);
+                    tickerFuture = siddhiAppContext.getScheduledExecutorService().scheduleAtFixedRate(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    tick();
+                                }
+                            }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+                }
+                if (wheel.add(new TimerEntry(task, time))) {
+                    pendingTimers++;
+                    return;
+                }
+            }
+        }
+        siddhiAppContext.getScheduledExecutorService().execute(task);
+    }
+
+    /**
+     * Stop advancing the wheels, dropping the pending timers.
+     */
+    public synchronized void stop() {
+        stopTicker();
+    }
+
+    private void stopTicker() {
+        if (tickerFuture != null) {
+            tickerFuture.cancel(false);
+            tickerFuture = null;
+        }
+        wheel = null;
+        pendingTimers = 0;
+    }
+
+    private void tick() {
+        List<Runnable> tasks;
+        try {
+            synchronized (this) {
+                if (wheel == null) {
+                    return;
+                }
+                wheel.advance(siddhiAppContext.getTimestampGenerator().currentTime(), wheel, expiredTasks);
+                if (expiredTasks.isEmpty()) {
+                    return;
+                }
+                tasks = new ArrayList<Runnable>(expiredTasks);
+                expiredTasks.clear();
+                pendingTimers -= tasks.size();
+                if (pendingTimers <= 0) {
+                    // restarted by the next timer scheduled
+                    stopTicker();
+                }
+            }
+            // Timers expired in the same tick are run together, a batch per scheduler thread task.
+            for (int i = 0; i < tasks.size(); i += DISPATCH_BATCH_SIZE) {
+                siddhiAppContext.getScheduledExecutorService().execute(
+                        new TaskBatch(tasks.subList(i, Math.min(i + DISPATCH_BATCH_SIZE, tasks.size()))));
+            }
+        } catch (Throwable t) {
+            // The ticker must keep running while timers are pending, as they would never expire otherwise.
+            log.error("Error when advancing the timer wheel of Siddhi app '" + siddhiAppContext.getName() + "'", t);
+        }
+    }
+
+    /**
+     * Pending timer, linked to the other timers of its bucket.
+     */
+    private static class TimerEntry {
+
+        private final Runnable task;
+        private final long expiration;
+        private TimerEntry next;
+
+        private TimerEntry(Runnable task, long expiration) {
+            this.task = task;
+            this.expiration = expiration;
+        }
+    }
+
+    /**
+     * Wheel of {@link #WHEEL_SIZE} buckets of a tick each, with an overflow wheel of a wheel's span per tick for
+     * the timers beyond its span. The first wheel holds the timers in the bucket of the tick ending at or after their
+     * time, such that they expire when the tick has passed, while the overflow wheels hold them in the bucket of the
+     * tick they fall in, such that they are moved to the finer wheels before their time.
+     */
+    private static class Wheel {
+
+        private final long tickMs;
+        private final long interval;
+        private final boolean roundUp;
+        private final TimerEntry[] buckets = new TimerEntry[WHEEL_SIZE];
+        private long currentTime;
+        private Wheel overflowWheel;
+
+        private Wheel(long tickMs, long startTime, boolean roundUp) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * WHEEL_SIZE;
+            this.roundUp = roundUp;
+            this.currentTime = startTime - startTime % tickMs;
+        }
+
+        /**
+         * Add the timer to the bucket of its tick.
+         *
+         * @param entry timer to add
+         * @return false if the timer has already expired
+         */
+        private boolean add(TimerEntry entry) {
+            if (entry.expiration <= currentTime) {
+                return false;
+            }
+            long tick = roundUp ? (entry.expiration + tickMs - 1) / tickMs : entry.expiration / tickMs;
+            // the bucket of the current tick is passed last, after a wheel's span
+            if (tick - currentTime / tickMs <= WHEEL_SIZE) {
+                int index = (int) (tick % WHEEL_SIZE);
+                entry.next = buckets[index];
+                buckets[index] = entry;
+                return true;
+            } else {
+                if (overflowWheel == null) {
+                    overflowWheel = new Wheel(interval, currentTime, false);
+                }
+                return overflowWheel.add(entry);
+            }
+        }
+
+        /**
+         * Advance the wheel to the given time, moving the timers of the passed buckets to the finer wheels or to
+         * the expired tasks.
+         *
+         * @param time         time to advance to
+         * @param rootWheel    finest wheel, to add the timers of the passed buckets again
+         * @param expiredTasks tasks of the expired timers
+         */
+        private void advance(long time, Wheel rootWheel, List<Runnable> expiredTasks) {
+            long ticks = (time - currentTime) / tickMs;
+            if (ticks <= 0) {
+                return;
+            }
+            long firstTick = currentTime / tickMs + 1;
+            currentTime += ticks * tickMs;
+            int passedBuckets = (int) Math.min(ticks, WHEEL_SIZE);
+            for (int i = 0; i < passedBuckets; i++) {
+                int index = (int) ((firstTick + i) % WHEEL_SIZE);
+                TimerEntry entry = buckets[index];
+                buckets[index] = null;
+                while (entry != null) {
+                    TimerEntry next = entry.next;
+                    entry.next = null;
+                    if (!rootWheel.add(entry)) {
+                        expiredTasks.add(entry.task);
+                    }
+                    entry = next;
+                }
+            }
+            if (overflowWheel != null) {
+                overflowWheel.advance(time, rootWheel, expiredTasks);
+            }
+        }
+    }
+
+    /**
+     * Tasks of timers expired in the same tick.
+     */
+    private static class TaskBatch implements Runnable {
+
+        private final List<Runnable> tasks;
+
+        private TaskBatch(List<Runnable> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void run() {
+            for (Runnable task : tasks) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("Error when running timer task " + task, t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of worker threads, each processing the tasks of its own bounded queue in the order they were sent.
+ * Tasks sent to the same worker, such as the tasks of a key, are hence processed in order, while tasks of different
+ * workers are processed concurrently.
+ * <p>
+ * Tasks sent to the workers are tracked by the {@link ThreadBarrier}, such that snapshots are taken only after the
+ * workers processed them. Tasks still queued when the pool is stopped are dropped, and senders blocked on a full
+ * queue return once the pool is stopped.
+ *
+ * @param <T> type of the tasks
+ */
+public class WorkerPool<T> {
+
+    private static final Logger log = Logger.getLogger(WorkerPool.class);
+    private static final long SEND_TIMEOUT = 100;
+    private final String name;
+    private final SiddhiAppContext siddhiAppContext;
+    private final ThreadBarrier threadBarrier;
+    private final TaskProcessor<T> taskProcessor;
+    private final List<Worker> workers;
+    private final Future[] workerFutures;
+    private volatile boolean running = false;
+
+    /**
+     * @param name             name of the element using the pool, used in logs
+     * @param workerCount      number of workers
+     * @param bufferSize       number of tasks each worker can hold
+     * @param taskProcessor    processor of the tasks
+     * @param siddhiAppContext context of the Siddhi App
+     */
+    public WorkerPool(String name, int workerCount, int bufferSize, TaskProcessor<T> taskProcessor,
+                      SiddhiAppContext siddhiAppContext) {
+        this.name = name;
+        this.siddhiAppContext = siddhiAppContext;
+        this.threadBarrier = siddhiAppContext.getThreadBarrier();
+        this.threadBarrier.enableEntering();
+        this.taskProcessor = taskProcessor;
+        this.workers = new ArrayList<Worker>(workerCount);
+        this.workerFutures = new Future[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(i, bufferSize));
+        }
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * @param key key of the task
+     * @return index of the worker processing the tasks of the key
+     */
+    public int workerIndex(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        return (key.hashCode() & Integer.MAX_VALUE) % workers.size();
+    }
+
+    /**
+     * Send a task to a worker, waiting while the queue of the worker is full. The task is dropped if the pool is
+     * stopped or the thread is interrupted.
+     *
+     * @param workerIndex index of the worker
+     * @param task        task to be processed, it should not be used by the caller afterwards
+     */
+    public void send(int workerIndex, T task) {
+        BlockingQueue<T> queue = workers.get(workerIndex).queue;
+        threadBarrier.handOver();
+        try {
+            while (running) {
+                if (queue.offer(task, SEND_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    if (running || !queue.remove(task)) {
+                        return;
+                    }
+                    break;
+                }
+            }
+            threadBarrier.dropped();
+            log.warn("Workers of " + name + " of Siddhi App '" + siddhiAppContext.getName() + "' are stopped, " +
+                    "events dropped.");
+        } catch (InterruptedException e) {
+            threadBarrier.dropped();
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while handing over events to the workers of " + name + " of Siddhi App '" +
+                    siddhiAppContext.getName() + "', events dropped.", e);
+        }
+    }
+
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerFutures.length; i++) {
+            workerFutures[i] = siddhiAppContext.getExecutorService().submit(workers.get(i));
+        }
+    }
+
+    public void stop() {
+        running = false;
+        for (Future workerFuture : workerFutures) {
+            if (workerFuture != null) {
+                workerFuture.cancel(true);
+            }
+        }
+        for (Worker worker : workers) {
+            while (worker.queue.poll() != null) {
+                threadBarrier.dropped();
+            }
+        }
+    }
+
+    /**
+     * Processor of the tasks of a {@link WorkerPool}, called by a single worker at a time for a given worker index.
+     *
+     * @param <T> type of the tasks
+     */
+    public interface TaskProcessor<T> {
+
+        void process(int workerIndex, T task);
+    }
+
+    /**
+     * Worker processing the tasks of its queue.
+     */
+    private class Worker implements Runnable {
+        private final int index;
+        private final BlockingQueue<T> queue;
+
+        Worker(int index, int bufferSize) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<T>(bufferSize);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                T task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                threadBarrier.takeOver();
+                try {
+                    taskProcessor.process(index, task);
+                } catch (RuntimeException e) {
+                    log.error("Error in processing events of " + name + " of Siddhi App '" +
+                            siddhiAppContext.getName() + "'.", e);
+                } finally {
+                    threadBarrier.processed();
+                }
+            }
+        }
+    }
+}
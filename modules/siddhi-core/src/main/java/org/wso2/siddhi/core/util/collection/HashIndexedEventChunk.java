@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Event chunk of window processors keeping hash indexes of its events by attribute, so that equi-join conditions
+ * on the window can be matched without scanning all the events of the window. Indexes are created on demand by the
+ * operators matching the conditions and are kept up to date as events are added to and removed from the chunk.
+ */
+public class HashIndexedEventChunk extends ComplexEventChunk<StreamEvent> {
+
+    private static final long serialVersionUID = -2398754310219431375L;
+    private final List<AttributeIndex> attributeIndexes = new ArrayList<AttributeIndex>(1);
+
+    public HashIndexedEventChunk(boolean isBatch) {
+        super(isBatch);
+    }
+
+    /**
+     * Get the index of the events by the attribute at the given position, building it from the current events of
+     * the chunk if it does not exist yet.
+     *
+     * @param attributePosition position of the attribute in the events
+     * @return index of the events by the attribute
+     */
+    public AttributeIndex getIndex(int[] attributePosition) {
+        for (AttributeIndex attributeIndex : attributeIndexes) {
+            if (attributeIndex.isIndexOf(attributePosition)) {
+                return attributeIndex;
+            }
+        }
+        AttributeIndex attributeIndex = new AttributeIndex(attributePosition);
+        addAllEvents(attributeIndex);
+        attributeIndexes.add(attributeIndex);
+        return attributeIndex;
+    }
+
+    @Override
+    public void insertBeforeCurrent(StreamEvent events) {
+        if (lastReturned != null) {
+            addToIndexes(events);
+        }
+        super.insertBeforeCurrent(events);
+    }
+
+    @Override
+    public void insertAfterCurrent(StreamEvent streamEvents) {
+        if (lastReturned != null) {
+            addToIndexes(streamEvents);
+        }
+        super.insertAfterCurrent(streamEvents);
+    }
+
+    @Override
+    public void add(StreamEvent complexEvents) {
+        addToIndexes(complexEvents);
+        super.add(complexEvents);
+    }
+
+    @Override
+    public void remove() {
+        StreamEvent removedEvent = lastReturned;
+        super.remove();
+        removeFromIndexes(removedEvent);
+    }
+
+    @Override
+    public void detach() {
+        StreamEvent detachedEvents = lastReturned;
+        super.detach();
+        for (; detachedEvents != null; detachedEvents = (StreamEvent) detachedEvents.getNext()) {
+            removeFromIndexes(detachedEvents);
+        }
+    }
+
+    @Override
+    public StreamEvent detachAllBeforeCurrent() {
+        StreamEvent detachedEvents = super.detachAllBeforeCurrent();
+        for (StreamEvent streamEvent = detachedEvents; streamEvent != null;
+             streamEvent = (StreamEvent) streamEvent.getNext()) {
+            removeFromIndexes(streamEvent);
+        }
+        return detachedEvents;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        for (AttributeIndex attributeIndex : attributeIndexes) {
+            attributeIndex.clear();
+        }
+    }
+
+    @Override
+    public StreamEvent poll() {
+        StreamEvent polledEvent = super.poll();
+        if (polledEvent != null) {
+            removeFromIndexes(polledEvent);
+        }
+        return polledEvent;
+    }
+
+    /**
+     * Rebuild the indexes from the current events of the chunk, to be used after the indexed attributes of the
+     * events are updated in place.
+     */
+    public void rebuildIndexes() {
+        for (AttributeIndex attributeIndex : attributeIndexes) {
+            attributeIndex.clear();
+            addAllEvents(attributeIndex);
+        }
+    }
+
+    private void addAllEvents(AttributeIndex attributeIndex) {
+        for (StreamEvent streamEvent = first; streamEvent != null;
+             streamEvent = (StreamEvent) streamEvent.getNext()) {
+            attributeIndex.add(streamEvent);
+        }
+    }
+
+    private void addToIndexes(StreamEvent streamEvents) {
+        if (attributeIndexes.isEmpty()) {
+            return;
+        }
+        for (StreamEvent streamEvent = streamEvents; streamEvent != null;
+             streamEvent = (StreamEvent) streamEvent.getNext()) {
+            for (AttributeIndex attributeIndex : attributeIndexes) {
+                attributeIndex.add(streamEvent);
+            }
+        }
+    }
+
+    private void removeFromIndexes(StreamEvent streamEvent) {
+        for (AttributeIndex attributeIndex : attributeIndexes) {
+            attributeIndex.remove(streamEvent);
+        }
+    }
+
+    /**
+     * Hash index of the events of the chunk by one of their attributes. A key maps to the event itself while it is
+     * the only event with that key, and to the events in the order they were added otherwise. Events are matched by
+     * identity, as windows can hold several events with the same attribute values.
+     */
+    public static class AttributeIndex implements Serializable {
+
+        private static final long serialVersionUID = 8412235037245136719L;
+        private final int[] attributePosition;
+        private final Map<Object, Object> indexData = new HashMap<Object, Object>();
+
+        private AttributeIndex(int[] attributePosition) {
+            this.attributePosition = attributePosition.clone();
+        }
+
+        private boolean isIndexOf(int[] position) {
+            return position[STREAM_ATTRIBUTE_TYPE_INDEX] == attributePosition[STREAM_ATTRIBUTE_TYPE_INDEX] &&
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] == attributePosition[STREAM_ATTRIBUTE_INDEX_IN_TYPE];
+        }
+
+        /**
+         * Find the events having the given attribute value.
+         *
+         * @param value attribute value
+         * @return matching events, in the order they were added to the chunk
+         */
+        public Collection<StreamEvent> find(Object value) {
+            Object events = indexData.get(value);
+            if (events == null) {
+                return Collections.emptyList();
+            } else if (events instanceof StreamEvent) {
+                return Collections.singletonList((StreamEvent) events);
+            } else {
+                return (ArrayDeque<StreamEvent>) events;
+            }
+        }
+
+        private void add(StreamEvent streamEvent) {
+            Object key = getKey(streamEvent);
+            Object events = indexData.get(key);
+            if (events == null) {
+                indexData.put(key, streamEvent);
+            } else if (events instanceof StreamEvent) {
+                ArrayDeque<StreamEvent> eventQueue = new ArrayDeque<StreamEvent>();
+                eventQueue.add((StreamEvent) events);
+                eventQueue.add(streamEvent);
+                indexData.put(key, eventQueue);
+            } else {
+                ((ArrayDeque<StreamEvent>) events).add(streamEvent);
+            }
+        }
+
+        private void remove(StreamEvent streamEvent) {
+            Object key = getKey(streamEvent);
+            Object events = indexData.get(key);
+            if (events == streamEvent) {
+                indexData.remove(key);
+            } else if (events instanceof ArrayDeque) {
+                ArrayDeque<StreamEvent> eventQueue = (ArrayDeque<StreamEvent>) events;
+                // windows mostly expire their oldest events first
+                if (eventQueue.peekFirst() == streamEvent) {
+                    eventQueue.pollFirst();
+                } else {
+                    for (Iterator<StreamEvent> iterator = eventQueue.iterator(); iterator.hasNext(); ) {
+                        if (iterator.next() == streamEvent) {
+                            iterator.remove();
+                            break;
+                        }
+                    }
+                }
+                if (eventQueue.size() == 1) {
+                    indexData.put(key, eventQueue.peekFirst());
+                }
+            }
+        }
+
+        private void clear() {
+            indexData.clear();
+        }
+
+        private Object getKey(StreamEvent streamEvent) {
+            return streamEvent.getAttribute(attributePosition);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.executor;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of {@link CollectionExecutor} matching the events of a compound index by the key composed from the
+ * values of all of its attributes.
+ */
+public class AndCompoundIndexCollectionExecutor implements CollectionExecutor {
+
+    private final String indexName;
+    private final List<ExpressionExecutor> indexValueExpressionExecutors;
+
+    public AndCompoundIndexCollectionExecutor(String indexName,
+                                              List<ExpressionExecutor> indexValueExpressionExecutors) {
+        this.indexName = indexName;
+        this.indexValueExpressionExecutors = indexValueExpressionExecutors;
+    }
+
+    public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
+            storeEventCloner) {
+
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        Collection<StreamEvent> storeEventSet = findEvents(matchingEvent, indexedEventHolder);
+
+        if (storeEventSet == null) {
+            return returnEventChunk.getFirst();
+        } else {
+            for (StreamEvent storeEvent : storeEventSet) {
+                if (storeEventCloner != null) {
+                    returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+                } else {
+                    returnEventChunk.add(storeEvent);
+                }
+            }
+            return returnEventChunk.getFirst();
+        }
+    }
+
+    public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.findEvents(indexName, Compare.Operator.EQUAL, constructIndexKey(matchingEvent));
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.containsEventSet(indexName, Compare.Operator.EQUAL,
+                constructIndexKey(matchingEvent));
+    }
+
+    @Override
+    public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
+        indexedEventHolder.delete(indexName, Compare.Operator.EQUAL, constructIndexKey(deletingEvent));
+    }
+
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.estimateMatchCount(indexName, Compare.Operator.EQUAL,
+                constructIndexKey(matchingEvent));
+    }
+
+    @Override
+    public Cost getDefaultCost() {
+        return Cost.SINGLE_RETURN_INDEX_MATCHING;
+    }
+
+    private Object constructIndexKey(StateEvent matchingEvent) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (ExpressionExecutor expressionExecutor : indexValueExpressionExecutors) {
+            stringBuilder.append(expressionExecutor.execute(matchingEvent)).append(SiddhiConstants.KEY_DELIMITER);
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "CompoundIndexLookup[" + indexName + "]";
+    }
+}
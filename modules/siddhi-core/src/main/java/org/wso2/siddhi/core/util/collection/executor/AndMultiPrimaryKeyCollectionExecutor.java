@@ -45,6 +45,17 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
         this.multiPrimaryKeyExpressionExecutors = multiPrimaryKeyExpressionExecutors;
     }
 
+    /**
+     * Evaluate the primary key the store events are matched with, in the form primary keys are stored in
+     * {@link org.wso2.siddhi.core.table.holder.IndexEventHolder}.
+     *
+     * @param matchingEvent event to evaluate the primary key against
+     * @return primary key value
+     */
+    public Object executePrimaryKeyValue(StateEvent matchingEvent) {
+        return constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors);
+    }
+
     public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
             storeEventCloner) {
 
@@ -82,6 +93,12 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
                 constructPrimaryKeyValue(deletingEvent, multiPrimaryKeyExpressionExecutors));
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.estimateMatchCount(compositePrimaryKey, Compare.Operator.EQUAL,
+                constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors));
+    }
+
     @Override
     public Cost getDefaultCost() {
         return Cost.SINGLE_RETURN_INDEX_MATCHING;
@@ -100,4 +117,9 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
             return stringBuilder.toString();
         }
     }
+
+    @Override
+    public String toString() {
+        return "PrimaryKeyLookup[" + compositePrimaryKey + "]";
+    }
 }
@@ -73,6 +73,14 @@ public class AnyAndCollectionExecutor implements CollectionExecutor {
     }
 
     public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        // the more selective condition, by the current statistics of the indexes, is matched first
+        CollectionExecutor lowCollectionExecutor = this.lowCollectionExecutor;
+        CollectionExecutor highCostCollectionExecutor = this.highCostCollectionExecutor;
+        if (highCostCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder) <
+                lowCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder)) {
+            lowCollectionExecutor = this.highCostCollectionExecutor;
+            highCostCollectionExecutor = this.lowCollectionExecutor;
+        }
         //limit for 10 is a magic number identified via performance test
         Collection<StreamEvent> lowCostStreamEvents = lowCollectionExecutor.findEvents(matchingEvent,
                                                                                        indexedEventHolder);
@@ -88,7 +96,7 @@ public class AnyAndCollectionExecutor implements CollectionExecutor {
                 if (highCostStreamEvents == null) {
                     return null;
                 } else if (highCostStreamEvents.size() > 0) {
-                    if (lowCostStreamEvents.size() <= 10) {
+                    if (highCostStreamEvents.size() <= 10) {
                         return exhaustiveCollectionExecutor.findEvents(matchingEvent, highCostStreamEvents);
                     } else {
                         Set<StreamEvent> returnSet = new HashSet<StreamEvent>();
@@ -136,9 +144,19 @@ public class AnyAndCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return Math.min(lowCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder),
+                highCostCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder));
+    }
+
     @Override
     public Cost getDefaultCost() {
         return lowCollectionExecutor.getDefaultCost();
     }
 
+    @Override
+    public String toString() {
+        return "IndexIntersection[" + lowCollectionExecutor + ", " + highCostCollectionExecutor + "]";
+    }
 }
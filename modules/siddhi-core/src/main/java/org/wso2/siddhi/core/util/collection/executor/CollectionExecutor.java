@@ -27,7 +27,7 @@ import java.util.Collection;
 
 /**
  * Interface for executors which will operate on a collection of events(i.e {@link StateEvent}). These will be used
- * by in-memory table implementation.
+ * by in-memory table implementation. The {@code toString} of an executor explains how it matches the events.
  */
 public interface CollectionExecutor {
 
@@ -69,6 +69,16 @@ public interface CollectionExecutor {
      */
     void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder);
 
+    /**
+     * Estimate the number of events matching the condition from the statistics of the indexes, without matching
+     * the events, so that the most selective conditions can be evaluated first.
+     *
+     * @param matchingEvent      matching input event
+     * @param indexedEventHolder indexed EventHolder containing data
+     * @return estimated number of matching events
+     */
+    long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder);
+
     Cost getDefaultCost();
 
     /**
@@ -50,6 +50,16 @@ public class CompareCollectionExecutor implements CollectionExecutor {
         this.valueExpressionExecutor = valueExpressionExecutor;
     }
 
+    /**
+     * Evaluate the value the attribute is compared with.
+     *
+     * @param matchingEvent event to evaluate the value against
+     * @return value of the comparison
+     */
+    public Object executeValue(StateEvent matchingEvent) {
+        return valueExpressionExecutor.execute(matchingEvent);
+    }
+
     public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
             storeEventCloner) {
 
@@ -101,6 +111,12 @@ public class CompareCollectionExecutor implements CollectionExecutor {
         indexedEventHolder.delete(attribute, operator, valueExpressionExecutor.execute(deletingEvent));
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.estimateMatchCount(attribute, operator,
+                valueExpressionExecutor.execute(matchingEvent));
+    }
+
     @Override
     public Cost getDefaultCost() {
         if (operator == Compare.Operator.EQUAL) {
@@ -112,4 +128,8 @@ public class CompareCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public String toString() {
+        return "IndexLookup[" + attribute + " " + operator + "]";
+    }
 }
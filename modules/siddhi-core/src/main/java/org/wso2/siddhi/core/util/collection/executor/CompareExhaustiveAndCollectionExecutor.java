@@ -96,6 +96,11 @@ public class CompareExhaustiveAndCollectionExecutor implements CollectionExecuto
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return compareCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder);
+    }
+
     @Override
     public Cost getDefaultCost() {
         if (exhaustiveCollectionExecutor != null) {
@@ -105,4 +110,8 @@ public class CompareExhaustiveAndCollectionExecutor implements CollectionExecuto
         }
     }
 
+    @Override
+    public String toString() {
+        return "Filter[" + compareCollectionExecutor + "]";
+    }
 }
@@ -109,8 +109,18 @@ public class ExhaustiveCollectionExecutor implements CollectionExecutor {
         indexedEventHolder.deleteAll(toDeleteEvents);
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.getAllEvents().size();
+    }
+
     @Override
     public Cost getDefaultCost() {
         return Cost.EXHAUSTIVE;
     }
+
+    @Override
+    public String toString() {
+        return "ExhaustiveScan";
+    }
 }
@@ -85,6 +85,17 @@ public class NonAndCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if (!(Boolean) valueExpressionExecutor.execute(matchingEvent)) {
+            return 0;
+        } else if (collectionScope == CollectionExpression.CollectionScope.EXHAUSTIVE) {
+            return indexedEventHolder.getAllEvents().size();
+        } else {
+            return collectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder);
+        }
+    }
+
     @Override
     public Cost getDefaultCost() {
         if (collectionScope == CollectionExpression.CollectionScope.EXHAUSTIVE) {
@@ -94,4 +105,8 @@ public class NonAndCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public String toString() {
+        return "Filter[" + collectionExecutor + "]";
+    }
 }
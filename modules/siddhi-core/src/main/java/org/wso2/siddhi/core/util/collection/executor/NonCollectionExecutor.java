@@ -81,8 +81,22 @@ public class NonCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+            return indexedEventHolder.getAllEvents().size();
+        } else {
+            return 0;
+        }
+    }
+
     @Override
     public Cost getDefaultCost() {
         return Cost.MULTI_RETURN_INDEX_MATCHING;
     }
+
+    @Override
+    public String toString() {
+        return "AllOrNone";
+    }
 }
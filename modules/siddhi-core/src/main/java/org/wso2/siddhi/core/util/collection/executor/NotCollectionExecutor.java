@@ -126,6 +126,12 @@ public class NotCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return Math.max(0, indexedEventHolder.getAllEvents().size() -
+                notCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder));
+    }
+
     @Override
     public Cost getDefaultCost() {
         if (notCollectionExecutor.getDefaultCost() == Cost.EXHAUSTIVE) {
@@ -135,4 +141,8 @@ public class NotCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public String toString() {
+        return "IndexExclusion[" + notCollectionExecutor + "]";
+    }
 }
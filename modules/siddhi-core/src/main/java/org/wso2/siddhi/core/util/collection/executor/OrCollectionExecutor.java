@@ -131,6 +131,13 @@ public class OrCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public long estimateMatchCount(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return Math.min(indexedEventHolder.getAllEvents().size(),
+                leftCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder) +
+                        rightCollectionExecutor.estimateMatchCount(matchingEvent, indexedEventHolder));
+    }
+
     @Override
     public Cost getDefaultCost() {
         Cost leftCost = leftCollectionExecutor.getDefaultCost();
@@ -141,4 +148,9 @@ public class OrCollectionExecutor implements CollectionExecutor {
             return leftCost;
         }
     }
+
+    @Override
+    public String toString() {
+        return "IndexUnion[" + leftCollectionExecutor + ", " + rightCollectionExecutor + "]";
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.expression;
+
+import org.wso2.siddhi.query.api.expression.Expression;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link CollectionExpression} which represent And expressions matching all the attributes of a
+ * compound index by equality.
+ */
+public class AndCompoundIndexCollectionExpression implements CollectionExpression {
+
+    private final Expression expression;
+    private final CollectionScope collectionScope;
+    private final String indexName;
+    private final List<Expression> indexValueExpressions;
+
+    public AndCompoundIndexCollectionExpression(Expression expression, CollectionScope collectionScope,
+                                                String indexName, List<Expression> indexValueExpressions) {
+        this.expression = expression;
+        this.collectionScope = collectionScope;
+        this.indexName = indexName;
+        this.indexValueExpressions = indexValueExpressions;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * @return expressions of the values the index attributes are matched with, in the order of the index attributes
+     */
+    public List<Expression> getIndexValueExpressions() {
+        return indexValueExpressions;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public CollectionScope getCollectionScope() {
+        return collectionScope;
+    }
+
+    @Override
+    public Set<String> getMultiPrimaryKeys() {
+        return new HashSet<>();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.table.InMemoryCompiledUpdateSet;
+import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
+import org.wso2.siddhi.core.util.collection.HashIndexedEventChunk;
+
+/**
+ * Operator matching equi-join conditions on the events of a {@link HashIndexedEventChunk}, where the events
+ * having the joined attribute value are looked up from the hash index of the chunk and only those are matched
+ * against the whole condition.
+ */
+public class HashIndexedEventChunkOperator extends EventChunkOperator {
+
+    private final VariableExpressionExecutor storeVariableExecutor;
+    private final ExpressionExecutor matchingValueExecutor;
+
+    public HashIndexedEventChunkOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                         VariableExpressionExecutor storeVariableExecutor,
+                                         ExpressionExecutor matchingValueExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.storeVariableExecutor = storeVariableExecutor;
+        this.matchingValueExecutor = matchingValueExecutor;
+    }
+
+    @Override
+    public CompiledCondition cloneCompilation(String key) {
+        return new HashIndexedEventChunkOperator(expressionExecutor.cloneExecutor(key), storeEventPosition,
+                storeVariableExecutor, matchingValueExecutor.cloneExecutor(key));
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        Object matchingValue = matchingValueExecutor.execute(matchingEvent);
+        if (matchingValue == null) {
+            return null;
+        }
+        try {
+            for (StreamEvent storeEvent : ((HashIndexedEventChunk) storeEvents).getIndex(
+                    storeVariableExecutor.getPosition()).find(matchingValue)) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+                }
+            }
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        Object matchingValue = matchingValueExecutor.execute(matchingEvent);
+        if (matchingValue == null) {
+            return false;
+        }
+        try {
+            for (StreamEvent storeEvent : ((HashIndexedEventChunk) storeEvents).getIndex(
+                    storeVariableExecutor.getPosition()).find(matchingValue)) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, Object storeEvents,
+                       InMemoryCompiledUpdateSet compiledUpdateSet) {
+        super.update(updatingEventChunk, storeEvents, compiledUpdateSet);
+        ((HashIndexedEventChunk) storeEvents).rebuildIndexes();
+    }
+
+    @Override
+    public ComplexEventChunk<StreamEvent> tryUpdate(ComplexEventChunk<StateEvent> updatingOrAddingEventChunk,
+                                                    Object storeEvents, InMemoryCompiledUpdateSet compiledUpdateSet,
+                                                    AddingStreamEventExtractor addingStreamEventExtractor) {
+        ComplexEventChunk<StreamEvent> failedEventChunk = super.tryUpdate(updatingOrAddingEventChunk, storeEvents,
+                compiledUpdateSet, addingStreamEventExtractor);
+        ((HashIndexedEventChunk) storeEvents).rebuildIndexes();
+        return failedEventChunk;
+    }
+
+    @Override
+    public String toString() {
+        return "HashIndexedEventChunkOperator[" + storeVariableExecutor.getAttribute().getName() + "]";
+    }
+}
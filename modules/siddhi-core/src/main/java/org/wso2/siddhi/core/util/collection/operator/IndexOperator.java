@@ -48,6 +48,10 @@ public class IndexOperator implements Operator {
         this.queryName = queryName;
     }
 
+    public CollectionExecutor getCollectionExecutor() {
+        return collectionExecutor;
+    }
+
     @Override
     public CompiledCondition cloneCompilation(String key) {
         //todo check if there are any issues when not cloning
@@ -190,4 +194,11 @@ public class IndexOperator implements Operator {
         }
     }
 
+    /**
+     * @return how the condition matches the events, explaining the indexes it looks up
+     */
+    @Override
+    public String toString() {
+        return collectionExecutor.toString();
+    }
 }
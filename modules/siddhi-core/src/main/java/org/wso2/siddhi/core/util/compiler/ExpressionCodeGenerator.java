@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.compiler;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.BoolConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorLong;
+import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STATE_OUTPUT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_EVENT_CHAIN_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_EVENT_INDEX_IN_CHAIN;
+import static org.wso2.siddhi.core.util.SiddhiConstants.UNKNOWN_STATE;
+
+/**
+ * Generates the bytecode of compiled expressions into a method taking the event as its first parameter. Executors
+ * that cannot be compiled are added to the list of delegated executors, and are invoked through the
+ * {@code executors} array field of the generated class. The list of delegated executors only depends on the
+ * structure of the executor tree, hence generating the code of a cloned tree into a no-op {@link MethodVisitor}
+ * collects the executors of the clone in the same order.
+ */
+class ExpressionCodeGenerator implements Opcodes {
+
+    private static final String COMPLEX_EVENT = "org/wso2/siddhi/core/event/ComplexEvent";
+    private static final String STREAM_EVENT = "org/wso2/siddhi/core/event/stream/StreamEvent";
+    private static final String STATE_EVENT = "org/wso2/siddhi/core/event/state/StateEvent";
+    private static final String EXPRESSION_EXECUTOR = "org/wso2/siddhi/core/executor/ExpressionExecutor";
+    private static final String NUMERIC_EXPRESSION_EXECUTOR =
+            "org/wso2/siddhi/core/executor/NumericExpressionExecutor";
+    private static final String CONDITION_EXPRESSION_EXECUTOR =
+            "org/wso2/siddhi/core/executor/condition/ConditionExpressionExecutor";
+    private static final String OBJECT_ARRAY_DESCRIPTOR = "()[Ljava/lang/Object;";
+    private static final int EVENT = 1;
+
+    private static final Map<Class<? extends MathExpressionExecutor>, Integer> MATH_OPCODES = new HashMap<>();
+
+    static {
+        MATH_OPCODES.put(AddExpressionExecutorInt.class, IADD);
+        MATH_OPCODES.put(AddExpressionExecutorLong.class, LADD);
+        MATH_OPCODES.put(AddExpressionExecutorFloat.class, FADD);
+        MATH_OPCODES.put(AddExpressionExecutorDouble.class, DADD);
+        MATH_OPCODES.put(SubtractExpressionExecutorInt.class, ISUB);
+        MATH_OPCODES.put(SubtractExpressionExecutorLong.class, LSUB);
+        MATH_OPCODES.put(SubtractExpressionExecutorFloat.class, FSUB);
+        MATH_OPCODES.put(SubtractExpressionExecutorDouble.class, DSUB);
+        MATH_OPCODES.put(MultiplyExpressionExecutorInt.class, IMUL);
+        MATH_OPCODES.put(MultiplyExpressionExecutorLong.class, LMUL);
+        MATH_OPCODES.put(MultiplyExpressionExecutorFloat.class, FMUL);
+        MATH_OPCODES.put(MultiplyExpressionExecutorDouble.class, DMUL);
+    }
+
+    private final MethodVisitor methodVisitor;
+    private final String className;
+    private final List<ExpressionExecutor> executors;
+    private int nextLocal = EVENT + 1;
+
+    /**
+     * @param methodVisitor visitor of the method the code is generated into
+     * @param className     internal name of the generated class
+     * @param executors     list the delegated executors are added to
+     */
+    ExpressionCodeGenerator(MethodVisitor methodVisitor, String className, List<ExpressionExecutor> executors) {
+        this.methodVisitor = methodVisitor;
+        this.className = className;
+        this.executors = executors;
+    }
+
+    /**
+     * Generate the body of a method returning the result of the condition as a boolean.
+     *
+     * @param conditionExecutor condition executor
+     */
+    void generateCondition(ExpressionExecutor conditionExecutor) {
+        Label falseLabel = new Label();
+        generateCondition(conditionExecutor, falseLabel, false);
+        methodVisitor.visitInsn(ICONST_1);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitLabel(falseLabel);
+        methodVisitor.visitInsn(ICONST_0);
+        methodVisitor.visitInsn(IRETURN);
+    }
+
+    /**
+     * Generate the body of a method setting the output data of the event for all the attribute processors.
+     *
+     * @param attributeProcessorList attribute processors of the select list
+     */
+    void generateAttributeProcessors(List<AttributeProcessor> attributeProcessorList) {
+        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+            generateObject(attributeProcessor.getExpressionExecutor());
+            int value = newLocal(1);
+            methodVisitor.visitVarInsn(ASTORE, value);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitVarInsn(ALOAD, value);
+            pushInt(attributeProcessor.getOutputPosition());
+            methodVisitor.visitMethodInsn(INVOKEINTERFACE, COMPLEX_EVENT, "setOutputData", "(Ljava/lang/Object;I)V",
+                    true);
+        }
+        methodVisitor.visitInsn(RETURN);
+    }
+
+    /**
+     * Generate code jumping to the target when the condition evaluates to the given result, null results of the
+     * condition are evaluated as false. The code falls through otherwise.
+     */
+    private void generateCondition(ExpressionExecutor executor, Label target, boolean jumpIfTrue) {
+        if (executor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) executor;
+            if (jumpIfTrue) {
+                Label skip = new Label();
+                generateCondition(andExecutor.getLeftConditionExecutor(), skip, false);
+                generateCondition(andExecutor.getRightConditionExecutor(), target, true);
+                methodVisitor.visitLabel(skip);
+            } else {
+                generateCondition(andExecutor.getLeftConditionExecutor(), target, false);
+                generateCondition(andExecutor.getRightConditionExecutor(), target, false);
+            }
+        } else if (executor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) executor;
+            if (jumpIfTrue) {
+                generateCondition(orExecutor.getLeftConditionExecutor(), target, true);
+                generateCondition(orExecutor.getRightConditionExecutor(), target, true);
+            } else {
+                Label skip = new Label();
+                generateCondition(orExecutor.getLeftConditionExecutor(), skip, true);
+                generateCondition(orExecutor.getRightConditionExecutor(), target, false);
+                methodVisitor.visitLabel(skip);
+            }
+        } else if (executor instanceof NotConditionExpressionExecutor) {
+            generateCondition(((NotConditionExpressionExecutor) executor).getConditionExecutor(), target,
+                    !jumpIfTrue);
+        } else if (executor instanceof BoolConditionExpressionExecutor) {
+            generateCondition(((BoolConditionExpressionExecutor) executor).getConditionExecutor(), target,
+                    jumpIfTrue);
+        } else if (isPrimitiveCompare(executor)) {
+            generateCompare((CompareConditionExpressionExecutor) executor, target, jumpIfTrue);
+        } else if (executor instanceof ConditionExpressionExecutor) {
+            loadExecutor(delegate(executor));
+            methodVisitor.visitTypeInsn(CHECKCAST, CONDITION_EXPRESSION_EXECUTOR);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CONDITION_EXPRESSION_EXECUTOR, "executeBoolean",
+                    "(L" + COMPLEX_EVENT + ";)Z", false);
+            methodVisitor.visitJumpInsn(jumpIfTrue ? IFNE : IFEQ, target);
+        } else {
+            if (executor instanceof VariableExpressionExecutor) {
+                generateAttribute((VariableExpressionExecutor) executor);
+            } else {
+                generateExecute(delegate(executor));
+            }
+            int value = newLocal(1);
+            methodVisitor.visitVarInsn(ASTORE, value);
+            methodVisitor.visitVarInsn(ALOAD, value);
+            Label skip = new Label();
+            methodVisitor.visitJumpInsn(IFNULL, jumpIfTrue ? skip : target);
+            methodVisitor.visitVarInsn(ALOAD, value);
+            methodVisitor.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+            methodVisitor.visitJumpInsn(jumpIfTrue ? IFNE : IFEQ, target);
+            methodVisitor.visitLabel(skip);
+        }
+    }
+
+    private static boolean isPrimitiveCompare(ExpressionExecutor executor) {
+        if (!(executor instanceof CompareConditionExpressionExecutor) || compareOpcode(executor) == 0) {
+            return false;
+        }
+        ExpressionExecutor left = ((CompareConditionExpressionExecutor) executor).getLeftExpressionExecutor();
+        ExpressionExecutor right = ((CompareConditionExpressionExecutor) executor).getRightExpressionExecutor();
+        return NumericExpressionExecutor.isPrimitiveExecutable(left)
+                && NumericExpressionExecutor.isPrimitiveExecutable(right)
+                && CompareConditionExpressionExecutor.isPrimitiveComparable(left, right);
+    }
+
+    /**
+     * @return jump opcode taken when the result of comparing the operands against each other satisfies the compare
+     * condition, or 0 if the condition is not a known compare condition
+     */
+    private static int compareOpcode(ExpressionExecutor compareExecutor) {
+        if (compareExecutor instanceof LessThanCompareConditionExpressionExecutor) {
+            return IFLT;
+        } else if (compareExecutor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return IFGT;
+        } else if (compareExecutor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return IFLE;
+        } else if (compareExecutor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return IFGE;
+        } else if (compareExecutor instanceof EqualCompareConditionExpressionExecutor) {
+            return IFEQ;
+        } else if (compareExecutor instanceof NotEqualCompareConditionExpressionExecutor) {
+            return IFNE;
+        }
+        return 0;
+    }
+
+    private static int negate(int jumpOpcode) {
+        switch (jumpOpcode) {
+            case IFLT:
+                return IFGE;
+            case IFGE:
+                return IFLT;
+            case IFGT:
+                return IFLE;
+            case IFLE:
+                return IFGT;
+            case IFEQ:
+                return IFNE;
+            default:
+                return IFEQ;
+        }
+    }
+
+    private void generateCompare(CompareConditionExpressionExecutor compareExecutor, Label target,
+                                 boolean jumpIfTrue) {
+        ExpressionExecutor left = compareExecutor.getLeftExpressionExecutor();
+        ExpressionExecutor right = compareExecutor.getRightExpressionExecutor();
+        Attribute.Type precision = NumericExpressionExecutor.isIntegral(left.getReturnType())
+                && NumericExpressionExecutor.isIntegral(right.getReturnType()) ? Attribute.Type.LONG :
+                Attribute.Type.DOUBLE;
+        int opcode = compareOpcode(compareExecutor);
+        Label nullLabel = new Label();
+        Label end = new Label();
+        Local leftValue = generateNumeric(left, nullLabel);
+        Local rightValue = generateNumeric(right, nullLabel);
+        load(leftValue, precision);
+        load(rightValue, precision);
+        if (precision == Attribute.Type.LONG) {
+            methodVisitor.visitInsn(LCMP);
+        } else if (opcode == IFLT || opcode == IFLE) {
+            // NaN operands compare as 1, failing less than conditions as Java does.
+            methodVisitor.visitInsn(DCMPG);
+        } else {
+            methodVisitor.visitInsn(DCMPL);
+        }
+        methodVisitor.visitJumpInsn(jumpIfTrue ? opcode : negate(opcode), target);
+        methodVisitor.visitJumpInsn(GOTO, end);
+        methodVisitor.visitLabel(nullLabel);
+        boolean resultOnNull = compareExecutor instanceof NotEqualCompareConditionExpressionExecutor;
+        if (resultOnNull == jumpIfTrue) {
+            methodVisitor.visitJumpInsn(GOTO, target);
+        }
+        methodVisitor.visitLabel(end);
+    }
+
+    /**
+     * Generate code storing the value of a primitive executable numeric expression in a local variable of the
+     * return type of the expression, and jumping to the null label when the expression evaluates to null.
+     */
+    private Local generateNumeric(ExpressionExecutor executor, Label nullLabel) {
+        Attribute.Type type = executor.getReturnType();
+        Local local = new Local(newLocal(size(type)), type);
+        if (executor instanceof ConstantExpressionExecutor) {
+            Number value = (Number) ((ConstantExpressionExecutor) executor).getValue();
+            switch (type) {
+                case INT:
+                    pushInt(value.intValue());
+                    break;
+                case LONG:
+                    methodVisitor.visitLdcInsn(value.longValue());
+                    break;
+                case FLOAT:
+                    methodVisitor.visitLdcInsn(value.floatValue());
+                    break;
+                default:
+                    methodVisitor.visitLdcInsn(value.doubleValue());
+                    break;
+            }
+        } else if (executor instanceof VariableExpressionExecutor) {
+            generateAttribute((VariableExpressionExecutor) executor);
+            int value = newLocal(1);
+            methodVisitor.visitVarInsn(ASTORE, value);
+            methodVisitor.visitVarInsn(ALOAD, value);
+            methodVisitor.visitJumpInsn(IFNULL, nullLabel);
+            methodVisitor.visitVarInsn(ALOAD, value);
+            methodVisitor.visitTypeInsn(CHECKCAST, "java/lang/Number");
+            switch (type) {
+                case INT:
+                    methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", "intValue", "()I", false);
+                    break;
+                case LONG:
+                    methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", "longValue", "()J", false);
+                    break;
+                case FLOAT:
+                    methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", "floatValue", "()F", false);
+                    break;
+                default:
+                    methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", "doubleValue", "()D", false);
+                    break;
+            }
+        } else if (MATH_OPCODES.containsKey(executor.getClass())) {
+            MathExpressionExecutor mathExecutor = (MathExpressionExecutor) executor;
+            Local left = generateNumeric(mathExecutor.getLeftExpressionExecutor(), nullLabel);
+            Local right = generateNumeric(mathExecutor.getRightExpressionExecutor(), nullLabel);
+            load(left, type);
+            load(right, type);
+            methodVisitor.visitInsn(MATH_OPCODES.get(executor.getClass()));
+        } else {
+            int index = delegate(executor);
+            loadExecutor(index);
+            methodVisitor.visitTypeInsn(CHECKCAST, NUMERIC_EXPRESSION_EXECUTOR);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitMethodInsn(INVOKEINTERFACE, NUMERIC_EXPRESSION_EXECUTOR, "isNull",
+                    "(L" + COMPLEX_EVENT + ";)Z", true);
+            methodVisitor.visitJumpInsn(IFNE, nullLabel);
+            loadExecutor(index);
+            methodVisitor.visitTypeInsn(CHECKCAST, NUMERIC_EXPRESSION_EXECUTOR);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            if (NumericExpressionExecutor.isIntegral(type)) {
+                methodVisitor.visitMethodInsn(INVOKEINTERFACE, NUMERIC_EXPRESSION_EXECUTOR, "executeLong",
+                        "(L" + COMPLEX_EVENT + ";)J", true);
+                if (type == Attribute.Type.INT) {
+                    methodVisitor.visitInsn(L2I);
+                }
+            } else {
+                methodVisitor.visitMethodInsn(INVOKEINTERFACE, NUMERIC_EXPRESSION_EXECUTOR, "executeDouble",
+                        "(L" + COMPLEX_EVENT + ";)D", true);
+                if (type == Attribute.Type.FLOAT) {
+                    methodVisitor.visitInsn(D2F);
+                }
+            }
+        }
+        methodVisitor.visitVarInsn(storeOpcode(type), local.index);
+        return local;
+    }
+
+    /**
+     * Generate code pushing the boxed value of the expression, as returned by its executor, on to the stack.
+     */
+    private void generateObject(ExpressionExecutor executor) {
+        if (executor instanceof VariableExpressionExecutor) {
+            generateAttribute((VariableExpressionExecutor) executor);
+        } else if (executor instanceof ConstantExpressionExecutor
+                && ((ConstantExpressionExecutor) executor).getValue() == null) {
+            methodVisitor.visitInsn(ACONST_NULL);
+        } else if (executor instanceof ConstantExpressionExecutor
+                && ((ConstantExpressionExecutor) executor).getValue() instanceof String) {
+            methodVisitor.visitLdcInsn(((ConstantExpressionExecutor) executor).getValue());
+        } else if (MATH_OPCODES.containsKey(executor.getClass())
+                && NumericExpressionExecutor.isPrimitiveExecutable(executor)) {
+            Label nullLabel = new Label();
+            Label end = new Label();
+            Local value = generateNumeric(executor, nullLabel);
+            load(value, value.type);
+            box(value.type);
+            methodVisitor.visitJumpInsn(GOTO, end);
+            methodVisitor.visitLabel(nullLabel);
+            methodVisitor.visitInsn(ACONST_NULL);
+            methodVisitor.visitLabel(end);
+        } else if (executor instanceof AndConditionExpressionExecutor
+                || executor instanceof OrConditionExpressionExecutor
+                || executor instanceof NotConditionExpressionExecutor
+                || executor instanceof BoolConditionExpressionExecutor
+                || isPrimitiveCompare(executor)) {
+            Label falseLabel = new Label();
+            Label end = new Label();
+            generateCondition(executor, falseLabel, false);
+            methodVisitor.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "TRUE", "Ljava/lang/Boolean;");
+            methodVisitor.visitJumpInsn(GOTO, end);
+            methodVisitor.visitLabel(falseLabel);
+            methodVisitor.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "FALSE", "Ljava/lang/Boolean;");
+            methodVisitor.visitLabel(end);
+        } else {
+            generateExecute(delegate(executor));
+        }
+    }
+
+    /**
+     * Generate code pushing the attribute on to the stack, indexing directly into the data arrays of stream events
+     * and of the first events of state event chains. Events of other types fall back to the variable executor.
+     */
+    private void generateAttribute(VariableExpressionExecutor variableExecutor) {
+        int[] position = variableExecutor.getPosition();
+        int attributeIndex = position[STREAM_ATTRIBUTE_INDEX_IN_TYPE];
+        if (position[STREAM_ATTRIBUTE_TYPE_INDEX] == STATE_OUTPUT_DATA_INDEX) {
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitMethodInsn(INVOKEINTERFACE, COMPLEX_EVENT, "getOutputData", OBJECT_ARRAY_DESCRIPTOR,
+                    true);
+            pushInt(attributeIndex);
+            methodVisitor.visitInsn(AALOAD);
+            return;
+        }
+        int index = delegate(variableExecutor);
+        String dataGetter = dataGetter(position[STREAM_ATTRIBUTE_TYPE_INDEX]);
+        Label fallback = new Label();
+        Label end = new Label();
+        if (dataGetter != null && position[STREAM_EVENT_CHAIN_INDEX] == UNKNOWN_STATE) {
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitTypeInsn(INSTANCEOF, STREAM_EVENT);
+            methodVisitor.visitJumpInsn(IFEQ, fallback);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitTypeInsn(CHECKCAST, STREAM_EVENT);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, STREAM_EVENT, dataGetter, OBJECT_ARRAY_DESCRIPTOR, false);
+            pushInt(attributeIndex);
+            methodVisitor.visitInsn(AALOAD);
+            methodVisitor.visitJumpInsn(GOTO, end);
+        } else if (dataGetter != null && position[STREAM_EVENT_INDEX_IN_CHAIN] == 0) {
+            int streamEvent = newLocal(1);
+            Label notNull = new Label();
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitTypeInsn(INSTANCEOF, STATE_EVENT);
+            methodVisitor.visitJumpInsn(IFEQ, fallback);
+            methodVisitor.visitVarInsn(ALOAD, EVENT);
+            methodVisitor.visitTypeInsn(CHECKCAST, STATE_EVENT);
+            pushInt(position[STREAM_EVENT_CHAIN_INDEX]);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, STATE_EVENT, "getStreamEvent", "(I)L" + STREAM_EVENT + ";",
+                    false);
+            methodVisitor.visitVarInsn(ASTORE, streamEvent);
+            methodVisitor.visitVarInsn(ALOAD, streamEvent);
+            methodVisitor.visitJumpInsn(IFNONNULL, notNull);
+            methodVisitor.visitInsn(ACONST_NULL);
+            methodVisitor.visitJumpInsn(GOTO, end);
+            methodVisitor.visitLabel(notNull);
+            methodVisitor.visitVarInsn(ALOAD, streamEvent);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, STREAM_EVENT, dataGetter, OBJECT_ARRAY_DESCRIPTOR, false);
+            pushInt(attributeIndex);
+            methodVisitor.visitInsn(AALOAD);
+            methodVisitor.visitJumpInsn(GOTO, end);
+        }
+        methodVisitor.visitLabel(fallback);
+        generateExecute(index);
+        methodVisitor.visitLabel(end);
+    }
+
+    private static String dataGetter(int attributeTypeIndex) {
+        switch (attributeTypeIndex) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                return "getBeforeWindowData";
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                return "getOnAfterWindowData";
+            case OUTPUT_DATA_INDEX:
+                return "getOutputData";
+            default:
+                return null;
+        }
+    }
+
+    private int delegate(ExpressionExecutor executor) {
+        executors.add(executor);
+        return executors.size() - 1;
+    }
+
+    private void loadExecutor(int index) {
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, className, "executors", "[L" + EXPRESSION_EXECUTOR + ";");
+        pushInt(index);
+        methodVisitor.visitInsn(AALOAD);
+    }
+
+    private void generateExecute(int index) {
+        loadExecutor(index);
+        methodVisitor.visitVarInsn(ALOAD, EVENT);
+        methodVisitor.visitMethodInsn(INVOKEINTERFACE, EXPRESSION_EXECUTOR, "execute",
+                "(L" + COMPLEX_EVENT + ";)Ljava/lang/Object;", true);
+    }
+
+    /**
+     * Load the local variable widened to the given type.
+     */
+    private void load(Local local, Attribute.Type type) {
+        switch (local.type) {
+            case INT:
+                methodVisitor.visitVarInsn(ILOAD, local.index);
+                if (type == Attribute.Type.LONG) {
+                    methodVisitor.visitInsn(I2L);
+                } else if (type == Attribute.Type.FLOAT) {
+                    methodVisitor.visitInsn(I2F);
+                } else if (type == Attribute.Type.DOUBLE) {
+                    methodVisitor.visitInsn(I2D);
+                }
+                break;
+            case LONG:
+                methodVisitor.visitVarInsn(LLOAD, local.index);
+                if (type == Attribute.Type.FLOAT) {
+                    methodVisitor.visitInsn(L2F);
+                } else if (type == Attribute.Type.DOUBLE) {
+                    methodVisitor.visitInsn(L2D);
+                }
+                break;
+            case FLOAT:
+                methodVisitor.visitVarInsn(FLOAD, local.index);
+                if (type == Attribute.Type.DOUBLE) {
+                    methodVisitor.visitInsn(F2D);
+                }
+                break;
+            default:
+                methodVisitor.visitVarInsn(DLOAD, local.index);
+                break;
+        }
+    }
+
+    private void box(Attribute.Type type) {
+        switch (type) {
+            case INT:
+                methodVisitor.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;",
+                        false);
+                break;
+            case LONG:
+                methodVisitor.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;",
+                        false);
+                break;
+            case FLOAT:
+                methodVisitor.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "valueOf", "(F)Ljava/lang/Float;",
+                        false);
+                break;
+            default:
+                methodVisitor.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;",
+                        false);
+                break;
+        }
+    }
+
+    private static int storeOpcode(Attribute.Type type) {
+        switch (type) {
+            case INT:
+                return ISTORE;
+            case LONG:
+                return LSTORE;
+            case FLOAT:
+                return FSTORE;
+            default:
+                return DSTORE;
+        }
+    }
+
+    private static int size(Attribute.Type type) {
+        return type == Attribute.Type.LONG || type == Attribute.Type.DOUBLE ? 2 : 1;
+    }
+
+    private int newLocal(int size) {
+        int index = nextLocal;
+        nextLocal += size;
+        return index;
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            methodVisitor.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            methodVisitor.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            methodVisitor.visitIntInsn(SIPUSH, value);
+        } else {
+            methodVisitor.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * Local variable holding a numeric value.
+     */
+    private static class Local {
+        private final int index;
+        private final Attribute.Type type;
+
+        private Local(int index, Attribute.Type type) {
+            this.index = index;
+            this.type = type;
+        }
+    }
+}
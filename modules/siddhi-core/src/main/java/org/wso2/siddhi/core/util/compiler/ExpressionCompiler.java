@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.compiler;
+
+import org.apache.log4j.Logger;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.CompiledConditionExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.CompiledAttributeProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles filter conditions and select lists into generated classes, so that their operators, constants and
+ * attribute accesses are evaluated by a single method per expression instead of virtual calls per executor. The parts
+ * of the expressions that cannot be compiled, such as functions and aggregations, are delegated to their executors.
+ * Compiled instances keep the executor trees they were compiled from, and clones of them instantiate the same
+ * generated class with the cloned trees.
+ */
+public class ExpressionCompiler {
+
+    private static final Logger log = Logger.getLogger(ExpressionCompiler.class);
+    private static final String PACKAGE = "org/wso2/siddhi/core/util/compiler/generated/";
+    private static final String EXPRESSION_EXECUTOR_DESCRIPTOR = "Lorg/wso2/siddhi/core/executor/ExpressionExecutor;";
+    private static final String COMPLEX_EVENT_DESCRIPTOR = "Lorg/wso2/siddhi/core/event/ComplexEvent;";
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+    private static final MethodVisitor NO_OP_METHOD_VISITOR = new MethodVisitor(Opcodes.ASM5) {
+    };
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compile a condition.
+     *
+     * @param conditionExecutor executor tree of the condition, with the positions of its variables updated
+     * @param queryName         name of the query the condition belongs to
+     * @return compiled condition, or null if the condition could not be compiled
+     */
+    public static CompiledConditionExpressionExecutor compileCondition(ExpressionExecutor conditionExecutor,
+                                                                       String queryName) {
+        String className = PACKAGE + "CompiledCondition" + CLASS_COUNTER.incrementAndGet();
+        try {
+            ClassWriter classWriter = createClassWriter(className,
+                    Type.getInternalName(CompiledConditionExpressionExecutor.class),
+                    "(" + EXPRESSION_EXECUTOR_DESCRIPTOR + "[" + EXPRESSION_EXECUTOR_DESCRIPTOR + ")V");
+            MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "executeBoolean",
+                    "(" + COMPLEX_EVENT_DESCRIPTOR + ")Z", null, null);
+            methodVisitor.visitCode();
+            new ExpressionCodeGenerator(methodVisitor, className, new ArrayList<ExpressionExecutor>())
+                    .generateCondition(conditionExecutor);
+            methodVisitor.visitMaxs(0, 0);
+            methodVisitor.visitEnd();
+            classWriter.visitEnd();
+            return instantiateCondition(defineClass(className, classWriter.toByteArray()), conditionExecutor);
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("Could not compile condition of query '" + queryName + "', hence it will be interpreted: " +
+                    e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Compile a select list.
+     *
+     * @param attributeProcessorList attribute processors of the select list, with the positions of their variables
+     *                               updated
+     * @param queryName              name of the query the select list belongs to
+     * @return compiled processor of the select list, or null if the select list could not be compiled
+     */
+    public static CompiledAttributeProcessor compileAttributeProcessors(List<AttributeProcessor>
+                                                                               attributeProcessorList,
+                                                                       String queryName) {
+        String className = PACKAGE + "CompiledAttributeProcessor" + CLASS_COUNTER.incrementAndGet();
+        try {
+            ClassWriter classWriter = createClassWriter(className,
+                    Type.getInternalName(CompiledAttributeProcessor.class),
+                    "(Ljava/util/List;[" + EXPRESSION_EXECUTOR_DESCRIPTOR + ")V");
+            MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "process",
+                    "(" + COMPLEX_EVENT_DESCRIPTOR + ")V", null, null);
+            methodVisitor.visitCode();
+            new ExpressionCodeGenerator(methodVisitor, className, new ArrayList<ExpressionExecutor>())
+                    .generateAttributeProcessors(attributeProcessorList);
+            methodVisitor.visitMaxs(0, 0);
+            methodVisitor.visitEnd();
+            classWriter.visitEnd();
+            return instantiateAttributeProcessor(defineClass(className, classWriter.toByteArray()),
+                    attributeProcessorList);
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("Could not compile select list of query '" + queryName + "', hence it will be interpreted: " +
+                    e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Instantiate a compiled condition class for an executor tree of the same structure as the one it was compiled
+     * from.
+     *
+     * @param compiledClass     generated condition class
+     * @param conditionExecutor executor tree of the condition
+     * @return compiled condition
+     */
+    public static CompiledConditionExpressionExecutor instantiateCondition(Class<?> compiledClass,
+                                                                           ExpressionExecutor conditionExecutor) {
+        List<ExpressionExecutor> executors = new ArrayList<ExpressionExecutor>();
+        new ExpressionCodeGenerator(NO_OP_METHOD_VISITOR, null, executors).generateCondition(conditionExecutor);
+        try {
+            return (CompiledConditionExpressionExecutor) compiledClass.getConstructor(ExpressionExecutor.class,
+                    ExpressionExecutor[].class).newInstance(conditionExecutor,
+                    executors.toArray(new ExpressionExecutor[executors.size()]));
+        } catch (ReflectiveOperationException e) {
+            throw new SiddhiAppRuntimeException("Error instantiating compiled condition " +
+                    compiledClass.getName(), e);
+        }
+    }
+
+    /**
+     * Instantiate a compiled select list class for attribute processors of the same structure as the ones it was
+     * compiled from.
+     *
+     * @param compiledClass          generated select list class
+     * @param attributeProcessorList attribute processors of the select list
+     * @return compiled processor of the select list
+     */
+    public static CompiledAttributeProcessor instantiateAttributeProcessor(Class<?> compiledClass,
+                                                                           List<AttributeProcessor>
+                                                                                   attributeProcessorList) {
+        List<ExpressionExecutor> executors = new ArrayList<ExpressionExecutor>();
+        new ExpressionCodeGenerator(NO_OP_METHOD_VISITOR, null, executors)
+                .generateAttributeProcessors(attributeProcessorList);
+        try {
+            return (CompiledAttributeProcessor) compiledClass.getConstructor(List.class, ExpressionExecutor[].class)
+                    .newInstance(attributeProcessorList, executors.toArray(new ExpressionExecutor[executors.size()]));
+        } catch (ReflectiveOperationException e) {
+            throw new SiddhiAppRuntimeException("Error instantiating compiled select list " +
+                    compiledClass.getName(), e);
+        }
+    }
+
+    private static ClassWriter createClassWriter(String className, String superName, String constructorDescriptor) {
+        ClassWriter classWriter = new CompilerClassWriter();
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+                superName, null);
+        MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", constructorDescriptor,
+                null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitVarInsn(Opcodes.ALOAD, 2);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", constructorDescriptor, false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        return classWriter;
+    }
+
+    private static Class<?> defineClass(String className, byte[] bytes) {
+        return new CompilerClassLoader().defineClass(className.replace('/', '.'), bytes);
+    }
+
+    /**
+     * Class loader of a generated class, each generated class has its own loader so that it can be unloaded with
+     * the Siddhi app it belongs to.
+     */
+    private static class CompilerClassLoader extends ClassLoader {
+
+        private CompilerClassLoader() {
+            super(ExpressionCompiler.class.getClassLoader());
+        }
+
+        private Class<?> defineClass(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Class writer computing stack map frames with the classes visible to Siddhi core, rather than to ASM.
+     */
+    private static class CompilerClassWriter extends ClassWriter {
+
+        private CompilerClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES);
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            ClassLoader classLoader = ExpressionCompiler.class.getClassLoader();
+            Class<?> class1;
+            Class<?> class2;
+            try {
+                class1 = Class.forName(type1.replace('/', '.'), false, classLoader);
+                class2 = Class.forName(type2.replace('/', '.'), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new SiddhiAppRuntimeException("Error resolving classes of compiled expression", e);
+            }
+            if (class1.isAssignableFrom(class2)) {
+                return type1;
+            }
+            if (class2.isAssignableFrom(class1)) {
+                return type2;
+            }
+            if (class1.isInterface() || class2.isInterface()) {
+                return "java/lang/Object";
+            }
+            do {
+                class1 = class1.getSuperclass();
+            } while (!class1.isAssignableFrom(class2));
+            return Type.getInternalName(class1);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.wso2.siddhi.core.util.lock;
 
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -38,6 +39,11 @@ public class LockWrapper {
      */
     private ReentrantLock lock;
 
+    /**
+     * Executor of the only thread processing the events guarded by this wrapper, when it is confined to a thread.
+     */
+    private volatile Executor confiningExecutor;
+
     /**
      * Construct an empty LockWrapper object with no lock inside.
      *
@@ -68,6 +74,27 @@ public class LockWrapper {
         this.lock = lock;
     }
 
+    /**
+     * Confine the events guarded by this wrapper to the thread of the given executor, dropping the internal lock.
+     * Components running on other threads, such as schedulers, hand over their work to the executor instead of
+     * acquiring the lock.
+     *
+     * @param confiningExecutor executor of the only thread processing the guarded events
+     */
+    public void confineTo(Executor confiningExecutor) {
+        this.lock = null;
+        this.confiningExecutor = confiningExecutor;
+    }
+
+    /**
+     * Return the executor of the thread the guarded events are confined to.
+     *
+     * @return the executor, or null if the events are guarded by the internal lock
+     */
+    public Executor getConfiningExecutor() {
+        return confiningExecutor;
+    }
+
     /**
      * Acquires the lock.
      */
@@ -162,15 +162,17 @@ public class AggregationParser {
             List<VariableExpressionExecutor> processVariableExpressionExecutors = new ArrayList<>();
             boolean groupBy = aggregationDefinition.getSelector().getGroupByList().size() != 0;
 
+            // Values are aggregated per group by key in separate clones of the base incremental value store,
+            // hence the aggregators need not be grouped by key themselves
             List<ExpressionExecutor> processExpressionExecutors = constructProcessExpressionExecutors(
                     siddhiAppContext, tableMap, aggregatorName, baseAggregatorBeginIndex,
                     finalBaseAggregators, incomingOutputStreamDefinition, processedMetaStreamEvent,
-                    processVariableExpressionExecutors, groupBy);
+                    processVariableExpressionExecutors);
 
             outputExpressionExecutors.addAll(outputExpressions.stream().map(expression -> ExpressionParser.
                     parseExpression(expression, processedMetaStreamEvent, 0, tableMap,
                             processVariableExpressionExecutors, siddhiAppContext,
-                            groupBy, 0, aggregatorName)).collect(Collectors.toList()));
+                            false, 0, aggregatorName)).collect(Collectors.toList()));
 
             // Create group by key generator
             GroupByKeyGenerator groupByKeyGenerator = null;
@@ -335,14 +337,14 @@ public class AggregationParser {
             List<Expression> finalBaseAggregators,
             StreamDefinition incomingOutputStreamDefinition,
             MetaStreamEvent processedMetaStreamEvent,
-            List<VariableExpressionExecutor> processVariableExpressionExecutors, boolean groupBy) {
+            List<VariableExpressionExecutor> processVariableExpressionExecutors) {
         List<ExpressionExecutor> processExpressionExecutors = new ArrayList<>();
         List<Attribute> attributeList = incomingOutputStreamDefinition.getAttributeList();
         for (int i = 0; i < baseAggregatorBeginIndex; i++) {
             Attribute attribute = attributeList.get(i);
             VariableExpressionExecutor variableExpressionExecutor = (VariableExpressionExecutor) ExpressionParser
                     .parseExpression(new Variable(attribute.getName()), processedMetaStreamEvent, 0,
-                            tableMap, processVariableExpressionExecutors, siddhiAppContext, groupBy,
+                            tableMap, processVariableExpressionExecutors, siddhiAppContext, false,
                             0, aggregatorName);
             processExpressionExecutors.add(variableExpressionExecutor);
         }
@@ -350,7 +352,7 @@ public class AggregationParser {
         for (Expression expression : finalBaseAggregators) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     processedMetaStreamEvent, 0, tableMap, processVariableExpressionExecutors,
-                    siddhiAppContext, groupBy, 0, aggregatorName);
+                    siddhiAppContext, false, 0, aggregatorName);
             processExpressionExecutors.add(expressionExecutor);
         }
         return processExpressionExecutors;
@@ -24,8 +24,11 @@ import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.table.holder.IndexReferenceHolder;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.collection.executor.AndCompoundIndexCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.AnyAndCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
@@ -37,6 +40,7 @@ import org.wso2.siddhi.core.util.collection.executor.NonCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.NotCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.OrCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AndCollectionExpression;
+import org.wso2.siddhi.core.util.collection.expression.AndCompoundIndexCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.AndMultiPrimaryKeyCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.BasicCollectionExpression;
@@ -64,6 +68,7 @@ import org.wso2.siddhi.query.api.expression.math.Multiply;
 import org.wso2.siddhi.query.api.expression.math.Subtract;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -117,6 +122,11 @@ public class CollectionExpressionParser {
                                                                           MatchingMetaInfoHolder matchingMetaInfoHolder,
                                                                           IndexedEventHolder indexedEventHolder) {
         if (expression instanceof And) {
+            CollectionExpression compoundIndexCollectionExpression = parseCompoundIndexCollectionExpression(
+                    (And) expression, matchingMetaInfoHolder, indexedEventHolder);
+            if (compoundIndexCollectionExpression != null) {
+                return compoundIndexCollectionExpression;
+            }
 
             CollectionExpression leftCollectionExpression = parseInternalCollectionExpression(((And) expression)
                     .getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
@@ -217,6 +227,10 @@ public class CollectionExpressionParser {
                     leftCollectionExpression.getCollectionScope() == PRIMARY_KEY_ATTRIBUTE ||
                     leftCollectionExpression.getCollectionScope() == PARTIAL_PRIMARY_KEY_ATTRIBUTE) &&
                     rightCollectionExpression.getCollectionScope() == NON) {
+                if (isHashIndexedRange(leftCollectionExpression, ((Compare) expression).getOperator(),
+                        indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (leftCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -255,6 +269,9 @@ public class CollectionExpressionParser {
                     case NOT_EQUAL:
                         break;
                 }
+                if (isHashIndexedRange(rightCollectionExpression, operator, indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (rightCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -379,6 +396,97 @@ public class CollectionExpressionParser {
     }
 
 
+    /**
+     * Match an And expression with a compound index, when it compares each of the index attributes, and only them,
+     * for equality with values not depending on the table, unless it already matches the whole primary key.
+     *
+     * @return the compound index collection expression, or null when the expression does not match a compound index
+     */
+    private static CollectionExpression parseCompoundIndexCollectionExpression(
+            And expression, MatchingMetaInfoHolder matchingMetaInfoHolder, IndexedEventHolder indexedEventHolder) {
+        IndexReferenceHolder[] indexReferenceHolders = indexedEventHolder.getIndexReferenceHolders();
+        if (indexReferenceHolders == null) {
+            return null;
+        }
+        Map<String, Expression> valueExpressions = new HashMap<String, Expression>();
+        if (!collectEqualityValueExpressions(expression, matchingMetaInfoHolder, indexedEventHolder,
+                valueExpressions)) {
+            return null;
+        }
+        if (indexedEventHolder.getPrimaryKeyReferenceHolders() != null) {
+            boolean isPrimaryKeyMatched = true;
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder :
+                    indexedEventHolder.getPrimaryKeyReferenceHolders()) {
+                if (!valueExpressions.containsKey(primaryKeyReferenceHolder.getPrimaryKeyAttribute())) {
+                    isPrimaryKeyMatched = false;
+                    break;
+                }
+            }
+            if (isPrimaryKeyMatched) {
+                return null;
+            }
+        }
+        for (IndexReferenceHolder indexReferenceHolder : indexReferenceHolders) {
+            if (indexReferenceHolder.isCompound() && valueExpressions.keySet().equals(
+                    new HashSet<String>(Arrays.asList(indexReferenceHolder.getIndexAttributes())))) {
+                List<Expression> indexValueExpressions = new ArrayList<Expression>();
+                for (String indexAttribute : indexReferenceHolder.getIndexAttributes()) {
+                    indexValueExpressions.add(valueExpressions.get(indexAttribute));
+                }
+                return new AndCompoundIndexCollectionExpression(expression, INDEXED_RESULT_SET,
+                        indexReferenceHolder.getIndexName(), indexValueExpressions);
+            }
+        }
+        return null;
+    }
+
+    private static boolean collectEqualityValueExpressions(Expression expression,
+                                                           MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                           IndexedEventHolder indexedEventHolder,
+                                                           Map<String, Expression> valueExpressions) {
+        if (expression instanceof And) {
+            return collectEqualityValueExpressions(((And) expression).getLeftExpression(), matchingMetaInfoHolder,
+                    indexedEventHolder, valueExpressions) && collectEqualityValueExpressions(
+                    ((And) expression).getRightExpression(), matchingMetaInfoHolder, indexedEventHolder,
+                    valueExpressions);
+        } else if (expression instanceof Compare
+                && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression leftExpression = ((Compare) expression).getLeftExpression();
+            Expression rightExpression = ((Compare) expression).getRightExpression();
+            if (leftExpression instanceof Variable
+                    && isCollectionVariable(matchingMetaInfoHolder, (Variable) leftExpression)
+                    && parseInternalCollectionExpression(rightExpression, matchingMetaInfoHolder,
+                    indexedEventHolder).getCollectionScope() == NON) {
+                return valueExpressions.put(((Variable) leftExpression).getAttributeName(), rightExpression) == null;
+            } else if (rightExpression instanceof Variable
+                    && isCollectionVariable(matchingMetaInfoHolder, (Variable) rightExpression)
+                    && parseInternalCollectionExpression(leftExpression, matchingMetaInfoHolder,
+                    indexedEventHolder).getCollectionScope() == NON) {
+                return valueExpressions.put(((Variable) rightExpression).getAttributeName(), leftExpression) == null;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the operator compares the attribute by a range its index can not serve
+     */
+    private static boolean isHashIndexedRange(CollectionExpression attributeCollectionExpression,
+                                              Compare.Operator operator, IndexedEventHolder indexedEventHolder) {
+        if (operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL
+                || attributeCollectionExpression.getCollectionScope() != INDEXED_ATTRIBUTE
+                || indexedEventHolder.getIndexReferenceHolders() == null) {
+            return false;
+        }
+        String attribute = ((AttributeCollectionExpression) attributeCollectionExpression).getAttribute();
+        for (IndexReferenceHolder indexReferenceHolder : indexedEventHolder.getIndexReferenceHolders()) {
+            if (indexReferenceHolder.getIndexName().equals(attribute)) {
+                return indexReferenceHolder.getIndexType() == IndexReferenceHolder.Type.HASH;
+            }
+        }
+        return false;
+    }
+
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
             MetaStreamEvent collectionStreamEvent = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvent
@@ -461,6 +569,16 @@ public class CollectionExpressionParser {
                 }
             }
             return new AndMultiPrimaryKeyCollectionExecutor(compositePrimaryKey.toString(), sortedExecutors);
+        } else if (collectionExpression instanceof AndCompoundIndexCollectionExpression) {
+            List<ExpressionExecutor> indexValueExpressionExecutors = new ArrayList<ExpressionExecutor>();
+            for (Expression indexValueExpression : ((AndCompoundIndexCollectionExpression) collectionExpression)
+                    .getIndexValueExpressions()) {
+                indexValueExpressionExecutors.add(ExpressionParser.parseExpression(indexValueExpression,
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName));
+            }
+            return new AndCompoundIndexCollectionExecutor(((AndCompoundIndexCollectionExpression)
+                    collectionExpression).getIndexName(), indexValueExpressionExecutors);
         } else if (collectionExpression instanceof AndCollectionExpression) {
             CollectionExpression leftCollectionExpression = ((AndCollectionExpression) collectionExpression)
                     .getLeftCollectionExpression();
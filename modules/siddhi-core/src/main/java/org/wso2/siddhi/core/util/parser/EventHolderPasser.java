@@ -26,6 +26,7 @@ import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.table.holder.EventHolder;
 import org.wso2.siddhi.core.table.holder.IndexEventHolder;
+import org.wso2.siddhi.core.table.holder.IndexReferenceHolder;
 import org.wso2.siddhi.core.table.holder.ListEventHolder;
 import org.wso2.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
@@ -36,7 +37,9 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,26 +52,63 @@ public class EventHolderPasser {
                                     SiddhiAppContext siddhiAppContext) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
-        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = null;
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKey(tableDefinition);
+        IndexReferenceHolder[] indexReferenceHolders = parseIndexes(tableDefinition);
 
-        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        if (primaryKeyReferenceHolders != null || indexReferenceHolders.length > 0) {
+            boolean isNumeric = false;
+            if (primaryKeyReferenceHolders != null) {
+                if (primaryKeyReferenceHolders.length == 1) {
+                    Attribute.Type type = tableDefinition.getAttributeType(
+                            primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
+                    if (type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
+                            type == Attribute.Type.LONG) {
+                        isNumeric = true;
+                    }
+                }
+
+            }
+            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders, isNumeric,
+                    indexReferenceHolders, tableDefinition, siddhiAppContext);
+        } else {
+            return new ListEventHolder(tableStreamEventPool, eventConverter);
+        }
+    }
 
-        // primaryKey.
+    /**
+     * Parse the primary key of a table.
+     *
+     * @param tableDefinition definition of the table
+     * @return references to the primary key attributes, or null when the table has no primary key
+     */
+    public static PrimaryKeyReferenceHolder[] parsePrimaryKey(AbstractDefinition tableDefinition) {
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
                 tableDefinition.getAnnotations());
-        if (primaryKeyAnnotation != null) {
-            if (primaryKeyAnnotation.getElements().size() == 0) {
-                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
-                        "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
-                        tableDefinition.getId() + "'");
-            }
-            primaryKeyReferenceHolders = primaryKeyAnnotation.getElements().stream()
-                    .map(element -> element.getValue().trim())
-                    .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
-                    .toArray(PrimaryKeyReferenceHolder[]::new);
+        if (primaryKeyAnnotation == null) {
+            return null;
+        }
+        if (primaryKeyAnnotation.getElements().size() == 0) {
+            throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
+                    "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
+                    tableDefinition.getId() + "'");
         }
+        return primaryKeyAnnotation.getElements().stream()
+                .map(element -> element.getValue().trim())
+                .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
+                .toArray(PrimaryKeyReferenceHolder[]::new);
+    }
 
-        // indexes.
+    /**
+     * Parse the indexes of a table. Each attribute listed by {@code @Index} is indexed on its own, while the
+     * comma separated attributes of an {@code attributes} element are indexed together as a compound index. The
+     * {@code type} element selects between hash and sorted indexes, where single attribute indexes are sorted and
+     * compound indexes are hashed by default.
+     *
+     * @param tableDefinition definition of the table
+     * @return references to the indexes of the table, empty when the table has no indexes
+     */
+    public static IndexReferenceHolder[] parseIndexes(AbstractDefinition tableDefinition) {
+        Map<String, IndexReferenceHolder> indexReferenceHolders = new LinkedHashMap<String, IndexReferenceHolder>();
         Annotation indexAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX,
                 tableDefinition.getAnnotations());
         if (indexAnnotation != null) {
@@ -76,13 +116,46 @@ public class EventHolderPasser {
                 throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains "
                         + indexAnnotation.getElements().size() + " element");
             }
+            IndexReferenceHolder.Type indexType = null;
+            List<String[]> indexes = new ArrayList<String[]>();
             for (Element element : indexAnnotation.getElements()) {
-                Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
-                        .getAttributePosition(element.getValue().trim()));
+                if (element.getKey() == null) {
+                    indexes.add(new String[]{element.getValue().trim()});
+                } else if (element.getKey().equalsIgnoreCase(SiddhiConstants.ANNOTATION_ELEMENT_ATTRIBUTES)) {
+                    String[] attributes = element.getValue().split(",");
+                    for (int i = 0; i < attributes.length; i++) {
+                        attributes[i] = attributes[i].trim();
+                    }
+                    indexes.add(attributes);
+                } else if (element.getKey().equalsIgnoreCase(SiddhiConstants.ANNOTATION_ELEMENT_TYPE)) {
+                    indexType = parseIndexType(element, indexAnnotation, tableDefinition);
+                } else {
+                    throw new SiddhiAppCreationException("Unknown element '" + element.getKey() + "' in " +
+                            SiddhiConstants.ANNOTATION_INDEX + " annotation, at '" + tableDefinition.getId() + "'",
+                            indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
+                }
+            }
+            for (String[] attributes : indexes) {
+                IndexReferenceHolder.Type type = indexType;
+                if (type == null) {
+                    type = attributes.length == 1 ? IndexReferenceHolder.Type.SORTED : IndexReferenceHolder.Type.HASH;
+                } else if (type == IndexReferenceHolder.Type.SORTED && attributes.length > 1) {
+                    throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_INDEX + " annotation only " +
+                            "supports " + SiddhiConstants.INDEX_TYPE_HASH + " indexes on multiple attributes, at '" +
+                            tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                            indexAnnotation.getQueryContextEndIndex());
+                }
+                int[] positions = new int[attributes.length];
+                for (int i = 0; i < attributes.length; i++) {
+                    positions[i] = tableDefinition.getAttributePosition(attributes[i]);
+                }
+                IndexReferenceHolder indexReferenceHolder = new IndexReferenceHolder(attributes, positions, type);
+                IndexReferenceHolder previousValue = indexReferenceHolders.put(indexReferenceHolder.getIndexName(),
+                        indexReferenceHolder);
                 if (previousValue != null) {
                     throw new SiddhiAppCreationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
-                            "annotations defined with same attribute '" + element.getValue().trim() + "', at '" +
-                            tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                            "annotations defined with same attribute '" + String.join(", ", attributes) +
+                            "', at '" + tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
                             indexAnnotation.getQueryContextEndIndex());
                 }
             }
@@ -96,26 +169,60 @@ public class EventHolderPasser {
                     "supported anymore, please use @PrimaryKey or @Index annotations instead," +
                     " at '" + tableDefinition.getId() + "'");
         }
+        return indexReferenceHolders.values().toArray(new IndexReferenceHolder[indexReferenceHolders.size()]);
+    }
 
-        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
-            boolean isNumeric = false;
-            if (primaryKeyReferenceHolders != null) {
-                if (primaryKeyReferenceHolders.length == 1) {
-                    Attribute.Type type = tableDefinition.getAttributeType(
-                            primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
-                    if (type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
-                            type == Attribute.Type.LONG) {
-                        isNumeric = true;
-                    }
-                }
-
-            }
-            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                    indexMetaData, tableDefinition, siddhiAppContext);
-        } else {
-            return new ListEventHolder(tableStreamEventPool, eventConverter);
+    private static IndexReferenceHolder.Type parseIndexType(Element element, Annotation indexAnnotation,
+                                                            AbstractDefinition tableDefinition) {
+        String type = element.getValue().trim();
+        if (type.equalsIgnoreCase(SiddhiConstants.INDEX_TYPE_HASH)) {
+            return IndexReferenceHolder.Type.HASH;
+        } else if (type.equalsIgnoreCase(SiddhiConstants.INDEX_TYPE_SORTED)) {
+            return IndexReferenceHolder.Type.SORTED;
         }
+        throw new SiddhiAppCreationException("Unknown index type '" + type + "' in " +
+                SiddhiConstants.ANNOTATION_INDEX + " annotation, expected '" + SiddhiConstants.INDEX_TYPE_HASH +
+                "' or '" + SiddhiConstants.INDEX_TYPE_SORTED + "', at '" + tableDefinition.getId() + "'",
+                indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
     }
 
+    /**
+     * Parse the number of stripes an in-memory table is partitioned into by its primary key, so that events of
+     * different stripes can be accessed concurrently.
+     *
+     * @param tableDefinition definition of the table
+     * @return stripe count defined by the @Concurrent annotation, or 1 when the table is not concurrent
+     */
+    public static int parseStripeCount(AbstractDefinition tableDefinition) {
+        Annotation concurrentAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENT,
+                tableDefinition.getAnnotations());
+        if (concurrentAnnotation == null) {
+            return 1;
+        }
+        if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
+                tableDefinition.getAnnotations()) == null) {
+            throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_CONCURRENT + " annotation requires a " +
+                    SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation to stripe the events by, at '" +
+                    tableDefinition.getId() + "'", concurrentAnnotation.getQueryContextStartIndex(),
+                    concurrentAnnotation.getQueryContextEndIndex());
+        }
+        return QueryParser.getPositiveInt(concurrentAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_STRIPES,
+                SiddhiConstants.DEFAULT_CONCURRENT_TABLE_STRIPES, "table '" + tableDefinition.getId() + "'");
+    }
 
+    /**
+     * Parse the size of the direct memory segments an off-heap table stores its events in.
+     *
+     * @param tableDefinition definition of the table
+     * @return segment size in bytes defined by the @store annotation, or the default segment size
+     */
+    public static int parseSegmentSize(AbstractDefinition tableDefinition) {
+        Annotation storeAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STORE,
+                tableDefinition.getAnnotations());
+        if (storeAnnotation == null) {
+            return SiddhiConstants.DEFAULT_OFF_HEAP_TABLE_SEGMENT_SIZE;
+        }
+        return QueryParser.getPositiveInt(storeAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_SEGMENT_SIZE,
+                SiddhiConstants.DEFAULT_OFF_HEAP_TABLE_SEGMENT_SIZE, "table '" + tableDefinition.getId() + "'");
+    }
 }
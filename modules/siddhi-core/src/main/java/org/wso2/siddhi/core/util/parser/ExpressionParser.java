@@ -438,7 +438,8 @@ public class ExpressionParser {
                     AbstractAggregationAttributeExecutor aggregationAttributeProcessor;
                     if (groupBy) {
                         aggregationAttributeProcessor = new GroupByAggregationAttributeExecutor(attributeAggregator,
-                                innerExpressionExecutors, configReader, siddhiAppContext, queryName);
+                                innerExpressionExecutors, configReader, siddhiAppContext, queryName,
+                                SelectorParser.getGroupByAggregationStateThreadLocal().get());
                     } else {
                         aggregationAttributeProcessor = new AggregationAttributeExecutor(attributeAggregator,
                                 innerExpressionExecutors, siddhiAppContext, queryName);
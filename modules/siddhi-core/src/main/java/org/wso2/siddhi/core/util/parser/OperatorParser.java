@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.util.parser;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
@@ -26,6 +27,7 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.util.collection.HashIndexedEventChunk;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AndMultiPrimaryKeyCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpression;
@@ -33,14 +35,18 @@ import org.wso2.siddhi.core.util.collection.expression.CollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CompareCollectionExpression;
 import org.wso2.siddhi.core.util.collection.operator.CollectionOperator;
 import org.wso2.siddhi.core.util.collection.operator.EventChunkOperator;
+import org.wso2.siddhi.core.util.collection.operator.HashIndexedEventChunkOperator;
 import org.wso2.siddhi.core.util.collection.operator.IndexOperator;
 import org.wso2.siddhi.core.util.collection.operator.MapOperator;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -55,6 +61,8 @@ import static org.wso2.siddhi.core.util.collection.expression.CollectionExpressi
  */
 public class OperatorParser {
 
+    private static final Logger log = Logger.getLogger(OperatorParser.class);
+
     public static Operator constructOperator(Object storeEvents, Expression expression,
                                              MatchingMetaInfoHolder matchingMetaInfoHolder,
                                              SiddhiAppContext siddhiAppContext,
@@ -66,6 +74,10 @@ public class OperatorParser {
             CollectionExecutor collectionExecutor = CollectionExpressionParser.buildCollectionExecutor(
                     collectionExpression, matchingMetaInfoHolder, variableExpressionExecutors, tableMap,
                     siddhiAppContext, true, queryName);
+            if (log.isDebugEnabled()) {
+                log.debug("Condition '" + expression + "' of query '" + queryName + "' is matched by " +
+                        collectionExecutor);
+            }
             if (collectionExpression instanceof CompareCollectionExpression &&
                     ((CompareCollectionExpression) collectionExpression).getOperator() == Compare.Operator.EQUAL &&
                     (collectionExpression.getCollectionScope() == INDEXED_RESULT_SET ||
@@ -87,6 +99,40 @@ public class OperatorParser {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
                     variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            Compare equiJoinCompare = null;
+            if (storeEvents instanceof HashIndexedEventChunk) {
+                equiJoinCompare = findEquiJoinCompare(matchingMetaInfoHolder, expression);
+            }
+            if (equiJoinCompare != null) {
+                Expression storeVariable = equiJoinCompare.getLeftExpression();
+                Expression matchingExpression = equiJoinCompare.getRightExpression();
+                if (!isStoreVariable(matchingMetaInfoHolder, storeVariable)) {
+                    storeVariable = equiJoinCompare.getRightExpression();
+                    matchingExpression = equiJoinCompare.getLeftExpression();
+                }
+                ExpressionExecutor storeVariableExecutor = ExpressionParser.parseExpression(storeVariable,
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                ExpressionExecutor matchingValueExecutor = ExpressionParser.parseExpression(matchingExpression,
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                // hash lookups need both sides to be of the same type, and floating point values are not hashed as
+                // they are compared
+                Attribute.Type type = storeVariableExecutor.getReturnType();
+                if (storeVariableExecutor instanceof VariableExpressionExecutor &&
+                        type == matchingValueExecutor.getReturnType() &&
+                        type != Attribute.Type.FLOAT && type != Attribute.Type.DOUBLE &&
+                        type != Attribute.Type.OBJECT) {
+                    Operator operator = new HashIndexedEventChunkOperator(expressionExecutor,
+                            matchingMetaInfoHolder.getStoreEventIndex(),
+                            (VariableExpressionExecutor) storeVariableExecutor, matchingValueExecutor);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Condition '" + expression + "' of query '" + queryName + "' is matched by " +
+                                operator);
+                    }
+                    return operator;
+                }
+            }
             return new EventChunkOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof Map) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
@@ -103,6 +149,45 @@ public class OperatorParser {
         }
     }
 
+    /**
+     * Find an equality between an attribute of the store events and a constant or an attribute of the matching
+     * events, which all the events matching the expression must satisfy.
+     *
+     * @param matchingMetaInfoHolder meta information of the matching and the store events
+     * @param expression             matching expression
+     * @return the equality, or null if the expression does not have one
+     */
+    private static Compare findEquiJoinCompare(MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                               Expression expression) {
+        if (expression instanceof And) {
+            Compare compare = findEquiJoinCompare(matchingMetaInfoHolder, ((And) expression).getLeftExpression());
+            if (compare == null) {
+                compare = findEquiJoinCompare(matchingMetaInfoHolder, ((And) expression).getRightExpression());
+            }
+            return compare;
+        } else if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression leftExpression = ((Compare) expression).getLeftExpression();
+            Expression rightExpression = ((Compare) expression).getRightExpression();
+            if ((isStoreVariable(matchingMetaInfoHolder, leftExpression) &&
+                    isMatchingValue(matchingMetaInfoHolder, rightExpression)) ||
+                    (isStoreVariable(matchingMetaInfoHolder, rightExpression) &&
+                            isMatchingValue(matchingMetaInfoHolder, leftExpression))) {
+                return (Compare) expression;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStoreVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        return expression instanceof Variable && isTableIndexVariable(matchingMetaInfoHolder, expression,
+                ((Variable) expression).getAttributeName());
+    }
+
+    private static boolean isMatchingValue(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        return expression instanceof Constant || (expression instanceof Variable &&
+                ((Variable) expression).getStreamId() != null && !isStoreVariable(matchingMetaInfoHolder, expression));
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression,
                                                 String indexAttribute) {
         if (expression instanceof Variable) {
@@ -24,14 +24,18 @@ import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
+import org.wso2.siddhi.core.partition.PartitionWorkerPool;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.execution.partition.Partition;
 import org.wso2.siddhi.query.api.execution.partition.PartitionType;
 import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -51,7 +55,28 @@ public class PartitionParser {
         PartitionRuntime partitionRuntime = new PartitionRuntime(siddhiAppRuntimeBuilder.getStreamDefinitionMap(),
                 siddhiAppRuntimeBuilder.getStreamJunctions(), partition, siddhiAppContext);
         validateStreamPartitions(partition.getPartitionTypeMap(), streamDefinitionMap);
+        Annotation partitionParallelAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL,
+                partition.getAnnotations());
+        if (partitionParallelAnnotation != null) {
+            String partitionOwner = "partition '" + partitionRuntime.getPartitionId() + "'";
+            PartitionWorkerPool partitionWorkerPool = new PartitionWorkerPool(partitionRuntime.getPartitionId(),
+                    QueryParser.getPositiveInt(partitionParallelAnnotation,
+                            SiddhiConstants.ANNOTATION_ELEMENT_WORKERS, Runtime.getRuntime().availableProcessors(),
+                            partitionOwner),
+                    QueryParser.getPositiveInt(partitionParallelAnnotation,
+                            SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE, SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE,
+                            partitionOwner),
+                    siddhiAppContext);
+            partitionRuntime.setPartitionWorkerPool(partitionWorkerPool);
+            siddhiAppContext.addEternalReferencedHolder(partitionWorkerPool);
+        }
         for (Query query : partition.getQueryList()) {
+            Annotation parallelAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL,
+                    query.getAnnotations());
+            if (parallelAnnotation != null) {
+                throw new SiddhiAppCreationException("@Parallel is not supported for queries within a partition",
+                        parallelAnnotation.getQueryContextStartIndex(), parallelAnnotation.getQueryContextEndIndex());
+            }
             List<VariableExpressionExecutor> executors = new ArrayList<VariableExpressionExecutor>();
             ConcurrentMap<String, AbstractDefinition> combinedStreamMap =
                     new ConcurrentHashMap<String, AbstractDefinition>();
@@ -24,8 +24,11 @@ import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.state.populater.StateEventPopulatorFactory;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent.EventType;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.query.input.ParallelQueryExecutor;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
@@ -41,6 +44,7 @@ import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.window.Window;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateDefinitionException;
@@ -49,6 +53,7 @@ import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
 import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.OutputStream;
+import org.wso2.siddhi.query.api.expression.Variable;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.ArrayList;
@@ -115,6 +120,17 @@ public class QueryParser {
             QuerySelector selector = SelectorParser.parse(query.getSelector(), query.getOutputStream(),
                     siddhiAppContext, streamRuntime.getMetaComplexEvent(), tableMap, executors, queryName,
                     SiddhiConstants.UNKNOWN_STATE);
+            Annotation parallelAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL,
+                    query.getAnnotations());
+            ExpressionExecutor parallelKeyExecutor = null;
+            if (parallelAnnotation != null) {
+                String key = parallelAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_KEY);
+                if (key != null && streamRuntime instanceof SingleStreamRuntime) {
+                    parallelKeyExecutor = ExpressionParser.parseExpression(new Variable(key.trim()),
+                            streamRuntime.getMetaComplexEvent(), SiddhiConstants.UNKNOWN_STATE, tableMap, executors,
+                            siddhiAppContext, false, 0, queryName);
+                }
+            }
             boolean isWindow = query.getInputStream() instanceof JoinInputStream;
             if (!isWindow && query.getInputStream() instanceof SingleInputStream) {
                 for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
@@ -179,6 +195,9 @@ public class QueryParser {
                     } else {
                         lockWrapper = new LockWrapper("");
                         lockWrapper.setLock(new ReentrantLock());
+                        if (streamRuntime instanceof SingleStreamRuntime) {
+                            ((SingleStreamRuntime) streamRuntime).getProcessStreamReceiver().setConfinable(true);
+                        }
                     }
                 }
             }
@@ -202,8 +221,18 @@ public class QueryParser {
                     queryName);
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime
                     .getMetaComplexEvent()));
+            if (siddhiAppContext.isCompileExpressions()) {
+                QueryParserHelper.compileExpressions(streamRuntime, selector, queryName);
+            }
+            if (siddhiAppContext.isVectorizeConditions()) {
+                QueryParserHelper.vectorizeConditions(streamRuntime, selector);
+            }
             queryRuntime = new QueryRuntime(query, siddhiAppContext, streamRuntime, selector, outputRateLimiter,
                     outputCallback, streamRuntime.getMetaComplexEvent(), lockWrapper != null, queryName);
+            if (streamRuntime instanceof SingleStreamRuntime) {
+                ((SingleStreamRuntime) streamRuntime).getProcessStreamReceiver().setStateless(
+                        QueryParserHelper.isStateless(streamRuntime, selector, outputRateLimiter, lockWrapper));
+            }
 
             if (outputRateLimiter instanceof WrappedSnapshotOutputRateLimiter) {
                 selector.setBatchingEnabled(false);
@@ -212,6 +241,25 @@ public class QueryParser {
                                 selector.getAttributeProcessorList(), streamRuntime.getMetaComplexEvent());
             }
             outputRateLimiter.init(siddhiAppContext, lockWrapper, queryName);
+            if (parallelAnnotation != null) {
+                if (!QueryParserHelper.isStateless(streamRuntime, selector, outputRateLimiter, lockWrapper)) {
+                    throw new SiddhiAppCreationException("@Parallel is only supported for queries consuming a " +
+                            "single stream without windows, aggregations, output rate limiting or " +
+                            "synchronization, but query '" + queryName + "' does not satisfy them",
+                            parallelAnnotation.getQueryContextStartIndex(),
+                            parallelAnnotation.getQueryContextEndIndex());
+                }
+                ParallelQueryExecutor parallelQueryExecutor = new ParallelQueryExecutor(queryName,
+                        getPositiveInt(parallelAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_WORKERS,
+                                Runtime.getRuntime().availableProcessors(), "query '" + queryName + "'"),
+                        getPositiveInt(parallelAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE,
+                                SiddhiConstants.DEFAULT_PARALLEL_BUFFER_SIZE, "query '" + queryName + "'"),
+                        parallelKeyExecutor, (SingleStreamRuntime) streamRuntime, selector, outputRateLimiter,
+                        streamRuntime.getMetaComplexEvent(), siddhiAppContext);
+                ((SingleStreamRuntime) streamRuntime).getProcessStreamReceiver().setParallelQueryExecutor(
+                        parallelQueryExecutor);
+                siddhiAppContext.addEternalReferencedHolder(parallelQueryExecutor);
+            }
 
         } catch (DuplicateDefinitionException e) {
             if (nameElement != null) {
@@ -229,5 +277,23 @@ public class QueryParser {
         return queryRuntime;
     }
 
+    static int getPositiveInt(Annotation annotation, String elementName, int defaultValue, String elementOwner) {
+        String value = annotation.getElement(elementName);
+        if (value == null) {
+            return defaultValue;
+        }
+        int intValue;
+        try {
+            intValue = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            intValue = 0;
+        }
+        if (intValue < 1) {
+            throw new SiddhiAppCreationException("Invalid " + elementName + " '" + value + "' in @" +
+                    annotation.getName() + " of " + elementOwner + ", expected a positive integer",
+                    annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
+        }
+        return intValue;
+    }
 
 }
@@ -30,6 +30,7 @@ import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.query.selector.OrderByEventComparator;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationState;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
@@ -51,6 +52,8 @@ import java.util.Map;
  */
 public class SelectorParser {
     private static final ThreadLocal<String> containsAggregatorThreadLocal = new ThreadLocal<String>();
+    private static final ThreadLocal<GroupByAggregationState> groupByAggregationStateThreadLocal =
+            new ThreadLocal<GroupByAggregationState>();
 
     /**
      * Parse Selector portion of a query and return corresponding QuerySelector.
@@ -85,10 +88,23 @@ public class SelectorParser {
         id = outputStream.getId();
         containsAggregatorThreadLocal.remove();
         QuerySelector querySelector = new QuerySelector(id, selector, currentOn, expiredOn, siddhiAppContext);
-        List<AttributeProcessor> attributeProcessors = getAttributeProcessors(selector, id, siddhiAppContext,
-                metaComplexEvent, tableMap, variableExpressionExecutors, outputStream, queryName, metaPosition);
+        GroupByAggregationState groupByAggregationState = null;
+        if (!selector.getGroupByList().isEmpty()) {
+            groupByAggregationState = new GroupByAggregationState(siddhiAppContext.getTimestampGenerator());
+            groupByAggregationStateThreadLocal.set(groupByAggregationState);
+        }
+        List<AttributeProcessor> attributeProcessors;
+        try {
+            attributeProcessors = getAttributeProcessors(selector, id, siddhiAppContext, metaComplexEvent, tableMap,
+                    variableExpressionExecutors, outputStream, queryName, metaPosition);
+        } finally {
+            groupByAggregationStateThreadLocal.remove();
+        }
         querySelector.setAttributeProcessorList(attributeProcessors, "true".equals(containsAggregatorThreadLocal.
                 get()));
+        if (groupByAggregationState != null && "true".equals(containsAggregatorThreadLocal.get())) {
+            querySelector.setGroupByAggregationState(groupByAggregationState);
+        }
         containsAggregatorThreadLocal.remove();
         ConditionExpressionExecutor havingCondition = generateHavingExecutor(selector.getHavingExpression(),
                 metaComplexEvent, siddhiAppContext, tableMap, variableExpressionExecutors, queryName);
@@ -231,4 +247,8 @@ public class SelectorParser {
     public static ThreadLocal<String> getContainsAggregatorThreadLocal() {
         return containsAggregatorThreadLocal;
     }
+
+    public static ThreadLocal<GroupByAggregationState> getGroupByAggregationStateThreadLocal() {
+        return groupByAggregationStateThreadLocal;
+    }
 }
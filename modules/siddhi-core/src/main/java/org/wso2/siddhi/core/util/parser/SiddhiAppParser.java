@@ -24,11 +24,13 @@ import org.wso2.siddhi.core.config.SiddhiContext;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.stream.input.InputJournal;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ExceptionUtil;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
@@ -52,11 +54,14 @@ import org.wso2.siddhi.query.api.util.AnnotationHelper;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import static org.wso2.siddhi.core.util.parser.helper.AnnotationHelper.generateIncludedMetrics;
 
@@ -96,6 +101,18 @@ public class SiddhiAppParser {
                 siddhiAppContext.setEnforceOrder(true);
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setCompileExpressions(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_VECTORIZE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setVectorizeConditions(true);
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
                     siddhiApp.getAnnotations());
             if (annotation != null) {
@@ -152,6 +169,12 @@ public class SiddhiAppParser {
             siddhiAppContext.setScheduledExecutorService(Executors.newScheduledThreadPool(5,
                     new ThreadFactoryBuilder().setNameFormat("Siddhi-" +
                             siddhiAppContext.getName() + "-scheduler-thread-%d").build()));
+            siddhiAppContext.setSnapshotPool(new ForkJoinPool(siddhiContext.getSnapshotParallelism(), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Siddhi-" + siddhiAppContext.getName() + "-snapshot-thread-" + thread.getPoolIndex());
+                return thread;
+            }, null, false));
+            siddhiAppContext.setTimerWheel(new TimerWheel(siddhiContext.getTimerWheelTick(), siddhiAppContext));
 
             // Select the TimestampGenerator based on playback mode on/off
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PLAYBACK,
@@ -204,6 +227,12 @@ public class SiddhiAppParser {
             }
             siddhiAppContext.setSnapshotService(new SnapshotService(siddhiAppContext));
             siddhiAppContext.setPersistenceService(new PersistenceService(siddhiAppContext));
+            if (siddhiContext.getInputJournalLocation() != null) {
+                InputJournal inputJournal = new InputJournal(Paths.get(siddhiContext.getInputJournalLocation(),
+                        siddhiAppContext.getName()), siddhiAppContext);
+                siddhiAppContext.setInputJournal(inputJournal);
+                siddhiAppContext.getSnapshotService().addSnapshotable(InputJournal.ELEMENT_ID, inputJournal);
+            }
             siddhiAppContext.setElementIdGenerator(new ElementIdGenerator(siddhiAppContext.getName()));
 
         } catch (DuplicateAnnotationException e) {
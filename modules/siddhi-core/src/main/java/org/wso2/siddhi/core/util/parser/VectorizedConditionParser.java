@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.parser;
+
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NumericExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.AndVectorizedConditionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.CompareVectorizedConditionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.NotVectorizedConditionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.OrVectorizedConditionExecutor;
+import org.wso2.siddhi.core.executor.condition.vectorized.VectorizedConditionExecutor;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+/**
+ * Class to parse {@link VectorizedConditionExecutor}s from condition executors. Supports And, Or and Not conditions
+ * of numeric compare conditions between attributes and constants, where both operands are integral, both are
+ * floating point, or one is integral and the other is of type DOUBLE. As the compare executors do not evaluate INT or
+ * LONG with FLOAT at a common precision, such comparisons are only vectorized for integral constants that are exactly
+ * representable as float values.
+ */
+public class VectorizedConditionParser {
+
+    /**
+     * Parse a vectorized executor of the condition.
+     *
+     * @param conditionExecutor condition executor
+     * @return vectorized executor producing the same results as the condition executor, or null if the condition
+     * cannot be vectorized
+     */
+    public static VectorizedConditionExecutor parse(ExpressionExecutor conditionExecutor) {
+        if (conditionExecutor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) conditionExecutor;
+            VectorizedConditionExecutor left = parse(andExecutor.getLeftConditionExecutor());
+            VectorizedConditionExecutor right = parse(andExecutor.getRightConditionExecutor());
+            return left == null || right == null ? null : new AndVectorizedConditionExecutor(left, right);
+        } else if (conditionExecutor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) conditionExecutor;
+            VectorizedConditionExecutor left = parse(orExecutor.getLeftConditionExecutor());
+            VectorizedConditionExecutor right = parse(orExecutor.getRightConditionExecutor());
+            return left == null || right == null ? null : new OrVectorizedConditionExecutor(left, right);
+        } else if (conditionExecutor instanceof NotConditionExpressionExecutor) {
+            VectorizedConditionExecutor condition = parse(((NotConditionExpressionExecutor) conditionExecutor)
+                    .getConditionExecutor());
+            return condition == null ? null : new NotVectorizedConditionExecutor(condition);
+        } else if (conditionExecutor instanceof CompareConditionExpressionExecutor) {
+            return parseCompare((CompareConditionExpressionExecutor) conditionExecutor);
+        }
+        return null;
+    }
+
+    private static VectorizedConditionExecutor parseCompare(CompareConditionExpressionExecutor compareExecutor) {
+        Compare.Operator operator = getOperator(compareExecutor);
+        ExpressionExecutor left = compareExecutor.getLeftExpressionExecutor();
+        ExpressionExecutor right = compareExecutor.getRightExpressionExecutor();
+        if (operator == null || !isNumeric(left) || !isNumeric(right)) {
+            return null;
+        }
+        if (!CompareConditionExpressionExecutor.isPrimitiveComparable(left, right)) {
+            return null;
+        }
+        boolean integral = NumericExpressionExecutor.isIntegral(left.getReturnType())
+                && NumericExpressionExecutor.isIntegral(right.getReturnType());
+        if (left instanceof VariableExpressionExecutor) {
+            if (right instanceof VariableExpressionExecutor) {
+                return new CompareVectorizedConditionExecutor((VariableExpressionExecutor) left, operator,
+                        (VariableExpressionExecutor) right, integral);
+            }
+            return new CompareVectorizedConditionExecutor((VariableExpressionExecutor) left, operator,
+                    (Number) ((ConstantExpressionExecutor) right).getValue(), integral);
+        } else if (right instanceof VariableExpressionExecutor) {
+            return new CompareVectorizedConditionExecutor((VariableExpressionExecutor) right, mirror(operator),
+                    (Number) ((ConstantExpressionExecutor) left).getValue(), integral);
+        }
+        return null;
+    }
+
+    private static boolean isNumeric(ExpressionExecutor executor) {
+        if (executor instanceof ConstantExpressionExecutor) {
+            if (((ConstantExpressionExecutor) executor).getValue() == null) {
+                return false;
+            }
+        } else if (!(executor instanceof VariableExpressionExecutor)) {
+            return false;
+        }
+        switch (executor.getReturnType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Compare.Operator getOperator(CompareConditionExpressionExecutor compareExecutor) {
+        if (compareExecutor instanceof LessThanCompareConditionExpressionExecutor) {
+            return Compare.Operator.LESS_THAN;
+        } else if (compareExecutor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return Compare.Operator.GREATER_THAN;
+        } else if (compareExecutor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return Compare.Operator.LESS_THAN_EQUAL;
+        } else if (compareExecutor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return Compare.Operator.GREATER_THAN_EQUAL;
+        } else if (compareExecutor instanceof EqualCompareConditionExpressionExecutor) {
+            return Compare.Operator.EQUAL;
+        } else if (compareExecutor instanceof NotEqualCompareConditionExpressionExecutor) {
+            return Compare.Operator.NOT_EQUAL;
+        }
+        return null;
+    }
+
+    private static Compare.Operator mirror(Compare.Operator operator) {
+        switch (operator) {
+            case LESS_THAN:
+                return Compare.Operator.GREATER_THAN;
+            case GREATER_THAN:
+                return Compare.Operator.LESS_THAN;
+            case LESS_THAN_EQUAL:
+                return Compare.Operator.GREATER_THAN_EQUAL;
+            case GREATER_THAN_EQUAL:
+                return Compare.Operator.LESS_THAN_EQUAL;
+            default:
+                return operator;
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.wso2.siddhi.core.stream.output.sink.distributed.DistributedTransport;
 import org.wso2.siddhi.core.stream.output.sink.distributed.DistributionStrategy;
 import org.wso2.siddhi.core.table.InMemoryTable;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.table.offheap.OffHeapTable;
 import org.wso2.siddhi.core.table.record.RecordTableHandler;
 import org.wso2.siddhi.core.table.record.RecordTableHandlerManager;
 import org.wso2.siddhi.core.trigger.CronTrigger;
@@ -179,6 +180,12 @@ public class DefinitionParserHelper {
             RecordTableHandler recordTableHandler = null;
             if (annotation != null) {
                 annotation = updateAnnotationRef(annotation, SiddhiConstants.NAMESPACE_STORE, siddhiAppContext);
+            }
+            if (annotation != null && SiddhiConstants.STORE_TYPE_OFF_HEAP.equalsIgnoreCase(
+                    annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE))) {
+                // built in, as store extensions are record tables
+                table = new OffHeapTable();
+            } else if (annotation != null) {
                 String tableType = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE);
                 Extension extension = new Extension() {
                     @Override
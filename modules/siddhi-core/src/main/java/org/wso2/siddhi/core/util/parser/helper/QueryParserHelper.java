@@ -30,17 +30,27 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.populater.ComplexEventPopulater;
 import org.wso2.siddhi.core.event.stream.populater.StreamEventPopulaterFactory;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.CompiledConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinProcessor;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
+import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
 import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import org.wso2.siddhi.core.query.processor.stream.LogStreamProcessor;
+import org.wso2.siddhi.core.query.processor.stream.function.StreamFunctionProcessor;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.query.selector.attribute.processor.CompiledAttributeProcessor;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.operator.IncrementalAggregateCompileCondition;
+import org.wso2.siddhi.core.util.compiler.ExpressionCompiler;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
+import org.wso2.siddhi.core.util.parser.VectorizedConditionParser;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
@@ -223,6 +233,85 @@ public class QueryParserHelper {
         }
     }
 
+    /**
+     * Checks whether a query processes each event independently of the others, such that its events can be
+     * processed concurrently and in any order. That holds for single stream queries which are not synchronised,
+     * and which only contain filters, stream functions, and selectors without aggregations or rate limiting.
+     *
+     * @param streamRuntime     stream runtime of the query
+     * @param selector          selector of the query
+     * @param outputRateLimiter output rate limiter of the query
+     * @param lockWrapper       lock of the query, null if the query is not synchronised
+     * @return true if the query is stateless
+     */
+    public static boolean isStateless(StreamRuntime streamRuntime, QuerySelector selector,
+                                      OutputRateLimiter outputRateLimiter, LockWrapper lockWrapper) {
+        if (lockWrapper != null || !(streamRuntime instanceof SingleStreamRuntime) ||
+                selector.containsAggregator() || !(outputRateLimiter instanceof PassThroughOutputRateLimiter)) {
+            return false;
+        }
+        Processor processor = ((SingleStreamRuntime) streamRuntime).getProcessorChain();
+        while (processor != null && processor != selector) {
+            if (!(processor instanceof FilterProcessor || processor instanceof StreamFunctionProcessor ||
+                    processor instanceof LogStreamProcessor)) {
+                return false;
+            }
+            processor = processor.getNextProcessor();
+        }
+        return true;
+    }
+
+    /**
+     * Compile the filter conditions of the stream runtime and the select list of the selector, the positions of the
+     * variables should be updated before compiling them.
+     *
+     * @param streamRuntime stream runtime of the query
+     * @param selector      selector of the query
+     * @param queryName     name of the query
+     */
+    public static void compileExpressions(StreamRuntime streamRuntime, QuerySelector selector, String queryName) {
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null && processor != selector) {
+                if (processor instanceof FilterProcessor) {
+                    FilterProcessor filterProcessor = (FilterProcessor) processor;
+                    CompiledConditionExpressionExecutor compiledConditionExecutor = ExpressionCompiler
+                            .compileCondition(filterProcessor.getConditionExecutor(), queryName);
+                    if (compiledConditionExecutor != null) {
+                        filterProcessor.setCompiledConditionExecutor(compiledConditionExecutor);
+                    }
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+        CompiledAttributeProcessor compiledAttributeProcessor = ExpressionCompiler.compileAttributeProcessors(
+                selector.getAttributeProcessorList(), queryName);
+        if (compiledAttributeProcessor != null) {
+            selector.setCompiledAttributeProcessor(compiledAttributeProcessor);
+        }
+    }
+
+    /**
+     * Filter the event chunks of the stream runtime through columnar batches, for the filter conditions that can be
+     * vectorized.
+     *
+     * @param streamRuntime stream runtime of the query
+     * @param selector      selector of the query
+     */
+    public static void vectorizeConditions(StreamRuntime streamRuntime, QuerySelector selector) {
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null && processor != selector) {
+                if (processor instanceof FilterProcessor) {
+                    FilterProcessor filterProcessor = (FilterProcessor) processor;
+                    filterProcessor.setVectorizedConditionExecutor(VectorizedConditionParser.parse(
+                            filterProcessor.getConditionExecutor()));
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+    }
+
     public static LatencyTracker createLatencyTracker(SiddhiAppContext siddhiAppContext, String name, String type,
                                                       String function) {
         LatencyTracker latencyTracker = null;
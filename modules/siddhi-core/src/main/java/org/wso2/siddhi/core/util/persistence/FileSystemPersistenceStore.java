@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Implementation of {@link PersistenceStore} which will store the state in the local file system, under a directory
+ * per Siddhi app.
+ * <p>
+ * Each revision is a directory of segment files of at most the segment size, and a manifest holding the length and
+ * the CRC32 checksum of each segment. Revisions are written through a file channel to a temporary directory, which
+ * is renamed to the revision once the revision is completely written and synced, so that a crash never leaves a
+ * partially written revision behind. Revisions are read through memory-mapped segments, verifying their checksums,
+ * so that neither saving nor loading a revision holds the whole revision in the heap.
+ * <p>
+ * Only the configured number of the latest full revisions are kept, along with the incremental revisions following
+ * them, the older revisions being removed as new full revisions are saved.
+ */
+public class FileSystemPersistenceStore implements PersistenceStore {
+
+    public static final String LOCATION = "location";
+    public static final String REVISIONS_TO_KEEP = "revisionsToKeep";
+    public static final String SEGMENT_SIZE = "segmentSize";
+    private static final Logger log = Logger.getLogger(FileSystemPersistenceStore.class);
+    private static final String DEFAULT_LOCATION = "siddhi-app-persistence";
+    private static final int DEFAULT_REVISIONS_TO_KEEP = 3;
+    private static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String MANIFEST_FILE = "manifest";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final int MANIFEST_MAGIC = 0x53494450;
+
+    private Path location;
+    private int revisionsToKeep;
+    private long segmentSize;
+
+    public FileSystemPersistenceStore() {
+        this(DEFAULT_LOCATION, DEFAULT_REVISIONS_TO_KEEP);
+    }
+
+    public FileSystemPersistenceStore(String location, int revisionsToKeep) {
+        this.location = Paths.get(location);
+        this.revisionsToKeep = revisionsToKeep;
+        this.segmentSize = DEFAULT_SEGMENT_SIZE;
+    }
+
+    @Override
+    public void setProperties(Map properties) {
+        if (properties.get(LOCATION) != null) {
+            location = Paths.get(String.valueOf(properties.get(LOCATION)));
+        }
+        if (properties.get(REVISIONS_TO_KEEP) != null) {
+            revisionsToKeep = Integer.parseInt(String.valueOf(properties.get(REVISIONS_TO_KEEP)));
+        }
+        if (properties.get(SEGMENT_SIZE) != null) {
+            long size = Long.parseLong(String.valueOf(properties.get(SEGMENT_SIZE)));
+            if (size <= 0 || size > MAX_SEGMENT_SIZE) {
+                throw new SiddhiAppRuntimeException("Segment size of " + FileSystemPersistenceStore.class
+                        .getSimpleName() + " should be between 1 and " + MAX_SEGMENT_SIZE + " bytes, but found " +
+                        size);
+            }
+            segmentSize = size;
+        }
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, byte[] snapshot) {
+        try {
+            saveStream(siddhiAppId, revision, outputStream -> outputStream.write(snapshot));
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Cannot save revision '" + revision + "' of Siddhi app '" +
+                    siddhiAppId + "' to " + location, e);
+        }
+    }
+
+    @Override
+    public byte[] load(String siddhiAppId, String revision) {
+        try (InputStream inputStream = loadStream(siddhiAppId, revision)) {
+            if (inputStream == null) {
+                return null;
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Cannot load revision '" + revision + "' of Siddhi app '" +
+                    siddhiAppId + "' from " + location, e);
+        }
+    }
+
+    @Override
+    public void saveStream(String siddhiAppId, String revision, SnapshotWriter snapshotWriter) throws IOException {
+        Path appDirectory = location.resolve(siddhiAppId);
+        Path tempDirectory = appDirectory.resolve(revision + TEMP_SUFFIX);
+        Files.createDirectories(appDirectory);
+        // left behind by a save interrupted by a crash
+        deleteRecursively(tempDirectory);
+        Files.createDirectory(tempDirectory);
+        try {
+            SegmentedOutputStream outputStream = new SegmentedOutputStream(tempDirectory);
+            try {
+                snapshotWriter.write(outputStream);
+            } finally {
+                outputStream.close();
+            }
+            outputStream.writeManifest();
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(tempDirectory);
+            throw e;
+        }
+        synchronized (this) {
+            Path revisionDirectory = appDirectory.resolve(revision);
+            deleteRecursively(revisionDirectory);
+            Files.move(tempDirectory, revisionDirectory, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(appDirectory);
+            if (!revision.contains(PersistenceService.INCREMENTAL_REVISION_SEPARATOR)) {
+                removeOldRevisions(appDirectory);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Saved revision '" + revision + "' of Siddhi app '" + siddhiAppId + "' to " + location);
+        }
+    }
+
+    @Override
+    public InputStream loadStream(String siddhiAppId, String revision) throws IOException {
+        Path revisionDirectory = location.resolve(siddhiAppId).resolve(revision);
+        if (!Files.exists(revisionDirectory.resolve(MANIFEST_FILE))) {
+            log.warn("Revision '" + revision + "' of Siddhi app '" + siddhiAppId + "' not found in " + location);
+            return null;
+        }
+        return new SegmentedInputStream(revisionDirectory);
+    }
+
+    @Override
+    public synchronized String getLastRevision(String siddhiAppId) {
+        List<String> revisions = getRevisions(location.resolve(siddhiAppId));
+        if (revisions.isEmpty()) {
+            return null;
+        }
+        return revisions.get(revisions.size() - 1);
+    }
+
+    /**
+     * Get the revisions of the app, in the order they are created by the {@link PersistenceService}: by the time of
+     * their full revision, followed by the number of the incremental revision.
+     */
+    private List<String> getRevisions(Path appDirectory) {
+        List<String> revisions = new ArrayList<String>();
+        if (!Files.isDirectory(appDirectory)) {
+            return revisions;
+        }
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(appDirectory)) {
+            for (Path revisionDirectory : directoryStream) {
+                String revision = revisionDirectory.getFileName().toString();
+                if (!revision.endsWith(TEMP_SUFFIX) && Files.exists(revisionDirectory.resolve(MANIFEST_FILE))) {
+                    revisions.add(revision);
+                }
+            }
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Cannot list the revisions in " + appDirectory, e);
+        }
+        revisions.sort(FileSystemPersistenceStore::compareRevisions);
+        return revisions;
+    }
+
+    private static int compareRevisions(String revision1, String revision2) {
+        int separatorIndex1 = revision1.lastIndexOf(PersistenceService.INCREMENTAL_REVISION_SEPARATOR);
+        int separatorIndex2 = revision2.lastIndexOf(PersistenceService.INCREMENTAL_REVISION_SEPARATOR);
+        String fullRevision1 = separatorIndex1 < 0 ? revision1 : revision1.substring(0, separatorIndex1);
+        String fullRevision2 = separatorIndex2 < 0 ? revision2 : revision2.substring(0, separatorIndex2);
+        int result = fullRevision1.compareTo(fullRevision2);
+        if (result != 0) {
+            return result;
+        }
+        try {
+            long incrementalRevision1 = separatorIndex1 < 0 ? 0 : Long.parseLong(revision1.substring(
+                    separatorIndex1 + 1));
+            long incrementalRevision2 = separatorIndex2 < 0 ? 0 : Long.parseLong(revision2.substring(
+                    separatorIndex2 + 1));
+            return Long.compare(incrementalRevision1, incrementalRevision2);
+        } catch (NumberFormatException e) {
+            return revision1.compareTo(revision2);
+        }
+    }
+
+    private void removeOldRevisions(Path appDirectory) throws IOException {
+        List<String> fullRevisions = new ArrayList<String>();
+        List<String> revisions = getRevisions(appDirectory);
+        for (String revision : revisions) {
+            if (!revision.contains(PersistenceService.INCREMENTAL_REVISION_SEPARATOR)) {
+                fullRevisions.add(revision);
+            }
+        }
+        // the saved revision is always kept
+        for (int i = 0; i < fullRevisions.size() - Math.max(revisionsToKeep, 1); i++) {
+            String fullRevision = fullRevisions.get(i);
+            for (String revision : revisions) {
+                if (revision.equals(fullRevision) || revision.startsWith(fullRevision +
+                        PersistenceService.INCREMENTAL_REVISION_SEPARATOR)) {
+                    deleteRecursively(appDirectory.resolve(revision));
+                    if (log.isDebugEnabled()) {
+                        log.debug("Removed revision '" + revision + "' from " + appDirectory);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        // makes the rename durable, where the platform supports syncing directories
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cannot sync directory " + directory, e);
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Path getSegmentPath(Path revisionDirectory, int segmentIndex) {
+        return revisionDirectory.resolve(SEGMENT_FILE_PREFIX + segmentIndex);
+    }
+
+    /**
+     * Stream writing the revision to segment files through a file channel, tracking their lengths and checksums.
+     */
+    private class SegmentedOutputStream extends OutputStream {
+
+        private final Path revisionDirectory;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private final CRC32 checksum = new CRC32();
+        private final List<long[]> segments = new ArrayList<long[]>();
+        private FileChannel channel;
+        private long segmentLength;
+
+        private SegmentedOutputStream(Path revisionDirectory) {
+            this.revisionDirectory = revisionDirectory;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (channel == null) {
+                    channel = FileChannel.open(getSegmentPath(revisionDirectory, segments.size()),
+                            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    checksum.reset();
+                    segmentLength = 0;
+                }
+                int chunkLength = (int) Math.min(Math.min(length, buffer.remaining()), segmentSize - segmentLength);
+                buffer.put(bytes, offset, chunkLength);
+                checksum.update(bytes, offset, chunkLength);
+                segmentLength += chunkLength;
+                offset += chunkLength;
+                length -= chunkLength;
+                if (!buffer.hasRemaining()) {
+                    flushBuffer();
+                }
+                if (segmentLength == segmentSize) {
+                    closeSegment();
+                }
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void closeSegment() throws IOException {
+            try {
+                flushBuffer();
+                channel.force(true);
+                segments.add(new long[]{segmentLength, checksum.getValue()});
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                closeSegment();
+            }
+        }
+
+        private void writeManifest() throws IOException {
+            ByteBuffer manifest = ByteBuffer.allocate(8 + segments.size() * 16);
+            manifest.putInt(MANIFEST_MAGIC);
+            manifest.putInt(segments.size());
+            for (long[] segment : segments) {
+                manifest.putLong(segment[0]);
+                manifest.putLong(segment[1]);
+            }
+            manifest.flip();
+            try (FileChannel manifestChannel = FileChannel.open(revisionDirectory.resolve(MANIFEST_FILE),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (manifest.hasRemaining()) {
+                    manifestChannel.write(manifest);
+                }
+                manifestChannel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Stream reading the revision from memory-mapped segment files, verifying their lengths and checksums as they
+     * are mapped.
+     */
+    private static class SegmentedInputStream extends InputStream {
+
+        private final Path revisionDirectory;
+        private final long[][] segments;
+        private int segmentIndex = -1;
+        private MappedByteBuffer segment;
+
+        private SegmentedInputStream(Path revisionDirectory) throws IOException {
+            this.revisionDirectory = revisionDirectory;
+            ByteBuffer manifest = ByteBuffer.wrap(Files.readAllBytes(revisionDirectory.resolve(MANIFEST_FILE)));
+            if (manifest.remaining() < 8 || manifest.getInt() != MANIFEST_MAGIC) {
+                throw new IOException("Invalid manifest of revision " + revisionDirectory);
+            }
+            int segmentCount = manifest.getInt();
+            if (manifest.remaining() != segmentCount * 16) {
+                throw new IOException("Invalid manifest of revision " + revisionDirectory);
+            }
+            segments = new long[segmentCount][];
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = new long[]{manifest.getLong(), manifest.getLong()};
+            }
+        }
+
+        private boolean nextSegment() throws IOException {
+            while (segment == null || !segment.hasRemaining()) {
+                if (segmentIndex + 1 >= segments.length) {
+                    return false;
+                }
+                segmentIndex++;
+                Path segmentPath = getSegmentPath(revisionDirectory, segmentIndex);
+                try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                    if (channel.size() != segments[segmentIndex][0]) {
+                        throw new IOException("Segment " + segmentPath + " of " + channel.size() +
+                                " bytes is expected to be of " + segments[segmentIndex][0] + " bytes");
+                    }
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                CRC32 checksum = new CRC32();
+                checksum.update(segment.duplicate());
+                if (checksum.getValue() != segments[segmentIndex][1]) {
+                    throw new IOException("Checksum mismatch in segment " + segmentPath);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextSegment()) {
+                return -1;
+            }
+            return segment.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextSegment()) {
+                return -1;
+            }
+            int readLength = Math.min(length, segment.remaining());
+            segment.get(bytes, offset, readLength);
+            return readLength;
+        }
+
+        @Override
+        public int available() {
+            return segment == null ? 0 : segment.remaining();
+        }
+
+        @Override
+        public void close() {
+            segment = null;
+            segmentIndex = segments.length;
+        }
+    }
+}
@@ -21,20 +21,49 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
+import org.wso2.siddhi.core.stream.input.InputJournal;
+import org.wso2.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
+import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 /**
  * Persistence Service is the service layer to handle state persistence tasks such as persisting current state and
  * restoring previous states.
+ * <p>
+ * Incremental persistence saves the state changed since the previous incremental persistence as the next revision
+ * of a chain following a full revision, named {@code <full revision>#<n>}. Every
+ * {@link #INCREMENTAL_REVISIONS_PER_FULL_REVISION} incremental revisions, a full revision starts a new chain,
+ * bounding the number of revisions loaded to restore a revision. When a revision cannot be saved, the following
+ * revisions of its chain are not saved either, and the next persistence starts a new chain with a full revision, as
+ * the changes held by the lost revision are no longer tracked by the elements.
+ * <p>
+ * Only the elements implementing {@link org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable}, namely the
+ * in-memory tables, hold their changes in incremental revisions, per stripe of the table, such that a table without
+ * stripes is saved as a whole whenever it has changed. The other elements, including windows and aggregations, are
+ * saved as a whole whenever their state has changed since the previous revision.
  */
 public class PersistenceService {
 
+    public static final int INCREMENTAL_REVISIONS_PER_FULL_REVISION = 10;
+    public static final String INCREMENTAL_REVISION_SEPARATOR = "#";
     private static final Logger log = Logger.getLogger(PersistenceService.class);
     private String siddhiAppName;
     private PersistenceStore persistenceStore;
     private SnapshotService snapshotService;
+    private SiddhiAppContext siddhiAppContext;
+    private String baseRevision;
+    private int incrementalRevisionCount;
+    private Future lastIncrementalPersistence;
 
     public PersistenceService(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
         this.snapshotService = siddhiAppContext.getSnapshotService();
         this.persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
         this.siddhiAppName = siddhiAppContext.getName();
@@ -61,13 +90,77 @@ public class PersistenceService {
 
     }
 
+    /**
+     * Take an incremental snapshot of the current state and persist it asynchronously, as the next revision of the
+     * current chain of incremental revisions, or as a full revision starting a new chain.
+     *
+     * @param executorService executor to persist the snapshot with
+     * @return reference to the persistence
+     */
+    public synchronized PersistenceReference persistIncremental(ExecutorService executorService) {
+        if (persistenceStore == null) {
+            throw new NoPersistenceStoreException("No persistence store assigned for siddhi app " +
+                    siddhiAppName);
+        }
+        boolean full = baseRevision == null || incrementalRevisionCount >= INCREMENTAL_REVISIONS_PER_FULL_REVISION ||
+                isFailed(lastIncrementalPersistence);
+        byte[] snapshot = snapshotService.incrementalSnapshot(full);
+        AsyncSnapshotPersistor asyncSnapshotPersistor;
+        if (full) {
+            baseRevision = System.currentTimeMillis() + "_" + siddhiAppName;
+            incrementalRevisionCount = 0;
+            asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshot, persistenceStore, siddhiAppName, null,
+                    baseRevision, lastIncrementalPersistence);
+        } else {
+            incrementalRevisionCount++;
+            asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshot, persistenceStore, siddhiAppName,
+                    baseRevision, baseRevision + INCREMENTAL_REVISION_SEPARATOR + incrementalRevisionCount,
+                    lastIncrementalPersistence);
+        }
+        InputJournal inputJournal = siddhiAppContext.getInputJournal();
+        if (inputJournal != null) {
+            long journalSequence = inputJournal.getCapturedSequence();
+            asyncSnapshotPersistor.setPersistedCallback(() -> inputJournal.revisionPersisted(journalSequence));
+        }
+        lastIncrementalPersistence = executorService.submit(asyncSnapshotPersistor);
+        return new PersistenceReference(lastIncrementalPersistence, asyncSnapshotPersistor.getRevision());
+    }
+
+    private boolean isFailed(Future persistence) {
+        if (persistence == null || !persistence.isDone()) {
+            // a persistence failing later on fails the incremental persistences following it, up to the next check
+            return false;
+        }
+        try {
+            persistence.get();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException | CancellationException e) {
+            return true;
+        }
+    }
+
     public void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException {
         if (persistenceStore != null) {
             if (log.isDebugEnabled()) {
                 log.debug("Restoring revision: " + revision + " ...");
             }
-            byte[] snapshot = persistenceStore.load(siddhiAppName, revision);
-            snapshotService.restore(snapshot);
+            int separatorIndex = revision.lastIndexOf(INCREMENTAL_REVISION_SEPARATOR);
+            if (separatorIndex < 0) {
+                restoreFullRevision(revision);
+            } else {
+                // restore the full revision, followed by the incremental revisions up to the given one
+                String fullRevision = revision.substring(0, separatorIndex);
+                int incrementalRevisions = Integer.parseInt(revision.substring(separatorIndex + 1));
+                restoreFullRevision(fullRevision);
+                for (int i = 1; i <= incrementalRevisions; i++) {
+                    snapshotService.restore(persistenceStore.loadIncremental(siddhiAppName, fullRevision,
+                            fullRevision + INCREMENTAL_REVISION_SEPARATOR + i));
+                }
+            }
+            startNewIncrementalChain();
             if (log.isDebugEnabled()) {
                 log.debug("Restored revision: " + revision);
             }
@@ -77,6 +170,16 @@ public class PersistenceService {
         }
     }
 
+    private void restoreFullRevision(String revision) throws CannotRestoreSiddhiAppStateException {
+        // full revisions are restored as they are read from the store, as they hold the whole state
+        try (InputStream snapshot = persistenceStore.loadStream(siddhiAppName, revision)) {
+            snapshotService.restore(snapshot);
+        } catch (IOException e) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppName +
+                    " not completed properly because revision " + revision + " cannot be read.", e);
+        }
+    }
+
     public String restoreLastRevision() throws CannotRestoreSiddhiAppStateException {
         if (persistenceStore != null) {
             String revision = persistenceStore.getLastRevision(siddhiAppName);
@@ -92,5 +195,11 @@ public class PersistenceService {
 
     public void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException {
         snapshotService.restore(snapshot);
+        startNewIncrementalChain();
+    }
+
+    private synchronized void startNewIncrementalChain() {
+        // incremental revisions following the restored state would not apply over the current chain
+        baseRevision = null;
     }
 }
@@ -17,6 +17,11 @@
  */
 package org.wso2.siddhi.core.util.persistence;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -33,4 +38,72 @@ public interface PersistenceStore {
 
     String getLastRevision(String siddhiAppId);
 
+    /**
+     * Save an incremental snapshot, holding the state changed since the previous revision of the chain of
+     * incremental revisions following the given full revision. Stores can override this to keep the incremental
+     * revisions along with their full revision.
+     *
+     * @param siddhiAppId  id of the Siddhi app
+     * @param baseRevision full revision the incremental revision follows
+     * @param revision     incremental revision
+     * @param snapshot     incremental snapshot
+     */
+    default void saveIncremental(String siddhiAppId, String baseRevision, String revision, byte[] snapshot) {
+        save(siddhiAppId, revision, snapshot);
+    }
+
+    /**
+     * Load an incremental snapshot saved with {@link #saveIncremental(String, String, String, byte[])}.
+     *
+     * @param siddhiAppId  id of the Siddhi app
+     * @param baseRevision full revision the incremental revision follows
+     * @param revision     incremental revision
+     * @return incremental snapshot
+     */
+    default byte[] loadIncremental(String siddhiAppId, String baseRevision, String revision) {
+        return load(siddhiAppId, revision);
+    }
+
+    /**
+     * Save the snapshot written by the given writer, so that snapshots can be saved without holding them in memory.
+     * The revision is only saved when the writer completes. Stores can override this to write the snapshot to their
+     * storage as it is written, instead of saving the whole snapshot with {@link #save(String, String, byte[])}.
+     *
+     * @param siddhiAppId    id of the Siddhi app
+     * @param revision       revision of the snapshot
+     * @param snapshotWriter writer of the snapshot
+     * @throws IOException if the snapshot cannot be written or saved
+     */
+    default void saveStream(String siddhiAppId, String revision, SnapshotWriter snapshotWriter) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshotWriter.write(outputStream);
+        save(siddhiAppId, revision, outputStream.toByteArray());
+    }
+
+    /**
+     * Open a stream to read the snapshot of the revision, so that snapshots can be restored without holding them in
+     * memory. Stores can override this to read the snapshot from their storage as it is read, instead of loading
+     * the whole snapshot with {@link #load(String, String)}.
+     *
+     * @param siddhiAppId id of the Siddhi app
+     * @param revision    revision of the snapshot
+     * @return stream of the snapshot, or null if the revision is not found
+     * @throws IOException if the snapshot cannot be opened
+     */
+    default InputStream loadStream(String siddhiAppId, String revision) throws IOException {
+        byte[] snapshot = load(siddhiAppId, revision);
+        if (snapshot == null) {
+            return null;
+        }
+        return new ByteArrayInputStream(snapshot);
+    }
+
+    /**
+     * Writer of a snapshot to the stream of the persistence store.
+     */
+    @FunctionalInterface
+    interface SnapshotWriter {
+
+        void write(OutputStream outputStream) throws IOException;
+    }
 }
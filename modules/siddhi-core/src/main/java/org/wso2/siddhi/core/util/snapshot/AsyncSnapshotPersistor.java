@@ -20,17 +20,26 @@ package org.wso2.siddhi.core.util.snapshot;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
     private byte[] snapshots;
+    private CapturedSnapshot capturedSnapshot;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
+    private String baseRevision;
+    private Future previousPersistence;
+    private Runnable persistedCallback;
 
     public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore,
                                   String siddhiAppName) {
@@ -40,17 +49,92 @@ public class AsyncSnapshotPersistor implements Runnable {
         revision = System.currentTimeMillis() + "_" + siddhiAppName;
     }
 
+    /**
+     * Create a persistor for a captured snapshot, which is serialized by the persistor before it is saved.
+     *
+     * @param capturedSnapshot snapshot to persist
+     * @param persistenceStore store to persist the snapshot to
+     * @param siddhiAppName    name of the Siddhi app
+     */
+    public AsyncSnapshotPersistor(CapturedSnapshot capturedSnapshot, PersistenceStore persistenceStore,
+                                  String siddhiAppName) {
+        this((byte[]) null, persistenceStore, siddhiAppName);
+        this.capturedSnapshot = capturedSnapshot;
+    }
+
+    /**
+     * Create a persistor for incremental snapshots, which are saved in the order they are taken.
+     *
+     * @param snapshots           snapshot to persist
+     * @param persistenceStore    store to persist the snapshot to
+     * @param siddhiAppName       name of the Siddhi app
+     * @param baseRevision        full revision followed by the incremental revision, or null for full revisions
+     * @param revision            revision of the snapshot
+     * @param previousPersistence persistence of the previous snapshot, to be completed before this one
+     */
+    public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore, String siddhiAppName,
+                                  String baseRevision, String revision, Future previousPersistence) {
+        this.snapshots = snapshots;
+        this.persistenceStore = persistenceStore;
+        this.siddhiAppName = siddhiAppName;
+        this.baseRevision = baseRevision;
+        this.revision = revision;
+        this.previousPersistence = previousPersistence;
+    }
+
     public String getRevision() {
         return revision;
     }
 
+    /**
+     * Set the callback run once the snapshot is persisted successfully.
+     *
+     * @param persistedCallback callback to run
+     */
+    public void setPersistedCallback(Runnable persistedCallback) {
+        this.persistedCallback = persistedCallback;
+    }
+
     @Override
     public void run() {
         if (persistenceStore != null) {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            if (previousPersistence != null) {
+                try {
+                    previousPersistence.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    if (baseRevision != null) {
+                        // an incremental revision only applies over all the revisions preceding it in its chain
+                        throw new SiddhiAppRuntimeException("Revision '" + revision + "' of Siddhi app '" +
+                                siddhiAppName + "' is not persisted, as the revision preceding it is not persisted",
+                                e.getCause());
+                    }
+                    log.error("Error when persisting the revision preceding '" + revision + "' of Siddhi app '" +
+                            siddhiAppName + "'", e.getCause());
+                }
+            }
+            if (capturedSnapshot != null) {
+                // the snapshot is serialized as it is written to the store
+                try {
+                    persistenceStore.saveStream(siddhiAppName, revision, capturedSnapshot::serialize);
+                } catch (IOException e) {
+                    throw new SiddhiAppRuntimeException("Error when persisting revision '" + revision +
+                            "' of Siddhi app '" + siddhiAppName + "'", e);
+                } finally {
+                    capturedSnapshot = null;
+                }
+            } else if (baseRevision != null) {
+                persistenceStore.saveIncremental(siddhiAppName, baseRevision, revision, snapshots);
+            } else {
+                persistenceStore.save(siddhiAppName, revision, snapshots);
+            }
+            if (persistedCallback != null) {
+                persistedCallback.run();
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
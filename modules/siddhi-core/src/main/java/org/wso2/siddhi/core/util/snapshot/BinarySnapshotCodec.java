@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link SnapshotCodec} encoding snapshots in a compact binary format, used by default.
+ * <p>
+ * The events, event chunks, primitive values, strings and the common collections of the states are written as tagged
+ * fields, without the class descriptors and per object overhead of Java serialization. Event chains are written
+ * iteratively, strings are written once per snapshot and objects referenced more than once are written once and
+ * referred to by their handles thereafter. Other objects are written with Java serialization. The encoded snapshot
+ * can optionally be compressed.
+ * <p>
+ * Snapshots encoded with Java serialization, as by the earlier versions, are decoded as well.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+
+    private static final byte[] MAGIC = {'S', 'I', 'D', 'S'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+    private static final byte JAVA_STREAM_MAGIC_0 = (byte) 0xAC;
+    private static final byte JAVA_STREAM_MAGIC_1 = (byte) 0xED;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte STRING_REFERENCE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte BYTE_ARRAY = 9;
+    private static final byte OBJECT_ARRAY = 10;
+    private static final byte HASH_MAP = 11;
+    private static final byte ARRAY_LIST = 12;
+    private static final byte LINKED_LIST = 13;
+    private static final byte STREAM_EVENT = 14;
+    private static final byte STATE_EVENT = 15;
+    private static final byte EVENT_CHUNK = 16;
+    private static final byte INCREMENTAL_SNAPSHOT = 17;
+    private static final byte JAVA_OBJECT = 18;
+
+    private static final byte END_OF_CHAIN = 0;
+    private static final byte NEXT_IN_CHAIN = 1;
+    private static final byte NEXT_AS_VALUE = 2;
+
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+
+    private final Compression compression;
+
+    public BinarySnapshotCodec() {
+        this(Compression.NONE);
+    }
+
+    public BinarySnapshotCodec(Compression compression) {
+        this.compression = compression;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    @Override
+    public byte[] encode(Object snapshot) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encode(snapshot, baos);
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(MAGIC);
+        outputStream.write(VERSION);
+        outputStream.write(compression.ordinal());
+        if (compression == Compression.DEFLATE) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater);
+                Encoder encoder = new Encoder(deflaterOutputStream);
+                encoder.writeValue(snapshot);
+                encoder.flush();
+                deflaterOutputStream.finish();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            Encoder encoder = new Encoder(outputStream);
+            encoder.writeValue(snapshot);
+            encoder.flush();
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        return decode(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        byte[] header = new byte[HEADER_LENGTH];
+        dataInputStream.readFully(header, 0, 2);
+        if (header[0] == JAVA_STREAM_MAGIC_0 && header[1] == JAVA_STREAM_MAGIC_1) {
+            return new JavaSnapshotCodec().decode(
+                    new SequenceInputStream(new ByteArrayInputStream(header, 0, 2), inputStream));
+        }
+        dataInputStream.readFully(header, 2, HEADER_LENGTH - 2);
+        if (header[0] != MAGIC[0] || header[1] != MAGIC[1] || header[2] != MAGIC[2] || header[3] != MAGIC[3]) {
+            throw new IOException("Snapshot is not encoded by " + BinarySnapshotCodec.class.getSimpleName());
+        }
+        if (header[4] != VERSION) {
+            throw new IOException("Unsupported snapshot version " + header[4]);
+        }
+        if (header[5] < 0 || header[5] >= Compression.values().length) {
+            throw new IOException("Unsupported snapshot compression " + header[5]);
+        }
+        if (Compression.values()[header[5]] == Compression.DEFLATE) {
+            Inflater inflater = new Inflater();
+            try {
+                return new Decoder(new InflaterInputStream(inputStream, inflater)).readValue();
+            } finally {
+                inflater.end();
+            }
+        } else {
+            return new Decoder(inputStream).readValue();
+        }
+    }
+
+    /**
+     * Compression of the encoded snapshots.
+     */
+    public enum Compression {
+        NONE,
+        DEFLATE
+    }
+
+    /**
+     * Writer of a snapshot. The Java object stream is used as the data output, so that the objects written with Java
+     * serialization share the stream with the tagged fields.
+     */
+    private static class Encoder {
+
+        private final ObjectOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<Object, Integer> handles = new IdentityHashMap<Object, Integer>();
+
+        private Encoder(OutputStream outputStream) throws IOException {
+            this.out = new ObjectOutputStream(outputStream);
+        }
+
+        private void flush() throws IOException {
+            out.flush();
+        }
+
+        private boolean writeReference(Object value) throws IOException {
+            Integer handle = handles.get(value);
+            if (handle == null) {
+                handles.put(value, handles.size());
+                return false;
+            }
+            out.writeByte(REFERENCE);
+            out.writeInt(handle);
+            return true;
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (type == Double.class) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Float.class) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Boolean.class) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (writeReference(value)) {
+                return;
+            } else if (type == StreamEvent.class) {
+                out.writeByte(STREAM_EVENT);
+                writeStreamEventChain((StreamEvent) value);
+            } else if (type == StateEvent.class) {
+                out.writeByte(STATE_EVENT);
+                writeStateEventChain((StateEvent) value);
+            } else if (type == ComplexEventChunk.class) {
+                out.writeByte(EVENT_CHUNK);
+                out.writeBoolean(((ComplexEventChunk) value).isBatch());
+                writeValue(((ComplexEventChunk) value).getFirst());
+            } else if (type == Object[].class) {
+                out.writeByte(OBJECT_ARRAY);
+                writeArray((Object[]) value);
+            } else if (type == byte[].class) {
+                out.writeByte(BYTE_ARRAY);
+                out.writeInt(((byte[]) value).length);
+                out.write((byte[]) value);
+            } else if (type == HashMap.class) {
+                out.writeByte(HASH_MAP);
+                out.writeInt(((Map<?, ?>) value).size());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (type == ArrayList.class || type == LinkedList.class) {
+                out.writeByte(type == ArrayList.class ? ARRAY_LIST : LINKED_LIST);
+                out.writeInt(((Collection<?>) value).size());
+                for (Object element : (Collection<?>) value) {
+                    writeValue(element);
+                }
+            } else if (type == IncrementalSnapshot.class) {
+                out.writeByte(INCREMENTAL_SNAPSHOT);
+                writeValue(((IncrementalSnapshot) value).getStates());
+                writeValue(((IncrementalSnapshot) value).getIncrementalStates());
+            } else {
+                out.writeByte(JAVA_OBJECT);
+                out.writeObject(value);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeByte(STRING_REFERENCE);
+                out.writeInt(index);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeArray(Object[] array) throws IOException {
+            if (array == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(array.length);
+            for (Object element : array) {
+                writeValue(element);
+            }
+        }
+
+        /**
+         * Write the events of the chain, which are not written yet and are of the same type, inline.
+         */
+        private void writeStreamEventChain(StreamEvent streamEvent) throws IOException {
+            while (true) {
+                out.writeLong(streamEvent.getTimestamp());
+                out.writeByte(streamEvent.getType().ordinal());
+                writeArray(streamEvent.getBeforeWindowData());
+                writeArray(streamEvent.getOnAfterWindowData());
+                writeArray(streamEvent.getOutputData());
+                StreamEvent next = streamEvent.getNext();
+                if (next == null) {
+                    out.writeByte(END_OF_CHAIN);
+                    return;
+                } else if (next.getClass() == StreamEvent.class && !handles.containsKey(next)) {
+                    out.writeByte(NEXT_IN_CHAIN);
+                    handles.put(next, handles.size());
+                    streamEvent = next;
+                } else {
+                    out.writeByte(NEXT_AS_VALUE);
+                    writeValue(next);
+                    return;
+                }
+            }
+        }
+
+        private void writeStateEventChain(StateEvent stateEvent) throws IOException {
+            while (true) {
+                out.writeLong(stateEvent.getTimestamp());
+                out.writeByte(stateEvent.getType().ordinal());
+                out.writeLong(stateEvent.getId());
+                writeArray(stateEvent.getStreamEvents());
+                writeArray(stateEvent.getOutputData());
+                StateEvent next = stateEvent.getNext();
+                if (next == null) {
+                    out.writeByte(END_OF_CHAIN);
+                    return;
+                } else if (next.getClass() == StateEvent.class && !handles.containsKey(next)) {
+                    out.writeByte(NEXT_IN_CHAIN);
+                    handles.put(next, handles.size());
+                    stateEvent = next;
+                } else {
+                    out.writeByte(NEXT_AS_VALUE);
+                    writeValue(next);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reader of a snapshot, registering the handles of the objects in the order they are registered when written.
+     */
+    private static class Decoder {
+
+        private final ObjectInputStream in;
+        private final List<String> strings = new ArrayList<String>();
+        private final List<Object> handles = new ArrayList<Object>();
+
+        private Decoder(InputStream inputStream) throws IOException {
+            this.in = new ObjectInputStream(inputStream);
+        }
+
+        private Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return handles.get(in.readInt());
+                case STRING:
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    String string = new String(bytes, StandardCharsets.UTF_8);
+                    strings.add(string);
+                    return string;
+                case STRING_REFERENCE:
+                    return strings.get(in.readInt());
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case STREAM_EVENT:
+                    return readStreamEventChain();
+                case STATE_EVENT:
+                    return readStateEventChain();
+                case EVENT_CHUNK:
+                    ComplexEventChunk<ComplexEvent> eventChunk = new ComplexEventChunk<ComplexEvent>(in.readBoolean());
+                    handles.add(eventChunk);
+                    ComplexEvent first = (ComplexEvent) readValue();
+                    if (first != null) {
+                        eventChunk.add(first);
+                    }
+                    return eventChunk;
+                case OBJECT_ARRAY:
+                    int length = in.readInt();
+                    Object[] array = new Object[length];
+                    handles.add(array);
+                    for (int i = 0; i < length; i++) {
+                        array[i] = readValue();
+                    }
+                    return array;
+                case BYTE_ARRAY:
+                    byte[] byteArray = new byte[in.readInt()];
+                    handles.add(byteArray);
+                    in.readFully(byteArray);
+                    return byteArray;
+                case HASH_MAP:
+                    int size = in.readInt();
+                    Map<Object, Object> map = new HashMap<Object, Object>();
+                    handles.add(map);
+                    for (int i = 0; i < size; i++) {
+                        Object key = readValue();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                case ARRAY_LIST:
+                case LINKED_LIST:
+                    int count = in.readInt();
+                    List<Object> list = tag == ARRAY_LIST ? new ArrayList<Object>(count) : new LinkedList<Object>();
+                    handles.add(list);
+                    for (int i = 0; i < count; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                case INCREMENTAL_SNAPSHOT:
+                    // Registered after its fields, as the snapshot cannot be referred to before it is created.
+                    int handle = handles.size();
+                    handles.add(null);
+                    Map<String, byte[]> states = (Map<String, byte[]>) readValue();
+                    IncrementalSnapshot incrementalSnapshot = new IncrementalSnapshot(states,
+                            (Map<String, Map<String, Object>>) readValue());
+                    handles.set(handle, incrementalSnapshot);
+                    return incrementalSnapshot;
+                case JAVA_OBJECT:
+                    Object object = in.readObject();
+                    handles.add(object);
+                    return object;
+                default:
+                    throw new IOException("Unknown snapshot field tag " + tag);
+            }
+        }
+
+        private Object[] readArray() throws IOException, ClassNotFoundException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            Object[] array = new Object[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = readValue();
+            }
+            return array;
+        }
+
+        private ComplexEvent.Type readEventType() throws IOException {
+            return EVENT_TYPES[in.readByte()];
+        }
+
+        private StreamEvent readStreamEventChain() throws IOException, ClassNotFoundException {
+            StreamEvent first = new StreamEvent(0, 0, 0);
+            handles.add(first);
+            StreamEvent streamEvent = first;
+            while (true) {
+                streamEvent.setTimestamp(in.readLong());
+                streamEvent.setType(readEventType());
+                streamEvent.setBeforeWindowData(readArray());
+                streamEvent.setOnAfterWindowData(readArray());
+                streamEvent.setOutputData(readArray());
+                byte next = in.readByte();
+                if (next == END_OF_CHAIN) {
+                    return first;
+                } else if (next == NEXT_IN_CHAIN) {
+                    StreamEvent nextEvent = new StreamEvent(0, 0, 0);
+                    handles.add(nextEvent);
+                    streamEvent.setNext(nextEvent);
+                    streamEvent = nextEvent;
+                } else {
+                    streamEvent.setNext((StreamEvent) readValue());
+                    return first;
+                }
+            }
+        }
+
+        private StateEvent readStateEventChain() throws IOException, ClassNotFoundException {
+            // The stream events and the output data are read before the state event is created, as their sizes are
+            // needed to create it, so the state event is registered beforehand and set once created.
+            int handle = handles.size();
+            handles.add(null);
+            StateEvent first = readStateEvent(handle);
+            StateEvent stateEvent = first;
+            while (true) {
+                byte next = in.readByte();
+                if (next == END_OF_CHAIN) {
+                    return first;
+                } else if (next == NEXT_IN_CHAIN) {
+                    handle = handles.size();
+                    handles.add(null);
+                    StateEvent nextEvent = readStateEvent(handle);
+                    stateEvent.setNext(nextEvent);
+                    stateEvent = nextEvent;
+                } else {
+                    stateEvent.setNext((StateEvent) readValue());
+                    return first;
+                }
+            }
+        }
+
+        private StateEvent readStateEvent(int handle) throws IOException, ClassNotFoundException {
+            long timestamp = in.readLong();
+            ComplexEvent.Type type = readEventType();
+            long id = in.readLong();
+            Object[] streamEvents = readArray();
+            Object[] outputData = readArray();
+            StateEvent stateEvent = new StateEvent(streamEvents.length, outputData.length);
+            handles.set(handle, stateEvent);
+            stateEvent.setTimestamp(timestamp);
+            stateEvent.setType(type);
+            stateEvent.setId(id);
+            for (int i = 0; i < streamEvents.length; i++) {
+                stateEvent.setEvent(i, (StreamEvent) streamEvents[i]);
+            }
+            for (int i = 0; i < outputData.length; i++) {
+                stateEvent.setOutputData(outputData[i], i);
+            }
+            return stateEvent;
+        }
+    }
+}
@@ -22,17 +22,17 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.util.ExceptionUtil;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
- * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa
+ * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa, with the
+ * {@link SnapshotCodec} of the Siddhi context.
  */
 public class ByteSerializer {
     private static final Logger log = Logger.getLogger(ByteSerializer.class);
+    private static final SnapshotCodec DEFAULT_SNAPSHOT_CODEC = new BinarySnapshotCodec();
 
     private ByteSerializer() {
     }
@@ -42,10 +42,7 @@ public class ByteSerializer {
         byte[] out = null;
         if (obj != null) {
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos);
-                oos.writeObject(obj);
-                out = baos.toByteArray();
+                out = getSnapshotCodec(siddhiAppContext).encode(obj);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing byte array.", e);
@@ -64,9 +61,7 @@ public class ByteSerializer {
         Object out = null;
         if (bytes != null) {
             try {
-                ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bios);
-                out = ois.readObject();
+                out = getSnapshotCodec(siddhiAppContext).decode(bytes);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing to object.", e);
@@ -83,4 +78,53 @@ public class ByteSerializer {
         }
         return out;
     }
+
+    /**
+     * Encode the object to the stream, such that it is written as it is encoded.
+     *
+     * @param obj              object to encode
+     * @param outputStream     stream to write the encoded object to, left open
+     * @param siddhiAppContext context of the Siddhi app
+     * @throws IOException if the object cannot be encoded or written
+     */
+    public static void objectToStream(Object obj, OutputStream outputStream, SiddhiAppContext siddhiAppContext)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        getSnapshotCodec(siddhiAppContext).encode(obj, outputStream);
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("For SiddhiApp '" + siddhiAppContext.getName() + "'. Encoded in :" + (end - start) + " msec");
+        }
+    }
+
+    public static Object streamToObject(InputStream inputStream, SiddhiAppContext siddhiAppContext) {
+        long start = System.currentTimeMillis();
+        Object out = null;
+        if (inputStream != null) {
+            try {
+                out = getSnapshotCodec(siddhiAppContext).decode(inputStream);
+            } catch (IOException e) {
+                log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                        " Error when reading to object.", e);
+                return null;
+            } catch (ClassNotFoundException e) {
+                log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                        " Error when reading to object.", e);
+                return null;
+            }
+        }
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("Decoded in :" + (end - start) + " msec");
+        }
+        return out;
+    }
+
+    private static SnapshotCodec getSnapshotCodec(SiddhiAppContext siddhiAppContext) {
+        SnapshotCodec snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
+        if (snapshotCodec == null) {
+            return DEFAULT_SNAPSHOT_CODEC;
+        }
+        return snapshotCodec;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot captured by {@link SnapshotService#captureSnapshot()}, holding copies of the states of the processing
+ * elements, which are no longer changed by the Siddhi app and can hence be serialized without locking the app.
+ * <p>
+ * The captured snapshot is serialized as an {@link IncrementalSnapshot} holding the serialized state of every
+ * element, such that each element state can be restored on its own.
+ */
+public class CapturedSnapshot {
+
+    private static final Logger log = Logger.getLogger(CapturedSnapshot.class);
+    private final Map<String, Map<String, Object>> states;
+    private final SiddhiAppContext siddhiAppContext;
+
+    CapturedSnapshot(Map<String, Map<String, Object>> states, SiddhiAppContext siddhiAppContext) {
+        this.states = states;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public Map<String, Map<String, Object>> getStates() {
+        return states;
+    }
+
+    /**
+     * Serialize the captured states, in the format restored by {@link SnapshotService#restore(byte[])}.
+     *
+     * @return serialized snapshot
+     */
+    public byte[] serialize() {
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        byte[] serializedSnapshot = ByteSerializer.objectToByte(serializeStates(), siddhiAppContext);
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+        return serializedSnapshot;
+    }
+
+    /**
+     * Serialize the captured states to the stream, as they are serialized by {@link #serialize()}.
+     *
+     * @param outputStream stream to write the serialized snapshot to, left open
+     * @throws IOException if the snapshot cannot be serialized or written
+     */
+    public void serialize(OutputStream outputStream) throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        ByteSerializer.objectToStream(serializeStates(), outputStream, siddhiAppContext);
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+    }
+
+    /**
+     * Serialize the state of each element on its own, in parallel, so that the states can also be restored in
+     * parallel.
+     */
+    private IncrementalSnapshot serializeStates() {
+        Map<String, byte[]> serializedStates = new ConcurrentHashMap<>(states.size());
+        SnapshotService.forEachInParallel(siddhiAppContext, states.entrySet(), entry -> {
+            byte[] state = ByteSerializer.objectToByte(entry.getValue(), siddhiAppContext);
+            if (state != null) {
+                serializedStates.put(entry.getKey(), state);
+            }
+        });
+        return new IncrementalSnapshot(new HashMap<>(serializedStates), new HashMap<>());
+    }
+}
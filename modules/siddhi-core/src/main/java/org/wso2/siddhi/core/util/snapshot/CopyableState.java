@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Interface implemented by the state objects which copy themselves when a snapshot is taken, as they are not among
+ * the objects copied structurally by the snapshot service, and would otherwise be serialized while the Siddhi app is
+ * locked.
+ */
+public interface CopyableState {
+
+    /**
+     * Copy the state object, such that the copy is not changed as the Siddhi app goes on processing events.
+     *
+     * @param copier copies the mutable objects referenced by the state object, copying objects referenced more than
+     *               once only once
+     * @return copy of the state object
+     */
+    Object copyState(UnaryOperator<Object> copier);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Snapshot taken by {@link SnapshotService#incrementalSnapshot(boolean)}, holding the serialized states of the
+ * elements changed since the previous snapshot and the changed states of the {@link IncrementalSnapshotable}
+ * elements, by element id. Elements not in the snapshot are unchanged. Full snapshots serialized by
+ * {@link CapturedSnapshot} hold the serialized states of all the elements.
+ */
+public class IncrementalSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 3027145283514795102L;
+    private final Map<String, byte[]> states;
+    private final Map<String, Map<String, Object>> incrementalStates;
+
+    public IncrementalSnapshot(Map<String, byte[]> states, Map<String, Map<String, Object>> incrementalStates) {
+        this.states = states;
+        this.incrementalStates = incrementalStates;
+    }
+
+    public Map<String, byte[]> getStates() {
+        return states;
+    }
+
+    public Map<String, Map<String, Object>> getIncrementalStates() {
+        return incrementalStates;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.util.Map;
+
+/**
+ * Interface implemented by processing elements which track the changes of their state, so that incremental
+ * snapshots only hold the changed parts of their state instead of the whole state.
+ * <p>
+ * The changes are tracked at the granularity chosen by the element, and only the in-memory tables implement this
+ * interface, tracking the changed stripes of the table. The state of the other elements, such as windows and
+ * aggregations, is copied and compared as a whole for each incremental snapshot.
+ */
+public interface IncrementalSnapshotable extends Snapshotable {
+
+    /**
+     * Used to collect the serializable state changed since the previous incremental snapshot, or since the state was
+     * reset, after which the changes are tracked anew.
+     *
+     * @return changed stateful objects of the processing element, or null if nothing has changed
+     */
+    Map<String, Object> currentIncrementalState();
+
+    /**
+     * Used to restore the changed state of the processing element over the state restored from the previous
+     * snapshots.
+     *
+     * @param incrementalState the changed stateful objects of the element as provided by currentIncrementalState()
+     */
+    void restoreIncrementalState(Map<String, Object> incrementalState);
+
+    /**
+     * Used to track the changes anew, when the whole state is collected as the base of incremental snapshots.
+     */
+    void resetIncrementalState();
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface for the codecs used by {@link ByteSerializer} to encode the snapshots of Siddhi apps to bytes and to
+ * decode them back. The codec is set to the Siddhi manager through
+ * {@link org.wso2.siddhi.core.SiddhiManager#setSnapshotCodec(SnapshotCodec)}, where
+ * {@link BinarySnapshotCodec} is used by default.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Encode the snapshot to bytes.
+     *
+     * @param snapshot snapshot, made of the states of the processing elements
+     * @return encoded snapshot
+     * @throws IOException if the snapshot cannot be encoded
+     */
+    byte[] encode(Object snapshot) throws IOException;
+
+    /**
+     * Decode a snapshot encoded by the codec.
+     *
+     * @param bytes encoded snapshot
+     * @return snapshot
+     * @throws IOException            if the snapshot cannot be decoded
+     * @throws ClassNotFoundException if a class of the snapshot cannot be found
+     */
+    Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+
+    /**
+     * Encode the snapshot to the stream, leaving the stream open. Codecs can override this to write the snapshot as
+     * it is encoded, instead of encoding the whole snapshot to bytes.
+     *
+     * @param snapshot     snapshot, made of the states of the processing elements
+     * @param outputStream stream to write the encoded snapshot to
+     * @throws IOException if the snapshot cannot be encoded or written
+     */
+    default void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(encode(snapshot));
+    }
+
+    /**
+     * Decode a snapshot encoded by the codec from the stream, leaving the stream open. Codecs can override this to
+     * decode the snapshot as it is read, instead of reading the whole snapshot to bytes.
+     *
+     * @param inputStream stream of the encoded snapshot
+     * @return snapshot
+     * @throws IOException            if the snapshot cannot be read or decoded
+     * @throws ClassNotFoundException if a class of the snapshot cannot be found
+     */
+    default Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return decode(outputStream.toByteArray());
+    }
+}
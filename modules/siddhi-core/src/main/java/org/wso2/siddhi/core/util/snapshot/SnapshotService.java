@@ -20,12 +20,23 @@ package org.wso2.siddhi.core.util.snapshot;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.util.ThreadBarrier;
 
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -35,9 +46,13 @@ public class SnapshotService {
 
     private static final Logger log = Logger.getLogger(SnapshotService.class);
     private static final ThreadLocal<Boolean> skipSnapshotableThreadLocal = new ThreadLocal<Boolean>();
+    private static final ThreadLocal<List<Snapshotable>> recordSnapshotableThreadLocal =
+            new ThreadLocal<List<Snapshotable>>();
 
     private final ThreadBarrier threadBarrier;
-    private HashMap<String, List<Snapshotable>> snapshotableMap = new HashMap<String, List<Snapshotable>>();
+    private HashMap<String, Set<Snapshotable>> snapshotableMap = new HashMap<String, Set<Snapshotable>>();
+    private Map<String, byte[]> stateDigests = new HashMap<String, byte[]>();
+    private final Object incrementalSnapshotLock = new Object();
     private SiddhiAppContext siddhiAppContext;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
@@ -50,54 +65,76 @@ public class SnapshotService {
         return skipSnapshotableThreadLocal;
     }
 
+    /**
+     * When set, snapshotables added by the current thread are also added to the given list, such that elements
+     * created together, e.g. a partition instance, can be removed together.
+     *
+     * @return thread local holding the list recording the added snapshotables
+     */
+    public static ThreadLocal<List<Snapshotable>> getRecordSnapshotableThreadLocal() {
+        return recordSnapshotableThreadLocal;
+    }
+
     public synchronized void addSnapshotable(String queryName, Snapshotable snapshotable) {
         Boolean skipSnapshotable = skipSnapshotableThreadLocal.get();
         if (skipSnapshotable == null || !skipSnapshotable) {
-            List<Snapshotable> snapshotableList = snapshotableMap.get(queryName);
-
-            // if List does not exist create it
-            if (snapshotableList == null) {
-                snapshotableList = new ArrayList<Snapshotable>();
-                snapshotableList.add(snapshotable);
-                snapshotableMap.put(queryName, snapshotableList);
-            } else {
-                // add if item is not already in list
-                if (!snapshotableList.contains(snapshotable)) {
-                    snapshotableList.add(snapshotable);
-                }
+            List<Snapshotable> recordedSnapshotables = recordSnapshotableThreadLocal.get();
+            if (recordedSnapshotables != null) {
+                recordedSnapshotables.add(snapshotable);
+            }
+            Set<Snapshotable> snapshotables = snapshotableMap.get(queryName);
+
+            // if set does not exist create it, keeping the order the elements are added in to restore them
+            if (snapshotables == null) {
+                snapshotables = new LinkedHashSet<Snapshotable>();
+                snapshotableMap.put(queryName, snapshotables);
+            }
+            snapshotables.add(snapshotable);
+        }
+    }
+
+    public synchronized void removeSnapshotables(List<Snapshotable> snapshotables) {
+        for (Set<Snapshotable> snapshotableSet : snapshotableMap.values()) {
+            for (Snapshotable snapshotable : snapshotables) {
+                snapshotableSet.remove(snapshotable);
             }
         }
     }
 
     public byte[] snapshot() {
-        HashMap<String, Map<String, Object>> snapshots = new HashMap<>(snapshotableMap.size());
-        List<Snapshotable> snapshotableList;
-        byte[] serializedSnapshots;
+        return captureSnapshot().serialize();
+    }
+
+    /**
+     * Capture the states of the processing elements, locking the Siddhi app only while the states are copied, such
+     * that the captured snapshot can be serialized and persisted while the app goes on processing events. The states
+     * of the queries, partitions and tables are copied in parallel on the snapshot pool of the app.
+     *
+     * @return captured snapshot
+     */
+    public CapturedSnapshot captureSnapshot() {
+        Map<String, Map<String, Object>> snapshots = new ConcurrentHashMap<>();
         if (log.isDebugEnabled()) {
             log.debug("Taking snapshot ...");
         }
         try {
             threadBarrier.lock();
-            for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                snapshotableList = entry.getValue();
-                snapshotableList.forEach(snapshotableElement -> snapshots.put(snapshotableElement.getElementId(),
-                        snapshotableElement.currentState()));
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization started ...");
-            }
-            serializedSnapshots = ByteSerializer.objectToByte(snapshots, siddhiAppContext);
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization finished.");
-            }
+            forEachInParallel(siddhiAppContext, getSnapshotableLists(true), snapshotableList -> {
+                StateCopier stateCopier = new StateCopier(siddhiAppContext);
+                for (Snapshotable snapshotable : snapshotableList) {
+                    Map<String, Object> state = (Map<String, Object>) stateCopier.copy(snapshotable.currentState());
+                    if (state != null) {
+                        snapshots.put(snapshotable.getElementId(), state);
+                    }
+                }
+            });
         } finally {
             threadBarrier.unlock();
         }
         if (log.isDebugEnabled()) {
             log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
         }
-
-        return serializedSnapshots;
+        return new CapturedSnapshot(snapshots, siddhiAppContext);
     }
 
     public Map<String, Object> queryState(String queryName) {
@@ -105,7 +142,7 @@ public class SnapshotService {
         try {
             // Lock the threads in Siddhi
             threadBarrier.lock();
-            List<Snapshotable> list = snapshotableMap.get(queryName);
+            List<Snapshotable> list = getSnapshotableList(queryName);
 
             if (list != null) {
                 for (Snapshotable element : list) {
@@ -124,17 +161,161 @@ public class SnapshotService {
 
     }
 
+    /**
+     * Take an incremental snapshot holding the states of the elements changed since the previous incremental
+     * snapshot, or the states of all the elements when full, as the base of the following incremental snapshots.
+     * {@link IncrementalSnapshotable} elements provide their own changes, while the other elements are included when
+     * their serialized state differs from the one of the previous incremental snapshot. Incremental snapshots are
+     * taken one at a time, as each is compared with the previous one.
+     *
+     * @param full whether to include the states of all the elements
+     * @return serialized {@link IncrementalSnapshot}
+     */
+    public byte[] incrementalSnapshot(boolean full) {
+        synchronized (incrementalSnapshotLock) {
+            Map<String, byte[]> states = new HashMap<>();
+            Map<String, Map<String, Object>> incrementalStates = new ConcurrentHashMap<>();
+            if (log.isDebugEnabled()) {
+                log.debug("Taking " + (full ? "full" : "incremental") + " snapshot ...");
+            }
+            Map<String, Map<String, Object>> capturedStates = new ConcurrentHashMap<>();
+            Set<String> resetElements = ConcurrentHashMap.newKeySet();
+            Map<String, byte[]> capturedDigests;
+            Map<String, byte[]> previousDigests;
+            try {
+                // the app is locked before this service, as the events being processed when the app is locked may
+                // add elements to this service
+                threadBarrier.lock();
+                List<List<Snapshotable>> snapshotableLists;
+                synchronized (this) {
+                    snapshotableLists = getSnapshotableLists(true);
+                    capturedDigests = stateDigests;
+                    previousDigests = full ? new HashMap<String, byte[]>() : capturedDigests;
+                }
+                // only copy the states while locked, they are serialized and compared once the app is unlocked
+                forEachInParallel(siddhiAppContext, snapshotableLists, snapshotableList -> {
+                    StateCopier stateCopier = new StateCopier(siddhiAppContext);
+                    for (Snapshotable snapshotable : snapshotableList) {
+                        String elementId = snapshotable.getElementId();
+                        if (snapshotable instanceof IncrementalSnapshotable &&
+                                previousDigests.get(elementId) != null) {
+                            Map<String, Object> incrementalState =
+                                    ((IncrementalSnapshotable) snapshotable).currentIncrementalState();
+                            if (incrementalState != null) {
+                                incrementalStates.put(elementId,
+                                        (Map<String, Object>) stateCopier.copy(incrementalState));
+                            }
+                            continue;
+                        }
+                        Map<String, Object> state =
+                                (Map<String, Object>) stateCopier.copy(snapshotable.currentState());
+                        if (state != null) {
+                            capturedStates.put(elementId, state);
+                        }
+                        if (snapshotable instanceof IncrementalSnapshotable) {
+                            // the element tracks its own changes from here on
+                            ((IncrementalSnapshotable) snapshotable).resetIncrementalState();
+                            resetElements.add(elementId);
+                        }
+                    }
+                });
+            } finally {
+                threadBarrier.unlock();
+            }
+            // the element states are serialized and digested in parallel, and compared with the previous digests after
+            Map<String, byte[]> serializedStates = new ConcurrentHashMap<>();
+            Map<String, byte[]> digests = new ConcurrentHashMap<>();
+            forEachInParallel(siddhiAppContext, capturedStates.entrySet(), entry -> {
+                String elementId = entry.getKey();
+                byte[] state = ByteSerializer.objectToByte(entry.getValue(), siddhiAppContext);
+                if (state != null) {
+                    serializedStates.put(elementId, state);
+                    digests.put(elementId, resetElements.contains(elementId) ? new byte[0] :
+                            createMessageDigest().digest(state));
+                }
+            });
+            Map<String, byte[]> currentDigests = new HashMap<String, byte[]>(previousDigests);
+            for (Map.Entry<String, byte[]> entry : digests.entrySet()) {
+                String elementId = entry.getKey();
+                if (!Arrays.equals(entry.getValue(), previousDigests.get(elementId))) {
+                    states.put(elementId, serializedStates.get(elementId));
+                }
+                currentDigests.put(elementId, entry.getValue());
+            }
+            synchronized (this) {
+                // the digests are dropped when a snapshot is restored meanwhile
+                if (stateDigests == capturedDigests) {
+                    stateDigests = currentDigests;
+                }
+            }
+            byte[] serializedSnapshot = ByteSerializer.objectToByte(new IncrementalSnapshot(states,
+                    new HashMap<>(incrementalStates)), siddhiAppContext);
+            if (log.isDebugEnabled()) {
+                log.debug((full ? "Full" : "Incremental") + " snapshot taken for Siddhi app '" +
+                        siddhiAppContext.getName() + "' with " + states.size() + " element states and " +
+                        incrementalStates.size() + " incremental element states");
+            }
+            return serializedSnapshot;
+        }
+    }
+
     public void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException {
-        Map<String, Map<String, Object>> snapshots = (Map<String, Map<String, Object>>)
-                ByteSerializer.byteToObject(snapshot, siddhiAppContext);
-        List<Snapshotable> snapshotableList;
+        restoreSnapshot(ByteSerializer.byteToObject(snapshot, siddhiAppContext));
+    }
+
+    /**
+     * Restore the snapshot read from the stream, as it is decoded, without reading the whole snapshot to memory.
+     *
+     * @param snapshot stream of the snapshot, left open
+     * @throws CannotRestoreSiddhiAppStateException if the snapshot cannot be restored
+     */
+    public void restore(InputStream snapshot) throws CannotRestoreSiddhiAppStateException {
+        restoreSnapshot(ByteSerializer.streamToObject(snapshot, siddhiAppContext));
+    }
+
+    private void restoreSnapshot(Object snapshots) throws CannotRestoreSiddhiAppStateException {
+        synchronized (this) {
+            // the following incremental snapshot has to hold the whole restored state
+            stateDigests = new HashMap<String, byte[]>();
+        }
+        if (snapshots instanceof IncrementalSnapshot) {
+            // the element states are removed as they are restored, to be collected as early as possible
+            Map<String, byte[]> states = new ConcurrentHashMap<>(((IncrementalSnapshot) snapshots).getStates());
+            Map<String, Map<String, Object>> incrementalStates = ((IncrementalSnapshot) snapshots)
+                    .getIncrementalStates();
+            restore(snapshotable -> restoreIncrementalSnapshot(snapshotable, states, incrementalStates));
+        } else {
+            Map<String, Map<String, Object>> fullSnapshots = (Map<String, Map<String, Object>>) snapshots;
+            restore(snapshotable -> snapshotable.restoreState(fullSnapshots.get(snapshotable.getElementId())));
+        }
+    }
+
+    private void restoreIncrementalSnapshot(Snapshotable snapshotable, Map<String, byte[]> states,
+                                            Map<String, Map<String, Object>> incrementalStates) {
+        String elementId = snapshotable.getElementId();
+        byte[] state = states.remove(elementId);
+        if (state != null) {
+            snapshotable.restoreState((Map<String, Object>) ByteSerializer.byteToObject(state, siddhiAppContext));
+        } else {
+            Map<String, Object> incrementalState = incrementalStates.get(elementId);
+            if (incrementalState != null) {
+                ((IncrementalSnapshotable) snapshotable).restoreIncrementalState(incrementalState);
+            }
+        }
+    }
+
+    /**
+     * Restore the elements, the partitions first as they create the elements of their partition instances, followed
+     * by the queries and tables in parallel, restoring the elements of each in the order they are added.
+     */
+    private void restore(Consumer<Snapshotable> snapshotableRestorer) throws CannotRestoreSiddhiAppStateException {
         try {
             threadBarrier.lock();
-            List<Snapshotable> partitionSnapshotables = snapshotableMap.get("partition");
+            List<Snapshotable> partitionSnapshotables = getSnapshotableList("partition");
             try {
                 if (partitionSnapshotables != null) {
                     for (Snapshotable snapshotable : partitionSnapshotables) {
-                        snapshotable.restoreState(snapshots.get(snapshotable.getElementId()));
+                        snapshotableRestorer.accept(snapshotable);
                     }
                 }
             } catch (Throwable t) {
@@ -143,23 +324,75 @@ public class SnapshotService {
                         "last state persistence. Clean persistence store for a fresh deployment.", t);
             }
 
-            for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                if (entry.getKey().equals("partition")) {
-                    continue;
-                }
-                snapshotableList = entry.getValue();
-                try {
+            try {
+                forEachInParallel(siddhiAppContext, getSnapshotableLists(false), snapshotableList -> {
                     for (Snapshotable snapshotable : snapshotableList) {
-                        snapshotable.restoreState(snapshots.get(snapshotable.getElementId()));
+                        snapshotableRestorer.accept(snapshotable);
                     }
-                } catch (Throwable t) {
-                    throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
-                            getName() + " not completed properly because content of Siddhi app has changed since " +
-                            "last state persistence. Clean persistence store for a fresh deployment.", t);
-                }
+                });
+            } catch (Throwable t) {
+                throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                        getName() + " not completed properly because content of Siddhi app has changed since " +
+                        "last state persistence. Clean persistence store for a fresh deployment.", t);
             }
         } finally {
             threadBarrier.unlock();
         }
     }
+
+    /**
+     * Run the action for each item in parallel on the snapshot pool of the app, instead of the common pool of the
+     * JVM, waiting for all of them.
+     *
+     * @param siddhiAppContext context of the app
+     * @param items            items to run the action for
+     * @param action           action to run
+     * @param <T>              type of the items
+     */
+    static <T> void forEachInParallel(SiddhiAppContext siddhiAppContext, Collection<T> items, Consumer<T> action) {
+        try {
+            siddhiAppContext.getSnapshotPool().submit(() -> items.parallelStream().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SiddhiAppRuntimeException("Interrupted while processing the snapshot of Siddhi app '" +
+                    siddhiAppContext.getName() + "'", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new SiddhiAppRuntimeException("Error while processing the snapshot of Siddhi app '" +
+                    siddhiAppContext.getName() + "'", e.getCause());
+        }
+    }
+
+    /**
+     * Get the elements of each query, partition and table, to be processed in parallel.
+     *
+     * @param includePartitions whether to include the partitions
+     * @return copies of the element lists, taken while elements cannot be added or removed
+     */
+    private synchronized List<List<Snapshotable>> getSnapshotableLists(boolean includePartitions) {
+        List<List<Snapshotable>> snapshotableLists = new ArrayList<>(snapshotableMap.size());
+        for (Map.Entry<String, Set<Snapshotable>> entry : snapshotableMap.entrySet()) {
+            if (includePartitions || !entry.getKey().equals("partition")) {
+                snapshotableLists.add(new ArrayList<>(entry.getValue()));
+            }
+        }
+        return snapshotableLists;
+    }
+
+    private synchronized List<Snapshotable> getSnapshotableList(String queryName) {
+        Set<Snapshotable> snapshotables = snapshotableMap.get(queryName);
+        return snapshotables == null ? null : new ArrayList<>(snapshotables);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SiddhiAppRuntimeException("Cannot compare the element states of incremental snapshots", e);
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Copies the states of the processing elements while the Siddhi app is locked for a snapshot, so that the states
+ * can be serialized after the app is unlocked, while the elements go on changing their own states.
+ * <p>
+ * Events, event chunks, arrays, the common collections and {@link CopyableState}s, such as the event holders of
+ * tables, are copied structurally, sharing the immutable values, while objects referenced more than once are copied
+ * once. Other objects are copied by serializing them.
+ */
+class StateCopier {
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+    StateCopier(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Long ||
+                value instanceof Double || value instanceof Float || value instanceof Boolean ||
+                value instanceof Short || value instanceof Byte || value instanceof Character ||
+                value instanceof Enum;
+    }
+
+    Object copy(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> type = value.getClass();
+        if (value instanceof CopyableState) {
+            Object stateCopy = ((CopyableState) value).copyState(this::copy);
+            copies.put(value, stateCopy);
+            return stateCopy;
+        } else if (type == StreamEvent.class) {
+            return copyStreamEventChain((StreamEvent) value);
+        } else if (type == StateEvent.class) {
+            return copyStateEventChain((StateEvent) value);
+        } else if (type == ComplexEventChunk.class) {
+            ComplexEventChunk<ComplexEvent> eventChunk = (ComplexEventChunk<ComplexEvent>) value;
+            ComplexEventChunk<ComplexEvent> eventChunkCopy = new ComplexEventChunk<ComplexEvent>(eventChunk.isBatch());
+            copies.put(value, eventChunkCopy);
+            ComplexEvent first = (ComplexEvent) copy(eventChunk.getFirst());
+            if (first != null) {
+                eventChunkCopy.add(first);
+            }
+            return eventChunkCopy;
+        } else if (type.isArray()) {
+            int length = Array.getLength(value);
+            Object arrayCopy = Array.newInstance(type.getComponentType(), length);
+            copies.put(value, arrayCopy);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, arrayCopy, 0, length);
+            } else {
+                Object[] array = (Object[]) value;
+                for (int i = 0; i < length; i++) {
+                    ((Object[]) arrayCopy)[i] = copy(array[i]);
+                }
+            }
+            return arrayCopy;
+        } else if (type == HashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return copyMap(map, new HashMap<Object, Object>(map.size() * 4 / 3 + 1));
+        } else if (type == LinkedHashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return copyMap(map, new LinkedHashMap<Object, Object>(map.size() * 4 / 3 + 1));
+        } else if (type == ConcurrentHashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return copyMap(map, new ConcurrentHashMap<Object, Object>(map.size() * 4 / 3 + 1));
+        } else if (type == TreeMap.class) {
+            Comparator<Object> comparator = (Comparator<Object>) ((TreeMap<?, ?>) value).comparator();
+            return copyMap((Map<?, ?>) value, new TreeMap<Object, Object>(comparator));
+        } else if (type == ArrayList.class) {
+            return copyCollection((Collection<?>) value, new ArrayList<Object>(((Collection<?>) value).size()));
+        } else if (type == LinkedList.class) {
+            return copyCollection((Collection<?>) value, new LinkedList<Object>());
+        } else if (type == ArrayDeque.class) {
+            return copyCollection((Collection<?>) value, new ArrayDeque<Object>(((Collection<?>) value).size()));
+        } else if (type == HashSet.class) {
+            Collection<?> set = (Collection<?>) value;
+            return copyCollection(set, new HashSet<Object>(set.size() * 4 / 3 + 1));
+        } else if (type == LinkedHashSet.class) {
+            Collection<?> set = (Collection<?>) value;
+            return copyCollection(set, new LinkedHashSet<Object>(set.size() * 4 / 3 + 1));
+        } else if (type == TreeSet.class) {
+            Comparator<Object> comparator = (Comparator<Object>) ((TreeSet<?>) value).comparator();
+            return copyCollection((Collection<?>) value, new TreeSet<Object>(comparator));
+        } else if (type == Semaphore.class) {
+            Semaphore semaphoreCopy = new Semaphore(((Semaphore) value).availablePermits());
+            copies.put(value, semaphoreCopy);
+            return semaphoreCopy;
+        } else {
+            Object objectCopy = ByteSerializer.byteToObject(ByteSerializer.objectToByte(value, siddhiAppContext),
+                    siddhiAppContext);
+            copies.put(value, objectCopy);
+            return objectCopy;
+        }
+    }
+
+    private Map<Object, Object> copyMap(Map<?, ?> map, Map<Object, Object> mapCopy) {
+        copies.put(map, mapCopy);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            mapCopy.put(copy(entry.getKey()), copy(entry.getValue()));
+        }
+        return mapCopy;
+    }
+
+    private Collection<Object> copyCollection(Collection<?> collection, Collection<Object> collectionCopy) {
+        copies.put(collection, collectionCopy);
+        for (Object element : collection) {
+            collectionCopy.add(copy(element));
+        }
+        return collectionCopy;
+    }
+
+    /**
+     * Copy the events of the chain iteratively, up to an event already copied or of another type.
+     */
+    private StreamEvent copyStreamEventChain(StreamEvent streamEvent) {
+        StreamEvent first = copyStreamEvent(streamEvent);
+        StreamEvent last = first;
+        StreamEvent next = streamEvent.getNext();
+        while (next != null) {
+            if (next.getClass() != StreamEvent.class || copies.containsKey(next)) {
+                last.setNext((ComplexEvent) copy(next));
+                break;
+            }
+            StreamEvent nextCopy = copyStreamEvent(next);
+            last.setNext(nextCopy);
+            last = nextCopy;
+            next = next.getNext();
+        }
+        return first;
+    }
+
+    private StreamEvent copyStreamEvent(StreamEvent streamEvent) {
+        StreamEvent streamEventCopy = new StreamEvent(0, 0, 0);
+        copies.put(streamEvent, streamEventCopy);
+        streamEventCopy.setTimestamp(streamEvent.getTimestamp());
+        streamEventCopy.setType(streamEvent.getType());
+        streamEventCopy.setBeforeWindowData((Object[]) copy(streamEvent.getBeforeWindowData()));
+        streamEventCopy.setOnAfterWindowData((Object[]) copy(streamEvent.getOnAfterWindowData()));
+        streamEventCopy.setOutputData((Object[]) copy(streamEvent.getOutputData()));
+        return streamEventCopy;
+    }
+
+    private StateEvent copyStateEventChain(StateEvent stateEvent) {
+        StateEvent first = copyStateEvent(stateEvent);
+        StateEvent last = first;
+        StateEvent next = stateEvent.getNext();
+        while (next != null) {
+            if (next.getClass() != StateEvent.class || copies.containsKey(next)) {
+                last.setNext((ComplexEvent) copy(next));
+                break;
+            }
+            StateEvent nextCopy = copyStateEvent(next);
+            last.setNext(nextCopy);
+            last = nextCopy;
+            next = next.getNext();
+        }
+        return first;
+    }
+
+    private StateEvent copyStateEvent(StateEvent stateEvent) {
+        StreamEvent[] streamEvents = stateEvent.getStreamEvents();
+        Object[] outputData = stateEvent.getOutputData();
+        StateEvent stateEventCopy = new StateEvent(streamEvents.length, outputData.length);
+        copies.put(stateEvent, stateEventCopy);
+        stateEventCopy.setTimestamp(stateEvent.getTimestamp());
+        stateEventCopy.setType(stateEvent.getType());
+        stateEventCopy.setId(stateEvent.getId());
+        for (int i = 0; i < streamEvents.length; i++) {
+            stateEventCopy.setEvent(i, (StreamEvent) copy(streamEvents[i]));
+        }
+        for (int i = 0; i < outputData.length; i++) {
+            stateEventCopy.setOutputData(copy(outputData[i]), i);
+        }
+        return stateEventCopy;
+    }
+}
@@ -31,6 +31,14 @@ public interface MemoryUsageTracker {
      */
     void registerObject(Object object, String name);
 
+    /**
+     * Stop measuring the memory usage of an object, such as a purged partition instance
+     *
+     * @param object Object
+     */
+    default void unregisterObject(Object object) {
+    }
+
     /**
      * @param object Object
      * @return Name of the mem tracker
@@ -50,6 +50,14 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
         }
     }
 
+    @Override
+    public void unregisterObject(Object object) {
+        ObjectMetric objectMetric = registeredObjects.remove(object);
+        if (objectMetric != null) {
+            metricRegistry.remove(objectMetric.getName());
+        }
+    }
+
     /**
      * @return Name of the memory usage tracker.
      */
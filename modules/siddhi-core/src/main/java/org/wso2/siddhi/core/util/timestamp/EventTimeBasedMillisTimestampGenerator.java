@@ -127,6 +127,17 @@ public class EventTimeBasedMillisTimestampGenerator implements TimestampGenerato
         }
     }
 
+    /**
+     * Stop listening for time changes.
+     *
+     * @param listener listener registered with {@link #addTimeChangeListener(TimeChangeListener)}
+     */
+    public void removeTimeChangeListener(TimeChangeListener listener) {
+        synchronized (this) {
+            this.timeChangeListeners.remove(listener);
+        }
+    }
+
     /**
      * The {@link ScheduledExecutorService} waits until idleTime from the timestamp of last event
      * and if there are no new events arrived within that period, it will inject a new timestamp.
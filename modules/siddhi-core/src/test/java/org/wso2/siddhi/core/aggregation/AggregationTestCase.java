@@ -1228,7 +1228,7 @@ public class AggregationTestCase {
                         "within \"2017-01-01 00:00:00\", \"2021-01-01 00:00:00\" " +
                         "per \"years\" " +
                         "select AGG_TIMESTAMP, s.symbol, avgPrice, totalPrice " +
-                        "order by AGG_TIMESTAMP " +
+                        "order by AGG_TIMESTAMP, s.symbol " +
                         "insert all events into outputStream; ";
 
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
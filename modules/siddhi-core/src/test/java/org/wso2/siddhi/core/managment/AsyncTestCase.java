@@ -26,10 +26,13 @@ import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class AsyncTestCase {
     private static final Logger log = Logger.getLogger(AsyncTestCase.class);
     private int count;
@@ -160,4 +163,327 @@ public class AsyncTestCase {
 
     }
 
+    @Test
+    public void asyncTest6() throws InterruptedException {
+        log.info("async test 6");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='4')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 90] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(100 + count, event.getData(1));
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[10];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, 100 + i});
+        }
+        inputHandler.send(events);
+        inputHandler.send(new Object[]{"IBM", 9.6f, 110});
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(11, count);
+
+    }
+
+    @Test
+    public void asyncTest7() throws InterruptedException {
+        log.info("async test 7");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@async(buffer.size='2')" +
+                "define stream innerStream (symbol string, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.lengthBatch(5) " +
+                "select symbol, volume " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(count, event.getData(1));
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(10, count);
+
+    }
+
+    @Test
+    public void asyncTest8() throws InterruptedException {
+        log.info("async test 8");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='16', wait.strategy='busy-spin', producer='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume >= 100] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(100 + count, event.getData(1));
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100 + i});
+        }
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(100, count);
+
+    }
+
+    @Test
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='64', wait.strategy='yielding', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume >= 0] " +
+                "select symbol, volume " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.length(5) " +
+                "select symbol, volume " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        final AtomicInteger statelessCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                statelessCount.addAndGet(events.length);
+            }
+
+        });
+        siddhiAppRuntime.addCallback("outputStream2", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(count, event.getData(1));
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(1000, statelessCount.get());
+        AssertJUnit.assertEquals(1000, count);
+
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='64', wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume >= 0] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='64', producer='many')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume >= 0] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='16')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(500) " +
+                "select symbol, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        final AtomicInteger expiredCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    eventArrived = true;
+                    for (Event event : inEvents) {
+                        AssertJUnit.assertEquals(count, event.getData(1));
+                        count++;
+                    }
+                }
+                if (removeEvents != null) {
+                    expiredCount.addAndGet(removeEvents.length);
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Thread.sleep(2000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(100, count);
+        AssertJUnit.assertEquals(100, expiredCount.get());
+    }
+
+    @Test
+    public void asyncTest13() throws InterruptedException {
+        log.info("async test 13 - workers evaluate the stateless query on their own clones");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:compile " +
+                "@async(buffer.size='64', wait.strategy='yielding', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume % 2 == 0] " +
+                "select volume, volume * 2 as doubledVolume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        final AtomicInteger outputCount = new AtomicInteger(0);
+        final AtomicInteger mismatchCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    long volume = (Long) event.getData(0);
+                    if (volume % 2 != 0 || (Long) event.getData(1) != volume * 2) {
+                        mismatchCount.incrementAndGet();
+                    }
+                    outputCount.incrementAndGet();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 10000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(5000, outputCount.get());
+        AssertJUnit.assertEquals(0, mismatchCount.get());
+
+    }
 }
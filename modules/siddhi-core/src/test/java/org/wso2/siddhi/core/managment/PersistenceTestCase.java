@@ -33,12 +33,21 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class PersistenceTestCase {
     private static final Logger log = Logger.getLogger(PersistenceTestCase.class);
@@ -1042,4 +1051,534 @@ public class PersistenceTestCase {
         AssertJUnit.assertEquals(new Long(4), lastValue);
         AssertJUnit.assertEquals(true, eventArrived);
     }
+
+    @Test
+    public void persistenceTest13() throws Exception {
+        log.info("persistence test 13 - incremental persistence of table and window queries");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                "   on CheckStockStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, StockTable.volume " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from StockStream#window.lengthBatch(3) " +
+                "select sum(volume) as totalVolume " +
+                "insert into BatchStream ;";
+
+        StreamCallback outStreamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                count += events.length;
+            }
+        };
+        StreamCallback batchStreamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                lastValue = (Long) events[events.length - 1].getData(0);
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        siddhiAppRuntime.persistIncremental().getFuture().get();
+        stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+        siddhiAppRuntime.persistIncremental().getFuture().get();
+        PersistenceReference persistenceReference = siddhiAppRuntime.persistIncremental();
+        persistenceReference.getFuture().get();
+        AssertJUnit.assertTrue(persistenceReference.getRevision().endsWith("#2"));
+
+        //restarting siddhi app
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", outStreamCallback);
+        siddhiAppRuntime.addCallback("BatchStream", batchStreamCallback);
+        stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            AssertJUnit.assertEquals(persistenceReference.getRevision(), siddhiAppRuntime.restoreLastRevision());
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"IBM"});
+        stockStream.send(new Object[]{"GOOG", 35.6f, 300L});
+
+        //shutdown siddhi app
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(2, count);
+        AssertJUnit.assertEquals(new Long(600), lastValue);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest13")
+    public void persistenceTest14() throws InterruptedException {
+        log.info("persistence test 14 - restore Java serialized and compressed binary snapshots");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setSnapshotCodec(new JavaSnapshotCodec());
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting with Java serialization
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        //restoring with the compressed binary codec
+        siddhiManager.setSnapshotCodec(new BinarySnapshotCodec(BinarySnapshotCodec.Compression.DEFLATE));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest14")
+    public void persistenceTest15() throws Exception {
+        log.info("persistence test 15 - events processed while the snapshot is persisted");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(100) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+
+        //events sent while persisting are not part of the persisted state
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        for (int i = 0; i < 50; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        }
+        persistenceReference.getFuture().get();
+        AssertJUnit.assertEquals(new Long(5200), lastValue);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(53, count);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest15")
+    public void persistenceTest16() throws Exception {
+        log.info("persistence test 16 - file system persistence store");
+
+        Path location = Files.createTempDirectory("siddhi-persistence-test");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(location.toString(), 1);
+        Map<String, String> properties = new HashMap<>();
+        properties.put(FileSystemPersistenceStore.SEGMENT_SIZE, "64");
+        persistenceStore.setProperties(properties);
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        Thread.sleep(10);
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        //only the last revision is kept
+        try (Stream<Path> revisions = Files.list(location.resolve("Test"))) {
+            AssertJUnit.assertEquals(1, revisions.count());
+        }
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest16")
+    public void persistenceTest17() throws Exception {
+        log.info("persistence test 17 - snapshot and restore of many queries");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        StringBuilder siddhiApp = new StringBuilder("" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );");
+        for (int i = 0; i < 20; i++) {
+            siddhiApp.append("" +
+                    "@info(name = 'query").append(i).append("')" +
+                    "from StockStream[volume > ").append(i).append("]#window.length(10) " +
+                    "select ").append(i).append(" as query, sum(volume) as totalVol " +
+                    "insert into OutStream ;");
+        }
+        Map<Integer, Long> totals = new ConcurrentHashMap<>();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    totals.put((Integer) event.getData(0), (Long) event.getData(1));
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.toString());
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, i});
+        }
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.toString());
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        totals.clear();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 50});
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(20, totals.size());
+        for (int i = 0; i < 20; i++) {
+            // the windows hold the volumes above the query number, of which 50 expires the 11th last
+            long total = 50;
+            for (int volume = Math.max(i + 1, 11); volume < 20; volume++) {
+                total += volume;
+            }
+            AssertJUnit.assertEquals("Total of query" + i, new Long(total), totals.get(i));
+        }
+    }
+
+    @Test(dependsOnMethods = "persistenceTest17")
+    public void persistenceTest18() throws Exception {
+        log.info("persistence test 18 - replay of journaled events after restart");
+
+        Path location = Files.createTempDirectory("siddhi-input-journal-test");
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setInputJournalLocation(location.toString());
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        //the events sent after the persistence are replayed from the journal
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        AssertJUnit.assertEquals(5, count);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        //the events preceding the last persistence are not replayed again
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        AssertJUnit.assertEquals(6, count);
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(7, count);
+        AssertJUnit.assertEquals(new Long(500), lastValue);
+    }
+
+    @Test
+    public void persistenceTest19() throws Exception {
+        log.info("persistence test 19 - incremental persistence following a failed incremental revision");
+
+        AtomicInteger failingSaves = new AtomicInteger(1);
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore() {
+            @Override
+            public void saveIncremental(String siddhiAppId, String baseRevision, String revision, byte[] snapshot) {
+                if (failingSaves.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Store not available");
+                }
+                super.saveIncremental(siddhiAppId, baseRevision, revision, snapshot);
+            }
+        };
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                "   on CheckStockStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, StockTable.volume " +
+                "insert into OutStream ;";
+
+        StreamCallback outStreamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                count += events.length;
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        siddhiAppRuntime.persistIncremental().getFuture().get();
+        stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+        try {
+            siddhiAppRuntime.persistIncremental().getFuture().get();
+            Assert.fail("Incremental revision persisted to an unavailable store");
+        } catch (ExecutionException e) {
+            log.info("Incremental revision not persisted: " + e.getCause().getMessage());
+        }
+        stockStream.send(new Object[]{"GOOG", 35.6f, 300L});
+        //the changes of the failed revision are held by a new full revision
+        PersistenceReference persistenceReference = siddhiAppRuntime.persistIncremental();
+        persistenceReference.getFuture().get();
+        AssertJUnit.assertFalse(persistenceReference.getRevision().contains("#"));
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", outStreamCallback);
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        AssertJUnit.assertEquals(persistenceReference.getRevision(), siddhiAppRuntime.restoreLastRevision());
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"IBM"});
+        checkStockStream.send(new Object[]{"GOOG"});
+
+        //shutdown siddhi app
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(3, count);
+    }
 }
@@ -27,6 +27,7 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.api.annotation.Annotation;
@@ -38,6 +39,10 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class FilterTestCase2 {
     private static final Logger log = Logger.getLogger(FilterTestCase2.class);
     private volatile int count;
@@ -1754,4 +1759,165 @@ public class FilterTestCase2 {
 
     }
 
+    @Test
+    public void filterTest122() throws InterruptedException {
+        log.info("filter test122 - vectorized batches are filtered as events are filtered one by one");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "@app:vectorize " +
+                "define stream BatchStream (symbol string, price float, volume long, quantity int); " +
+                "define stream EventStream (symbol string, price float, volume long, quantity int); ";
+        String condition = "[(price > 50 and volume <= 150) or not (quantity != 10) or " +
+                "(40.5 >= price and volume > quantity)]";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from BatchStream" + condition + " " +
+                "select symbol " +
+                "insert into BatchOutputStream ;" +
+                "@info(name = 'query2') " +
+                "from EventStream" + condition + " " +
+                "select symbol " +
+                "insert into EventOutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final List<Object> batchOutput = new ArrayList<Object>();
+        final List<Object> eventOutput = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("BatchOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    batchOutput.add(event.getData(0));
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("EventOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventOutput.add(event.getData(0));
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+        Event[] events = new Event[40];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"S" + i,
+                    i % 7 == 0 ? null : (float) (i * 3.5), i % 9 == 0 ? null : (long) (i * 10),
+                    i % 5 == 0 ? null : i % 4 == 0 ? 10 : i * 2});
+        }
+        siddhiAppRuntime.getInputHandler("BatchStream").send(events);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("EventStream");
+        for (Event event : events) {
+            inputHandler.send(event.getData());
+        }
+        Thread.sleep(100);
+        AssertJUnit.assertFalse(eventOutput.isEmpty());
+        AssertJUnit.assertTrue(eventOutput.size() < events.length);
+        AssertJUnit.assertEquals(eventOutput, batchOutput);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123 - math in conditions with null operands and division by zero");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "define stream StockStream (symbol string, price double, volume long, quantity int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream[((quantity * 2 + volume) / quantity > 12 and price / quantity != 5.0) " +
+                "or volume % quantity == 0] " +
+                "select symbol " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final List<Object> output = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    output.add(event.getData(0));
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        List<Object> expected = new ArrayList<Object>();
+        for (int i = 1; i <= 40; i++) {
+            Double price = i % 7 == 0 ? null : i % 2 == 0 ? i * 5.0 : i * 1.5;
+            Long volume = i % 9 == 0 ? null : i % 3 == 0 ? i * 10L : i * 11L + 1;
+            Integer quantity = i % 5 == 0 ? Integer.valueOf(0) : i % 6 == 0 ? null : Integer.valueOf(i);
+            boolean valid = volume != null && quantity != null && quantity != 0;
+            boolean first = valid && (quantity * 2 + volume) / quantity > 12;
+            boolean second = price == null || quantity == null || quantity == 0 || price / quantity != 5.0;
+            boolean third = valid && volume % quantity == 0;
+            if ((first && second) || third) {
+                expected.add("S" + i);
+            }
+            inputHandler.send(new Object[]{"S" + i, price, volume, quantity});
+        }
+        Thread.sleep(100);
+        AssertJUnit.assertFalse(expected.isEmpty());
+        AssertJUnit.assertEquals(expected, output);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest124() throws InterruptedException {
+        log.info("filter test124 - compiled filter and select expressions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "@app:compile " +
+                "define stream StockStream (symbol string, price double, volume long, quantity int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream[((quantity * 2 + volume) / quantity > 12 and price / quantity != 5.0) " +
+                "or volume % quantity == 0 or not (price < 20.0 or volume >= 100)] " +
+                "select symbol, price * quantity as total, volume - 1 as previous, quantity > 10 as large, " +
+                "coalesce(price, 0.0) as safePrice " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final List<Object> output = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    output.add(Arrays.asList(event.getData()));
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        List<Object> expected = new ArrayList<Object>();
+        for (int i = 1; i <= 40; i++) {
+            Double price = i % 7 == 0 ? null : i % 2 == 0 ? i * 5.0 : i * 1.5;
+            Long volume = i % 9 == 0 ? null : i % 3 == 0 ? i * 10L : i * 11L + 1;
+            Integer quantity = i % 5 == 0 ? Integer.valueOf(0) : i % 6 == 0 ? null : Integer.valueOf(i);
+            boolean valid = volume != null && quantity != null && quantity != 0;
+            boolean first = valid && (quantity * 2 + volume) / quantity > 12;
+            boolean second = price == null || quantity == null || quantity == 0 || price / quantity != 5.0;
+            boolean third = valid && volume % quantity == 0;
+            boolean fourth = !((price != null && price < 20.0) || (volume != null && volume >= 100));
+            if ((first && second) || third || fourth) {
+                expected.add(Arrays.asList("S" + i, price == null || quantity == null ? null : price * quantity,
+                        volume == null ? null : volume - 1, quantity != null && quantity > 10,
+                        price == null ? 0.0 : price));
+            }
+            inputHandler.send(new Object[]{"S" + i, price, volume, quantity});
+        }
+        Thread.sleep(100);
+        AssertJUnit.assertFalse(expected.isEmpty());
+        AssertJUnit.assertEquals(expected, output);
+        siddhiAppRuntime.shutdown();
+
+    }
+
 }
@@ -26,8 +26,12 @@ import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class GroupByTestCase {
     private static final Logger log = Logger.getLogger(GroupByTestCase.class);
     private volatile int count;
@@ -144,4 +148,118 @@ public class GroupByTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void testGroupByQuery3() throws InterruptedException {
+        log.info("GroupBy test3 - group by multiple attributes with null values");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, exchange string, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, exchange, sum(volume) as totalVolume " +
+                "   group by symbol, exchange " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> totalVolumes = new HashMap<String, Long>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    totalVolumes.put(event.getData(0) + "/" + event.getData(1), (Long) event.getData(2));
+                }
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", "NYSE", 100L});
+        inputHandler.send(new Object[]{"IBM", null, 200L});
+        inputHandler.send(new Object[]{"IBM", "NYSE", 300L});
+        inputHandler.send(new Object[]{null, "NYSE", 400L});
+        inputHandler.send(new Object[]{"IBM", null, 500L});
+        inputHandler.send(new Object[]{null, null, 600L});
+        inputHandler.send(new Object[]{"NYSE", "IBM", 700L});
+        Thread.sleep(100);
+
+        AssertJUnit.assertEquals(7, count);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(5, totalVolumes.size());
+        AssertJUnit.assertEquals(Long.valueOf(400), totalVolumes.get("IBM/NYSE"));
+        AssertJUnit.assertEquals(Long.valueOf(700), totalVolumes.get("IBM/null"));
+        AssertJUnit.assertEquals(Long.valueOf(400), totalVolumes.get("null/NYSE"));
+        AssertJUnit.assertEquals(Long.valueOf(600), totalVolumes.get("null/null"));
+        AssertJUnit.assertEquals(Long.valueOf(700), totalVolumes.get("NYSE/IBM"));
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testGroupByQuery4() throws InterruptedException {
+        log.info("GroupBy test4 - multiple aggregations with expired events within partitions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, exchange string, volume long);" +
+                "" +
+                "partition with (exchange of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.length(3) " +
+                "   select exchange, symbol, sum(volume) as totalVolume, count() as volumeCount, " +
+                "       max(volume) as maxVolume, sum(volume) / count() as avgVolume " +
+                "       group by symbol " +
+                "   insert into outputStream;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Object[]> lastOutputs = new HashMap<String, Object[]>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    lastOutputs.put(event.getData(0) + "/" + event.getData(1), event.getData());
+                }
+                count = count + events.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", "NYSE", 100L});
+        inputHandler.send(new Object[]{"IBM", "LSE", 1000L});
+        inputHandler.send(new Object[]{"WSO2", "NYSE", 200L});
+        inputHandler.send(new Object[]{"IBM", "NYSE", 300L});
+        inputHandler.send(new Object[]{"WSO2", "NYSE", 50L});
+        inputHandler.send(new Object[]{"IBM", "NYSE", 10L});
+        inputHandler.send(new Object[]{"IBM", "LSE", 5L});
+        Thread.sleep(100);
+
+        AssertJUnit.assertEquals(7, count);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(3, lastOutputs.size());
+        AssertJUnit.assertArrayEquals(new Object[]{"NYSE", "IBM", 310L, 2L, 300L, 155L},
+                lastOutputs.get("NYSE/IBM"));
+        AssertJUnit.assertArrayEquals(new Object[]{"NYSE", "WSO2", 250L, 2L, 200L, 125L},
+                lastOutputs.get("NYSE/WSO2"));
+        AssertJUnit.assertArrayEquals(new Object[]{"LSE", "IBM", 1005L, 2L, 1000L, 502L},
+                lastOutputs.get("LSE/IBM"));
+
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelQueryTestCase {
+    private static final Logger log = Logger.getLogger(ParallelQueryTestCase.class);
+    private volatile int count;
+    private volatile boolean inOrder;
+
+    @BeforeMethod
+    public void init() {
+        count = 0;
+        inOrder = true;
+    }
+
+    @Test
+    public void parallelQueryTest1() throws InterruptedException {
+        log.info("parallel query test 1 - output order is preserved");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@parallel(workers='4', buffer.size='16') " +
+                "from cseEventStream[volume % 3 != 0] " +
+                "select symbol, price * 2 as price, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            private int lastVolume = -1;
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    int volume = (Integer) event.getData(2);
+                    if (volume <= lastVolume || volume % 3 == 0) {
+                        inOrder = false;
+                    }
+                    lastVolume = volume;
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 3000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        waitForEvents(2000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(2000, count);
+        AssertJUnit.assertTrue(inOrder);
+    }
+
+    @Test
+    public void parallelQueryTest2() throws InterruptedException {
+        log.info("parallel query test 2 - batches are processed in order");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@parallel(workers='3') " +
+                "from cseEventStream[price > 10] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ((Integer) event.getData(1) != count) {
+                        inOrder = false;
+                    }
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            Event[] events = new Event[10];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(), new Object[]{"IBM", 75.6f, i * 10 + j});
+            }
+            inputHandler.send(events);
+        }
+        waitForEvents(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(1000, count);
+        AssertJUnit.assertTrue(inOrder);
+    }
+
+    @Test
+    public void parallelQueryTest3() throws InterruptedException {
+        log.info("parallel query test 3 - order is preserved per key");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@parallel(workers='4', key='symbol') " +
+                "from cseEventStream " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Integer> lastVolumes = new HashMap<String, Integer>();
+        final AtomicInteger outputCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    int volume = (Integer) event.getData(1);
+                    Integer lastVolume = lastVolumes.get(symbol);
+                    if (lastVolume != null && volume <= lastVolume) {
+                        inOrder = false;
+                    }
+                    lastVolumes.put(symbol, volume);
+                    outputCount.incrementAndGet();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        String[] symbols = new String[]{"WSO2", "IBM", "ORACLE", "GOOGLE", "APPLE"};
+        for (int i = 0; i < 2000; i++) {
+            inputHandler.send(new Object[]{symbols[i % symbols.length], 55.6f, i});
+        }
+        for (int i = 0; i < 100 && outputCount.get() < 2000; i++) {
+            Thread.sleep(50);
+        }
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(2000, outputCount.get());
+        AssertJUnit.assertEquals(symbols.length, lastVolumes.size());
+        AssertJUnit.assertTrue(inOrder);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelQueryTest4() throws InterruptedException {
+        log.info("parallel query test 4 - stateful queries are rejected");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@parallel(workers='4') " +
+                "from cseEventStream#window.length(5) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelQueryTest5() throws InterruptedException {
+        log.info("parallel query test 5 - invalid worker count");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@parallel(workers='none') " +
+                "from cseEventStream[price > 10] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelQueryTest6() throws InterruptedException {
+        log.info("parallel query test 6 - queries within partitions are rejected");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   @parallel(workers='2') " +
+                "   from cseEventStream[price > 10] " +
+                "   select symbol, volume " +
+                "   insert into outputStream ;" +
+                "end ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    private void waitForEvents(int expectedCount) throws InterruptedException {
+        for (int i = 0; i < 100 && count < expectedCount; i++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -31,6 +31,9 @@ import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinTestCase {
@@ -932,4 +935,64 @@ public class JoinTestCase {
             siddhiAppRuntime.shutdown();
         }
     }
+
+    @Test
+    public void joinTest21() throws InterruptedException {
+        log.info("Join test21 - equi-join on the events of a length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, price float); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from CheckStockStream as c unidirectional join StockStream#window.length(3) as s " +
+                "on c.symbol == s.symbol and s.price > c.price " +
+                "select s.symbol, s.price, s.volume " +
+                "insert into OutStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            final List<Object[]> inEventsList = new ArrayList<Object[]>();
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                        }
+                        inEventCount.addAndGet(inEvents.length);
+                    }
+                }
+            });
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            siddhiAppRuntime.start();
+
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 300L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 300L});
+            checkStockStream.send(new Object[]{"WSO2", 56.6f});
+            checkStockStream.send(new Object[]{"IBM", 80.6f});
+            checkStockStream.send(new Object[]{"ORACLE", 10.6f});
+            stockStream.send(new Object[]{"IBM", 85.6f, 400L});
+            checkStockStream.send(new Object[]{"IBM", 80.6f});
+            checkStockStream.send(new Object[]{"WSO2", 10.6f});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 57.6f, 300L},
+                    new Object[]{"WSO2", 57.6f, 300L},
+                    new Object[]{"IBM", 85.6f, 400L},
+                    new Object[]{"WSO2", 57.6f, 300L},
+                    new Object[]{"WSO2", 57.6f, 300L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 5, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 5, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
 }
@@ -42,6 +42,8 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionTestCase {
@@ -3033,4 +3035,356 @@ public class PartitionTestCase {
         }
 
     }
+
+    @Test
+    public void parallelPartitionTest1() throws InterruptedException {
+        log.info("Parallel partition test 1 - events are processed in order per key");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream[volume > 0] " +
+                "   select symbol, volume " +
+                "   insert into #InnerStream ;" +
+                "" +
+                "   @info(name = 'query2') " +
+                "   from #InnerStream " +
+                "   select symbol, volume, sum(volume) as totalVolume " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> totalVolumes = new HashMap<String, Long>();
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public synchronized void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    long volume = (Long) event.getData(1);
+                    Long totalVolume = totalVolumes.get(symbol);
+                    long expectedTotalVolume = (totalVolume == null ? 0 : totalVolume) + volume;
+                    if (expectedTotalVolume != (Long) event.getData(2)) {
+                        eventArrived = false;
+                    }
+                    totalVolumes.put(symbol, expectedTotalVolume);
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        eventArrived = true;
+        for (int i = 1; i <= 1000; i++) {
+            inputHandler.send(new Object[]{"SYM" + (i % 20), 75.6f, (long) i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 1000, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(1000, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(20, totalVolumes.size());
+        AssertJUnit.assertEquals(Long.valueOf(25500), totalVolumes.get("SYM0"));
+    }
+
+    @Test
+    public void parallelPartitionTest2() throws InterruptedException {
+        log.info("Parallel partition test 2 - range partitions with batches of events");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@parallel(workers='2', buffer.size='8') " +
+                "partition with (price < 50 as 'low' or price >= 50 as 'high' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> eventCounts = new HashMap<String, Long>();
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public synchronized void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    Long eventCount = eventCounts.get(symbol);
+                    if ((eventCount == null ? 1 : eventCount + 1) != (Long) event.getData(1)) {
+                        eventArrived = false;
+                    }
+                    eventCounts.put(symbol, (Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        eventArrived = true;
+        for (int i = 0; i < 50; i++) {
+            inputHandler.send(new Event[]{
+                    new Event(System.currentTimeMillis(), new Object[]{"LOW", 20f, i}),
+                    new Event(System.currentTimeMillis(), new Object[]{"LOW", 30f, i}),
+                    new Event(System.currentTimeMillis(), new Object[]{"HIGH", 70f, i}),
+                    new Event(System.currentTimeMillis(), new Object[]{"LOW", 40f, i})});
+        }
+        SiddhiTestHelper.waitForEvents(100, 200, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(200, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(Long.valueOf(150), eventCounts.get("LOW"));
+        AssertJUnit.assertEquals(Long.valueOf(50), eventCounts.get("HIGH"));
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelPartitionTest3() throws InterruptedException {
+        log.info("Parallel partition test 3 - invalid worker count");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@parallel(workers='0') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, volume " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void partitionPurgeTest1() throws InterruptedException {
+        log.info("Partition purge test 1 - idle partition instances are purged");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@purge(enable='true', interval='200 millisec', idle.period='1 sec') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into #InnerStream ;" +
+                "" +
+                "   @info(name = 'query2') " +
+                "   from #InnerStream#window.time(10 sec) " +
+                "   select symbol, eventCount " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> eventCounts = new HashMap<String, Long>();
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public synchronized void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    eventCounts.put((String) event.getData(0), (Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        SiddhiTestHelper.waitForEvents(100, 3, count, 60000);
+        AssertJUnit.assertEquals(Long.valueOf(2), eventCounts.get("IBM"));
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("WSO2"));
+
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(200);
+            inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        }
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        SiddhiTestHelper.waitForEvents(100, 14, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(14, count.get());
+        AssertJUnit.assertEquals("Purged partition instance should be recreated", Long.valueOf(1),
+                eventCounts.get("IBM"));
+        AssertJUnit.assertEquals("Active partition instance should not be purged", Long.valueOf(11),
+                eventCounts.get("WSO2"));
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void partitionPurgeTest2() throws InterruptedException {
+        log.info("Partition purge test 2 - idle period is required");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@purge(enable='true', interval='1 sec') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void partitionPurgeTest3() throws InterruptedException {
+        log.info("Partition purge test 3 - events sent to partition instances while they are purged");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@purge(enable='true', interval='1 millisec', idle.period='2 millisec') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Thread[] senders = new Thread[4];
+        for (int i = 0; i < senders.length; i++) {
+            String symbol = "SYMBOL" + i;
+            senders[i] = new Thread(() -> {
+                try {
+                    // the pauses around the idle period let the instances be purged as events are sent to them
+                    for (int j = 0; j < 200; j++) {
+                        inputHandler.send(new Object[]{symbol, 75.6f, j});
+                        Thread.sleep(j % 5);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            senders[i].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        SiddhiTestHelper.waitForEvents(100, 800, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Events sent to purged partition instances should not be lost", 800, count.get());
+    }
+
+    @Test
+    public void rangePartitionTest1() throws InterruptedException {
+        log.info("Range partition test 1 - disjoint ranges with bounds on both sides");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "partition with (price < 50 as 'low' or price >= 50 and price < 100 as 'medium' or " +
+                "   100 < price and price <= 150.5 as 'high' or price == 200 as 'peak' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into OutStockStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> eventCounts = new HashMap<String, Long>();
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCounts.put((String) event.getData(0), (Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"LOW", 10f, 1});
+        inputHandler.send(new Object[]{"MEDIUM", 50f, 1});
+        inputHandler.send(new Object[]{"MEDIUM", 99.9f, 1});
+        inputHandler.send(new Object[]{"NONE", 100f, 1});
+        inputHandler.send(new Object[]{"HIGH", 150.5f, 1});
+        inputHandler.send(new Object[]{"NONE", 170f, 1});
+        inputHandler.send(new Object[]{"PEAK", 200f, 1});
+        inputHandler.send(new Event[]{
+                new Event(System.currentTimeMillis(), new Object[]{"LOW", -5f, 2}),
+                new Event(System.currentTimeMillis(), new Object[]{"HIGH", 120f, 2}),
+                new Event(System.currentTimeMillis(), new Object[]{"HIGH", 130f, 2})});
+        SiddhiTestHelper.waitForEvents(100, 8, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(8, count.get());
+        AssertJUnit.assertEquals(Long.valueOf(2), eventCounts.get("LOW"));
+        AssertJUnit.assertEquals(Long.valueOf(2), eventCounts.get("MEDIUM"));
+        AssertJUnit.assertEquals(Long.valueOf(3), eventCounts.get("HIGH"));
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("PEAK"));
+        AssertJUnit.assertNull(eventCounts.get("NONE"));
+    }
+
+    @Test
+    public void typedPartitionKeyTest1() throws InterruptedException {
+        log.info("Typed partition key test 1 - keys of different types with the same value share the instance");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream OrderStream (orderId int, amount double);" +
+                "define stream DeliveryStream (orderId long, location string);" +
+                "" +
+                "partition with (orderId of OrderStream, orderId of DeliveryStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from every e1=OrderStream -> e2=DeliveryStream " +
+                "   select e1.orderId, e1.amount, e2.location " +
+                "   insert into DeliveredOrderStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<Integer, String> locations = new HashMap<Integer, String>();
+        siddhiAppRuntime.addCallback("DeliveredOrderStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    locations.put((Integer) event.getData(0), (String) event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler orderStream = siddhiAppRuntime.getInputHandler("OrderStream");
+        InputHandler deliveryStream = siddhiAppRuntime.getInputHandler("DeliveryStream");
+        siddhiAppRuntime.start();
+        orderStream.send(new Object[]{1, 100.0});
+        orderStream.send(new Object[]{2, 200.0});
+        deliveryStream.send(new Object[]{2L, "Colombo"});
+        deliveryStream.send(new Object[]{3L, "Kandy"});
+        deliveryStream.send(new Object[]{1L, "Galle"});
+        SiddhiTestHelper.waitForEvents(100, 2, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(2, count.get());
+        AssertJUnit.assertEquals("Galle", locations.get(1));
+        AssertJUnit.assertEquals("Colombo", locations.get(2));
+    }
 }
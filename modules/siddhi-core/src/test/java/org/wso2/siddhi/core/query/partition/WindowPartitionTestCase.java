@@ -340,5 +340,44 @@ public class WindowPartitionTestCase {
 
     }
 
+    @Test
+    public void testWindowPartitionQuery6() throws InterruptedException {
+        log.info("Window Partition test6");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "define stream cseEventStream (symbol string, price float,volume int);"
+                + "partition with (symbol of cseEventStream) begin @info(name = 'query1') from cseEventStream#window" +
+                ".time(500)  select symbol,sum(price) as price,volume insert expired events into OutStockStream ;  " +
+                "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                synchronized (WindowPartitionTestCase.this) {
+                    for (Event event : events) {
+                        removeEventCount++;
+                        eventArrived = true;
+                        AssertJUnit.assertEquals(100, event.getData()[2]);
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        for (int i = 0; i < 2000; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + i, 70f, 100});
+        }
+
+        Thread.sleep(2000);
+        synchronized (this) {
+            AssertJUnit.assertTrue(eventArrived);
+            AssertJUnit.assertEquals(2000, removeEventCount);
+        }
+        executionRuntime.shutdown();
+
+    }
 
 }